@@ -1,13 +1,48 @@
 package org.tedros.chat.ejb.controller;
 
+import java.util.Date;
+import java.util.List;
+
 import jakarta.ejb.Remote;
 
 import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.TStatus;
 import org.tedros.server.controller.ITSecureEjbController;
+import org.tedros.server.result.TResult;
+import org.tedros.server.security.TAccessToken;
 
 @Remote
 public interface IChatMessageController extends ITSecureEjbController<ChatMessage>{
 	
 	static final String JNDI_NAME = "IChatMessageControllerRemote";
 	
+	/**
+	 * Finds a window of the chat messages older than the cursor, 
+	 * pass the dateTime and id of the oldest message loaded to get the previous one. 
+	 * The messages are read only projections without the recipients and file bytes,
+	 * the viewed and received sets have only the logged user if it viewed or received.
+	 * 
+	 * @param token the access token
+	 * @param chatId the chat id
+	 * @param before the date time cursor, null to get the newest messages
+	 * @param beforeId the message id cursor
+	 * @param maxResult the max messages
+	 * @return the messages ordered by date time, 
+	 * less than maxResult when there are no older messages
+	 */
+	TResult<List<ChatMessage>> findBefore(TAccessToken token, Long chatId, Date before, Long beforeId, int maxResult);
+	
+	/**
+	 * Sets the messages as received or viewed by the logged user, 
+	 * only the receipts are inserted, the messages are not loaded or merged. 
+	 * A viewed message is also set as received, the receipts already 
+	 * saved are ignored.
+	 * 
+	 * @param token the access token
+	 * @param msgIds the message ids
+	 * @param status the RECEIVED or VIEWED status
+	 * @return the number of receipts inserted
+	 */
+	TResult<Integer> acknowledge(TAccessToken token, List<Long> msgIds, TStatus status);
+	
 }
@@ -1,10 +1,16 @@
 package org.tedros.chat.cdi.bo;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 
 import org.tedros.chat.cdi.eao.ChatMessageEao;
 import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
 import org.tedros.chat.entity.TStatus;
 import org.tedros.server.cdi.bo.TGenericBO;
 
@@ -23,6 +29,18 @@ public class ChatMessageBO extends TGenericBO<ChatMessage> {
 	public Long count(Long chatId, Long userId, TStatus status){
 		return eao.count(chatId, userId, status);
 	}
+	
+	public Map<Long, long[]> countByChat(Collection<Long> chatIds, Long userId){
+		return eao.countByChat(chatIds, userId);
+	}
+	
+	public List<ChatMessage> findBefore(Long chatId, ChatUser user, Date before, Long beforeId, int maxResult){
+		return eao.findBefore(chatId, user, before, beforeId, maxResult);
+	}
+	
+	public int acknowledge(Collection<Long> msgIds, Long userId, TStatus status) {
+		return eao.acknowledge(msgIds, userId, status);
+	}
 
 
 }
@@ -3,11 +3,24 @@
  */
 package org.tedros.chat.cdi.eao;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.persistence.Cache;
 import jakarta.persistence.Query;
 
+import org.tedros.chat.domain.DomainSchema;
+import org.tedros.chat.domain.DomainTables;
+import org.tedros.chat.entity.Chat;
 import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
 import org.tedros.chat.entity.TStatus;
+import org.tedros.common.model.TFileEntity;
 import org.tedros.server.cdi.eao.TGenericEAO;
 
 /**
@@ -17,6 +30,190 @@ import org.tedros.server.cdi.eao.TGenericEAO;
 @RequestScoped
 public class ChatMessageEao extends TGenericEAO<ChatMessage> {
 	
+	/**
+	 * Max ids bound in one in clause
+	 */
+	private static final int MAX_IDS = 500;
+	
+	/**
+	 * Counts the messages of all chats in one grouped query,
+	 * the received and viewed counters use the same conditions 
+	 * of {@link #count(Long, Long, TStatus)}.
+	 * 
+	 * @param chatIds the chat ids
+	 * @param userId the chat user id
+	 * @return the counters {total, sent, received, viewed} by chat id, 
+	 * chats without messages are not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<Long, long[]> countByChat(Collection<Long> chatIds, Long userId){
+		
+		String hql = "select c.id, count(e), "
+				+ "sum(case when f.id = :uid then 1 else 0 end), "
+				+ "sum(case when f.id <> :uid and exists (select 1 from e.received r where r.id = :uid) "
+				+ "then 1 else 0 end), "
+				+ "sum(case when f.id <> :uid and exists (select 1 from e.viewed v where v.id = :uid) "
+				+ "then 1 else 0 end) "
+				+ "from ChatMessage e "
+				+ "join e.chat c "
+				+ "join e.from f "
+				+ "where c.id in :ids "
+				+ "group by c.id";
+		
+		Map<Long, long[]> map = new HashMap<>();
+		List<Long> ids = new ArrayList<>(chatIds);
+		for(int i=0; i<ids.size(); i+=MAX_IDS) {
+			Query qry = super.getEntityManager().createQuery(hql);
+			qry.setParameter("uid", userId);
+			qry.setParameter("ids", ids.subList(i, Math.min(i+MAX_IDS, ids.size())));
+			for(Object[] row : (List<Object[]>) qry.getResultList()) {
+				map.put((Long) row[0], new long[] {
+						toLong(row[1]), toLong(row[2]), toLong(row[3]), toLong(row[4])});
+			}
+		}
+		return map;
+	}
+	
+	/**
+	 * Finds the messages of the chat older than the cursor using the 
+	 * chat_id and dateTime index, the newest first. Only the columns shown
+	 * are read: the recipient sets are not loaded, the viewed and received 
+	 * sets have only the user when it viewed or received the message 
+	 * and the file has no bytes.
+	 * 
+	 * @param chatId the chat id
+	 * @param user the chat user, no message is returned if the user is not in the chat
+	 * @param before the date time cursor, null to start from the newest
+	 * @param beforeId the message id cursor, used when two messages have the same date time
+	 * @param maxResult the max messages
+	 * @return the messages as read only projections, must not be saved 
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ChatMessage> findBefore(Long chatId, ChatUser user, Date before, Long beforeId, int maxResult){
+		
+		String hql = "select e.id, e.insertDate, e.dateTime, e.content, "
+				+ "f.id, f.userId, f.name, f.profiles, f.versionNum, "
+				+ "fe.id, fe.fileName, fe.fileExtension, fe.fileSize, b.id, "
+				+ "case when exists (select 1 from e.viewed v where v.id = :uid) then 1 else 0 end, "
+				+ "case when exists (select 1 from e.received r where r.id = :uid) then 1 else 0 end "
+				+ "from ChatMessage e "
+				+ "join e.from f "
+				+ "left join e.file fe "
+				+ "left join fe.byteEntity b "
+				+ "where e.chat.id = :cid "
+				// only the owner and the participants read the messages
+				+ "and (e.chat.owner.id = :uid or exists (select 1 from Chat c join c.participants p "
+				+ "where c.id = :cid and p.id = :uid)) ";
+		if(before!=null)
+			hql += "and (e.dateTime < :dt or (e.dateTime = :dt and e.id < :mid)) ";
+		hql += "order by e.dateTime desc, e.id desc";
+		
+		Query qry = super.getEntityManager().createQuery(hql);
+		qry.setParameter("uid", user.getId());
+		qry.setParameter("cid", chatId);
+		if(before!=null) {
+			qry.setParameter("dt", before);
+			qry.setParameter("mid", beforeId!=null ? beforeId : Long.MAX_VALUE);
+		}
+		qry.setMaxResults(maxResult);
+		
+		Chat chat = new Chat();
+		chat.setId(chatId);
+		
+		List<ChatMessage> l = new ArrayList<>();
+		for(Object[] row : (List<Object[]>) qry.getResultList()) {
+			ChatMessage m = new ChatMessage();
+			m.setId((Long) row[0]);
+			m.setInsertDate((Date) row[1]);
+			m.setDateTime((Date) row[2]);
+			m.setContent((String) row[3]);
+			ChatUser from = new ChatUser();
+			from.setId((Long) row[4]);
+			from.setUserId((Long) row[5]);
+			from.setName((String) row[6]);
+			// the profiles and version are used by equals and hashCode
+			from.setProfiles((String) row[7]);
+			from.setVersionNum((Integer) row[8]);
+			m.setFrom(from);
+			if(row[9]!=null) {
+				TFileEntity fe = new TFileEntity();
+				fe.setId((Long) row[9]);
+				fe.setFileName((String) row[10]);
+				fe.setFileExtension((String) row[11]);
+				fe.setFileSize((Long) row[12]);
+				fe.getByteEntity().setId((Long) row[13]);
+				m.setFile(fe);
+			}
+			if(toLong(row[14])==1)
+				m.addViewed(user);
+			if(toLong(row[15])==1)
+				m.addReceived(user);
+			m.setChat(chat);
+			l.add(m);
+		}
+		return l;
+	}
+	
+	/**
+	 * Inserts the receipts of the user direct in the join table of the status,
+	 * without load the messages. A viewed message is also set as received.
+	 * The rows already there and the messages of chats the user is not 
+	 * the owner or a participant are ignored.
+	 * 
+	 * @param msgIds the message ids
+	 * @param userId the chat user id
+	 * @param status the RECEIVED or VIEWED status
+	 * @return the receipts inserted with the status
+	 */
+	public int acknowledge(Collection<Long> msgIds, Long userId, TStatus status) {
+		if(status==null || status.equals(TStatus.SENT))
+			throw new IllegalArgumentException("Only the RECEIVED and VIEWED status can be acknowledged");
+		
+		List<Long> ids = new ArrayList<>(msgIds);
+		int total = 0;
+		for(int i=0; i<ids.size(); i+=MAX_IDS) {
+			List<Long> l = ids.subList(i, Math.min(i+MAX_IDS, ids.size()));
+			if(status.equals(TStatus.VIEWED))
+				insertReceipts(DomainTables.message_received, l, userId);
+			total += insertReceipts(status.equals(TStatus.VIEWED) 
+					? DomainTables.message_viewed 
+					: DomainTables.message_received, l, userId);
+		}
+		// the cached messages have the old sets
+		Cache cache = super.getEntityManager().getEntityManagerFactory().getCache();
+		for(Long id : ids)
+			cache.evict(ChatMessage.class, id);
+		return total;
+	}
+	
+	private int insertReceipts(String table, List<Long> msgIds, Long userId) {
+		String s = DomainSchema.schema + ".";
+		StringBuilder sql = new StringBuilder()
+			.append("insert into ").append(s).append(table).append(" (msg_id, user_id) ")
+			.append("select m.id, ?1 from ").append(s).append(DomainTables.message).append(" m ")
+			.append("join ").append(s).append(DomainTables.chat).append(" c on c.id = m.chat_id ")
+			.append("where (c.user_id = ?2 or exists (select 1 from ")
+			.append(s).append(DomainTables.chat_user)
+			.append(" p where p.chat_id = c.id and p.user_id = ?3)) ")
+			.append("and not exists (select 1 from ").append(s).append(table)
+			.append(" x where x.msg_id = m.id and x.user_id = ?4) ")
+			.append("and m.id in (");
+		for(int i=0; i<msgIds.size(); i++)
+			sql.append(i>0 ? ", " : "").append("?").append(i+5);
+		sql.append(")");
+		
+		Query qry = super.getEntityManager().createNativeQuery(sql.toString());
+		for(int i=1; i<5; i++)
+			qry.setParameter(i, userId);
+		for(int i=0; i<msgIds.size(); i++)
+			qry.setParameter(i+5, msgIds.get(i));
+		return qry.executeUpdate();
+	}
+	
+	private static long toLong(Object v) {
+		return v!=null ? ((Number) v).longValue() : 0L;
+	}
+	
 	public Long count(Long chatId, Long userId, TStatus status){
 		
 		String hql = "select count(e) from ChatMessage e "
@@ -1,6 +1,9 @@
 package org.tedros.chat.ejb.controller;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
@@ -14,7 +17,6 @@ import org.tedros.chat.ejb.service.ChatUserService;
 import org.tedros.chat.entity.Chat;
 import org.tedros.chat.entity.ChatMessage;
 import org.tedros.chat.entity.ChatUser;
-import org.tedros.chat.entity.TStatus;
 import org.tedros.server.ejb.controller.ITSecurityController;
 import org.tedros.server.ejb.controller.TSecureEjbController;
 import org.tedros.server.entity.ITEntity;
@@ -39,8 +41,6 @@ policie= {TAccessPolicie.APP_ACCESS, TAccessPolicie.VIEW_ACCESS}))
 @TransactionAttribute(value = TransactionAttributeType.NOT_SUPPORTED)
 public class ChatController extends TSecureEjbController<Chat> implements	ITSecurity, IChatController {
 
-	private ChatUser user;
-	
 	@EJB
 	private ChatRoomService serv;
 	
@@ -81,6 +81,12 @@ public class ChatController extends TSecureEjbController<Chat> implements	ITSecu
 		}
 	}
 	
+	@Override
+	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.DELETE}, id = "")})
+	public List<TResult<Chat>> removeAll(TAccessToken token, List<Chat> entities) {
+		return removeEach(token, entities);
+	}
+
 	@Override
 	@TMethodSecurity({
 	@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ, TActionPolicie.SEARCH}, id = "")})
@@ -111,35 +117,40 @@ public class ChatController extends TSecureEjbController<Chat> implements	ITSecu
 	
 	@Override
 	protected void processEntityList(TAccessToken token, List<Chat> entities) {
-		user = null;
 		if(entities!=null && entities.size()>0)
-			entities.forEach(e->{
-				this.setTotalMessages(token, e);
-			});
+			this.setTotalMessages(token, entities);
 	}
 	
 	@Override
 	protected void processEntity(TAccessToken token, Chat entity) {
-		user = null;
 		if(entity!=null)
-			this.setTotalMessages(token, entity);
+			this.setTotalMessages(token, Collections.singletonList(entity));
 	}
 
 	/**
-	 * @param e
+	 * Sets the message counters of all chats with one query
+	 * 
+	 * @param token
+	 * @param chats
 	 */
-	private void setTotalMessages(TAccessToken token, Chat e) {
+	private void setTotalMessages(TAccessToken token, List<Chat> chats) {
 		try {
-			if(user==null) 
-				user = this.findChatUser(token);
-			Long total = msgServ.count(e.getId(), null, null);
-			Long sent = msgServ.count(e.getId(), user.getId(), TStatus.SENT);
-			Long received = msgServ.count(e.getId(), user.getId(), TStatus.RECEIVED);
-			Long viewed = msgServ.count(e.getId(), user.getId(), TStatus.VIEWED);
-			e.setTotalMessages(total);
-			e.setTotalSentMessages(sent);
-			e.setTotalReceivedMessages(received);
-			e.setTotalViewedMessages(viewed);
+			ChatUser user = this.findChatUser(token);
+			List<Long> ids = new ArrayList<>(chats.size());
+			for(Chat c : chats)
+				if(c.getId()!=null)
+					ids.add(c.getId());
+			Map<Long, long[]> counters = ids.isEmpty() 
+					? Collections.emptyMap()
+							: msgServ.countByChat(ids, user.getId());
+			long[] none = new long[4];
+			for(Chat e : chats) {
+				long[] t = e.getId()!=null ? counters.getOrDefault(e.getId(), none) : none;
+				e.setTotalMessages(t[0]);
+				e.setTotalSentMessages(t[1]);
+				e.setTotalReceivedMessages(t[2]);
+				e.setTotalViewedMessages(t[3]);
+			}
 		} catch (Exception e1) {
 			throw new RuntimeException(e1);
 		}
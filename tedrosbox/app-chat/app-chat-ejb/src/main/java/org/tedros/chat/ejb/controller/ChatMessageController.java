@@ -1,5 +1,11 @@
 package org.tedros.chat.ejb.controller;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TransactionAttribute;
@@ -7,13 +13,23 @@ import jakarta.ejb.TransactionAttributeType;
 
 import org.tedros.chat.domain.DomainApp;
 import org.tedros.chat.ejb.service.ChatMessageService;
+import org.tedros.chat.ejb.service.ChatUserService;
 import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
+import org.tedros.chat.entity.TStatus;
 import org.tedros.server.ejb.controller.ITSecurityController;
 import org.tedros.server.ejb.controller.TSecureEjbController;
+import org.tedros.server.entity.ITUser;
+import org.tedros.server.result.TResult;
+import org.tedros.server.result.TResult.TState;
 import org.tedros.server.security.ITSecurity;
 import org.tedros.server.security.TAccessPolicie;
+import org.tedros.server.security.TAccessToken;
+import org.tedros.server.security.TActionPolicie;
 import org.tedros.server.security.TBeanPolicie;
 import org.tedros.server.security.TBeanSecurity;
+import org.tedros.server.security.TMethodPolicie;
+import org.tedros.server.security.TMethodSecurity;
 import org.tedros.server.security.TSecurityInterceptor;
 import org.tedros.server.service.ITEjbService;
 
@@ -27,9 +43,17 @@ public class ChatMessageController extends TSecureEjbController<ChatMessage> imp
 	@EJB
 	private ChatMessageService serv;
 	
+	@EJB
+	private ChatUserService uServ;
+	
 	@EJB
 	private ITSecurityController security;
 	
+	/**
+	 * Max messages returned by {@link #findBefore(TAccessToken, Long, Date, Long, int)}
+	 */
+	private static final int MAX_WINDOW = 500;
+	
 	@Override
 	public ITEjbService<ChatMessage> getService() {
 		return serv;
@@ -40,5 +64,45 @@ public class ChatMessageController extends TSecureEjbController<ChatMessage> imp
 		return security;
 	}
 	
+	@Override
+	@TMethodSecurity({
+	@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ, TActionPolicie.SEARCH}, id = "")})
+	public TResult<List<ChatMessage>> findBefore(TAccessToken token, Long chatId, Date before, Long beforeId,
+			int maxResult) {
+		try {
+			ITUser u = security.getUser(token);
+			ChatUser c = new ChatUser();
+			c.setUserId(u.getId());
+			c = uServ.find(c);
+			if(c==null)
+				return new TResult<>(TState.SUCCESS, new ArrayList<>());
+			List<ChatMessage> l = serv.findBefore(chatId, c, before, beforeId, 
+					Math.max(1, Math.min(maxResult, MAX_WINDOW)));
+			Collections.reverse(l);
+			return new TResult<>(TState.SUCCESS, l);
+		}catch(Exception e){
+			return processException(token, null, e);
+		}
+	}
+	
+	@Override
+	@TMethodSecurity({
+	@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ, TActionPolicie.SEARCH}, id = "")})
+	public TResult<Integer> acknowledge(TAccessToken token, List<Long> msgIds, TStatus status) {
+		try {
+			if(msgIds==null || msgIds.isEmpty())
+				return new TResult<>(TState.SUCCESS, 0);
+			ITUser u = security.getUser(token);
+			ChatUser c = new ChatUser();
+			c.setUserId(u.getId());
+			c = uServ.find(c);
+			if(c==null)
+				return new TResult<>(TState.SUCCESS, 0);
+			int n = serv.acknowledge(new LinkedHashSet<>(msgIds), c.getId(), status);
+			return new TResult<>(TState.SUCCESS, n);
+		}catch(Exception e){
+			return processException(token, null, e);
+		}
+	}
 	
 }
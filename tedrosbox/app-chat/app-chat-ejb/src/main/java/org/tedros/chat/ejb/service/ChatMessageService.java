@@ -1,5 +1,10 @@
 package org.tedros.chat.ejb.service;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
 import jakarta.ejb.Local;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TransactionAttribute;
@@ -8,6 +13,7 @@ import jakarta.inject.Inject;
 
 import org.tedros.chat.cdi.bo.ChatMessageBO;
 import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
 import org.tedros.chat.entity.TStatus;
 import org.tedros.server.cdi.bo.ITGenericBO;
 import org.tedros.server.ejb.service.TEjbService;
@@ -28,5 +34,31 @@ public class ChatMessageService extends TEjbService<ChatMessage> {
 	public Long count(Long chatId, Long userId, TStatus status){
 		return bo.count(chatId, userId, status);
 	}
+	
+	/**
+	 * @param chatIds the chat ids
+	 * @param userId the chat user id
+	 * @return the counters {total, sent, received, viewed} by chat id
+	 */
+	public Map<Long, long[]> countByChat(Collection<Long> chatIds, Long userId){
+		return bo.countByChat(chatIds, userId);
+	}
+	
+	/**
+	 * @return the messages older than the cursor, the newest first
+	 */
+	public List<ChatMessage> findBefore(Long chatId, ChatUser user, Date before, Long beforeId, int maxResult){
+		return bo.findBefore(chatId, user, before, beforeId, maxResult);
+	}
+	
+	/**
+	 * Inserts the receipts of the user without load the messages
+	 * 
+	 * @return the receipts inserted
+	 */
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public int acknowledge(Collection<Long> msgIds, Long userId, TStatus status) {
+		return bo.acknowledge(msgIds, userId, status);
+	}
 
 }
@@ -4,6 +4,7 @@
 package org.tedros.chat.module.client.behaviour;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -13,9 +14,9 @@ import java.util.stream.Collectors;
 import org.tedros.api.form.ITModelForm;
 import org.tedros.chat.CHATKey;
 import org.tedros.chat.ejb.controller.IChatController;
-import org.tedros.chat.ejb.controller.IChatMessageController;
 import org.tedros.chat.entity.Chat;
 import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.TStatus;
 import org.tedros.chat.model.Action;
 import org.tedros.chat.model.ChatInfo;
 import org.tedros.chat.module.client.decorator.ChatDecorator;
@@ -23,6 +24,7 @@ import org.tedros.chat.module.client.model.ChatMV;
 import org.tedros.chat.module.client.model.ChatUserMV;
 import org.tedros.chat.module.client.setting.ChatClient;
 import org.tedros.chat.module.client.setting.ChatFormSetting;
+import org.tedros.chat.module.client.setting.ChatReceiptQueue;
 import org.tedros.chat.module.client.setting.ChatUtil;
 import org.tedros.core.TLanguage;
 import org.tedros.core.context.TedrosContext;
@@ -36,6 +38,7 @@ import org.tedros.fx.presenter.behavior.TActionType;
 import org.tedros.fx.presenter.entity.behavior.TMasterCrudViewBehavior;
 import org.tedros.fx.process.TEntityProcess;
 import org.tedros.server.result.TResult;
+import org.tedros.server.security.TAccessToken;
 
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -45,7 +48,9 @@ import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.WeakChangeListener;
 import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.collections.WeakListChangeListener;
+import javafx.concurrent.Task;
 import javafx.concurrent.Worker.State;
 
 /**
@@ -54,8 +59,14 @@ import javafx.concurrent.Worker.State;
  */
 public class ChatBehaviour extends TMasterCrudViewBehavior<ChatMV, Chat> {
 
+	/**
+	 * Messages loaded when the chat is opened or scrolled to the top
+	 */
+	public static final int MESSAGES_PAGE = 50;
+
 	private ChatUtil util;
 	private ChatClient client;
+	private ChatReceiptQueue receipts;
 	private ChatDecorator deco;
 	private SimpleBooleanProperty hidePopOver = new SimpleBooleanProperty(false);
 	
@@ -67,6 +78,7 @@ public class ChatBehaviour extends TMasterCrudViewBehavior<ChatMV, Chat> {
 		super.load();
 		util = new ChatUtil();
 		client = ChatClient.getInstance();
+		receipts = ChatReceiptQueue.getInstance();
 		deco = (ChatDecorator) super.getPresenter().getDecorator();
 		// Listen for received message
 		ChangeListener<Object> chl1 = (a,o,n) -> {
@@ -155,57 +167,37 @@ public class ChatBehaviour extends TMasterCrudViewBehavior<ChatMV, Chat> {
 					ChatMV current = super.getModelView();
 					
 					// set the message as viewed
-					if(current!=null && current.equals(found)) 
+					boolean viewed = current!=null && current.equals(found);
+					if(viewed) 
 						cm0.addViewed(client.getOwner());
 					
-					//build a process to save and execute the message
-					TEntityProcess<ChatMessage> cmp = 
-							new TEntityProcess<ChatMessage>(ChatMessage.class, 
-									IChatMessageController.JNDI_NAME) {};
-					cmp.stateProperty().addListener((x0,y0,s0)->{
-						if(s0.equals(State.SUCCEEDED)) {
-							TResult<ChatMessage> res0 = cmp.getValue().get(0);
-							ChatMessage cm1 = res0.getValue();
-							if(found.isMessagesLoaded())
-								found.getMessages().add(cm1);
-							else {
-								found.increaseTotalMessages();
-								if(current!=null && current.equals(found)) 
-									found.increaseViewedMessages();
-							}
-							this.countUnreadMessages();
-						}
-					});
-					cmp.save(cm0);
-					cmp.startProcess();
+					// only the receipt is sent to the server
+					receipts.add(cm0.getId(), viewed ? TStatus.VIEWED : TStatus.RECEIVED);
+					if(found.isMessagesLoaded())
+						found.getMessages().add(cm0);
+					else {
+						found.increaseTotalMessages();
+						if(viewed) 
+							found.increaseViewedMessages();
+					}
+					this.countUnreadMessages();
 				}else {
 					//chat not found
-					//build a process to save the message as received 
+					//set the message as received 
 					//and get the chat to add in the list
-					TEntityProcess<ChatMessage> cmp = 
-							new TEntityProcess<ChatMessage>(ChatMessage.class, 
-									IChatMessageController.JNDI_NAME) {};
-					cmp.stateProperty().addListener((x0,y0,s0)->{
-						if(s0.equals(State.SUCCEEDED)) {
-							TResult<ChatMessage> res0 = cmp.getValue().get(0);
-							ChatMessage cm1 = res0.getValue();
-							
-							TEntityProcess<Chat> p = new TEntityProcess<Chat>(Chat.class, 
-									IChatController.JNDI_NAME) {};
-							p.stateProperty().addListener((x1,y1,s1)->{
-								if(s1.equals(State.SUCCEEDED)) {
-									TResult<Chat> res1 = p.getValue().get(0);
-									Chat c = res1.getValue();
-									ChatMV cmv = new ChatMV(c);
-									super.getModels().add(cmv);
-								}
-							});
-							p.findById(cm1.getChat());
-							p.startProcess();
+					receipts.add(cm0.getId(), TStatus.RECEIVED);
+					TEntityProcess<Chat> p = new TEntityProcess<Chat>(Chat.class, 
+							IChatController.JNDI_NAME) {};
+					p.stateProperty().addListener((x1,y1,s1)->{
+						if(s1.equals(State.SUCCEEDED)) {
+							TResult<Chat> res1 = p.getValue().get(0);
+							Chat c = res1.getValue();
+							ChatMV cmv = new ChatMV(c);
+							super.getModels().add(cmv);
 						}
 					});
-					cmp.save(cm0);
-					cmp.startProcess();
+					p.findById(new Chat(cm0.getChat().getId()));
+					p.startProcess();
 				}
 			}
 		};
@@ -283,6 +275,62 @@ public class ChatBehaviour extends TMasterCrudViewBehavior<ChatMV, Chat> {
 		super.formProperty().addListener(new WeakChangeListener<>(chl0));
 	}
 	
+	/**
+	 * Loads in background the page of messages older than the first 
+	 * loaded in the chat, the last messages if none was loaded, 
+	 * and sets them as viewed by the owner.
+	 * 
+	 * @param mv the chat
+	 * @param onLoaded called in the fx thread after the messages were added
+	 */
+	public void loadMessages(ChatMV mv, Runnable onLoaded) {
+		ObservableList<ChatMessage> msgs = mv.getMessages();
+		ChatMessage first = msgs.isEmpty() ? null : msgs.get(0);
+		Long chatId = mv.getEntity().getId();
+		TAccessToken token = TedrosContext.getLoggedUser().getAccessToken();
+		List<ChatMessage> viewed = new ArrayList<>();
+		List<Long> ids = new ArrayList<>();
+		
+		Task<List<ChatMessage>> task = new Task<List<ChatMessage>>() {
+			@Override
+			protected List<ChatMessage> call() throws Exception {
+				List<ChatMessage> l = util.findMessages(token, chatId, 
+						first!=null ? first.getDateTime() : null, 
+						first!=null ? first.getId() : null, MESSAGES_PAGE);
+				for(ChatMessage c : l)
+					if(!c.wasViewed(client.getOwner())) {
+						c.addViewed(client.getOwner());
+						ids.add(c.getId());
+						if(!c.getFrom().equals(client.getOwner()))
+							viewed.add(c);
+					}
+				// one call with all receipts of the page
+				if(!ids.isEmpty())
+					util.acknowledge(token, ids, TStatus.VIEWED);
+				return l;
+			}
+		};
+		task.setOnSucceeded(e -> {
+			List<ChatMessage> l = task.getValue();
+			if(l.size()<MESSAGES_PAGE)
+				mv.getAllMessagesLoaded().setValue(true);
+			else
+				viewed.forEach(c->mv.increaseViewedMessages());
+			msgs.addAll(0, l);
+			mv.getMessagesLoaded().setValue(true);
+			if(!viewed.isEmpty())
+				this.countUnreadMessages();
+			onLoaded.run();
+		});
+		task.setOnFailed(e -> {
+			LOGGER.error(task.getException().getMessage(), task.getException());
+			onLoaded.run();
+		});
+		Thread t = new Thread(task);
+		t.setDaemon(true);
+		t.start();
+	}
+	
 	private void showLogMessage() {
 		if(!client.isConnected())
 			super.getView().tShowModal(new TMessageBox(Arrays.asList(buildLogMessage())), false);
@@ -90,6 +90,7 @@ public class ChatMV extends TEntityModelView<Chat> {
 	private SimpleLongProperty totalViewedMessages;
 	private SimpleLongProperty totalUnreadMessages;
 	private SimpleBooleanProperty messagesLoaded;
+	private SimpleBooleanProperty allMessagesLoaded;
 	
 	@TVBox(pane=@TPane(children= {"owner", "message", "sendFile"}), 
 			vgrow=@TVGrow(priority= {
@@ -145,9 +146,16 @@ public class ChatMV extends TEntityModelView<Chat> {
 		super(entity);
 		super.formatToString("%s", title);
 		this.messagesLoaded.setValue(false);
+		this.allMessagesLoaded.setValue(false);
 		ListChangeListener<ChatMessage> lcl = c ->{
-			if(c.next())
+			if(c.next()) {
+				// only a window of the history is loaded, 
+				// the new messages are added to the counters
+				if(isMessagesLoaded() && !isAllMessagesLoaded() 
+						&& c.wasAdded() && c.getTo()==c.getList().size())
+					c.getAddedSubList().forEach(this::countNewMessage);
 				this.countTotalUnreadMessages();
+			}
 		};
 		super.getListenerRepository().add("messagesCountLCL", lcl);
 		this.messages.addListener(new WeakListChangeListener<>(lcl));
@@ -293,8 +301,13 @@ public class ChatMV extends TEntityModelView<Chat> {
 		return false;
 	}
 	
+	/**
+	 * Counts the unread messages, when all messages of the chat are loaded 
+	 * the counters are computed from them, otherwise the counters 
+	 * loaded with the chat and the new messages are used.
+	 */
 	public long countTotalUnreadMessages() {
-		if(messages!=null && !messages.isEmpty()) {
+		if(isAllMessagesLoaded() && messages!=null && !messages.isEmpty()) {
 			ChatUser user = ChatClient.getInstance().getOwner();
 			this.totalMessages.setValue(messages.size());
 			this.totalSentMessages.setValue( messages.parallelStream()
@@ -314,6 +327,15 @@ public class ChatMV extends TEntityModelView<Chat> {
 		return total;
 	}
 	
+	private void countNewMessage(ChatMessage m) {
+		ChatUser user = ChatClient.getInstance().getOwner();
+		this.increaseTotalMessages();
+		if(m.getFrom().equals(user))
+			this.totalSentMessages.setValue(this.totalSentMessages.getValue()+1);
+		else if(m.wasViewed(user))
+			this.increaseViewedMessages();
+	}
+	
 	public void increaseTotalMessages() {
 		this.totalMessages.setValue(this.totalMessages.getValue()+1);
 	}
@@ -409,5 +431,24 @@ public class ChatMV extends TEntityModelView<Chat> {
 	public Boolean isMessagesLoaded() {
 		return messagesLoaded.getValue();
 	}
+	
+	/**
+	 * @return true when all messages of the chat are loaded, 
+	 * false when only the last ones
+	 */
+	public SimpleBooleanProperty getAllMessagesLoaded() {
+		return allMessagesLoaded;
+	}
+
+	/**
+	 * @param allMessagesLoaded the allMessagesLoaded to set
+	 */
+	public void setAllMessagesLoaded(SimpleBooleanProperty allMessagesLoaded) {
+		this.allMessagesLoaded = allMessagesLoaded;
+	}
+	
+	public Boolean isAllMessagesLoaded() {
+		return allMessagesLoaded.getValue();
+	}
 
 }
@@ -3,14 +3,17 @@
  */
 package org.tedros.chat.module.client.setting;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 import java.net.UnknownHostException;
 
 import org.tedros.chat.CHATKey;
 import org.tedros.chat.entity.ChatUser;
+import org.tedros.chat.protocol.ChatProtocol;
 import org.tedros.core.TLanguage;
 import org.tedros.core.context.TedrosContext;
 import org.tedros.core.security.model.TUser;
@@ -36,9 +39,9 @@ public class ChatClient {
 	//Socket establish the connection
     private Socket socket;
     //Read Stream
-    private ObjectInputStream din;
+    private DataInputStream din;
     //Write Stream
-    private ObjectOutputStream dout;
+    private DataOutputStream dout;
     //Message property
     private SimpleObjectProperty<Object> message;
     private SimpleBooleanProperty connected;
@@ -93,8 +96,10 @@ public class ChatClient {
             TLoggerUtil.info(ChatClient.class, "<-Chat:"+owner+"->: Connected...");
 
             //Vamos obter as streams de comunicação fornecidas pelo socket
-            din = new ObjectInputStream(socket.getInputStream());
-            dout = new ObjectOutputStream(socket.getOutputStream());
+            //as mensagens são trocadas em frames do ChatProtocol
+            socket.setTcpNoDelay(true);
+            din = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            dout = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
 
             //e iniciar a thread que vai estar constantemente à espera de novas
             //mensages. Se não usassemos uma thread, não conseguiamos receber
@@ -103,7 +108,10 @@ public class ChatClient {
          new Thread(()-> {
             try {
                 while (receive) {
-                	Object obj = din.readObject();
+                	Object obj = ChatProtocol.read(din);
+                	// frame type unknown by this version
+                	if(obj==null)
+                		continue;
 					Platform.runLater(()->{
                 		message.setValue(obj);
                 		message.setValue(null);
@@ -137,10 +145,11 @@ public class ChatClient {
 	}
 	
 	/**
-	 * Send an object as message
+	 * Send a ChatUser, ChatMessage or ChatInfo as message
 	 * */
-	public void send(Object obj) throws IOException {
-		dout.writeObject(obj);
+	public synchronized void send(Object obj) throws IOException {
+		ChatProtocol.write(dout, obj);
+		dout.flush();
 	}
 
 	/**
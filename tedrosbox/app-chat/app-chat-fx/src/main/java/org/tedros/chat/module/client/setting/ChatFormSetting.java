@@ -4,7 +4,6 @@
 package org.tedros.chat.module.client.setting;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -59,6 +58,7 @@ public class ChatFormSetting extends TSetting {
     private boolean scrollFlag = false;
 
 	private int titleLength = 80;
+	private boolean loadingMessages;
 	private ListChangeListener<ChatUserMV> usersChl;
     
 	/**
@@ -74,7 +74,6 @@ public class ChatFormSetting extends TSetting {
 	/* (non-Javadoc)
 	 * @see org.tedros.fx.form.TSetting#run()
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public void run() {
 		
@@ -84,7 +83,6 @@ public class ChatFormSetting extends TSetting {
 		listenRecipients();
 		
 		ChatMV mv = (ChatMV) super.getModelView();
-		final ObservableList<ChatMessage> msgs = mv.getMessages();
 		
 		TabPane tp = super.getLayout("owner");
 		// Tab title
@@ -99,45 +97,26 @@ public class ChatFormSetting extends TSetting {
 				sp.setVvalue(sp.getVmax());
 				if(n.doubleValue()==sp.getVmax())
 					scrollFlag = false;
+			}else if(n.doubleValue()==sp.getVmin() && !loadingMessages
+					&& mv.isMessagesLoaded() && !mv.isAllMessagesLoaded()) {
+				// older messages
+				loadingMessages = true;
+				getBehaviour().loadMessages(mv, ()->loadingMessages = false);
 			}
 		});
 		
 		verifyOwnerAsParticipant();
 		
-		try {
-			List<ChatMessage> lst0 = util.findMessages(TedrosContext.getLoggedUser()
-					.getAccessToken(),
-					mv.getEntity().getId());
-			
-			boolean reload = false;
-				
-			for(ChatMessage c : lst0){
-				if(c.getViewed()==null 
-						|| c.getViewed().stream()
-						.noneMatch(p-> p.equals(client.getOwner()))) {
-					try {
-						c.addViewed(client.getOwner());
-						util.saveMessage(TedrosContext.getLoggedUser()
-								.getAccessToken(), c);
-						reload=true;
-					} catch (Exception e) {
-						throw new RuntimeException(e);
-					};
-				}
-			}
-			Collections.sort(lst0);
-			msgs.addAll(lst0);
-			mv.getMessagesLoaded().setValue(true);
-			if(reload) {
-				TDynaPresenter<ChatMV> p = (TDynaPresenter<ChatMV>) 
-						getForm().gettPresenter();
-				ChatBehaviour bhv = (ChatBehaviour) p.getBehavior();
-				bhv.countUnreadMessages();
-			}
-			
-		} catch (Exception e) {
-			TLoggerUtil.error(getClass(), e.getMessage(), e);
-		}
+		// the last messages, the older ones are loaded on scroll
+		loadingMessages = true;
+		getBehaviour().loadMessages(mv, ()->loadingMessages = false);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private ChatBehaviour getBehaviour() {
+		TDynaPresenter<ChatMV> p = (TDynaPresenter<ChatMV>) 
+				getForm().gettPresenter();
+		return (ChatBehaviour) p.getBehavior();
 	}
 
 	/**
@@ -254,6 +233,11 @@ public class ChatFormSetting extends TSetting {
 		final ObservableList<ChatMessage> msgs = mv.getMessages();
 		ListChangeListener<ChatMessage> chl0 = ch0 ->{
 			if(ch0.next() && ch0.wasAdded()) {
+				// older messages loaded on scroll
+				if(ch0.getFrom()==0 && ch0.getTo()<ch0.getList().size()) {
+					showOlderMsgs(ch0.getAddedSubList());
+					return;
+				}
 				ch0.getAddedSubList().forEach(m->{
 					boolean left = !m.getFrom().getUserId()
 							.equals(TedrosContext.getLoggedUser().getId());
@@ -318,23 +302,51 @@ public class ChatFormSetting extends TSetting {
 	/**
 	 * @param m
 	 */
-	@SuppressWarnings("unchecked")
 	private void showMsg(ChatMessage m, boolean left){
 		
 		scrollFlag = true;
+		StackPane p1 = buildMsgPane(m, left);
+		GridPane gp = super.getLayout("messages");
+		int row = gp.getChildren().size();
+		gp.add(p1, left ? 0 : 1, row);
+		
+	}
+	
+	private StackPane buildMsgPane(ChatMessage m, boolean left) {
 		StackPane p1 = util.buildTextPane(m, left, open->{
-			if(open) {
-				TDynaPresenter<ChatMV> p = (TDynaPresenter<ChatMV>) 
-						getForm().gettPresenter();
-				ChatBehaviour bhv = (ChatBehaviour) p.getBehavior();
-				bhv.setHidePopOver(true);
-			}
+			if(open) 
+				getBehaviour().setHidePopOver(true);
 		});
 		GridPane.setVgrow(p1, Priority.ALWAYS);
+		return p1;
+	}
+	
+	/**
+	 * Shows the messages above the loaded ones keeping the scroll position
+	 */
+	private void showOlderMsgs(List<? extends ChatMessage> l) {
 		GridPane gp = super.getLayout("messages");
-		int row = gp.getChildren().size();
-		gp.add(p1, left ? 0 : 1, row);
+		TabPane tp = super.getLayout("owner");
+		ScrollPane sp = (ScrollPane) tp.getTabs().get(1).getContent();
+		double h0 = gp.getHeight();
 		
+		for(Node n : gp.getChildren()) {
+			Integer r = GridPane.getRowIndex(n);
+			GridPane.setRowIndex(n, (r!=null ? r : 0) + l.size());
+		}
+		int row = 0;
+		for(ChatMessage m : l) {
+			boolean left = !m.getFrom().getUserId()
+					.equals(TedrosContext.getLoggedUser().getId());
+			StackPane p1 = buildMsgPane(m, left);
+			gp.add(p1, left ? 0 : 1, row++);
+		}
+		gp.applyCss();
+		gp.layout();
+		double h1 = gp.getHeight();
+		double vh = sp.getViewportBounds().getHeight();
+		if(h1>vh)
+			sp.setVvalue((h1-h0)/(h1-vh));
 	}
 	
 	@Override
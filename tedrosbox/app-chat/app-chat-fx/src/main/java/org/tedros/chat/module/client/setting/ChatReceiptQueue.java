@@ -0,0 +1,146 @@
+/**
+ *
+ */
+package org.tedros.chat.module.client.setting;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.tedros.chat.entity.TStatus;
+import org.tedros.core.context.TedrosContext;
+import org.tedros.util.TLoggerUtil;
+
+/**
+ * Sends the received and viewed receipts of the messages in batches.
+ * <p>
+ * The receipts added in a window of {@link #WINDOW} millis are sent
+ * in one call, a message received and viewed in the same window
+ * is sent only as viewed. The receipts of a failed call are queued 
+ * again and sent after {@link #RETRY} millis, up to {@link #MAX_RETRIES} 
+ * failed calls in a row.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class ChatReceiptQueue {
+
+	/**
+	 * Millis the receipts wait to be sent together
+	 */
+	public static final long WINDOW = 300;
+
+	/**
+	 * Millis to wait before sending again the failed receipts
+	 */
+	public static final long RETRY = 5000;
+
+	/**
+	 * Failed calls in a row before the pending receipts are discarded
+	 */
+	public static final int MAX_RETRIES = 10;
+
+	private static ChatReceiptQueue instance;
+
+	private final ChatUtil util = new ChatUtil();
+	private final Set<Long> received = new LinkedHashSet<>();
+	private final Set<Long> viewed = new LinkedHashSet<>();
+	private boolean scheduled;
+	private int failures;
+
+	private final ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "chat-receipts");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private ChatReceiptQueue() {
+	}
+
+	public static synchronized ChatReceiptQueue getInstance() {
+		if(instance==null)
+			instance = new ChatReceiptQueue();
+		return instance;
+	}
+
+	/**
+	 * Adds the receipt to be sent in the current window
+	 *
+	 * @param msgId the message id
+	 * @param status the RECEIVED or VIEWED status
+	 */
+	public synchronized void add(Long msgId, TStatus status) {
+		if(msgId==null)
+			return;
+		if(TStatus.VIEWED.equals(status)) {
+			received.remove(msgId);
+			viewed.add(msgId);
+		}else if(TStatus.RECEIVED.equals(status) && !viewed.contains(msgId))
+			received.add(msgId);
+		else
+			return;
+		schedule(WINDOW);
+	}
+
+	private synchronized void schedule(long delay) {
+		if(!scheduled) {
+			scheduled = true;
+			exec.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Sends the pending receipts
+	 */
+	public void flush() {
+		List<Long> r;
+		List<Long> v;
+		synchronized (this) {
+			scheduled = false;
+			r = new ArrayList<>(received);
+			v = new ArrayList<>(viewed);
+			received.clear();
+			viewed.clear();
+		}
+		send(r, TStatus.RECEIVED);
+		send(v, TStatus.VIEWED);
+	}
+
+	private void send(List<Long> ids, TStatus status) {
+		if(ids.isEmpty())
+			return;
+		try {
+			util.acknowledge(TedrosContext.getLoggedUser().getAccessToken(), ids, status);
+			synchronized (this) {
+				failures = 0;
+			}
+		} catch (Exception e) {
+			TLoggerUtil.error(getClass(), e.getMessage(), e);
+			retry(ids, status);
+		}
+	}
+
+	/**
+	 * Queues again the receipts of a failed call
+	 */
+	private synchronized void retry(List<Long> ids, TStatus status) {
+		if(++failures > MAX_RETRIES) {
+			TLoggerUtil.warn(getClass(), "Discarding "+ids.size()+" "+status+" receipts after "
+					+MAX_RETRIES+" failed calls");
+			failures = 0;
+			return;
+		}
+		for(Long id : ids)
+			if(TStatus.VIEWED.equals(status)) {
+				received.remove(id);
+				viewed.add(id);
+			}else if(!viewed.contains(id))
+				received.add(id);
+		schedule(RETRY);
+	}
+
+}
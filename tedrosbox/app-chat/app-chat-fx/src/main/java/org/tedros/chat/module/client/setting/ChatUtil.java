@@ -20,6 +20,7 @@ import org.tedros.chat.ejb.controller.IChatUserController;
 import org.tedros.chat.entity.Chat;
 import org.tedros.chat.entity.ChatMessage;
 import org.tedros.chat.entity.ChatUser;
+import org.tedros.chat.entity.TStatus;
 import org.tedros.common.model.TFileEntity;
 import org.tedros.core.TLanguage;
 import org.tedros.core.controller.TPropertieController;
@@ -93,16 +94,39 @@ public class ChatUtil {
 	}
 
 
-	public List<ChatMessage> findMessages(TAccessToken token, Long chatId) throws Exception {
+	/**
+	 * Finds the messages older than the cursor, the newest if the cursor is null.
+	 * The messages are read only projections without the recipients and file bytes.
+	 * 
+	 * @return the messages ordered by date time
+	 */
+	public List<ChatMessage> findMessages(TAccessToken token, Long chatId, Date before, 
+			Long beforeId, int maxResult) throws Exception {
+		TEjbServiceLocator loc = TEjbServiceLocator.getInstance();
+		try {
+			IChatMessageController serv = loc.lookup(IChatMessageController.JNDI_NAME);
+			TResult<List<ChatMessage>> res = serv.findBefore(token, chatId, before, beforeId, maxResult);
+			if(res.getState().equals(TState.ERROR))
+				throw new Exception(res.getMessage());
+			return res.getValue();
+		}finally {
+			loc.close();
+		}
+	}
+	
+	/**
+	 * Sets the messages as received or viewed by the logged user, 
+	 * only the receipts are sent to the server.
+	 * 
+	 * @return the receipts inserted
+	 */
+	public Integer acknowledge(TAccessToken token, List<Long> msgIds, TStatus status) throws Exception {
 		TEjbServiceLocator loc = TEjbServiceLocator.getInstance();
 		try {
-			Chat c = new Chat();
-			c.setId(chatId);
-			ChatMessage m = new ChatMessage();
-			m.setChat(c);
-			m.setDateTime(null);
 			IChatMessageController serv = loc.lookup(IChatMessageController.JNDI_NAME);
-			TResult<List<ChatMessage>> res = serv.findAll(token, m);
+			TResult<Integer> res = serv.acknowledge(token, msgIds, status);
+			if(res.getState().equals(TState.ERROR))
+				throw new Exception(res.getMessage());
 			return res.getValue();
 		}finally {
 			loc.close();
@@ -210,17 +234,16 @@ public class ChatUtil {
 			Hyperlink hl = new Hyperlink(iEngine.getString(TFxKey.BUTTON_OPEN));
 			hl.getStyleClass().add(TTextStyle.SMALL.getValue());
 			EventHandler<ActionEvent> ev = e -> {
-				try {
-					TFileModel fm = TFileBaseUtil.convert(file);
-					fm.setFilePath(TedrosFolder.EXPORT_FOLDER.getFullPath());
-					TFileUtil.open(fm.getFile());
-					if(callback!=null)
-						callback.accept(true);
-				} catch (IOException e1) {
-					TLoggerUtil.error(getClass(), e1.getMessage(), e1);
-					if(callback!=null)
-						callback.accept(false);
-				}
+				// the messages loaded from the history have no bytes
+				if(!file.isNew() && file.getByte().getBytes()==null) {
+					SimpleObjectProperty<byte[]> bp = new SimpleObjectProperty<>();
+					bp.addListener((a, o, n) -> {
+						file.getByte().setBytes(n);
+						openFile(file, callback);
+					});
+					loadBytes(bp, file);
+				}else
+					openFile(file, callback);
 			};
 			hl.setOnAction(ev);
 			footer.getChildren().add(hl);
@@ -250,6 +273,20 @@ public class ChatUtil {
 	}
 	
 
+	private void openFile(TFileEntity file, Consumer<Boolean> callback) {
+		try {
+			TFileModel fm = TFileBaseUtil.convert(file);
+			fm.setFilePath(TedrosFolder.EXPORT_FOLDER.getFullPath());
+			TFileUtil.open(fm.getFile());
+			if(callback!=null)
+				callback.accept(true);
+		} catch (IOException e1) {
+			TLoggerUtil.error(getClass(), e1.getMessage(), e1);
+			if(callback!=null)
+				callback.accept(false);
+		}
+	}
+
 	/**
 	 * @param imgView
 	 * @param fe
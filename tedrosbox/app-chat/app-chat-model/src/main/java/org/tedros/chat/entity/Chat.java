@@ -9,6 +9,7 @@ import java.util.Set;
 import org.tedros.chat.domain.DomainSchema;
 import org.tedros.chat.domain.DomainTables;
 import org.tedros.server.entity.TEntity;
+import org.tedros.server.query.TFetchPlan;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -17,6 +18,8 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 
 /**
@@ -24,6 +27,10 @@ import jakarta.persistence.Table;
  *
  */
 @Entity
+@NamedEntityGraph(name="Chat."+TFetchPlan.SUMMARY, attributeNodes= {
+		@NamedAttributeNode("code"), @NamedAttributeNode("title"), @NamedAttributeNode("owner"),
+		@NamedAttributeNode("totalReceivedMessages"), @NamedAttributeNode("totalViewedMessages"), @NamedAttributeNode("totalSentMessages"),
+		@NamedAttributeNode("totalMessages")})
 @Table(name=DomainTables.chat, schema=DomainSchema.schema)
 public class Chat extends TEntity {
 
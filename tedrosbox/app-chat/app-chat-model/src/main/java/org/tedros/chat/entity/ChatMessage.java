@@ -11,6 +11,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -30,7 +31,8 @@ import org.tedros.server.entity.TEntity;
  */
 
 @Entity
-@Table(name=DomainTables.message, schema=DomainSchema.schema)
+@Table(name=DomainTables.message, schema=DomainSchema.schema, 
+	indexes=@Index(name="idx_message_chat_datetime", columnList="chat_id, dateTime"))
 public class ChatMessage extends TEntity implements Comparable<ChatMessage>{
 
 	private static final long serialVersionUID = -8257824754212403138L;
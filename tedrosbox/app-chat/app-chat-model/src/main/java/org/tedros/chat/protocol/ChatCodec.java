@@ -0,0 +1,256 @@
+/**
+ *
+ */
+package org.tedros.chat.protocol;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.tedros.chat.entity.Chat;
+import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
+import org.tedros.chat.model.Action;
+import org.tedros.chat.model.ChatInfo;
+import org.tedros.common.model.TFileEntity;
+
+/**
+ * Writes and reads the payload of the chat frames.
+ * <p>
+ * Each record starts with a byte of flags with the fields not null,
+ * the numbers are written as variable length integers and the texts
+ * as UTF-8 prefixed with the length. Only the fields used by the
+ * server routing and the chat view are written:
+ * <ul>
+ * <li>ChatUser: id, userId, name, profiles and version, not the token.</li>
+ * <li>ChatMessage: id, chat id, dates, content, the sender, the recipient
+ * ids and the file without the bytes, loaded later by the byte entity id.</li>
+ * <li>ChatInfo: id, action, the user and the recipients.</li>
+ * </ul>
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public final class ChatCodec {
+
+	private ChatCodec() {
+	}
+
+	public static void writeUser(DataOutput out, ChatUser u) throws IOException {
+		int flags = flags(u.getId(), u.getUserId(), u.getName(), u.getProfiles(), u.getVersionNum());
+		out.writeByte(flags);
+		if(u.getId()!=null)
+			writeVarLong(out, u.getId());
+		if(u.getUserId()!=null)
+			writeVarLong(out, u.getUserId());
+		if(u.getName()!=null)
+			writeString(out, u.getName());
+		if(u.getProfiles()!=null)
+			writeString(out, u.getProfiles());
+		if(u.getVersionNum()!=null)
+			writeVarLong(out, u.getVersionNum());
+	}
+
+	public static ChatUser readUser(DataInput in) throws IOException {
+		int flags = in.readUnsignedByte();
+		ChatUser u = new ChatUser();
+		if(has(flags, 0))
+			u.setId(readVarLong(in));
+		if(has(flags, 1))
+			u.setUserId(readVarLong(in));
+		if(has(flags, 2))
+			u.setName(readString(in));
+		if(has(flags, 3))
+			u.setProfiles(readString(in));
+		if(has(flags, 4))
+			u.setVersionNum((int) readVarLong(in));
+		return u;
+	}
+
+	public static void writeMessage(DataOutput out, ChatMessage m) throws IOException {
+		Long chatId = m.getChat()!=null ? m.getChat().getId() : null;
+		Set<ChatUser> sent = m.getSent();
+		int flags = flags(m.getId(), chatId, m.getDateTime(), m.getInsertDate(),
+				m.getContent(), m.getFrom(), m.getFile(), sent!=null && !sent.isEmpty() ? sent : null);
+		out.writeByte(flags);
+		if(m.getId()!=null)
+			writeVarLong(out, m.getId());
+		if(chatId!=null)
+			writeVarLong(out, chatId);
+		if(m.getDateTime()!=null)
+			writeVarLong(out, m.getDateTime().getTime());
+		if(m.getInsertDate()!=null)
+			writeVarLong(out, m.getInsertDate().getTime());
+		if(m.getContent()!=null)
+			writeString(out, m.getContent());
+		if(m.getFrom()!=null)
+			writeUser(out, m.getFrom());
+		if(m.getFile()!=null)
+			writeFile(out, m.getFile());
+		if(has(flags, 7)) {
+			writeVarLong(out, sent.size());
+			for(ChatUser u : sent)
+				writeVarLong(out, u.getId()!=null ? u.getId() : 0L);
+		}
+	}
+
+	public static ChatMessage readMessage(DataInput in) throws IOException {
+		int flags = in.readUnsignedByte();
+		ChatMessage m = new ChatMessage();
+		if(has(flags, 0))
+			m.setId(readVarLong(in));
+		if(has(flags, 1))
+			m.setChat(new Chat(readVarLong(in)));
+		m.setDateTime(has(flags, 2) ? new Date(readVarLong(in)) : null);
+		if(has(flags, 3))
+			m.setInsertDate(new Date(readVarLong(in)));
+		if(has(flags, 4))
+			m.setContent(readString(in));
+		if(has(flags, 5))
+			m.setFrom(readUser(in));
+		if(has(flags, 6))
+			m.setFile(readFile(in));
+		if(has(flags, 7)) {
+			int n = readSize(in);
+			for(int i=0; i<n; i++) {
+				ChatUser u = new ChatUser();
+				u.setId(readVarLong(in));
+				m.addDestination(u);
+			}
+		}
+		return m;
+	}
+
+	public static void writeInfo(DataOutput out, ChatInfo i) throws IOException {
+		List<ChatUser> rec = i.getRecipients();
+		int flags = flags(i.getId(), i.getAction(), i.getUser(), rec);
+		out.writeByte(flags);
+		if(i.getId()!=null)
+			writeVarLong(out, i.getId());
+		if(i.getAction()!=null)
+			out.writeByte(i.getAction().ordinal());
+		if(i.getUser()!=null)
+			writeUser(out, i.getUser());
+		if(rec!=null) {
+			writeVarLong(out, rec.size());
+			for(ChatUser u : rec)
+				writeUser(out, u);
+		}
+	}
+
+	public static ChatInfo readInfo(DataInput in) throws IOException {
+		int flags = in.readUnsignedByte();
+		ChatInfo i = new ChatInfo();
+		if(has(flags, 0))
+			i.setId(readVarLong(in));
+		if(has(flags, 1)) {
+			int a = in.readUnsignedByte();
+			if(a >= Action.values().length)
+				throw new StreamCorruptedException("Unknown chat action: " + a);
+			i.setAction(Action.values()[a]);
+		}
+		if(has(flags, 2))
+			i.setUser(readUser(in));
+		if(has(flags, 3)) {
+			int n = readSize(in);
+			List<ChatUser> l = new ArrayList<>(n);
+			for(int k=0; k<n; k++)
+				l.add(readUser(in));
+			i.setRecipients(l);
+		}
+		return i;
+	}
+
+	private static void writeFile(DataOutput out, TFileEntity f) throws IOException {
+		Long byteId = f.getByteEntity()!=null ? f.getByteEntity().getId() : null;
+		int flags = flags(f.getId(), f.getFileName(), f.getFileExtension(), f.getFileSize(), byteId);
+		out.writeByte(flags);
+		if(f.getId()!=null)
+			writeVarLong(out, f.getId());
+		if(f.getFileName()!=null)
+			writeString(out, f.getFileName());
+		if(f.getFileExtension()!=null)
+			writeString(out, f.getFileExtension());
+		if(f.getFileSize()!=null)
+			writeVarLong(out, f.getFileSize());
+		if(byteId!=null)
+			writeVarLong(out, byteId);
+	}
+
+	private static TFileEntity readFile(DataInput in) throws IOException {
+		int flags = in.readUnsignedByte();
+		TFileEntity f = new TFileEntity();
+		if(has(flags, 0))
+			f.setId(readVarLong(in));
+		if(has(flags, 1))
+			f.setFileName(readString(in));
+		if(has(flags, 2))
+			f.setFileExtension(readString(in));
+		if(has(flags, 3))
+			f.setFileSize(readVarLong(in));
+		if(has(flags, 4))
+			f.getByteEntity().setId(readVarLong(in));
+		return f;
+	}
+
+	private static int flags(Object... fields) {
+		int flags = 0;
+		for(int i=0; i<fields.length; i++)
+			if(fields[i]!=null)
+				flags |= 1 << i;
+		return flags;
+	}
+
+	private static boolean has(int flags, int field) {
+		return (flags & (1 << field)) != 0;
+	}
+
+	/**
+	 * Writes the zigzag encoded value in groups of 7 bits,
+	 * ids and dates take from 1 to 6 bytes.
+	 */
+	static void writeVarLong(DataOutput out, long v) throws IOException {
+		long z = (v << 1) ^ (v >> 63);
+		while((z & ~0x7FL) != 0) {
+			out.writeByte((int) ((z & 0x7F) | 0x80));
+			z >>>= 7;
+		}
+		out.writeByte((int) z);
+	}
+
+	static long readVarLong(DataInput in) throws IOException {
+		long z = 0;
+		for(int shift=0; shift<64; shift+=7) {
+			int b = in.readUnsignedByte();
+			z |= (long) (b & 0x7F) << shift;
+			if((b & 0x80)==0)
+				return (z >>> 1) ^ -(z & 1);
+		}
+		throw new StreamCorruptedException("Malformed chat frame number");
+	}
+
+	private static int readSize(DataInput in) throws IOException {
+		long n = readVarLong(in);
+		if(n < 0 || n > ChatProtocol.MAX_FRAME)
+			throw new StreamCorruptedException("Invalid chat frame size: " + n);
+		return (int) n;
+	}
+
+	private static void writeString(DataOutput out, String s) throws IOException {
+		byte[] b = s.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, b.length);
+		out.write(b);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		byte[] b = new byte[readSize(in)];
+		in.readFully(b);
+		return new String(b, StandardCharsets.UTF_8);
+	}
+}
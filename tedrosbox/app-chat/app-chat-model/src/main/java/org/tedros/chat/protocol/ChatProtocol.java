@@ -0,0 +1,133 @@
+/**
+ *
+ */
+package org.tedros.chat.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
+import org.tedros.chat.model.ChatInfo;
+
+/**
+ * The frames exchanged by the chat client and server.
+ * <p>
+ * A frame is the length of the rest of the frame (int), the protocol
+ * version (byte), the type (byte) and the payload written by {@link ChatCodec}.
+ * Each frame is independent, the connection keeps no state between them.
+ * A frame of an unknown type is skipped, a newer version is refused.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public final class ChatProtocol {
+
+	/**
+	 * The version written in the frames
+	 */
+	public static final byte VERSION = 1;
+
+	/**
+	 * Max bytes of a frame after the length
+	 */
+	public static final int MAX_FRAME = 1024 * 1024;
+
+	public static final byte USER = 1;
+	public static final byte MESSAGE = 2;
+	public static final byte INFO = 3;
+
+	private ChatProtocol() {
+	}
+
+	/**
+	 * @param obj a ChatUser, ChatMessage or ChatInfo
+	 * @return the frame with the length
+	 */
+	public static byte[] encode(Object obj) throws IOException {
+		byte type;
+		if(obj instanceof ChatMessage)
+			type = MESSAGE;
+		else if(obj instanceof ChatInfo)
+			type = INFO;
+		else if(obj instanceof ChatUser)
+			type = USER;
+		else
+			throw new IllegalArgumentException("Type not supported by the chat protocol: "
+					+ (obj!=null ? obj.getClass().getName() : null));
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(128);
+		DataOutputStream out = new DataOutputStream(bos);
+		out.writeInt(0);
+		out.writeByte(VERSION);
+		out.writeByte(type);
+		switch(type) {
+		case MESSAGE:
+			ChatCodec.writeMessage(out, (ChatMessage) obj);
+			break;
+		case INFO:
+			ChatCodec.writeInfo(out, (ChatInfo) obj);
+			break;
+		default:
+			ChatCodec.writeUser(out, (ChatUser) obj);
+		}
+		out.flush();
+		byte[] frame = bos.toByteArray();
+		int len = frame.length - 4;
+		if(len > MAX_FRAME)
+			throw new IOException("Chat frame too large: " + len);
+		frame[0] = (byte) (len >>> 24);
+		frame[1] = (byte) (len >>> 16);
+		frame[2] = (byte) (len >>> 8);
+		frame[3] = (byte) len;
+		return frame;
+	}
+
+	/**
+	 * Writes the object frame, the stream is not flushed
+	 */
+	public static void write(DataOutputStream out, Object obj) throws IOException {
+		out.write(encode(obj));
+	}
+
+	/**
+	 * Reads the next frame, blocks until the whole frame is read.
+	 *
+	 * @return the object or null if the frame type is unknown
+	 * @throws java.io.EOFException at the end of the stream
+	 */
+	public static Object read(DataInputStream in) throws IOException {
+		int len = in.readInt();
+		if(len < 2 || len > MAX_FRAME)
+			throw new StreamCorruptedException("Invalid chat frame length: " + len);
+		byte[] body = new byte[len];
+		in.readFully(body);
+		return decode(body);
+	}
+
+	/**
+	 * @param body the frame without the length
+	 * @return the object or null if the frame type is unknown
+	 */
+	public static Object decode(byte[] body) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+		byte version = in.readByte();
+		if(version < 1 || version > VERSION)
+			throw new StreamCorruptedException("Chat protocol version not supported: " + version);
+		switch(in.readByte()) {
+		case MESSAGE:
+			return ChatCodec.readMessage(in);
+		case INFO:
+			return ChatCodec.readInfo(in);
+		case USER:
+			return ChatCodec.readUser(in);
+		default:
+			return null;
+		}
+	}
+
+}
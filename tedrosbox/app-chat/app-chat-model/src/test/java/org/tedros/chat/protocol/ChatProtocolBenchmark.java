@@ -0,0 +1,75 @@
+/**
+ *
+ */
+package org.tedros.chat.protocol;
+
+import static org.tedros.chat.protocol.ChatProtocolTest.ROOM_SIZE;
+import static org.tedros.chat.protocol.ChatProtocolTest.encode;
+import static org.tedros.chat.protocol.ChatProtocolTest.message;
+import static org.tedros.chat.protocol.ChatProtocolTest.serialize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.tedros.chat.entity.ChatMessage;
+
+/**
+ * Compares the size and the encode/decode time of the {@link ChatProtocol} 
+ * frames with the java serialization used before, it is not run by the build.
+ * <p>
+ * Usage: ChatProtocolBenchmark [messages=20000]
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class ChatProtocolBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int messages = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		ChatMessage[] msgs = new ChatMessage[messages];
+		for(int i=0; i<messages; i++)
+			msgs[i] = message(i);
+
+		// warm up
+		for(int r=0; r<3; r++) {
+			serialize(msgs);
+			encode(msgs);
+		}
+
+		long start = System.nanoTime();
+		byte[] ser = serialize(msgs);
+		long serEncode = System.nanoTime() - start;
+		start = System.nanoTime();
+		try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(ser))){
+			for(int i=0; i<messages; i++)
+				in.readObject();
+		}
+		long serDecode = System.nanoTime() - start;
+
+		// a single message in a new stream, as read by the first time
+		ByteArrayOutputStream one = new ByteArrayOutputStream();
+		try(ObjectOutputStream out = new ObjectOutputStream(one)){
+			out.writeObject(message(1));
+		}
+
+		start = System.nanoTime();
+		byte[] enc = encode(msgs);
+		long frameEncode = System.nanoTime() - start;
+		start = System.nanoTime();
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(enc));
+		for(int i=0; i<messages; i++)
+			ChatProtocol.read(in);
+		long frameDecode = System.nanoTime() - start;
+
+		System.out.println(String.format("Chat %d messages, %d recipients: "
+				+ "serialization %d bytes/msg (%d first), encode %.2f us/msg, decode %.2f us/msg; "
+				+ "frames %d bytes/msg, encode %.2f us/msg, decode %.2f us/msg",
+				messages, ROOM_SIZE, ser.length / messages, one.size(),
+				serEncode / 1000.0 / messages, serDecode / 1000.0 / messages,
+				enc.length / messages,
+				frameEncode / 1000.0 / messages, frameDecode / 1000.0 / messages));
+	}
+}
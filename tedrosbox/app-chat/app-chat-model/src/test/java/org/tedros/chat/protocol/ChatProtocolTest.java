@@ -0,0 +1,192 @@
+/**
+ *
+ */
+package org.tedros.chat.protocol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.tedros.chat.entity.Chat;
+import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
+import org.tedros.chat.model.Action;
+import org.tedros.chat.model.ChatInfo;
+import org.tedros.common.model.TFileEntity;
+
+/**
+ * Checks the chat frames, the encode/decode time is compared with 
+ * the java serialization used before by {@link ChatProtocolBenchmark}.
+ *
+ * @author Davis Gordon
+ *
+ */
+public class ChatProtocolTest {
+
+	static final int ROOM_SIZE = 10;
+
+	@Test
+	public void testMessage() throws IOException {
+		ChatMessage m = message(1);
+		TFileEntity f = new TFileEntity();
+		f.setId(7L);
+		f.setFileName("report.pdf");
+		f.setFileExtension("pdf");
+		f.setFileSize(1024L);
+		f.getByteEntity().setId(8L);
+		f.getByteEntity().setBytes(new byte[1024]);
+		m.setFile(f);
+
+		ChatMessage r = (ChatMessage) decode(ChatProtocol.encode(m));
+		assertEquals(m.getId(), r.getId());
+		assertEquals(m.getChat().getId(), r.getChat().getId());
+		assertEquals(m.getDateTime(), r.getDateTime());
+		assertEquals(m.getInsertDate(), r.getInsertDate());
+		assertEquals(m.getContent(), r.getContent());
+		assertEquals(m.getFrom(), r.getFrom());
+		assertEquals(m.getFrom().hashCode(), r.getFrom().hashCode());
+		// only the recipient ids are sent
+		assertEquals(ids(m.getSent()), ids(r.getSent()));
+		assertEquals("report.pdf", r.getFile().getFileName());
+		assertEquals("pdf", r.getFile().getFileExtension());
+		assertEquals(Long.valueOf(1024), r.getFile().getFileSize());
+		assertEquals(Long.valueOf(8), r.getFile().getByteEntity().getId());
+		// the bytes are loaded by the receiver
+		assertNull(r.getFile().getByteEntity().getBytes());
+	}
+
+	@Test
+	public void testInfoAndNulls() throws IOException {
+		ChatInfo i = new ChatInfo();
+		i.setId(3L);
+		i.setAction(Action.UPDATE_RECIPIENT);
+		i.setUser(user(1));
+		i.addRecipient(user(2), user(3));
+		ChatInfo r = (ChatInfo) decode(ChatProtocol.encode(i));
+		assertEquals(i.getId(), r.getId());
+		assertEquals(i.getAction(), r.getAction());
+		assertEquals(i.getUser(), r.getUser());
+		assertEquals(i.getRecipients(), r.getRecipients());
+
+		ChatMessage m = new ChatMessage();
+		m.setDateTime(null);
+		ChatMessage rm = (ChatMessage) decode(ChatProtocol.encode(m));
+		assertNull(rm.getId());
+		assertNull(rm.getContent());
+		assertNull(rm.getDateTime());
+		assertNull(rm.getFrom());
+
+		ChatUser u = user(-5);
+		ChatUser ru = (ChatUser) decode(ChatProtocol.encode(u));
+		assertEquals(u, ru);
+		assertEquals(Long.valueOf(-5), ru.getId());
+	}
+
+	@Test
+	public void testStream() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bos);
+		for(int i=0; i<100; i++)
+			ChatProtocol.write(out, message(i));
+		// a frame of a newer type is skipped
+		out.writeInt(3);
+		out.write(new byte[] {ChatProtocol.VERSION, 99, 0});
+		ChatProtocol.write(out, user(1));
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+		for(int i=0; i<100; i++)
+			assertEquals(Long.valueOf(i), ((ChatMessage) ChatProtocol.read(in)).getId());
+		assertNull(ChatProtocol.read(in));
+		assertEquals(user(1), ChatProtocol.read(in));
+	}
+
+	@Test
+	public void testRefused() throws IOException {
+		byte[] frame = ChatProtocol.encode(user(1));
+		frame[4] = ChatProtocol.VERSION + 1;
+		try {
+			decode(frame);
+			fail("newer version accepted");
+		}catch(StreamCorruptedException e) {
+			// expected
+		}
+		// an object stream header read as length
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				new byte[] {(byte) 0xAC, (byte) 0xED, 0, 5}));
+		try {
+			ChatProtocol.read(in);
+			fail("object stream accepted");
+		}catch(StreamCorruptedException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testFramesSmallerThanSerialization() throws IOException {
+		ChatMessage[] msgs = new ChatMessage[100];
+		for(int i=0; i<msgs.length; i++)
+			msgs[i] = message(i);
+		assertTrue(encode(msgs).length < serialize(msgs).length);
+	}
+
+	/**
+	 * One object stream for all messages, as the connection stream
+	 */
+	static byte[] serialize(ChatMessage[] msgs) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try(ObjectOutputStream out = new ObjectOutputStream(bos)){
+			for(ChatMessage m : msgs)
+				out.writeObject(m);
+		}
+		return bos.toByteArray();
+	}
+
+	static byte[] encode(ChatMessage[] msgs) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bos);
+		for(ChatMessage m : msgs)
+			ChatProtocol.write(out, m);
+		out.flush();
+		return bos.toByteArray();
+	}
+
+	private Set<Long> ids(Set<ChatUser> users) {
+		return users.stream().map(ChatUser::getId).collect(Collectors.toSet());
+	}
+
+	private Object decode(byte[] frame) throws IOException {
+		return ChatProtocol.read(new DataInputStream(new ByteArrayInputStream(frame)));
+	}
+
+	static ChatMessage message(int i) {
+		ChatMessage m = new ChatMessage();
+		m.setId((long) i);
+		m.setChat(new Chat(1000L + i % 50));
+		m.setInsertDate(new Date());
+		m.setFrom(user(i % ROOM_SIZE));
+		m.setContent("Message " + i + " sent to the room");
+		for(int u=0; u<ROOM_SIZE; u++)
+			if(u != i % ROOM_SIZE)
+				m.addDestination(user(u));
+		return m;
+	}
+
+	static ChatUser user(long id) {
+		ChatUser u = new ChatUser(100L + id, "User " + id, "Admin,User");
+		u.setId(id);
+		u.setVersionNum(1);
+		return u;
+	}
+}
@@ -3,16 +3,35 @@ package org.tedros.chat.server;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.ArrayList;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.naming.NamingException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.tedros.chat.domain.ChatPropertie;
 import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
 import org.tedros.chat.model.ChatInfo;
+import org.tedros.chat.protocol.ChatProtocol;
 import org.tedros.core.controller.ITLoginController;
 import org.tedros.core.controller.TPropertieController;
 import org.tedros.core.security.model.TProfile;
@@ -22,74 +41,292 @@ import org.tedros.server.result.TResult.TState;
 import org.tedros.server.service.TServiceLocator;
 import org.tedros.util.TEncriptUtil;
 
+/**
+ * The chat socket server.
+ * <p>
+ * A single selector thread accepts the connections, reads the sockets and
+ * writes the queued frames, the received frames are decoded by a bounded pool
+ * of {@link #DECODER_THREADS} threads (see {@link ServerConnHandler} and 
+ * {@link ChatProtocol}), a connection has at most one decode task queued. 
+ * The connections are indexed by the chat user id so a message is routed 
+ * only to the recipients connections.
+ * </p>
+ */
 public class ChatServer {
 
-    private ServerSocket server;
+    /**
+     * Max threads decoding the received frames
+     */
+    static final int DECODER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private Selector selector;
+    private ServerSocketChannel server;
+    private volatile boolean running;
     //hold clients
-    private final ArrayList<ServerConnHandler> clients;
+    private final Set<ServerConnHandler> clients = ConcurrentHashMap.newKeySet();
+    //chat user id -> connections
+    private final Map<Long, Set<ServerConnHandler>> users = new ConcurrentHashMap<>();
+    //connections with frames to write
+    private final Queue<ServerConnHandler> writes = new ConcurrentLinkedQueue<>();
+    private final ExecutorService decoders = newDecoders();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private final LongAdder routed = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
 
     public ChatServer(int port) throws IOException {
-        clients = new ArrayList<ServerConnHandler>();
-        listen(port);
+        open(port);
+        listen();
+    }
+
+    ChatServer() {
     }
 
-    private void listen(int port) throws IOException {
+    void open(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        System.out.println("Listening at " + server.getLocalAddress());
+    }
 
-        //socket server
-        server = new ServerSocket(port);
-        System.out.println("Listening at " + server);
+    void listen() throws IOException {
+        while (running) {
+            selector.select();
 
-        //Establish a connection
-        while (true) {
+            ServerConnHandler h;
+            while((h = writes.poll())!=null)
+                write(h);
 
-            Socket client = server.accept();
-            System.out.println("Connection established: " + client);
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while(it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                if(!key.isValid())
+                    continue;
+                try {
+                    if(key.isAcceptable())
+                        accept();
+                    else {
+                        if(key.isReadable())
+                            read(key);
+                        if(key.isValid() && key.isWritable())
+                            write((ServerConnHandler) key.attachment());
+                    }
+                } catch (IOException ex) {
+                    if(key.attachment() instanceof ServerConnHandler)
+                        removeClient((ServerConnHandler) key.attachment());
+                    else
+                        System.out.println(ex.getMessage());
+                }
+            }
+        }
+        selector.close();
+    }
 
+    private void accept() throws IOException {
+        SocketChannel ch;
+        while((ch = server.accept())!=null) {
+            ch.configureBlocking(false);
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
             //client handler
-            clients.add(new ServerConnHandler(this, client));
+            ServerConnHandler h = new ServerConnHandler(this, ch);
+            h.setKey(ch.register(selector, SelectionKey.OP_READ, h));
+            clients.add(h);
+            System.out.println("Connection established: " + h);
         }
     }
-    
-    public void replyMessage(ChatInfo msg) {
-        synchronized (clients) {
-            clients.parallelStream()
-            .filter(h->{
-            	return msg.getRecipients().stream().filter(p->{
-            		return h.getOwner().equals(p) && !msg.getUser().equals(p);
-            	}).findFirst().isPresent();
-            }).forEach(c->{
-            	c.send(msg);
-            });
+
+    private void read(SelectionKey key) throws IOException {
+        ServerConnHandler h = (ServerConnHandler) key.attachment();
+        readBuffer.clear();
+        int n = h.getChannel().read(readBuffer);
+        if(n<0) {
+            removeClient(h);
+            return;
+        }
+        if(n>0) {
+            readBuffer.flip();
+            ByteBuffer data = ByteBuffer.allocate(n);
+            data.put(readBuffer).flip();
+            h.received(data);
         }
     }
 
-    public void replyMessage(ChatMessage msg) {
-        synchronized (clients) {
-            clients.parallelStream()
-            .filter(h->{
-            	return msg.getSent().stream().filter(p->{
-            		return h.getOwner().equals(p) && !msg.getFrom().equals(p);
-            	}).findFirst().isPresent();
-            }).forEach(c->{
-            	c.send(msg);
+    private void write(ServerConnHandler h) {
+        SelectionKey key = h.getKey();
+        if(key==null || !key.isValid())
+            return;
+        try {
+            if(h.flush())
+                key.interestOps(SelectionKey.OP_READ);
+            else
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException ex) {
+            removeClient(h);
+        }
+    }
+
+    void requestWrite(ServerConnHandler h) {
+        writes.add(h);
+        selector.wakeup();
+    }
+
+    private static ExecutorService newDecoders() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(DECODER_THREADS, DECODER_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r->{
+                    Thread t = new Thread(r, "chat-decoder");
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    void decode(ServerConnHandler h) {
+        decoders.execute(h);
+    }
+
+    void registerOwner(ServerConnHandler h, ChatUser owner) {
+        ChatUser old = h.getOwner();
+        if(old!=null && old.getId()!=null)
+            unregister(old.getId(), h);
+        h.setOwner(owner);
+        if(owner.getId()!=null && !h.isClosed())
+            users.compute(owner.getId(), (k, s)->{
+                if(s==null)
+                    s = ConcurrentHashMap.newKeySet();
+                s.add(h);
+                return s;
             });
+    }
+
+    private void unregister(Long id, ServerConnHandler h) {
+        users.computeIfPresent(id, (k, s)->{
+            s.remove(h);
+            return s.isEmpty() ? null : s;
+        });
+    }
+
+    public void replyMessage(ChatInfo msg) {
+        if(msg.getRecipients()!=null)
+            route(msg, msg.getUser(), msg.getRecipients());
+    }
+
+    public void replyMessage(ChatMessage msg) {
+        if(msg.getSent()!=null)
+            route(msg, msg.getFrom(), msg.getSent());
+    }
+
+    private void route(Object msg, ChatUser from, Collection<ChatUser> recipients) {
+        Long fromId = from!=null ? from.getId() : null;
+        Set<ServerConnHandler> targets = new HashSet<>();
+        for(ChatUser p : recipients) {
+            if(p==null || p.getId()==null || p.getId().equals(fromId))
+                continue;
+            Set<ServerConnHandler> s = users.get(p.getId());
+            if(s!=null)
+                targets.addAll(s);
         }
+        if(targets.isEmpty())
+            return;
+        // encoded once for all the recipients
+        byte[] frame;
+        try {
+            frame = ChatProtocol.encode(msg);
+        } catch (IOException | RuntimeException ex) {
+            System.out.println("Cannot encode the message: " + ex.getMessage());
+            return;
+        }
+        routed.increment();
+        for(ServerConnHandler c : targets)
+            if(c.send(frame))
+                delivered.increment();
+    }
+
+    void dropSlowClient(ServerConnHandler client) {
+        dropped.increment();
+        System.out.println("Dropping slow client " + client);
+        removeClient(client);
     }
 
     public void removeClient(ServerConnHandler client) {
-        synchronized (clients) {
-            System.out.println("Removing " + client);
-            clients.remove(client);
-            System.out.println("Remaining Clients : " + clients.size());
-            try {
-                client.close();
-            } catch (IOException ex) {
-                System.out.println("Error while removing client " + client);
-                System.out.println(ex.getMessage());
-            }
+        try {
+            if(!client.close())
+                return;
+        } catch (IOException ex) {
+            System.out.println("Error while removing client " + client);
+            System.out.println(ex.getMessage());
+        }
+        System.out.println("Removing " + client);
+        clients.remove(client);
+        ChatUser owner = client.getOwner();
+        if(owner!=null && owner.getId()!=null)
+            unregister(owner.getId(), client);
+        System.out.println("Remaining Clients : " + clients.size());
+    }
+
+    /**
+     * Stops the server and closes all connections
+     */
+    public void stop() {
+        running = false;
+        for(ServerConnHandler c : clients)
+            removeClient(c);
+        decoders.shutdownNow();
+        try {
+            selector.wakeup();
+            server.close();
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
         }
     }
 
+    /**
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return the number of connected clients
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * @return the number of connected chat users
+     */
+    public int getUserCount() {
+        return users.size();
+    }
+
+    /**
+     * @return the number of messages routed
+     */
+    public long getRouted() {
+        return routed.sum();
+    }
+
+    /**
+     * @return the number of messages queued to the recipients connections
+     */
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * @return the number of clients dropped by a full outbound queue
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
     private static int  port = 0;
 
     public static void main(String args[]) {
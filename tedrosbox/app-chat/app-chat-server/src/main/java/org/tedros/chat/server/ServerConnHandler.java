@@ -1,83 +1,249 @@
 package org.tedros.chat.server;
 
-import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.tedros.chat.entity.ChatMessage;
 import org.tedros.chat.entity.ChatUser;
 import org.tedros.chat.model.ChatInfo;
+import org.tedros.chat.protocol.ChatProtocol;
 
-public class ServerConnHandler extends Thread {
-
-	private ChatUser owner;
-    private ChatServer server;
-    private Socket socket;
-    private ObjectOutputStream dout;
-
-    public ServerConnHandler(ChatServer server, Socket socket) throws IOException {
-        this.server = server;
-        this.socket = socket;
-        dout = new ObjectOutputStream(socket.getOutputStream());
-        
-        start();
-    }
-
-    @Override
-    public void run() {
-    	ObjectInputStream ois = null;
-        try {
-        	ois = new ObjectInputStream(socket.getInputStream());
-            while (true) {
-            	Object obj = ois.readObject();
-            	if(obj instanceof ChatMessage) {
-	            	ChatMessage msg = (ChatMessage) obj;
-	                server.replyMessage(msg);
-            	}else if(obj instanceof ChatInfo) {
-	            	ChatInfo msg = (ChatInfo) obj;
-	                server.replyMessage(msg);
-            	}if(obj instanceof ChatUser)
-            		owner = (ChatUser) obj;
-            }
-        } catch (EOFException ex) {
-            //DO NOTHING
-        } catch (IOException ex) {
-            System.out.println(ex.getMessage());
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} finally {
-            server.removeClient(this);
-            try {
-            	if(ois!=null)
-            		ois.close();
-			} catch (IOException e) {
-				e.printStackTrace();
+/**
+ * The state of a client connection.
+ * <p>
+ * The bytes read by the server selector are queued in the inbound buffer
+ * and decoded by a pooled task as {@link ChatProtocol} frames. The task 
+ * only takes the frames whose bytes were all received, checking the length 
+ * prefix against the buffered bytes, and ends when no frame is complete, 
+ * so idle connections and partial frames do not hold a thread.
+ * </p>
+ * <p>
+ * The frames to the client are queued in a bounded outbound queue written 
+ * by the selector when the socket is writable. When the client does not read 
+ * fast enough and the queue is full the connection is closed, a slow client 
+ * never blocks the delivery to the others. The frames are independent, 
+ * the same frame is queued to all the recipients of a message.
+ * </p>
+ */
+public class ServerConnHandler implements Runnable {
+
+	/**
+	 * Max bytes waiting to be written to the client
+	 */
+	static final int MAX_PENDING_BYTES = 8 * 1024 * 1024;
+
+	private final ChatServer server;
+	private final SocketChannel channel;
+	private final String name;
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private SelectionKey key;
+	private volatile ChatUser owner;
+
+	// inbound
+	private final ArrayDeque<ByteBuffer> inbound = new ArrayDeque<>();
+	private int inboundBytes;
+	private boolean decoding;
+	private final byte[] length = new byte[4];
+
+	// outbound
+	private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+	private int pendingBytes;
+
+	public ServerConnHandler(ChatServer server, SocketChannel channel) {
+		this.server = server;
+		this.channel = channel;
+		this.name = String.valueOf(channel.socket());
+	}
+
+	/**
+	 * Queues the bytes read from the socket and schedules the decode task.
+	 * Called by the selector thread.
+	 *
+	 * @param data a buffer owned by this connection
+	 */
+	void received(ByteBuffer data) {
+		boolean schedule = false;
+		synchronized (inbound) {
+			inbound.add(data);
+			inboundBytes += data.remaining();
+			if(!decoding) {
+				decoding = true;
+				schedule = true;
+			}
+		}
+		if(schedule)
+			server.decode(this);
+	}
+
+	/**
+	 * Decodes and dispatches the received frames until no frame is complete
+	 */
+	@Override
+	public void run() {
+		try {
+			byte[] body;
+			while ((body = nextFrame())!=null) {
+				Object obj = ChatProtocol.decode(body);
+				if(obj instanceof ChatMessage) {
+					ChatMessage msg = (ChatMessage) obj;
+					server.replyMessage(msg);
+				}else if(obj instanceof ChatInfo) {
+					ChatInfo msg = (ChatInfo) obj;
+					server.replyMessage(msg);
+				}else if(obj instanceof ChatUser)
+					server.registerOwner(this, (ChatUser) obj);
+			}
+		} catch (IOException ex) {
+			System.out.println(ex.getMessage());
+			server.removeClient(this);
+		}
+	}
+
+	/**
+	 * Takes the next frame if all its bytes were received, 
+	 * else ends the decoding until more bytes are received.
+	 *
+	 * @return the frame without the length or null
+	 * @throws StreamCorruptedException if the frame length is invalid
+	 */
+	private byte[] nextFrame() throws StreamCorruptedException {
+		synchronized (inbound) {
+			if(closed.get() || inboundBytes < length.length) {
+				decoding = false;
+				return null;
+			}
+			copy(length, false);
+			int len = ((length[0] & 0xff) << 24) | ((length[1] & 0xff) << 16) 
+					| ((length[2] & 0xff) << 8) | (length[3] & 0xff);
+			if(len < 2 || len > ChatProtocol.MAX_FRAME) {
+				decoding = false;
+				throw new StreamCorruptedException("Invalid chat frame length: " + len);
+			}
+			if(inboundBytes < length.length + len) {
+				decoding = false;
+				return null;
+			}
+			copy(length, true);
+			byte[] body = new byte[len];
+			copy(body, true);
+			return body;
+		}
+	}
+
+	/**
+	 * Copies the first bytes of the inbound buffer, must hold its lock.
+	 *
+	 * @param dst the bytes to fill
+	 * @param consume true to remove the bytes from the buffer
+	 */
+	private void copy(byte[] dst, boolean consume) {
+		int off = 0;
+		Iterator<ByteBuffer> it = inbound.iterator();
+		while(off < dst.length) {
+			ByteBuffer bb = it.next();
+			ByteBuffer src = consume ? bb : bb.duplicate();
+			int n = Math.min(dst.length - off, src.remaining());
+			src.get(dst, off, n);
+			off += n;
+			if(consume && !bb.hasRemaining())
+				it.remove();
+		}
+		if(consume)
+			inboundBytes -= dst.length;
+	}
+
+	/**
+	 * Queues the frame to be written to the client.
+	 *
+	 * @param frame the encoded frame, shared by all the recipients
+	 * @return false if the connection is closed or the queue is full
+	 */
+	boolean send(byte[] frame) {
+		boolean first;
+		boolean full;
+		synchronized (outbound) {
+			if(closed.get())
+				return false;
+			full = pendingBytes + frame.length > MAX_PENDING_BYTES;
+			first = !full && outbound.isEmpty();
+			if(!full) {
+				outbound.add(ByteBuffer.wrap(frame));
+				pendingBytes += frame.length;
+			}
+		}
+		if(full) {
+			server.dropSlowClient(this);
+			return false;
+		}
+		if(first)
+			server.requestWrite(this);
+		return true;
+	}
+
+	/**
+	 * Writes the queued frames while the socket accepts them.
+	 * Called by the selector thread.
+	 *
+	 * @return true if all the frames were written
+	 * @throws IOException
+	 */
+	boolean flush() throws IOException {
+		synchronized (outbound) {
+			ByteBuffer b;
+			while((b = outbound.peek())!=null) {
+				pendingBytes -= channel.write(b);
+				if(b.hasRemaining())
+					return false;
+				outbound.poll();
 			}
-        }
-    }
-
-    public void send(ChatMessage msg) {
-        try {
-        	//msg.setStatus(TStatus.RECEIVED);
-        	dout.writeObject(msg);
-        } catch (Exception ex) {
-            System.out.println(ex);
-        }
-    }
-    
-    public void send(ChatInfo info) {
-        try {
-        	dout.writeObject(info);
-        } catch (Exception ex) {
-            System.out.println(ex);
-        }
-    }
-
-    public void close() throws IOException {
-        socket.close();
-    }
+			return true;
+		}
+	}
+
+	/**
+	 * @return true if the connection was open
+	 * @throws IOException
+	 */
+	boolean close() throws IOException {
+		if(!closed.compareAndSet(false, true))
+			return false;
+		synchronized (inbound) {
+			inbound.clear();
+			inboundBytes = 0;
+		}
+		synchronized (outbound) {
+			outbound.clear();
+			pendingBytes = 0;
+		}
+		channel.close();
+		return true;
+	}
+
+	boolean isClosed() {
+		return closed.get();
+	}
+
+	SocketChannel getChannel() {
+		return channel;
+	}
+
+	SelectionKey getKey() {
+		return key;
+	}
+
+	void setKey(SelectionKey key) {
+		this.key = key;
+	}
+
+	void setOwner(ChatUser owner) {
+		this.owner = owner;
+	}
 
 	/**
 	 * @return the owner
@@ -85,4 +251,9 @@ public class ServerConnHandler extends Thread {
 	public ChatUser getOwner() {
 		return owner;
 	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
 }
@@ -0,0 +1,229 @@
+package org.tedros.chat.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tedros.chat.entity.ChatMessage;
+import org.tedros.chat.entity.ChatUser;
+import org.tedros.chat.protocol.ChatProtocol;
+
+/**
+ * Load harness for the {@link ChatServer}.
+ * <p>
+ * Starts a server on a free local port and connects the simulated clients
+ * using the same protocol frames of the fx ChatClient. The clients are split
+ * in rooms, each client sends its messages to the other members of its room
+ * and the receivers measure the delivery latency from the send time carried
+ * in the message content.
+ * </p>
+ * Usage: ChatLoadHarness [clients=1000] [roomSize=10] [messagesPerClient=20] [messagesPerSecond=0]
+ * <br>
+ * With messagesPerSecond = 0 the messages are sent as fast as possible (throughput),
+ * a rate below the throughput measures the latency without saturating the server.
+ */
+public class ChatLoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int roomSize = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int messages = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int rate = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        ChatServer server = new ChatServer();
+        server.open(0);
+        Thread loop = new Thread(()->{
+            try {
+                server.listen();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "chat-selector");
+        loop.start();
+
+        List<SimClient> list = new ArrayList<>(clients);
+        for(int i=0; i<clients; i++) {
+            ChatUser u = new ChatUser();
+            u.setId((long) i + 1);
+            u.setName("user" + i);
+            list.add(new SimClient(u));
+        }
+        long expected = 0;
+        for(int i=0; i<clients; i++) {
+            int first = (i / roomSize) * roomSize;
+            int last = Math.min(first + roomSize, clients);
+            SimClient c = list.get(i);
+            for(int j=first; j<last; j++)
+                if(j!=i)
+                    c.room.add(list.get(j).user);
+            expected += (long) c.room.size() * messages;
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        Stats stats = new Stats(expected, done);
+        for(SimClient c : list)
+            c.connect(server.getPort(), stats);
+
+        long wait = System.currentTimeMillis() + 60000;
+        while(server.getUserCount() < clients && System.currentTimeMillis() < wait)
+            Thread.sleep(50);
+        System.out.println("Connected users: " + server.getUserCount());
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService senders = Executors.newFixedThreadPool(threads);
+        long interval = rate > 0 ? 1_000_000_000L * threads / rate : 0;
+        long start = System.nanoTime();
+        for(int t=0; t<threads; t++) {
+            final int offset = t;
+            senders.execute(()->{
+                long next = System.nanoTime();
+                for(int m=0; m<messages; m++)
+                    for(int i=offset; i<clients; i+=threads) {
+                        if(interval > 0) {
+                            next += interval;
+                            long w = next - System.nanoTime();
+                            if(w > 0)
+                                LockSupport.parkNanos(w);
+                        }
+                        list.get(i).sendMessage();
+                    }
+            });
+        }
+        senders.shutdown();
+        senders.awaitTermination(10, TimeUnit.MINUTES);
+        boolean all = done.await(2, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        long[] lat = stats.latencies();
+        Arrays.sort(lat);
+        double secs = elapsed / 1e9;
+        System.out.println("-----------------+");
+        System.out.println("Clients            : " + clients + " (room size " + roomSize + ")");
+        System.out.println("Send rate          : " + (rate > 0 ? rate + " msg/s" : "max"));
+        System.out.println("Messages sent      : " + (long) clients * messages);
+        System.out.println("Deliveries         : " + lat.length + " of " + expected + (all ? "" : " (timeout)"));
+        System.out.println("Dropped clients    : " + server.getDropped());
+        System.out.printf("Elapsed            : %.2f s%n", secs);
+        System.out.printf("Messages/second    : %.0f%n", clients * messages / secs);
+        System.out.printf("Deliveries/second  : %.0f%n", lat.length / secs);
+        if(lat.length > 0) {
+            System.out.printf("Latency p50        : %.2f ms%n", percentile(lat, 0.50) / 1e6);
+            System.out.printf("Latency p99        : %.2f ms%n", percentile(lat, 0.99) / 1e6);
+            System.out.printf("Latency max        : %.2f ms%n", lat[lat.length - 1] / 1e6);
+        }
+
+        for(SimClient c : list)
+            c.close();
+        server.stop();
+        System.exit(all ? 0 : 1);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+
+    private static class Stats {
+
+        private final long expected;
+        private final CountDownLatch done;
+        private final List<long[]> chunks = new ArrayList<>();
+        private long received;
+
+        Stats(long expected, CountDownLatch done) {
+            this.expected = expected;
+            this.done = done;
+        }
+
+        synchronized void add(long[] values, int size) {
+            chunks.add(Arrays.copyOf(values, size));
+            received += size;
+            if(received >= expected)
+                done.countDown();
+        }
+
+        synchronized long[] latencies() {
+            long[] all = new long[(int) received];
+            int pos = 0;
+            for(long[] c : chunks) {
+                System.arraycopy(c, 0, all, pos, c.length);
+                pos += c.length;
+            }
+            return all;
+        }
+    }
+
+    private static class SimClient {
+
+        private final ChatUser user;
+        private final List<ChatUser> room = new ArrayList<>();
+        private Socket socket;
+        private DataOutputStream dout;
+
+        SimClient(ChatUser user) {
+            this.user = user;
+        }
+
+        void connect(int port, Stats stats) throws IOException {
+            socket = new Socket("127.0.0.1", port);
+            socket.setTcpNoDelay(true);
+            DataInputStream din = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            dout = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            Thread t = new Thread(()->{
+                long[] buf = new long[256];
+                int n = 0;
+                try {
+                    while(true) {
+                        Object obj = ChatProtocol.read(din);
+                        if(obj instanceof ChatMessage) {
+                            buf[n++] = System.nanoTime() - Long.parseLong(((ChatMessage) obj).getContent());
+                            if(n==buf.length || din.available()==0) {
+                                stats.add(buf, n);
+                                n = 0;
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    if(n>0)
+                        stats.add(buf, n);
+                }
+            }, "sim-" + user.getName());
+            t.setDaemon(true);
+            t.start();
+            send(user);
+        }
+
+        void sendMessage() {
+            ChatMessage msg = new ChatMessage();
+            msg.setFrom(user);
+            for(ChatUser u : room)
+                msg.addDestination(u);
+            msg.setContent(String.valueOf(System.nanoTime()));
+            send(msg);
+        }
+
+        synchronized void send(Object obj) {
+            try {
+                ChatProtocol.write(dout, obj);
+                dout.flush();
+            } catch (IOException e) {
+                System.out.println(user.getName() + ": " + e.getMessage());
+            }
+        }
+
+        void close() throws IOException {
+            socket.close();
+        }
+    }
+}
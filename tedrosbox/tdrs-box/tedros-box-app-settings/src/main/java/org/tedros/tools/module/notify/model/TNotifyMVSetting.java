@@ -62,6 +62,7 @@ public class TNotifyMVSetting extends TSetting {
 				break;
 			case QUEUED:
 			case SCHEDULED:
+			case DISPATCHED:
 				rg.addRadioButton(buildItem(TAction.CANCEL));
 				break;
 			}
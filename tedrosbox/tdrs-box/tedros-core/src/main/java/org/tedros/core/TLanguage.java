@@ -1,11 +1,11 @@
 package org.tedros.core;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -16,15 +16,20 @@ import org.tedros.util.TStripTagUtil;
  * The Internationalization engine,  return 
  * the value of a key from the resource bundle of an application 
  * by the language selectd at the login stage.
- * 
+ * <p>
+ * The keys of the bundles of each application are merged in an index
+ * when the bundles are added, the resolved strings are cached
+ * until the bundles or the locale change.
+ * </p>
  * @author Davis Gordon
  * */
 public class TLanguage {
 	
 	public static final String GLOBAL_UUID = "TGLOBAL";  
-	private static final Map<String, Map<String, ResourceBundle>> bundles = new HashMap<>();
-	private static TStripTagUtil tStripTagUtil = new TStripTagUtil();
-	private static List<ResourceDescriptor> resources = new ArrayList<>();
+	private static final Object LOCK = new Object();
+	private static final Map<String, Map<String, ResourceBundle>> bundles = new LinkedHashMap<>();
+	private static final List<ResourceDescriptor> resources = new ArrayList<>();
+	private static volatile Map<String, TLanguageIndex> indexes = Collections.emptyMap();
 	
 	private String currentUUID;
 	
@@ -47,7 +52,6 @@ public class TLanguage {
 	
 	private TLanguage(String appUUID) {
 		this.currentUUID = appUUID;
-		TLanguage.tStripTagUtil = new TStripTagUtil();
 		validUUID();
 	}
 
@@ -89,18 +93,31 @@ public class TLanguage {
 	 * Return the value of the key
 	 * */
 	public String getString(String key){
-		String value = find(currentUUID, key);
+		if(!TStripTagUtil.isTagPresent(key))
+			return key;
+		
+		final Map<String, TLanguageIndex> idx = indexes;
+		final TLanguageIndex current = idx.get(currentUUID);
+		String value = current!=null ? current.getResolved(key) : null;
+		if(value!=null)
+			return value;
+		
+		value = current!=null ? current.resolve(key) : key;
 		
-		if(tStripTagUtil.isTagPresent(value)){
-			for (String uuid : bundles.keySet()) {
-				if(currentUUID!=null && currentUUID.equals(uuid))
+		if(TStripTagUtil.isTagPresent(value)){
+			// search the other apps
+			for (Map.Entry<String, TLanguageIndex> e : idx.entrySet()) {
+				if(currentUUID!=null && currentUUID.equals(e.getKey()))
 					continue;
-				value = find(uuid, value);
-				if(!tStripTagUtil.isTagPresent(value))
-					return value;
+				value = e.getValue().resolve(value);
+				if(!TStripTagUtil.isTagPresent(value))
+					break;
 			}
 		}
 		
+		if(current!=null)
+			current.putResolved(key, value);
+		
 		return value;
 	}
 	
@@ -109,36 +126,14 @@ public class TLanguage {
 	 * */
 	public String find(String uuid, String key){
 		
-		if(!tStripTagUtil.isTagPresent(key))
+		if(!TStripTagUtil.isTagPresent(key))
 			return key;
 		
-		String[] keys = tStripTagUtil.getTags(key);
-		
 		if(uuid == null)
 			uuid = GLOBAL_UUID;
 		
-		ResourceBundle resourceBundle = null;
-		String value = key;
-		StringBuffer v;
-		for (String k : keys) {
-			v = null;			
-			for (String bundle : bundles.get(uuid).keySet()) {
-				resourceBundle = bundles.get(uuid).get(bundle);
-				if(resourceBundle!=null){
-					try{
-						v = new StringBuffer();
-						v.append(resourceBundle.getString(k));
-					}catch(MissingResourceException e){ 
-						continue; 
-					}
-				}
-				if(v!=null)
-					value = tStripTagUtil.replaceTag(value, k, v.toString());
-			}
-		}	
-		
-		
-		return value;
+		TLanguageIndex index = indexes.get(uuid);
+		return index!=null ? index.resolve(key) : key;
 	}
 	
 	/**
@@ -152,8 +147,10 @@ public class TLanguage {
 	 * Adds a resource bundle identified by the app unique identifier 
 	 * */
 	public static void addResourceBundles(String appUUID, ClassLoader classLoader, String... bundles) {
-		for (String bundle : bundles) {
-			addResourceBundle(appUUID, bundle, classLoader);
+		synchronized (LOCK) {
+			for (String bundle : bundles) {
+				addResourceBundle(appUUID, bundle, classLoader);
+			}
 		}
 	}
 	
@@ -165,29 +162,53 @@ public class TLanguage {
 		if(appUUID==null)
 			appUUID = GLOBAL_UUID;
 		
-		ResourceDescriptor resDescriptor = new ResourceDescriptor(appUUID, bundle, classLoader);
-		if(!TLanguage.resources.contains(resDescriptor))
-			TLanguage.resources.add(resDescriptor);
-		
-		if(!bundles.containsKey(appUUID))
-			bundles.put(appUUID, buildMap(bundle, ResourceBundle.getBundle(bundle, getLocale(), classLoader)));
-		else
-			bundles.get(appUUID).put(bundle, ResourceBundle.getBundle(bundle, getLocale(), classLoader));
+		synchronized (LOCK) {
+			ResourceDescriptor resDescriptor = new ResourceDescriptor(appUUID, bundle, classLoader);
+			if(!TLanguage.resources.contains(resDescriptor))
+				TLanguage.resources.add(resDescriptor);
+			
+			load(appUUID, bundle, classLoader);
+			publish(appUUID);
+		}
 	}
 	
-	private static Map<String, ResourceBundle> buildMap(String bundle, ResourceBundle resourceBundle){
-		Map<String, ResourceBundle> map = new HashMap<>();
-		map.put(bundle, resourceBundle);
-		return map;
+	private static void load(String appUUID, String bundle, ClassLoader classLoader) {
+		bundles.computeIfAbsent(appUUID, k->new LinkedHashMap<>())
+		.put(bundle, ResourceBundle.getBundle(bundle, getLocale(), classLoader));
+	}
+	
+	/**
+	 * Rebuilds the index of the app, the indexes of the other 
+	 * apps are kept but their resolved strings are discarded
+	 * as they can be resolved by the changed app. 
+	 * Must be called with the lock.
+	 */
+	private static void publish(String appUUID) {
+		Map<String, TLanguageIndex> map = new LinkedHashMap<>();
+		for(Map.Entry<String, Map<String, ResourceBundle>> e : bundles.entrySet()) {
+			TLanguageIndex index = appUUID==null || appUUID.equals(e.getKey()) 
+					? null 
+							: indexes.get(e.getKey());
+			if(index==null)
+				index = new TLanguageIndex(e.getValue().values());
+			else
+				index.clearResolved();
+			map.put(e.getKey(), index);
+		}
+		indexes = Collections.unmodifiableMap(map);
 	}
 	
 	/**
 	 * Reloads the resource bundles  
 	 * */
 	public static void reloadBundles(){
-		bundles.clear();
-		for (ResourceDescriptor descriptor : resources) {
-			addResourceBundle(descriptor.appuuid, descriptor.bundle, descriptor.classLoader);
+		synchronized (LOCK) {
+			bundles.clear();
+			for (ResourceDescriptor descriptor : resources) {
+				load(descriptor.appuuid, descriptor.bundle, descriptor.classLoader);
+			}
+			// rebuild all indexes
+			publish(null);
 		}
 	}
 	
@@ -199,10 +220,11 @@ public class TLanguage {
 		if(appUUID==null)
 			appUUID = GLOBAL_UUID;
 		
-		return (bundles.containsKey(appUUID) && bundles.get(appUUID).containsKey(bundle) ) 
-				? bundles.get(appUUID).get(bundle) 
-						: null;
-		
+		synchronized (LOCK) {
+			return (bundles.containsKey(appUUID) && bundles.get(appUUID).containsKey(bundle) ) 
+					? bundles.get(appUUID).get(bundle) 
+							: null;
+		}
 	}
 
 	
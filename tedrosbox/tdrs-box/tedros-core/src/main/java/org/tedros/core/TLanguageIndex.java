@@ -0,0 +1,120 @@
+/**
+ *
+ */
+package org.tedros.core;
+
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.tedros.util.TStripTagUtil;
+
+/**
+ * The keys of all resource bundles of an application
+ * merged in one map, built when a bundle is added,
+ * when two bundles have the same key the first added wins.
+ * <p>
+ * Keeps the strings resolved by {@link TLanguage#getString(String)}
+ * with this application as the current one, the index is replaced
+ * when the bundles or the locale change.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+final class TLanguageIndex {
+
+	/**
+	 * Max resolved strings kept by application
+	 */
+	static final int MAX_RESOLVED = 20_000;
+
+	private static final String OPEN_TAG = TStripTagUtil.OPEN_TAG;
+	private static final String CLOSE_TAG = TStripTagUtil.CLOSE_TAG;
+
+	private final Map<String, String> values;
+	private final Map<String, String> resolved = new ConcurrentHashMap<>();
+
+	TLanguageIndex(Collection<ResourceBundle> bundles) {
+		Map<String, String> map = new HashMap<>();
+		for(ResourceBundle b : bundles) {
+			if(b==null)
+				continue;
+			Enumeration<String> keys = b.getKeys();
+			while(keys.hasMoreElements()) {
+				String k = keys.nextElement();
+				if(map.containsKey(k))
+					continue;
+				Object v = b.getObject(k);
+				if(v instanceof String)
+					map.put(k, (String) v);
+			}
+		}
+		this.values = map;
+	}
+
+	/**
+	 * @return the value of the key or null if not found
+	 */
+	String get(String key) {
+		return values.get(key);
+	}
+
+	/**
+	 * @return the number of keys
+	 */
+	int size() {
+		return values.size();
+	}
+
+	/**
+	 * Replaces the tags of the content with the values found,
+	 * the tags not found are kept.
+	 */
+	String resolve(String content) {
+		int open = content.indexOf(OPEN_TAG);
+		StringBuilder sb = null;
+		int last = 0;
+		while(open!=-1) {
+			int close = content.indexOf(CLOSE_TAG, open + OPEN_TAG.length());
+			if(close==-1)
+				break;
+			String v = values.get(content.substring(open + OPEN_TAG.length(), close));
+			if(v!=null) {
+				if(sb==null)
+					sb = new StringBuilder(content.length() + 32);
+				sb.append(content, last, open).append(v);
+				last = close + CLOSE_TAG.length();
+			}
+			open = content.indexOf(OPEN_TAG, close + CLOSE_TAG.length());
+		}
+		if(sb==null)
+			return content;
+		return sb.append(content, last, content.length()).toString();
+	}
+
+	/**
+	 * @return the string resolved before for the key or null
+	 */
+	String getResolved(String key) {
+		return resolved.get(key);
+	}
+
+	/**
+	 * Keeps the resolved string while the limit is not reached
+	 */
+	void putResolved(String key, String value) {
+		if(resolved.size() < MAX_RESOLVED)
+			resolved.put(key, value);
+	}
+
+	/**
+	 * Clears the resolved strings, called when
+	 * the bundles of another application change
+	 */
+	void clearResolved() {
+		resolved.clear();
+	}
+}
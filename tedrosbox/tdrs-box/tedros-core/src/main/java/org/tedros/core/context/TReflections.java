@@ -10,11 +10,18 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.tedros.core.annotation.TApplication;
 import org.tedros.core.model.ITModelView;
@@ -22,6 +29,19 @@ import org.tedros.util.TLoggerUtil;
 import org.tedros.util.TedrosFolder;
 
 /**
+ * Finds the application classes.
+ * <p>
+ * The classes are read from the {@link TReflectionsIndex#INDEX_RESOURCE}
+ * written in the jars at build time by the {@link TReflectionsIndexProcessor},
+ * the classpath is scanned only if no index is found, if the searched
+ * annotation or type is not indexed or if the 'index' property of the
+ * {@value #APP_PACKAGES_PROPERTIES} file is false.
+ * </p>
+ * <p>
+ * When the index is used the jars and folders with classes of the configured 
+ * packages or of org.tedros but without an index, built without the processor, 
+ * are logged and only they are scanned, their classes are added to the indexed ones.
+ * </p>
  * @author Davis Gordon
  *
  */
@@ -30,6 +50,11 @@ public final class TReflections {
 	public static final String APP_PACKAGES_PROPERTIES = "app-packages.properties";
 	private static TReflections instance;
 	private  Reflections repo;
+	private String[] packages;
+	private Map<String, Set<String>> index;
+	private Set<URL> unindexed;
+	private Reflections unindexedRepo;
+	private final Map<String, Class<?>> modelViews = new ConcurrentHashMap<>();
 	/**
 	 * 
 	 */
@@ -42,21 +67,95 @@ public final class TReflections {
 	 * @throws FileNotFoundException
 	 */
 	public TReflections loadPackages()  {
+		repo = null;
+		packages = null;
+		unindexed = null;
+		unindexedRepo = null;
+		modelViews.clear();
+		String propFilePath = TedrosFolder.CONF_FOLDER.getFullPath()+APP_PACKAGES_PROPERTIES;
+		Properties p = new Properties();
+		File propFile = new File(propFilePath);
+		if(propFile.isFile()) {
+			try(InputStream input = new FileInputStream(propFile)){
+				p.load(input);
+			} catch (IOException e) {
+				TLoggerUtil.error(getClass(), e.getMessage(), e);
+			}
+		}
+		
+		Set<String> indexedRoots = new HashSet<>();
+		index = "false".equalsIgnoreCase(p.getProperty("index")) 
+				? null 
+						: readIndex(indexedRoots);
+		if(index!=null) {
+			TLoggerUtil.info(getClass(), "Using the application classes index, "+index.size()+" entries.");
+			Set<URL> missing = getRootsWithoutIndex(p.getProperty("packages"), indexedRoots);
+			if(!missing.isEmpty()) {
+				TLoggerUtil.warn(getClass(), "The application classes of these jars are not indexed "
+						+ "and will be scanned, build them with the tedros-core annotation processor: "+missing);
+				unindexed = missing;
+			}
+			return this;
+		}
+		
 		try {
-			String propFilePath = TedrosFolder.CONF_FOLDER.getFullPath()+APP_PACKAGES_PROPERTIES;
 			TLoggerUtil.info(getClass(), "Searching for the application packages to load configured in the file: "+propFilePath);
-			if(!(new File(propFilePath).isFile()))
+			if(!propFile.isFile()) {
 				TReflections.createAppPackagesIndex();
-			
-			String[] packages = null;
-			Properties p = new Properties();
-			try(InputStream input = new FileInputStream(propFilePath)){
+				try(InputStream input = new FileInputStream(propFilePath)){
 					p.load(input);
-					if(p.containsKey("packages"))
-						packages = ((String)p.get("packages")).split(",");
+				}
 			}
+			
+			if(p.containsKey("packages"))
+				packages = ((String)p.get("packages")).split(",");
+		} catch (IOException e) {
+			TLoggerUtil.error(getClass(), e.getMessage(), e);
+		}
+		scan();
+		return this;
+	}
+	
+	private static Map<String, Set<String>> readIndex(Set<String> roots) {
+		try {
+			return TReflectionsIndex.read(getClassLoader(), roots);
+		} catch (IOException e) {
+			TLoggerUtil.error(TReflections.class, e.getMessage(), e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Returns the classpath roots with classes of the packages 
+	 * or of org.tedros without an index
+	 */
+	private static Set<URL> getRootsWithoutIndex(String packages, Set<String> indexedRoots) {
+		Set<String> pkgs = new LinkedHashSet<>();
+		pkgs.add("org.tedros");
+		if(packages!=null)
+			for(String n : packages.split(","))
+				if(!n.isBlank())
+					pkgs.add(n.trim());
+		Set<URL> roots = new LinkedHashSet<>();
+		for(String n : pkgs)
+			for(URL url : ClasspathHelper.forPackage(n, getClassLoader()))
+				if(!indexedRoots.contains(TReflectionsIndex.getRoot(url)))
+					roots.add(url);
+		return roots;
+	}
+	
+	private static ClassLoader getClassLoader() {
+		ClassLoader cl = Thread.currentThread().getContextClassLoader();
+		return cl!=null ? cl : TReflections.class.getClassLoader();
+	}
+	
+	/**
+	 * Returns the classpath scanner, scanning on the first call.
+	 */
+	private synchronized Reflections scan() {
+		if(repo==null) {
 			if(packages!=null) {
-				TLoggerUtil.info(getClass(), "App packages to lookup: "+packages);
+				TLoggerUtil.info(getClass(), "App packages to lookup: "+String.join(",", packages));
 				repo =  new Reflections(new ConfigurationBuilder()
 						.useParallelExecutor()
 						.forPackages(packages)); 
@@ -64,38 +163,99 @@ public final class TReflections {
 				TLoggerUtil.warn(getClass(), "Application packages not configured, "
 						+ "for best performance list the name of the root packages of "
 						+ "each application separated by a comma in the 'packages' "
-						+ "property in the "+propFilePath
+						+ "property in the "+TedrosFolder.CONF_FOLDER.getFullPath()+APP_PACKAGES_PROPERTIES
 						+ " file otherwise the lookup by applications will be performed on all system packages.");
 				repo = new Reflections();
 			}
-			
-		} catch (IOException e) {
-			TLoggerUtil.error(getClass(), e.getMessage(), e);
 		}
-				
-		return this;
+		return repo;
 	}
 	
 	/**
-	 * Return a {@link Set} of class with this specific annotation type. 
+	 * Returns the scanner of the jars without index, scanning on the first call.
+	 */
+	private synchronized Reflections scanUnindexed() {
+		if(unindexedRepo==null)
+			unindexedRepo = new Reflections(new ConfigurationBuilder()
+					.useParallelExecutor()
+					.addUrls(unindexed));
+		return unindexedRepo;
+	}
+	
+	/**
+	 * Return the indexed class names or null if not indexed
+	 */
+	private Set<String> getIndexed(String key) {
+		final Map<String, Set<String>> idx = index;
+		return idx!=null ? idx.get(key) : null;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> Set<Class<? extends T>> forNames(Set<String> names) {
+		Set<Class<? extends T>> clss = new HashSet<>();
+		ClassLoader cl = getClassLoader();
+		for(String n : names) {
+			try {
+				clss.add((Class<? extends T>) Class.forName(n, false, cl));
+			} catch (ClassNotFoundException | LinkageError e) {
+				TLoggerUtil.warn(TReflections.class, "The indexed class "+n+" was not found: "+e.getMessage());
+			}
+		}
+		return clss;
+	}
+	
+	/**
+	 * Return the model view class with the given name. 
 	 * */
-	@SuppressWarnings("rawtypes")
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public Class<? extends ITModelView> getModelViewClass(String modelViewClassName){
-		Optional<Class<? extends ITModelView>> op = repo.getSubTypesOf(ITModelView.class)
-				.parallelStream()
-				.filter(p->{
-					return p.getName().equals(modelViewClassName);
-				}).findFirst();
-		return op.isPresent() 
-				? op.get() 
-						: null;
+		if(modelViewClassName==null)
+			return null;
+		Class<?> c = modelViews.get(modelViewClassName);
+		if(c!=null)
+			return (Class<? extends ITModelView>) c;
+		
+		Set<String> names = getIndexed(TReflectionsIndex.SUBTYPES+ITModelView.class.getName());
+		if(names!=null) {
+			if(names.contains(modelViewClassName)) {
+				Set<Class<? extends ITModelView>> clss = forNames(Collections.singleton(modelViewClassName));
+				c = clss.isEmpty() ? null : clss.iterator().next();
+			}else if(unindexed!=null)
+				c = find(scanUnindexed().getSubTypesOf(ITModelView.class), modelViewClassName);
+		}else {
+			Optional<Class<? extends ITModelView>> op = scan().getSubTypesOf(ITModelView.class)
+					.stream()
+					.filter(p->{
+						return p.getName().equals(modelViewClassName);
+					}).findFirst();
+			c = op.isPresent() 
+					? op.get() 
+							: null;
+		}
+		if(c!=null)
+			modelViews.put(modelViewClassName, c);
+		return (Class<? extends ITModelView>) c;
+	}
+	
+	private static <T> Class<? extends T> find(Set<Class<? extends T>> clss, String name) {
+		for(Class<? extends T> c : clss)
+			if(c.getName().equals(name))
+				return c;
+		return null;
 	}
 	
 	/**
 	 * Return a {@link Set} of class with this specific annotation type. 
 	 * */
 	public Set<Class<?>> getClassesAnnotatedWith(Class<? extends Annotation> annotationClass){
-		return repo.getTypesAnnotatedWith(annotationClass);
+		Set<String> names = getIndexed(TReflectionsIndex.ANNOTATED+annotationClass.getName());
+		if(names!=null) {
+			Set<Class<?>> clss = new HashSet<Class<?>>(forNames(names));
+			if(unindexed!=null)
+				clss.addAll(scanUnindexed().getTypesAnnotatedWith(annotationClass));
+			return clss;
+		}
+		return scan().getTypesAnnotatedWith(annotationClass);
 	}
 	
 	
@@ -105,18 +265,33 @@ public final class TReflections {
 	 * @return Set<Class<? extends T>>
 	 */
 	public <T> Set<Class<? extends T>>  getSubTypesOf(Class<T> type){
-		Set<Class<? extends T>> clss = repo.getSubTypesOf(type);
+		Set<String> names = getIndexed(TReflectionsIndex.SUBTYPES+type.getName());
+		if(names!=null) {
+			Set<Class<? extends T>> clss = forNames(names);
+			if(unindexed!=null)
+				clss.addAll(scanUnindexed().getSubTypesOf(type));
+			return clss;
+		}
+		Set<Class<? extends T>> clss = scan().getSubTypesOf(type);
 		return clss;
 	}
 	
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public static void createAppPackagesIndex() {
 		try {
-			Reflections ref = new Reflections();
-			Set<Class<?>> clss = ref.getTypesAnnotatedWith(TApplication.class);
+			Set<String> indexed = null;
+			Map<String, Set<String>> idx = readIndex(new HashSet<>());
+			if(idx!=null)
+				indexed = idx.get(TReflectionsIndex.ANNOTATED+TApplication.class.getName());
+			
+			Set<Class<?>> clss = indexed!=null 
+					? new HashSet<Class<?>>(forNames(indexed))
+							: new Reflections().getTypesAnnotatedWith(TApplication.class);
 			String n = "";
 			for(Class c : clss) {
 				TApplication a = (TApplication) c.getAnnotation(TApplication.class);
+				if(a==null)
+					continue;
 				n += "".equals(n) ? a.packageName() : ","+a.packageName();
 			}
 			
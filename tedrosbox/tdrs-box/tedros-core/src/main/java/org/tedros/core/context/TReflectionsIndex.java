@@ -0,0 +1,106 @@
+/**
+ *
+ */
+package org.tedros.core.context;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The class index written in the jars at build time by the
+ * {@link TReflectionsIndexProcessor} and read by {@link TReflections}.
+ * <p>
+ * A properties like text where the key is the annotation or the type
+ * prefixed by {@link #ANNOTATED} or {@link #SUBTYPES} and the value
+ * the class names separated by comma.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+final class TReflectionsIndex {
+
+	static final String INDEX_RESOURCE = "META-INF/tedros/reflections.index";
+	static final String ANNOTATED = "annotated.";
+	static final String SUBTYPES = "subtypes.";
+
+	/**
+	 * The annotations indexed
+	 */
+	static final String[] INDEXED_ANNOTATIONS = {
+			"org.tedros.core.annotation.TApplication",
+			"org.tedros.core.annotation.TModule",
+			"org.tedros.core.annotation.TView",
+			"org.tedros.core.annotation.security.TSecurity"
+	};
+
+	/**
+	 * The types indexed
+	 */
+	static final String[] INDEXED_TYPES = {
+			"org.tedros.core.model.ITModelView",
+			"org.tedros.ai.function.TFunction"
+	};
+
+	private TReflectionsIndex() {
+	}
+
+	/**
+	 * Reads and merges the indexes of all jars
+	 *
+	 * @param roots receives the jars and folders with an index, see {@link #getRoot(URL)}
+	 * @return the class names by key or null if no index was found
+	 */
+	static Map<String, Set<String>> read(ClassLoader loader, Set<String> roots) throws IOException {
+		Enumeration<URL> urls = loader.getResources(INDEX_RESOURCE);
+		if(!urls.hasMoreElements())
+			return null;
+		Map<String, Set<String>> map = new HashMap<>();
+		while(urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			roots.add(getRoot(url));
+			try(BufferedReader r = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))){
+				String l;
+				while((l = r.readLine())!=null) {
+					int i = l.indexOf('=');
+					if(l.startsWith("#") || i<1)
+						continue;
+					Set<String> names = map.computeIfAbsent(l.substring(0, i).trim(), k->new LinkedHashSet<>());
+					for(String c : l.substring(i+1).split(","))
+						if(!c.isBlank())
+							names.add(c.trim());
+				}
+			}
+		}
+		for(Map.Entry<String, Set<String>> e : map.entrySet())
+			e.setValue(Collections.unmodifiableSet(e.getValue()));
+		return map;
+	}
+	
+	/**
+	 * Returns the classpath root of a resource or of a root url, 
+	 * the jar file url or the folder url without the trailing slash.
+	 *
+	 * @param url the resource url or the root url
+	 * @return the root
+	 */
+	static String getRoot(URL url) {
+		String s = url.toExternalForm();
+		if(s.startsWith("jar:")) {
+			int i = s.indexOf("!/");
+			s = s.substring(4, i>0 ? i : s.length());
+		}else if(s.endsWith(INDEX_RESOURCE))
+			s = s.substring(0, s.length() - INDEX_RESOURCE.length());
+		while(s.endsWith("/"))
+			s = s.substring(0, s.length() - 1);
+		return s;
+	}
+}
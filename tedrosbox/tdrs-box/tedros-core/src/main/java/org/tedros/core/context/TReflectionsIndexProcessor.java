@@ -0,0 +1,168 @@
+/**
+ *
+ */
+package org.tedros.core.context;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the {@link TReflectionsIndex#INDEX_RESOURCE} of the module
+ * with the classes {@link TReflections} would find scanning the classpath:
+ * the types annotated with the indexed annotations and the subtypes
+ * of the indexed types.
+ * <p>
+ * Registered as a service of tedros-core, runs when the modules
+ * depending on it are compiled. The entries of the previous index
+ * are kept while their classes exist, so an incremental compilation
+ * does not lose the classes not compiled.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+@SupportedAnnotationTypes("*")
+public class TReflectionsIndexProcessor extends AbstractProcessor {
+
+	private final Map<String, Set<String>> index = new LinkedHashMap<>();
+
+	public TReflectionsIndexProcessor() {
+		for(String a : TReflectionsIndex.INDEXED_ANNOTATIONS)
+			index.put(TReflectionsIndex.ANNOTATED + a, new TreeSet<>());
+		for(String t : TReflectionsIndex.INDEXED_TYPES)
+			index.put(TReflectionsIndex.SUBTYPES + t, new TreeSet<>());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if(roundEnv.processingOver()) {
+			write();
+			return false;
+		}
+		for(Element e : roundEnv.getRootElements())
+			collect(e);
+		return false;
+	}
+
+	private void collect(Element e) {
+		if(!(e instanceof TypeElement))
+			return;
+		TypeElement t = (TypeElement) e;
+		add(t);
+		for(Element m : t.getEnclosedElements())
+			if(m.getKind().isClass() || m.getKind().isInterface())
+				collect(m);
+	}
+
+	private void add(TypeElement t) {
+		String name = processingEnv.getElementUtils().getBinaryName(t).toString();
+		for(String a : TReflectionsIndex.INDEXED_ANNOTATIONS)
+			if(isAnnotated(t, a))
+				index.get(TReflectionsIndex.ANNOTATED + a).add(name);
+		for(String s : TReflectionsIndex.INDEXED_TYPES)
+			if(isSubtype(t, s))
+				index.get(TReflectionsIndex.SUBTYPES + s).add(name);
+	}
+
+	/**
+	 * Annotated directly, by an annotation annotated with
+	 * or by a supertype as the classpath scan does.
+	 */
+	private boolean isAnnotated(TypeElement t, String annotation) {
+		for(AnnotationMirror m : t.getAnnotationMirrors()) {
+			TypeElement a = (TypeElement) m.getAnnotationType().asElement();
+			if(a.getQualifiedName().contentEquals(annotation))
+				return true;
+			for(AnnotationMirror mm : a.getAnnotationMirrors())
+				if(((TypeElement) mm.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+					return true;
+		}
+		if(t.getSuperclass().getKind()==TypeKind.DECLARED
+				&& isAnnotated((TypeElement) ((DeclaredType) t.getSuperclass()).asElement(), annotation))
+			return true;
+		for(TypeMirror i : t.getInterfaces())
+			if(isAnnotated((TypeElement) ((DeclaredType) i).asElement(), annotation))
+				return true;
+		return false;
+	}
+
+	private boolean isSubtype(TypeElement t, String type) {
+		TypeElement s = processingEnv.getElementUtils().getTypeElement(type);
+		if(s==null || s.equals(t) || t.getKind()==ElementKind.ANNOTATION_TYPE)
+			return false;
+		Types types = processingEnv.getTypeUtils();
+		return types.isSubtype(types.erasure(t.asType()), types.erasure(s.asType()));
+	}
+
+	private void write() {
+		readPrevious();
+		try {
+			FileObject f = processingEnv.getFiler()
+					.createResource(StandardLocation.CLASS_OUTPUT, "", TReflectionsIndex.INDEX_RESOURCE);
+			try(Writer w = f.openWriter()){
+				w.write("# Generated by "+getClass().getSimpleName()+"\n");
+				for(Map.Entry<String, Set<String>> e : index.entrySet())
+					w.write(e.getKey()+"="+String.join(",", e.getValue())+"\n");
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.WARNING,
+					"Cannot write the "+TReflectionsIndex.INDEX_RESOURCE+": "+e.getMessage());
+		}
+	}
+
+	/**
+	 * Keeps the entries of the previous index while valid
+	 */
+	private void readPrevious() {
+		try {
+			FileObject f = processingEnv.getFiler()
+					.getResource(StandardLocation.CLASS_OUTPUT, "", TReflectionsIndex.INDEX_RESOURCE);
+			try(BufferedReader r = new BufferedReader(new InputStreamReader(f.openInputStream(), StandardCharsets.UTF_8))){
+				List<String> lines = r.lines().toList();
+				for(String l : lines) {
+					int i = l.indexOf('=');
+					if(l.startsWith("#") || i<1 || !index.containsKey(l.substring(0, i)))
+						continue;
+					for(String c : l.substring(i+1).split(",")) {
+						if(c.isBlank())
+							continue;
+						TypeElement t = processingEnv.getElementUtils().getTypeElement(c.replace('$', '.'));
+						if(t!=null)
+							add(t);
+					}
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// no previous index
+		}
+	}
+
+}
@@ -96,6 +96,16 @@ public interface ITModelView<M extends ITModel> {
 	 * */
 	boolean isChanged();
 
+	/**
+	 * <pre>
+	 * Return the names of the changed fields since the model was loaded
+	 * when the model view tracks the changes by field, otherwise null.
+	 * </pre>
+	 * */
+	default Set<String> getChangedFields() {
+		return null;
+	}
+
 	/**
 	 * <pre>
 	 * The property for the lastHashCode value.
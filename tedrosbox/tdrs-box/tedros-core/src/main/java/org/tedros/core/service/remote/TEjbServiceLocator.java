@@ -3,23 +3,42 @@
  */
 package org.tedros.core.service.remote;
 
+import java.io.File;
 import java.text.MessageFormat;
 import java.util.Properties;
 
-import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
+import org.tedros.server.service.TRemoteProxyCache;
+import org.tedros.util.TFileUtil;
 import org.tedros.util.TResourceUtil;
+import org.tedros.util.TedrosFolder;
 
 /**
+ * Remote service locator.
+ * <p>
+ * Keeps a long-lived context and the resolved proxies per jndi name,
+ * see {@link TRemoteProxyCache}. The remote-config.properties is read
+ * again only when the file is modified.
+ * </p>
  * @author Davis Gordon
  *
  */
 public class TEjbServiceLocator {
 	
+	private static final String CONF_FILE = "remote-config.properties";
+	
+	/**
+	 * Min interval in milliseconds between the config file checks
+	 */
+	private static final long CONF_CHECK_INTERVAL = 2000;
+	
 	private static TEjbServiceLocator instance;
 	
-	private InitialContext ctx;
+	private final TRemoteProxyCache cache = new TRemoteProxyCache();
+	
+	private volatile long confModified = -1;
+	private volatile long confChecked;
 	
 	private static String URL = "http://{0}:8080/tomee/ejb";
 	private static String IP = "127.0.0.1";
@@ -39,33 +58,58 @@ public class TEjbServiceLocator {
 		return instance;
 	}
 	
-	@SuppressWarnings("unchecked")
 	public <E> E lookup(String jndi) throws NamingException{
-		ctx = new InitialContext(getProperties());
-		return (E) ctx.lookup(jndi);
+		checkConfig();
+		return cache.lookup(jndi);
 	}
 	
+	/**
+	 * Does nothing, kept for the callers that close the locator after 
+	 * each lookup. The context is shared by all the lookups and the 
+	 * cached proxies, it stays open while the application runs and is 
+	 * only closed by {@link #invalidate()}.
+	 */
 	public void close(){
-		try {
-			ctx.close();
-		} catch (Exception e) {
-			e.printStackTrace();
+		// the shared context is closed by invalidate()
+	}
+	
+	/**
+	 * Closes the shared context and discards the cached proxies
+	 */
+	public void invalidate(){
+		cache.invalidate();
+	}
+	
+	/**
+	 * @return the proxy cache with the lookup metrics
+	 */
+	public TRemoteProxyCache getCache(){
+		return cache;
+	}
+	
+	private void checkConfig() {
+		long now = System.currentTimeMillis();
+		if(confModified!=-1 && now - confChecked < CONF_CHECK_INTERVAL)
+			return;
+		synchronized (this) {
+			if(confModified!=-1 && now - confChecked < CONF_CHECK_INTERVAL)
+				return;
+			File f = new File(TFileUtil.getTedrosFolderPath()+TedrosFolder.CONF_FOLDER.getFolder()+CONF_FILE);
+			long modified = f.lastModified();
+			if(modified!=confModified) {
+				cache.setProviderUrl(getProviderUrl());
+				confModified = modified;
+			}
+			confChecked = now;
 		}
 	}
 	
-	private static Properties getProperties(){
-		Properties properties = TResourceUtil.getPropertiesFromConfFolder("remote-config.properties");
+	private static String getProviderUrl(){
+		Properties properties = TResourceUtil.getPropertiesFromConfFolder(CONF_FILE);
 		if(properties!=null){
-			URL = properties.getProperty("url");
-			IP = properties.getProperty("server_ip");
+			URL = properties.getProperty("url", URL);
+			IP = properties.getProperty("server_ip", IP);
 		}
-		
-		String serviceURL = MessageFormat.format(URL, IP);
-		
-		properties = new Properties();
-		properties.put("java.naming.factory.initial", "org.apache.openejb.client.RemoteInitialContextFactory");
-		properties.put("java.naming.provider.url", serviceURL);
-		
-		return properties;
+		return MessageFormat.format(URL, IP);
 	}
 }
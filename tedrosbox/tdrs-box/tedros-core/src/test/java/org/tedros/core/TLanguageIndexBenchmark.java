@@ -0,0 +1,61 @@
+/**
+ *
+ */
+package org.tedros.core;
+
+import static org.tedros.core.TLanguageIndexTest.bundles;
+import static org.tedros.core.TLanguageIndexTest.findByBundles;
+import static org.tedros.core.TLanguageIndexTest.resolve;
+import static org.tedros.core.TLanguageIndexTest.tags;
+
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import org.tedros.util.TStripTagUtil;
+
+/**
+ * Measures the lookup of the tagged strings with and without 
+ * the {@link TLanguageIndex}, it is not run by the build.
+ * <p>
+ * Usage: TLanguageIndexBenchmark [keys=2000] [bundles=4] [iterations=200000]
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TLanguageIndexBenchmark {
+
+	public static void main(String[] args) {
+		int keys = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+		int count = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+		int warmup = Math.max(iterations / 10, 1);
+		
+		Map<String, ResourceBundle> bundles = bundles(keys, count);
+		String[] tags = tags(bundles);
+		TLanguageIndex index = new TLanguageIndex(bundles.values());
+		TStripTagUtil util = new TStripTagUtil();
+
+		run(util, bundles, index, tags, warmup, true);
+		run(util, bundles, index, tags, warmup, false);
+		long before = run(util, bundles, index, tags, iterations, true);
+		long indexed = run(util, bundles, index, tags, iterations, false);
+
+		System.out.println(String.format("TLanguage.getString %d keys in %d bundles: %d lookups, "
+				+ "bundles scan %d ns/op, index %d ns/op",
+				tags.length, count, iterations, before / iterations, indexed / iterations));
+	}
+
+	private static long run(TStripTagUtil util, Map<String, ResourceBundle> bundles, TLanguageIndex index,
+			String[] tags, int iterations, boolean scan) {
+		long sink = 0;
+		long start = System.nanoTime();
+		for(int i=0; i<iterations; i++) {
+			String t = tags[i % tags.length];
+			sink += (scan ? findByBundles(util, bundles, t) : resolve(index, t)).length();
+		}
+		long elapsed = System.nanoTime() - start;
+		if(sink == 0)
+			throw new IllegalStateException("No value resolved");
+		return elapsed;
+	}
+}
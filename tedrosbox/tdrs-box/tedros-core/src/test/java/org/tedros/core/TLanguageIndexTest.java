@@ -0,0 +1,142 @@
+/**
+ *
+ */
+package org.tedros.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListResourceBundle;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import org.junit.Test;
+import org.tedros.util.TStripTagUtil;
+
+/**
+ * Checks the language index, the lookup of the tagged strings 
+ * is measured by {@link TLanguageIndexBenchmark}.
+ *
+ * @author Davis Gordon
+ *
+ */
+public class TLanguageIndexTest {
+
+	@Test
+	public void testFirstAddedBundleWins() {
+		TLanguageIndex index = new TLanguageIndex(Arrays.asList(
+				bundle("a", "A1", "b", "B1"),
+				bundle("b", "B2", "c", "C2")));
+		assertEquals(3, index.size());
+		assertEquals("B1", index.get("b"));
+		assertEquals("C2", index.get("c"));
+		assertNull(index.get("d"));
+	}
+
+	@Test
+	public void testResolveTags() {
+		TLanguageIndex index = new TLanguageIndex(Arrays.asList(bundle("name", "Nome", "code", "Codigo", "price", "$ 10")));
+		assertEquals("Nome", index.resolve("#{name}"));
+		assertEquals("Nome: Codigo.", index.resolve("#{name}: #{code}."));
+		assertEquals("Nome #{other} Nome", index.resolve("#{name} #{other} #{name}"));
+		assertEquals("$ 10", index.resolve("#{price}"));
+		assertEquals("no tags", index.resolve("no tags"));
+		assertEquals("#{name", index.resolve("#{name"));
+	}
+
+	@Test
+	public void testResolvedCache() {
+		TLanguageIndex index = new TLanguageIndex(Arrays.asList(bundle("name", "Nome")));
+		assertNull(index.getResolved("#{name}"));
+		index.putResolved("#{name}", "Nome");
+		assertEquals("Nome", index.getResolved("#{name}"));
+		index.clearResolved();
+		assertNull(index.getResolved("#{name}"));
+	}
+
+	@Test
+	public void testResolvesAsTheBundlesScan() {
+		Map<String, ResourceBundle> bundles = bundles(200, 4);
+		TLanguageIndex index = new TLanguageIndex(bundles.values());
+		TStripTagUtil util = new TStripTagUtil();
+		for(String t : tags(bundles))
+			assertEquals(t, findByBundles(util, bundles, t), resolve(index, t));
+	}
+
+	/**
+	 * @return the bundles with the given number of keys split between them
+	 */
+	static Map<String, ResourceBundle> bundles(int keys, int count) {
+		Map<String, ResourceBundle> bundles = new LinkedHashMap<>();
+		for(int b=0; b<count; b++) {
+			Object[] kv = new Object[keys/count*2];
+			for(int i=0; i<kv.length; i+=2) {
+				kv[i] = "key."+b+"."+i;
+				kv[i+1] = "Value "+b+" "+i;
+			}
+			bundles.put("bundle"+b, bundle(kv));
+		}
+		return bundles;
+	}
+
+	/**
+	 * @return the tagged keys of the bundles
+	 */
+	static String[] tags(Map<String, ResourceBundle> bundles) {
+		List<String> keys = new ArrayList<>();
+		for(ResourceBundle rb : bundles.values())
+			for(String k : rb.keySet())
+				keys.add(TStripTagUtil.OPEN_TAG+k+TStripTagUtil.CLOSE_TAG);
+		return keys.toArray(new String[0]);
+	}
+
+	/**
+	 * What getString does with the index
+	 */
+	static String resolve(TLanguageIndex index, String key) {
+		String v = index.getResolved(key);
+		if(v==null) {
+			v = index.resolve(key);
+			index.putResolved(key, v);
+		}
+		return v;
+	}
+
+	/**
+	 * What TLanguage.find did before the index
+	 */
+	static String findByBundles(TStripTagUtil util, Map<String, ResourceBundle> bundles, String key) {
+		if(!TStripTagUtil.isTagPresent(key))
+			return key;
+		String value = key;
+		for(String k : util.getTags(key)) {
+			for(ResourceBundle rb : bundles.values()) {
+				String v;
+				try {
+					v = rb.getString(k);
+				}catch(MissingResourceException e) {
+					continue;
+				}
+				value = util.replaceTag(value, k, v);
+			}
+		}
+		return value;
+	}
+
+	private static ResourceBundle bundle(Object... kv) {
+		final Object[][] contents = new Object[kv.length/2][];
+		for(int i=0; i<kv.length; i+=2)
+			contents[i/2] = new Object[] {kv[i], kv[i+1]};
+		return new ListResourceBundle() {
+			@Override
+			protected Object[][] getContents() {
+				return contents;
+			}
+		};
+	}
+}
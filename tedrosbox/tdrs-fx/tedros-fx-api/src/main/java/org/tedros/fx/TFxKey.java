@@ -19,11 +19,13 @@ public interface TFxKey {
 	static final String BUTTON_DOWNLOAD = "#{tedros.fxapi.button.download}";
 	static final String BUTTON_EDIT = "#{tedros.fxapi.button.edit}";
 	static final String BUTTON_EXECUTE = "#{tedros.fxapi.button.execute}";
+	static final String BUTTON_FIRST_PAGE = "#{tedros.fxapi.button.first.page}";
 	static final String BUTTON_GENERATE = "#{tedros.fxapi.button.generate}";
 	static final String BUTTON_GO = "#{tedros.fxapi.button.go}";
 	static final String BUTTON_IMPORT = "#{tedros.fxapi.button.import}";
 	static final String BUTTON_LOAD = "#{tedros.fxapi.button.load}";
 	static final String BUTTON_NEW = "#{tedros.fxapi.button.new}";
+	static final String BUTTON_NEXT_PAGE = "#{tedros.fxapi.button.next.page}";
 	static final String BUTTON_NO = "#{tedros.fxapi.button.no}";
 	static final String BUTTON_OPEN = "#{tedros.fxapi.button.open}";
 	static final String BUTTON_OPEN_FOLDER_EXPORT = "#{tedros.fxapi.button.open.folder.export}";
@@ -89,6 +91,8 @@ public interface TFxKey {
 	static final String MESSAGE_IMAGE_MIN_HEIGHT = "#{tedros.fxapi.message.image.min.height}";
 	static final String MESSAGE_IMAGE_MIN_WIDTH = "#{tedros.fxapi.message.image.min.width}";
 	static final String MESSAGE_IMPORT = "#{tedros.fxapi.message.import}";
+	static final String MESSAGE_IMPORT_PROGRESS = "#{tedros.fxapi.message.import.progress}";
+	static final String MESSAGE_IMPORT_SUMMARY = "#{tedros.fxapi.message.import.summary}";
 	static final String MESSAGE_INVALIDATE = "#{tedros.fxapi.message.invalidate}";
 	static final String MESSAGE_LIST_ACTION = "#{tedros.fxapi.message.list.action}";
 	static final String MESSAGE_NO_DATA_FOUND = "#{tedros.fxapi.message.no.data.found}";
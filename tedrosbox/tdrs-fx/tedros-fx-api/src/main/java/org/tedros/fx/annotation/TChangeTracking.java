@@ -0,0 +1,31 @@
+package org.tedros.fx.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/***
+ * Mark a model view to track the changes by field.
+ * <p>
+ * The model view records the changed fields from its property listeners
+ * instead of building the reflection hash code of the model on every change,
+ * {@link org.tedros.core.model.ITModelView#isChanged()} and
+ * {@link org.tedros.core.model.ITModelView#getChangedFields()} are answered
+ * without reading the model. The lastHashCodeProperty is kept as a change
+ * counter, so the listeners of the property are still notified.
+ * </p>
+ * <p>
+ * The behaviors saving all models send only the changed ones.
+ * </p>
+ * @author Davis Gordon
+ *
+ * */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TChangeTracking {
+
+}
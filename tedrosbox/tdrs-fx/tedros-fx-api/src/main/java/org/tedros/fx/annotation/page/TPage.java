@@ -51,5 +51,30 @@ public @interface TPage {
 	 * */
 	boolean showOrderBy() default false;
 	
+	/**
+	 * Use keyset (seek) pagination, the paginator navigates
+	 * to the first and to the next page and the server 
+	 * reads each page after the last row of the previous one
+	 * instead of skipping rows, the total is only counted on 
+	 * the first page. Recommended for large tables.
+	 * The order by fields must be columns of the query alias, the null values are read last.
+	 * 
+	 * @default false
+	 * */
+	boolean keyset() default false;
+	
+	/**
+	 * Show all rows of the query in the list view of the crud views 
+	 * or in the table view of the selection modals, the pages are fetched from the server while scrolling
+	 * and only the last used pages are kept in memory.
+	 * The search and the order by of the paginator are applied
+	 * to the whole list and the rows per page is the size of 
+	 * the fetched pages. Recommended for very large tables, 
+	 * ignores the keyset.
+	 * 
+	 * @default false
+	 * */
+	boolean virtual() default false;
+	
 	//public TOption[] orderBy() default {@TOption(text=TFxKey.CODE, field="id")};
 }
@@ -0,0 +1,336 @@
+package org.tedros.fx.annotation.parser.engine;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.tedros.fx.util.TReflectionUtil;
+
+/**
+ * The compiled parse plan of an annotation type for a parser.
+ * <p>
+ * Keeps what {@link TAnnotationParser} used to resolve by reflection
+ * on every parse: the annotation members in parse order with their
+ * accessors and default values, the members to run after the others
+ * (grow, margin and alignment) and, by target class, the resolved
+ * target methods. The plans are built once per (parser class, annotation type)
+ * and shared by all forms.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+final class TAnnotationParsePlan {
+
+	private static final Map<Class<?>, Map<Class<?>, TAnnotationParsePlan>> CACHE = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, TMember[]> MEMBERS = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, String> NAMES = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Map<String, Method>> ACCESSORS = new ConcurrentHashMap<>();
+	private static final Map<Annotation, Map<String, Object>> VALUES = new ConcurrentHashMap<>();
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType SETTER2_TYPE = MethodType.methodType(void.class, Object.class, Object.class, Object.class);
+
+	private static final TSetter NO_SETTER = new TSetter(null);
+
+	private final TMember[] members;
+	private final int runAfterCount;
+	private final Class<?> paramClass;
+	private final RuntimeException paramError;
+	private final Map<Class<?>, Map<String, TSetter>> setters = new ConcurrentHashMap<>();
+
+	private TAnnotationParsePlan(Class<?> parserClass, Annotation annotation) {
+		this.members = getMembers(annotation);
+		int count = 0;
+		for(TMember m : members)
+			if(m.runAfter)
+				count++;
+		this.runAfterCount = count;
+
+		Class<?> c = null;
+		RuntimeException error = null;
+		try {
+			c = TReflectionUtil.getGenericParamClass(parserClass, 1);
+		} catch (RuntimeException e) {
+			error = e;
+		}
+		this.paramClass = c;
+		this.paramError = error;
+	}
+
+	/**
+	 * Returns the members of the annotation in parse order,
+	 * the members are shared by the plans of all parsers of the annotation type.
+	 */
+	static TMember[] getMembers(Annotation annotation) {
+		return MEMBERS.computeIfAbsent(annotation.getClass(), k->compileMembers(annotation));
+	}
+
+	private static TMember[] compileMembers(Annotation annotation) {
+		Class<? extends Annotation> type = annotation.annotationType();
+		List<TMember> lst = new ArrayList<>();
+		// the run after members are executed in the order of the map used before
+		Map<String, Object> runAfter = new HashMap<>();
+		for(Method m : annotation.getClass().getDeclaredMethods()) {
+			String key = m.getName();
+			if(ArrayUtils.contains(TReflectionUtil.SKIPMETHODS, key) || m.getParameterCount()>0)
+				continue;
+			Method member;
+			try {
+				member = type.getMethod(key);
+			} catch (NoSuchMethodException e) {
+				continue;
+			}
+			String lower = key.toLowerCase();
+			boolean after = lower.contains("grow") || lower.contains("margin") || lower.contains("alignment");
+			if(after)
+				runAfter.put(key, key);
+			lst.add(new TMember(key, member, after));
+		}
+		List<String> order = new ArrayList<>(runAfter.keySet());
+		for(TMember m : lst)
+			if(m.runAfter)
+				m.runAfterIndex = order.indexOf(m.key);
+		return lst.toArray(new TMember[0]);
+	}
+
+	/**
+	 * Returns the plan for the parser and the annotation type,
+	 * building it on the first call.
+	 */
+	static TAnnotationParsePlan get(Class<?> parserClass, Annotation annotation) {
+		return CACHE.computeIfAbsent(parserClass, k->new ConcurrentHashMap<>())
+				.computeIfAbsent(annotation.getClass(), k->new TAnnotationParsePlan(parserClass, annotation));
+	}
+
+	/**
+	 * Clears all cached plans
+	 */
+	static void clear() {
+		CACHE.clear();
+		MEMBERS.clear();
+		NAMES.clear();
+		ACCESSORS.clear();
+		VALUES.clear();
+	}
+
+	/**
+	 * @return the members in parse order
+	 */
+	TMember[] getMembers() {
+		return members;
+	}
+
+	/**
+	 * @return the number of members to run after the others
+	 */
+	int getRunAfterCount() {
+		return runAfterCount;
+	}
+
+	/**
+	 * @param targetObject the parsed object
+	 * @return the class where the target methods are searched
+	 */
+	Class<?> getTargetClass(Object targetObject) {
+		if(paramError!=null)
+			throw paramError;
+		return paramClass == Object.class ? targetObject.getClass() : paramClass;
+	}
+
+	/**
+	 * Resolves the target methods of all members when the target
+	 * class is defined by the parser generic type.
+	 */
+	void prepare() {
+		if(paramClass==null || paramClass==Object.class)
+			return;
+		for(TMember m : members)
+			getSetter(paramClass, m.key);
+	}
+
+	/**
+	 * Returns the resolved target method of the key in the target class.
+	 */
+	TSetter getSetter(Class<?> targetClass, String key) {
+		return setters.computeIfAbsent(targetClass, k->new ConcurrentHashMap<>())
+				.computeIfAbsent(key, k->{
+					Method m = findTargetMethod(k, targetClass);
+					return m!=null ? new TSetter(m) : NO_SETTER;
+				});
+	}
+
+	/**
+	 * @return the lower case annotation name, see {@link TReflectionUtil#getAnnotationName(Annotation)}
+	 */
+	static String getName(Annotation annotation) {
+		return NAMES.computeIfAbsent(annotation.annotationType(),
+				k->TReflectionUtil.getAnnotationName(annotation).toLowerCase());
+	}
+
+	/**
+	 * Returns the cached {@link TReflectionUtil#readAnnotation(Annotation)} of the annotation.
+	 * The annotations are immutable so equal annotations have the same values.
+	 */
+	static Map<String, Object> readAnnotation(Annotation annotation) {
+		return VALUES.computeIfAbsent(annotation, TReflectionUtil::readAnnotation);
+	}
+
+	/**
+	 * Returns the value of the annotation member
+	 */
+	static Object read(Annotation annotation, String key) throws Exception {
+		Method m = ACCESSORS.computeIfAbsent(annotation.annotationType(), k->new ConcurrentHashMap<>())
+				.computeIfAbsent(key, k->{
+					try {
+						return annotation.annotationType().getMethod(k);
+					} catch (NoSuchMethodException e) {
+						return null;
+					}
+				});
+		if(m==null)
+			throw new NoSuchMethodException(annotation.annotationType().getName()+"."+key+"()");
+		return m.invoke(annotation);
+	}
+
+	@SuppressWarnings("rawtypes")
+	static Method findTargetMethod(String key, Class clazz){
+
+		Method prop = null;
+		Method set = null;
+		do {
+			for(Method m : clazz.getDeclaredMethods()){
+				if(m.getName().equals(key)){
+					prop = m;
+				}
+				if(m.getName().equals(TReflectionUtil.SET+StringUtils.capitalize(key))){
+					if(key.equals("alignment") && m.getParameterTypes().length>1)
+						continue;
+					set = m;
+					break;
+				}
+
+				if(m.getName().equals(TReflectionUtil.GET+StringUtils.capitalize(key)))
+					set = m;
+			}
+			clazz = clazz.getSuperclass();
+		}while(clazz!=Object.class && (prop==null && set==null));
+
+		return (set!=null && prop!=null) ? set : ((set!=null) ? set : prop);
+	}
+
+	private static MethodHandle unreflect(Method m, MethodType type) {
+		try {
+			return MethodHandles.publicLookup().unreflect(m).asType(type);
+		} catch (IllegalAccessException | RuntimeException e) {
+			// not public or not adaptable, use the method
+			return null;
+		}
+	}
+
+	private static Exception rethrow(Throwable t) {
+		if(t instanceof Error)
+			throw (Error) t;
+		return t instanceof Exception ? (Exception) t : new RuntimeException(t);
+	}
+
+	/**
+	 * An annotation member
+	 */
+	static final class TMember {
+
+		final String key;
+		final boolean runAfter;
+		final Object defaultValue;
+		final Method parseMethod;
+		private final Method method;
+		private final MethodHandle accessor;
+		int runAfterIndex = -1;
+
+		private TMember(String key, Method method, boolean runAfter) {
+			this.key = key;
+			this.method = method;
+			this.runAfter = runAfter;
+			this.defaultValue = method.getDefaultValue();
+			this.accessor = unreflect(method, GETTER_TYPE);
+			Method parse = null;
+			if(method.getReturnType().isAnnotation()) {
+				try {
+					parse = method.getReturnType().getMethod("parse");
+				} catch (NoSuchMethodException e) {
+					// no parse member
+				}
+			}
+			this.parseMethod = parse;
+		}
+
+		/**
+		 * @return the member value of the annotation
+		 */
+		Object get(Annotation annotation) throws Exception {
+			if(accessor==null)
+				return method.invoke(annotation);
+			try {
+				return accessor.invokeExact((Object) annotation);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return key + (runAfter ? " (run after)" : "") + " default="
+					+ (defaultValue instanceof Object[] ? Arrays.toString((Object[]) defaultValue) : defaultValue);
+		}
+	}
+
+	/**
+	 * A resolved target method
+	 */
+	static final class TSetter {
+
+		final Method method;
+		private final MethodHandle handle;
+		private final MethodHandle handle2;
+
+		private TSetter(Method method) {
+			this.method = method;
+			this.handle = method!=null && method.getParameterCount()==1 ? unreflect(method, SETTER_TYPE) : null;
+			this.handle2 = method!=null && method.getParameterCount()==2 ? unreflect(method, SETTER2_TYPE) : null;
+		}
+
+		void invoke(Object target, Object value) throws Exception {
+			if(handle==null) {
+				method.invoke(target, value);
+				return;
+			}
+			try {
+				handle.invokeExact(target, value);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		void invoke(Object target, Object value1, Object value2) throws Exception {
+			if(handle2==null) {
+				method.invoke(target, value1, value2);
+				return;
+			}
+			try {
+				handle2.invokeExact(target, value1, value2);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+	}
+}
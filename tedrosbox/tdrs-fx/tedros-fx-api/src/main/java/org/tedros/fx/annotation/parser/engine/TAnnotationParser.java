@@ -5,21 +5,18 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Stream;
 
 import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.tedros.api.descriptor.ITComponentDescriptor;
 import org.tedros.api.parser.ITAnnotationParser;
 import org.tedros.core.ITModule;
 import org.tedros.core.TLanguage;
 import org.tedros.core.context.TedrosAppManager;
+import org.tedros.fx.annotation.parser.engine.TAnnotationParsePlan.TMember;
+import org.tedros.fx.annotation.parser.engine.TAnnotationParsePlan.TSetter;
 import org.tedros.fx.descriptor.TComponentDescriptor;
 import org.tedros.fx.util.TReflectionUtil;
 import org.tedros.util.TLoggerUtil;
@@ -143,7 +140,9 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 		TInner<Annotation> defaultSetting = new TInner<>();
 		TInner<Map<String, Object>> defaultParams = new TInner<>();
 		
-		final Map<String, Object> runAfter = new HashMap<String, Object>(0);
+		final TAnnotationParsePlan plan = TAnnotationParsePlan.get(getClass(), annotation);
+		final TMember[] runAfter = new TMember[plan.getRunAfterCount()];
+		final Object[] runAfterValues = new Object[runAfter.length];
 		
 		List<String> exclusive = new ArrayList<>(0);
 		if(byPass!=null && byPass.length>0){
@@ -153,118 +152,74 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 			}
 		}
 	
-		Stream<Method> metodos = Stream.of(annotation.getClass().getDeclaredMethods());
 		try{
-			//metodos.parallel().forEach(method-> {
-			metodos.forEach(method-> {
-				String key = method.getName();
-						
-				if(!ArrayUtils.contains(TReflectionUtil.SKIPMETHODS, key)) {
+			for(TMember member : plan.getMembers()) {
+				String key = member.key;
 					
-					try {
-						Object value = method.invoke(annotation);
-						boolean skip = false;
-						
-						if(TLoggerUtil.isParserDebugEnabled())
-							TLoggerUtil.debug(getClass(), key+" = "+value.toString());
-						
-						if(value instanceof Annotation){
-							Method parseMethod = TReflectionUtil.getParseMethod((Annotation) value);
-							if(parseMethod != null){
-								boolean parse = (boolean) parseMethod.invoke(value);
-								if(!parse)
-									skip = true;;
+				try {
+					Object value = member.get(annotation);
+					boolean skip = false;
+					
+					if(TLoggerUtil.isParserDebugEnabled())
+						TLoggerUtil.debug(getClass(), key+" = "+value.toString());
+					
+					if(value instanceof Annotation){
+						Method parseMethod = member.parseMethod;
+						if(parseMethod != null){
+							boolean parse = (boolean) parseMethod.invoke(value);
+							if(!parse)
+								skip = true;;
+						}
+					}else if(value instanceof Class && (Modifier.isAbstract(((Class)value).getModifiers()) || Modifier.isInterface(((Class)value).getModifiers()))){
+						skip = true;
+					}
+					
+					if(!skip) {
+					
+						if(byPass!=null && byPass.length>0){
+							if(exclusive.size()>0 && !exclusive.contains(key)){
+								skip = true;
+							}else if(exclusive.isEmpty() && ArrayUtils.contains(byPass, key)){
+								skip = true;
 							}
-						}else if(value instanceof Class && (Modifier.isAbstract(((Class)value).getModifiers()) || Modifier.isInterface(((Class)value).getModifiers()))){
-							skip = true;
 						}
-						
 						if(!skip) {
-						
-							if(byPass!=null && byPass.length>0){
-								if(exclusive.size()>0 && !exclusive.contains(key)){
-									skip = true;
-								}else if(exclusive.isEmpty() && ArrayUtils.contains(byPass, key)){
-									skip = true;
-								}
+							// the pane.childs must be parsed
+							if(member.runAfter){
+								runAfter[member.runAfterIndex] = member;
+								runAfterValues[member.runAfterIndex] = value;
+								skip = true;
 							}
 							if(!skip) {
-								// the pane.childs must be parsed
-								if(key.toLowerCase().contains("grow") 
-										|| key.toLowerCase().contains("margin") 
-										|| key.toLowerCase().contains("alignment")){
-									runAfter.put(key, value);
-									skip = true;
-								}
-								if(!skip) {
-									if(defaultSetting.value==null)
-										defaultSetting.value = getDefaultSetting(annotation);
-									
-									if(defaultParams.value==null)
-										defaultParams.value = (defaultSetting.value!=null) ? TReflectionUtil.readAnnotation(defaultSetting.value) : null;
-									
-									if(TLoggerUtil.isParserDebugEnabled())
-										TLoggerUtil.timeComplexity(getClass(), 
-											"run("+key+","+ annotation.annotationType().getName()+","+ 
-													(defaultSetting.value!=null ? defaultSetting.value : "null")+","+value+","+
-													(defaultParams.value!=null?defaultParams.value:"null")+","+object+")",
-											()->{
-												try {
-													run(key, annotation, defaultSetting.value, value, defaultParams.value, object);
-												} catch (Exception e) {
-													LOGGER.error(e.getMessage(), e);
-												}
-											});
-									else
-										try {
-											run(key, annotation, defaultSetting.value, value, defaultParams.value, object);
-										} catch (Exception e) {
-											LOGGER.error(e.getMessage(), e);
-										}
-								}
+								if(defaultSetting.value==null)
+									defaultSetting.value = getDefaultSetting(annotation);
+								
+								if(defaultParams.value==null)
+									defaultParams.value = (defaultSetting.value!=null) ? TAnnotationParsePlan.readAnnotation(defaultSetting.value) : null;
+								
+								run(member, annotation, defaultSetting.value, value, defaultParams.value, object);
 							}
-						}else
-							if(TLoggerUtil.isParserDebugEnabled())
-								TLoggerUtil.debug(getClass(), key+" skipped");
-						
-					} catch (Exception e) {
-						LOGGER.error(e.getMessage(), e);
-					}
+						}
+					}else
+						if(TLoggerUtil.isParserDebugEnabled())
+							TLoggerUtil.debug(getClass(), key+" skipped");
+					
+				} catch (Exception e) {
+					LOGGER.error(e.getMessage(), e);
 				}
-			});
+			}
 			
-			if(!runAfter.isEmpty()){
+			for(int i=0; i<runAfter.length; i++){
+				if(runAfter[i]==null)
+					continue;
 				
 				if(defaultSetting.value==null)
 					defaultSetting.value = getDefaultSetting(annotation);
 				
 				if(defaultParams.value==null)
-					defaultParams.value = (defaultSetting.value!=null) ? TReflectionUtil.readAnnotation(defaultSetting.value) : null;
+					defaultParams.value = (defaultSetting.value!=null) ? TAnnotationParsePlan.readAnnotation(defaultSetting.value) : null;
 				
-				Iterator entries = runAfter.entrySet().iterator();
-				while (entries.hasNext()) {
-				  Entry thisEntry = (Entry) entries.next();
-				  String key = (String) thisEntry.getKey();
-				  Object value = thisEntry.getValue();
-				  if(TLoggerUtil.isParserDebugEnabled())
-					  TLoggerUtil.timeComplexity(getClass(), 
-						"run("+key+","+ annotation.annotationType().getName()+","+ 
-								(defaultSetting.value!=null ? defaultSetting.value : "null")+","+value+","+
-								(defaultParams.value!=null?defaultParams.value:"null")+","+object+")",
-						()->{
-							try {
-								run(key, annotation, defaultSetting.value, value, defaultParams.value, object);
-							} catch (Exception e) {
-								LOGGER.error(e.getMessage(), e);
-							}
-						});
-				  else
-					  try {
-							run(key, annotation, defaultSetting.value, value, defaultParams.value, object);
-						} catch (Exception e) {
-							LOGGER.error(e.getMessage(), e);
-						}
-				}
+				run(runAfter[i], annotation, defaultSetting.value, runAfterValues[i], defaultParams.value, object);
 			}
 			
 		}catch(Exception e){
@@ -273,6 +228,27 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 		
 	}
 	
+	private void run(TMember member, final A annotation, final Annotation defaultSetting, final Object value, final Map<String, Object> defaultParams, final T object) {
+		if(TLoggerUtil.isParserDebugEnabled())
+			TLoggerUtil.timeComplexity(getClass(), 
+				"run("+member.key+","+ annotation.annotationType().getName()+","+ 
+						(defaultSetting!=null ? defaultSetting : "null")+","+value+","+
+						(defaultParams!=null?defaultParams:"null")+","+object+")",
+				()->{
+					try {
+						run(member.key, member.defaultValue, annotation, defaultSetting, value, defaultParams, object);
+					} catch (Exception e) {
+						LOGGER.error(e.getMessage(), e);
+					}
+				});
+		else
+			try {
+				run(member.key, member.defaultValue, annotation, defaultSetting, value, defaultParams, object);
+			} catch (Exception e) {
+				LOGGER.error(e.getMessage(), e);
+			}
+	}
+	
 	protected void callParser(final Annotation tAnnotation, final Object control, final ITComponentDescriptor descriptor) throws Exception {
 		callParser(tAnnotation, control, descriptor, getClass().getSimpleName());
 	}
@@ -281,7 +257,7 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 		TParserCaller.call(tAnnotation, control, descriptor, calledBy);
 	}
 	
-	private void run(String key, final A annotation, final Annotation defaultSetting, final Object value, final Map<String, Object> defaultParams, final T object) throws Exception{
+	private void run(String key, final Object annotationDefault, final A annotation, final Annotation defaultSetting, final Object value, final Map<String, Object> defaultParams, final T object) throws Exception{
 		
 		componentDescriptor.setAnnotationPropertyInExecution(key);
 		componentDescriptor.setParserClassInExecution(getClass());
@@ -294,9 +270,7 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 								: defaultParams.get(key) 
 				: null;
 				
-		Object valueSetted = (value instanceof Annotation) 
-				? getAnnotation(key, annotation) 
-						: value;
+		Object valueSetted = value;
 				
 		if(defaultValueSetted instanceof Annotation)
 			defaultValueSetted = TTypeAnalyserParserDelegate.parse(defaultValueSetted, componentDescriptor); 
@@ -306,7 +280,7 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 		
 		if(defaultValueSetted!=null){
 			
-			Object annotDefVal = annotation.annotationType().getMethod(key).getDefaultValue();
+			Object annotDefVal = annotationDefault;
 			if(annotDefVal instanceof Annotation)
 				annotDefVal = TTypeAnalyserParserDelegate.parse(annotDefVal, componentDescriptor);
 			
@@ -321,7 +295,7 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 				selectedValue = valueSetted;
 			}
 		}else{
-			Object annotDefVal = annotation.annotationType().getMethod(key).getDefaultValue();
+			Object annotDefVal = annotationDefault;
 			if(annotDefVal instanceof Annotation)
 				annotDefVal = TTypeAnalyserParserDelegate.parse(annotDefVal, componentDescriptor);
 			if((annotDefVal!=null && (valueSetted instanceof Double[]) ? 
@@ -354,24 +328,25 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 	@SuppressWarnings({"unchecked", "null"})
 	private void invokeTargetMethod(A annotation, String key, Object targetObject, Object value) {
 		
-		Class paramClass = TReflectionUtil.getGenericParamClass(getClass(), 1);
-		Class targetClass = paramClass == Object.class ? targetObject.getClass() : paramClass;
+		final TAnnotationParsePlan plan = TAnnotationParsePlan.get(getClass(), annotation);
+		Class targetClass = plan.getTargetClass(targetObject);
 			
 		try {
 			Object targetValue = TTypeAnalyserParserDelegate.parse(value, componentDescriptor);
-			final Method method = getTargetMethod(key, targetClass);
+			final TSetter setter = plan.getSetter(targetClass, key);
+			final Method method = setter.method;
 			try{
 				if(method!=null){
 					if(value instanceof Double[])
-						method.invoke(targetObject, ((Double[])value)[0], ((Double[])value)[1]);
+						setter.invoke(targetObject, ((Double[])value)[0], ((Double[])value)[1]);
 					else
-						method.invoke((T)targetObject,  targetValue);
+						setter.invoke((T)targetObject,  targetValue);
 				}else if(!key.equals(componentDescriptor.getAnnotationPropertyInExecution())){
-					final Method method2 = getTargetMethod(componentDescriptor.getAnnotationPropertyInExecution(), targetClass);
+					final Method method2 = plan.getSetter(targetClass, componentDescriptor.getAnnotationPropertyInExecution()).method;
 					if(method2!=null){
 						Object obj = method2.invoke(targetObject);
 						if(obj !=null){
-							final Method method3 = getTargetMethod(key, targetClass);
+							final Method method3 = plan.getSetter(targetClass, key).method;
 							if(method3!=null)
 								method.invoke(targetObject, TTypeAnalyserParserDelegate.parse(obj, componentDescriptor));
 						}
@@ -406,45 +381,18 @@ public abstract class TAnnotationParser<A extends Annotation, T> implements ITAn
 		}
 	}
 	
-	private static Method getTargetMethod(String key, Class clazz){
-		
-		Method prop = null;
-		Method set = null;
-		do {
-			for(Method m : clazz.getDeclaredMethods()){
-				if(m.getName().equals(key)){
-					prop = m;
-				}
-				if(m.getName().equals(TReflectionUtil.SET+StringUtils.capitalize(key))){
-					if(key.equals("alignment") && m.getParameterTypes().length>1)
-						continue;
-					set = m;
-					break;
-				}
-				
-				if(m.getName().equals(TReflectionUtil.GET+StringUtils.capitalize(key)))
-					set = m;
-			}
-			clazz = clazz.getSuperclass();
-		}while(clazz!=Object.class && (prop==null && set==null));
-		
-		return (set!=null && prop!=null) ? set : ((set!=null) ? set : prop);
-	}
-	
-	
-	
 	private Annotation getDefaultSetting(A annotation) {
 		List<Annotation> typeAnnotations = componentDescriptor.getModelViewAnnotationList();
-		String nameToCompare = TReflectionUtil.getAnnotationName(annotation).toLowerCase()+"defaultsetting";
+		String nameToCompare = TAnnotationParsePlan.getName(annotation)+"defaultsetting";
 		if(typeAnnotations!=null)
 			for (Annotation target : typeAnnotations)
-				if(TReflectionUtil.getAnnotationName(target).toLowerCase().equals(nameToCompare))
+				if(TAnnotationParsePlan.getName(target).equals(nameToCompare))
 					return target;
 		return null;
 	}
 	
 	private Object getAnnotation(String key, Annotation annotation) throws Exception {
-		return annotation.annotationType().getMethod(key).invoke(annotation);
+		return TAnnotationParsePlan.read(annotation, key);
 	}
 	
 }
\ No newline at end of file
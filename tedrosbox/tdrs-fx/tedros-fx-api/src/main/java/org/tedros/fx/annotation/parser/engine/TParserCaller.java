@@ -5,11 +5,13 @@ package org.tedros.fx.annotation.parser.engine;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.tedros.api.descriptor.ITComponentDescriptor;
 import org.tedros.api.parser.ITAnnotationParser;
+import org.tedros.fx.annotation.parser.engine.TAnnotationParsePlan.TMember;
 import org.tedros.fx.util.TReflectionUtil;
 import org.tedros.util.TLoggerUtil;
 
@@ -92,6 +94,40 @@ public class TParserCaller {
 		}
 	}
 	
+	/**
+	 * <pre>
+	 * Compiles the parse plans of the given annotation and of its nested annotations 
+	 * for the parsers defined in the parser() property.
+	 * 
+	 * Does not touch the scene graph, can be called out of the FX thread 
+	 * to prepare a form before build it.
+	 * </pre>
+	 * */
+	public static void prepare(final Annotation tAnnotation) {
+		try {
+			Method parserMethod = TReflectionUtil.getParserMethod(tAnnotation);
+			if(parserMethod!=null){
+				Object object = parserMethod.invoke(tAnnotation);
+				Class<?>[] parsers = (object instanceof Class[]) 
+						? (Class<?>[]) object 
+								: new Class[]{(Class<?>)object};
+				for (Class<?> clazz : parsers) 
+					if(clazz!=null && TAnnotationParser.class.isAssignableFrom(clazz) && !Modifier.isAbstract(clazz.getModifiers()))
+						TAnnotationParsePlan.get(clazz, tAnnotation).prepare();
+			}
+			for(TMember m : TAnnotationParsePlan.getMembers(tAnnotation)) {
+				Object value = m.get(tAnnotation);
+				if(value instanceof Annotation)
+					prepare((Annotation) value);
+				else if(value instanceof Annotation[])
+					for(Annotation a : (Annotation[]) value)
+						prepare(a);
+			}
+		}catch(Exception e){
+			LOGGER.warn("Cannot prepare the parsers of "+tAnnotation.annotationType().getSimpleName()+": "+e.getMessage());
+		}
+	}
+	
 	@SuppressWarnings("rawtypes")
 	private static Method getSourceMethod(String key, Class clazz){
 		
@@ -0,0 +1,419 @@
+/**
+ *
+ */
+package org.tedros.fx.collections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.tedros.server.result.TResult;
+import org.tedros.server.result.TResult.TState;
+import org.tedros.util.TLoggerUtil;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.collections.ObservableListBase;
+
+/**
+ * A virtual list of model views backed by the server pagination.
+ * <p>
+ * The size of the list is the total of rows returned by the server,
+ * the pages are fetched in background when a row is read by
+ * the list and table views while scrolling, a row not loaded yet is null
+ * and is replaced when its page arrives. Only the last used pages
+ * are kept and the rows are wrapped into model views when read,
+ * so the memory does not grow with the size of the table.
+ * When a row is read in the second half of a page the next page is prefetched.
+ * </p>
+ * <p>
+ * The models added are appended after the server rows. Removing a server row
+ * discards the pages after it, they are fetched again with the new offsets.
+ * The list is not thread safe, it must be used in the FX thread.
+ * </p>
+ * @author Davis Gordon
+ *
+ * @param <E> the entity type
+ * @param <M> the model view type
+ */
+public class TVirtualPageList<E, M> extends ObservableListBase<M> {
+
+	private final static Logger LOGGER = TLoggerUtil.getLogger(TVirtualPageList.class);
+
+	/**
+	 * The default rows per page
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 100;
+
+	/**
+	 * The default max pages kept in memory
+	 */
+	public static final int DEFAULT_MAX_PAGES = 10;
+
+	private static final ThreadPoolExecutor EXECUTOR;
+
+	static {
+		AtomicInteger n = new AtomicInteger();
+		EXECUTOR = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(256), r->{
+					Thread t = new Thread(r, "TVirtualPageList-"+n.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				});
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Loads the rows of a page, the result value must contain
+	 * the "list" with the entities and the "total" of rows.
+	 * Called out of the FX thread.
+	 */
+	@FunctionalInterface
+	public interface TPageLoader<E> {
+		TResult<Map<String, Object>> load(int start, int size) throws Exception;
+	}
+
+	private final TPageLoader<E> loader;
+	private final Function<E, M> wrapper;
+	private final int pageSize;
+	private final int maxPages;
+	private final Executor fetchExecutor;
+	private final Executor fxExecutor;
+
+	private final Map<Integer, TPage> pages;
+	private final Set<Integer> pending = new HashSet<>();
+	private final List<M> appended = new ArrayList<>();
+	private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(false);
+	private Consumer<TResult<Map<String, Object>>> onError;
+	private int total;
+	private int generation;
+
+	/**
+	 * @param loader - the page loader
+	 * @param wrapper - wraps an entity into a model view
+	 */
+	public TVirtualPageList(TPageLoader<E> loader, Function<E, M> wrapper) {
+		this(loader, wrapper, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+	}
+
+	/**
+	 * @param loader - the page loader
+	 * @param wrapper - wraps an entity into a model view
+	 * @param pageSize - the rows per page
+	 * @param maxPages - the max pages kept in memory, at least 2
+	 */
+	public TVirtualPageList(TPageLoader<E> loader, Function<E, M> wrapper, int pageSize, int maxPages) {
+		this(loader, wrapper, pageSize, maxPages, EXECUTOR, Platform::runLater);
+	}
+
+	TVirtualPageList(TPageLoader<E> loader, Function<E, M> wrapper, int pageSize, int maxPages,
+			Executor fetchExecutor, Executor fxExecutor) {
+		if(pageSize<1)
+			throw new IllegalArgumentException("The page size must be greater than zero");
+		this.loader = Objects.requireNonNull(loader);
+		this.wrapper = Objects.requireNonNull(wrapper);
+		this.pageSize = pageSize;
+		this.maxPages = Math.max(2, maxPages);
+		this.fetchExecutor = fetchExecutor;
+		this.fxExecutor = fxExecutor;
+		this.pages = new LinkedHashMap<Integer, TPage>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, TPage> eldest) {
+				return size() > TVirtualPageList.this.maxPages;
+			}
+		};
+	}
+
+	/**
+	 * Discards the loaded pages and the added models
+	 * and fetches the first page, the size of the list
+	 * is set when the first page arrives.
+	 */
+	public void load() {
+		generation++;
+		pending.clear();
+		pages.clear();
+		int old = size();
+		appended.clear();
+		total = 0;
+		if(old>0) {
+			beginChange();
+			nextRemove(0, Collections.nCopies(old, (M) null));
+			endChange();
+		}
+		fetch(0);
+	}
+
+	@Override
+	public M get(int index) {
+		if(index<0 || index>=size())
+			throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size());
+		if(index>=total)
+			return appended.get(index-total);
+		int p = index / pageSize;
+		int offset = index - p * pageSize;
+		TPage page = pages.get(p);
+		if(page==null) {
+			fetch(p);
+			return null;
+		}
+		if(offset >= pageSize/2 && (p+1) * pageSize < total)
+			prefetch(p+1);
+		return page.get(offset);
+	}
+
+	@Override
+	public int size() {
+		return total + appended.size();
+	}
+
+	/**
+	 * Appends the model after the server rows,
+	 * only the end of the list is accepted.
+	 */
+	@Override
+	public void add(int index, M element) {
+		if(index!=size())
+			throw new UnsupportedOperationException("The models can only be appended to a virtual list");
+		appended.add(element);
+		beginChange();
+		nextAdd(index, index+1);
+		endChange();
+	}
+
+	@Override
+	public M remove(int index) {
+		if(index<0 || index>=size())
+			throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size());
+		M removed;
+		if(index>=total) {
+			removed = appended.remove(index-total);
+		}else {
+			int p = index / pageSize;
+			TPage page = pages.get(p);
+			removed = page!=null ? page.get(index - p * pageSize) : null;
+			// the offsets of the next pages changed
+			pages.keySet().removeIf(k -> k >= p);
+			generation++;
+			pending.clear();
+			updateLoading();
+			total--;
+		}
+		beginChange();
+		nextRemove(index, removed);
+		endChange();
+		return removed;
+	}
+
+	/**
+	 * Searches only the loaded rows and the added models,
+	 * the pages not loaded are not fetched.
+	 */
+	@Override
+	public int indexOf(Object o) {
+		for(int i=0; i<appended.size(); i++)
+			if(Objects.equals(o, appended.get(i)))
+				return total + i;
+		if(o==null)
+			return -1;
+		for(Map.Entry<Integer, TPage> e : pages.entrySet()) {
+			int i = e.getValue().indexOf(o);
+			if(i!=-1)
+				return e.getKey() * pageSize + i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the first loaded row or added model
+	 * accepted by the filter, the pages not loaded are not fetched.
+	 * 
+	 * @return the index or -1 if not found
+	 */
+	public int indexOf(Predicate<M> filter) {
+		for(int i=0; i<appended.size(); i++)
+			if(filter.test(appended.get(i)))
+				return total + i;
+		for(Map.Entry<Integer, TPage> e : pages.entrySet()) {
+			TPage page = e.getValue();
+			for(int i=0; i<page.rows.length; i++) {
+				M m = page.get(i);
+				if(m!=null && filter.test(m))
+					return e.getKey() * pageSize + i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return indexOf(o);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o)!=-1;
+	}
+
+	private void prefetch(int p) {
+		if(!pages.containsKey(p))
+			fetch(p);
+	}
+
+	private void fetch(int p) {
+		if(!pending.add(p))
+			return;
+		updateLoading();
+		final int gen = generation;
+		final int start = p * pageSize;
+		try {
+			fetchExecutor.execute(()->{
+				TResult<Map<String, Object>> result;
+				try {
+					result = loader.load(start, pageSize);
+				} catch (Exception e) {
+					LOGGER.error(e.getMessage(), e);
+					result = new TResult<>(TState.ERROR, true, e.getMessage());
+				}
+				final TResult<Map<String, Object>> r = result;
+				fxExecutor.execute(()->loaded(gen, p, r));
+			});
+		}catch(RejectedExecutionException e) {
+			// too many pages queued, the page is fetched again when read
+			pending.remove(p);
+			updateLoading();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void loaded(int gen, int p, TResult<Map<String, Object>> result) {
+		if(gen!=generation)
+			return;
+		pending.remove(p);
+		updateLoading();
+		if(result==null || !TState.SUCCESS.equals(result.getState()) || result.getValue()==null) {
+			if(onError!=null && result!=null)
+				onError.accept(result);
+			return;
+		}
+		Map<String, Object> map = result.getValue();
+		List<E> list = (List<E>) map.get("list");
+		pages.put(p, new TPage(list!=null ? list : Collections.emptyList()));
+
+		Number t = (Number) map.get("total");
+		if(t!=null && t.intValue()!=total)
+			resize(t.intValue());
+		int from = p * pageSize;
+		fireReplaced(from, Math.min(from + pageSize, total));
+	}
+
+	private void resize(int newTotal) {
+		int old = total;
+		total = newTotal;
+		// the pages out of the new size are discarded
+		pages.keySet().removeIf(k -> k * pageSize >= newTotal);
+		beginChange();
+		if(newTotal>old)
+			nextAdd(old, newTotal);
+		else
+			nextRemove(newTotal, Collections.nCopies(old-newTotal, (M) null));
+		endChange();
+	}
+
+	private void fireReplaced(int from, int to) {
+		if(from>=to)
+			return;
+		beginChange();
+		for(int i=from; i<to; i++)
+			nextSet(i, null);
+		endChange();
+	}
+
+	private void updateLoading() {
+		loading.set(!pending.isEmpty());
+	}
+
+	/**
+	 * @return true while pages are being fetched
+	 */
+	public ReadOnlyBooleanProperty loadingProperty() {
+		return loading.getReadOnlyProperty();
+	}
+
+	/**
+	 * @param onError - receives the results not succeeded, in the FX thread
+	 */
+	public void setOnError(Consumer<TResult<Map<String, Object>>> onError) {
+		this.onError = onError;
+	}
+
+	/**
+	 * @return the total of rows in the server
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return the rows per page
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @return the number of pages in memory
+	 */
+	int getLoadedPages() {
+		return pages.size();
+	}
+
+	/**
+	 * A fetched page, the rows are wrapped when read
+	 */
+	private final class TPage {
+
+		private final Object[] rows;
+		private final Object[] models;
+
+		private TPage(List<E> list) {
+			this.rows = list.toArray();
+			this.models = new Object[rows.length];
+		}
+
+		@SuppressWarnings("unchecked")
+		M get(int offset) {
+			if(offset>=rows.length)
+				return null;
+			Object m = models[offset];
+			if(m==null && rows[offset]!=null)
+				models[offset] = m = wrapper.apply((E) rows[offset]);
+			return (M) m;
+		}
+
+		int indexOf(Object o) {
+			for(int i=0; i<models.length; i++)
+				if(o.equals(models[i]))
+					return i;
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,172 @@
+/**
+ *
+ */
+package org.tedros.fx.form;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.tedros.util.TLoggerUtil;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * The form build pipeline.
+ * <p>
+ * The preparation of the forms (field descriptors and annotation parse plans)
+ * runs on a small executor shared by all forms, the build of the controls
+ * runs on the FX thread in batches limited by FRAME_BUDGET_NANOS per frame,
+ * so a big form does not hold the FX thread and does not flood
+ * the FX queue with one runnable per field.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+final class TFormBuildExecutor {
+
+	private final static Logger LOGGER = TLoggerUtil.getLogger(TFormBuildExecutor.class);
+
+	/**
+	 * Max time in nanoseconds building fields in a frame
+	 */
+	static final long FRAME_BUDGET_NANOS = 8_000_000;
+
+	/**
+	 * Max forms waiting to be prepared, when full the caller prepares the form
+	 */
+	private static final int MAX_QUEUED = 64;
+
+	private static final ThreadPoolExecutor EXECUTOR;
+
+	static {
+		int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+		AtomicInteger n = new AtomicInteger();
+		EXECUTOR = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(MAX_QUEUED), r->{
+					Thread t = new Thread(r, "TFormBuilder-"+n.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private TFormBuildExecutor() {
+	}
+
+	/**
+	 * Runs the task on the shared executor,
+	 * the task must not touch the scene graph.
+	 */
+	static void prepare(Runnable task) {
+		EXECUTOR.execute(()->{
+			try {
+				task.run();
+			} catch (Exception e) {
+				LOGGER.error(e.getMessage(), e);
+			}
+		});
+	}
+
+	/**
+	 * Runs the tasks in the FX thread in frame budgeted batches.
+	 *
+	 * @param tasks the tasks in execution order
+	 * @param onFinished called in the FX thread after the last task,
+	 * 					 not called if the batch is cancelled
+	 * @return the batch
+	 */
+	static TFxBatch runInFxBatches(List<Runnable> tasks, Runnable onFinished) {
+		TFxBatch batch = new TFxBatch(tasks, onFinished);
+		if(Platform.isFxApplicationThread())
+			batch.start();
+		else
+			Platform.runLater(batch::start);
+		return batch;
+	}
+
+	/**
+	 * Tasks executed by the pulses while the frame budget allows
+	 */
+	static final class TFxBatch extends AnimationTimer {
+
+		private final ArrayDeque<Runnable> tasks;
+		private final Runnable onFinished;
+		private boolean cancelled;
+		private boolean finished;
+		private int frames;
+
+		private TFxBatch(List<Runnable> tasks, Runnable onFinished) {
+			this.tasks = new ArrayDeque<>(tasks);
+			this.onFinished = onFinished;
+		}
+
+		@Override
+		public void start() {
+			if(cancelled || finished)
+				return;
+			if(tasks.isEmpty()) {
+				finish();
+				return;
+			}
+			super.start();
+		}
+
+		@Override
+		public void handle(long now) {
+			frames++;
+			if(TLoggerUtil.isFormEngineEnabled())
+				TLoggerUtil.timeComplexity(TFormBuildExecutor.class, "Building fields, frame "+frames
+						+", "+tasks.size()+" pending.", this::runBatch);
+			else
+				runBatch();
+			if(!cancelled && tasks.isEmpty()) {
+				stop();
+				finish();
+			}
+		}
+
+		private void runBatch() {
+			long deadline = System.nanoTime() + FRAME_BUDGET_NANOS;
+			Runnable r;
+			// at least one task per frame
+			do {
+				if(cancelled || (r = tasks.poll())==null)
+					return;
+				try {
+					r.run();
+				} catch (Exception e) {
+					LOGGER.error(e.getMessage(), e);
+				}
+			}while(System.nanoTime() < deadline);
+		}
+
+		private void finish() {
+			finished = true;
+			if(onFinished!=null)
+				onFinished.run();
+		}
+
+		/**
+		 * Stops the batch, the pending tasks are discarded.
+		 * Must be called in the FX thread.
+		 */
+		void cancel() {
+			cancelled = true;
+			stop();
+			tasks.clear();
+		}
+
+		/**
+		 * @return the number of frames used
+		 */
+		int getFrames() {
+			return frames;
+		}
+	}
+}
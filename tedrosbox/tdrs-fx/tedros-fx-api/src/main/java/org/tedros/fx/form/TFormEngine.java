@@ -58,6 +58,8 @@ public final class TFormEngine<M extends ITModelView<?>, F extends ITModelForm<M
 	private WebView webView;
 	private SimpleBooleanProperty loaded = new SimpleBooleanProperty(false);
 	private SimpleBooleanProperty dispose = new SimpleBooleanProperty(false);
+	private SimpleBooleanProperty built = new SimpleBooleanProperty(false);
+	private int build;
 	private TRepository tObjectRepository = new TRepository();
 	private final TTriggerLoader<M, ITModelForm<M>> triggerLoader;
 	
@@ -79,6 +81,8 @@ public final class TFormEngine<M extends ITModelView<?>, F extends ITModelForm<M
 		if(n) { 
 			this.tObjectRepository.clear();
 			this.tObjectRepository = null;
+			if(this.modelViewLoader!=null)
+				this.modelViewLoader.cancel();
 			this.modelViewLoader = null;
 			if(this.fields!=null)
 				this.fields.clear();
@@ -203,6 +207,7 @@ public final class TFormEngine<M extends ITModelView<?>, F extends ITModelForm<M
 						webView.getEngine().loadContent(sbf.toString());
 				}
 			loaded.setValue(true);
+			built.setValue(true);
 			initializeReader();
 		} catch (Exception e) {
 			LOGGER.error(e.getMessage(), e);
@@ -216,31 +221,51 @@ public final class TFormEngine<M extends ITModelView<?>, F extends ITModelForm<M
 	public void setEditMode(){		
 		resetForm();
 		mode = TViewMode.EDIT;
+		final int build = this.build;
 		/*
-		 * TODO: COMMENTED TO PUT INSIDE THE THREAD 
-		 * buildModelViewLoader();
-		 * this.loaded.bind(this.modelViewLoader.allLoadedProperty());
+		 * The field descriptors and the parse plans are prepared
+		 * in the shared form executor and the fields are built 
+		 * in the FX thread in frame budgeted batches.
 		 */
-		Thread taskThread = new Thread(()-> {
+		TFormBuildExecutor.prepare(()-> {
+			final TModelViewLoader<M> loader = new TModelViewLoader<M>(modelView, this.form);
+			if(TLoggerUtil.isFormEngineEnabled())
+				TLoggerUtil.timeComplexity(TFormEngine.class, getLogTitle()+": Preparing fields.", ()->loader.prepareEditFields());
+			else
+				loader.prepareEditFields();
+			
 			Platform.runLater(()-> {
+				// the form was reset while preparing
+				if(build!=this.build || mode!=TViewMode.EDIT || dispose.get())
+					return;
 				if(TLoggerUtil.isFormEngineEnabled()) {
 					TLoggerUtil.splitDebugLine(TFormEngine.class, '^');
-					TLoggerUtil.timeComplexity(TFormEngine.class, getLogTitle()+": Loading fields.", ()->loadEditFields());
+					TLoggerUtil.timeComplexity(TFormEngine.class, getLogTitle()+": Loading fields.", ()->loadEditFields(loader));
 				}else
-					loadEditFields();
+					loadEditFields(loader);
 			});
 		});
-		taskThread.setDaemon(true);
-		taskThread.start();
 	}
 
-	private void loadEditFields() {
+	private void loadEditFields(TModelViewLoader<M> loader) {
 		try {
 			if(StringUtils.isBlank(this.form.getId()))
 				this.form.setId("t-form");
 			
-			buildModelViewLoader();
+			this.modelViewLoader = loader;
 			this.loaded.bind(this.modelViewLoader.allLoadedProperty());
+			this.built.bind(this.modelViewLoader.allBuiltProperty());
+			
+			if(TLoggerUtil.isFormEngineEnabled()) {
+				final long start = System.nanoTime();
+				ChangeListener<Boolean> bchl = (ob, o, n) -> {
+					if(n)
+						TLoggerUtil.debug(TFormEngine.class, getLogTitle()+": Fields built in "
+								+ ((System.nanoTime() - start) / 1_000_000.0) + " Millis");
+				};
+				this.tObjectRepository.add("builtchl", bchl);
+				this.built.addListener(new WeakChangeListener<>(bchl));
+			}
 			
 			this.modelViewLoader.loadEditFields(form.getChildren());
 			
@@ -258,6 +283,16 @@ public final class TFormEngine<M extends ITModelView<?>, F extends ITModelForm<M
 		this.loaded.setValue(loaded);
 	}
 	
+	/**
+	 * True when the build of all fields was executed, 
+	 * even if a field failed to load.
+	 * 
+	 * @return the built property
+	 */
+	public ReadOnlyBooleanProperty builtProperty() {
+		return built;
+	}
+	
 	public void reloadForm(){
 		if(mode.equals(TViewMode.EDIT))
 			setEditMode();
@@ -308,9 +343,14 @@ public final class TFormEngine<M extends ITModelView<?>, F extends ITModelForm<M
 
 	public void resetForm() {
 		this.mode = null;
+		this.build++;
 		this.tObjectRepository.clear();
 		this.loaded.unbind();
 		this.loaded.setValue(false);
+		this.built.unbind();
+		this.built.setValue(false);
+		if(this.modelViewLoader!=null)
+			this.modelViewLoader.cancel();
 		this.modelViewLoader = null;
 		if(form.getChildren()!=null){
 			try{
@@ -6,6 +6,7 @@
  */
 package org.tedros.fx.form;
 
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -15,11 +16,14 @@ import org.tedros.api.descriptor.ITFieldDescriptor;
 import org.tedros.api.form.ITModelForm;
 import org.tedros.api.presenter.view.TViewMode;
 import org.tedros.core.model.ITModelView;
+import org.tedros.fx.annotation.parser.engine.TParserCaller;
 import org.tedros.fx.descriptor.TComponentDescriptor;
+import org.tedros.fx.form.TFormBuildExecutor.TFxBatch;
 import org.tedros.fx.util.TReflectionUtil;
 import org.tedros.util.TLoggerUtil;
 
-import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.WeakChangeListener;
@@ -38,7 +42,15 @@ class TModelViewLoader<M extends ITModelView<?>> extends TFieldLoader<M> {
 	private final static Logger LOGGER = TLoggerUtil.getLogger(TModelViewLoader.class);
 	
 	private SimpleIntegerProperty count = new SimpleIntegerProperty(0);
+	private SimpleBooleanProperty allBuilt = new SimpleBooleanProperty(false);
 	private final Object lock = new Object();
+	
+	private final List<ITFieldDescriptor> controlsFd = new ArrayList<>();
+	private final List<TComponentDescriptor> controlsCd = new ArrayList<>();
+	private final List<ITFieldDescriptor> layoutFd = new ArrayList<>();
+	private volatile boolean prepared;
+	private TFxBatch batch;
+	
 	public TModelViewLoader(M modelView, ITModelForm<M> form) {
 		super(modelView, form);
 	}
@@ -49,12 +61,50 @@ class TModelViewLoader<M extends ITModelView<?>> extends TFieldLoader<M> {
 		}
 	}
 	
+	/**
+	 * Reads the field descriptors to build and compiles the parse plans 
+	 * of the field annotations. Does not touch the scene graph, 
+	 * can be called out of the FX thread before {@link #loadEditFields(ObservableList)}.
+	 */
+	public void prepareEditFields() {
+		
+		controlsFd.clear();
+		controlsCd.clear();
+		layoutFd.clear();
+		
+		int order = 0;
+		for(final String fieldName : getFieldsName()){
+		
+			final ITFieldDescriptor tFieldDescriptor = getFieldDescriptor(fieldName);
+			
+			tFieldDescriptor.setOrder(order);
+			order++;
+			if(tFieldDescriptor.isIgnorable() 
+					|| (!tFieldDescriptor.hasControl() && !tFieldDescriptor.hasLayout()))
+				continue;
+			
+			if(tFieldDescriptor.hasControl()) {
+				controlsFd.add(tFieldDescriptor);
+				controlsCd.add(new TComponentDescriptor(descriptor, fieldName));
+			}
+			
+			if(tFieldDescriptor.hasLayout())
+				layoutFd.add(tFieldDescriptor);
+			
+			for(Annotation a : tFieldDescriptor.getAnnotations())
+				TParserCaller.prepare(a);
+		}
+		
+		prepared = true;
+	}
+	
 	public void loadEditFields(final ObservableList<Node> nodesLoaded) throws Exception {
 		
-		initialize();
+		if(!prepared)
+			prepareEditFields();
 		
-		final List<ITFieldDescriptor> controlsFd = new ArrayList<>();
-		final List<ITFieldDescriptor> layoutFd = new ArrayList<>();
+		initialize();
+		allBuilt.setValue(false);
 		
 		ChangeListener<Boolean> chl = (ob, o, n) ->{
 			if(n) {
@@ -79,25 +129,6 @@ class TModelViewLoader<M extends ITModelView<?>> extends TFieldLoader<M> {
 		repo.add("allLoaded", chl);
 		super.allLoadedProperty().addListener(new WeakChangeListener<>(chl));
 		
-		int order = 0;
-		for(final String fieldName : getFieldsName()){
-		
-			final ITFieldDescriptor tFieldDescriptor = getFieldDescriptor(fieldName);
-			
-			tFieldDescriptor.setOrder(order);
-			order++;
-			if(tFieldDescriptor.isIgnorable() 
-					|| (!tFieldDescriptor.hasControl() && !tFieldDescriptor.hasLayout()))
-				continue;
-			
-			
-			if(tFieldDescriptor.hasControl())
-				controlsFd.add(tFieldDescriptor);
-			
-			if(tFieldDescriptor.hasLayout())
-				layoutFd.add(tFieldDescriptor);
-		}
-		
 		count.setValue(controlsFd.size());
 		
 		if(!layoutFd.isEmpty())
@@ -124,34 +155,41 @@ class TModelViewLoader<M extends ITModelView<?>> extends TFieldLoader<M> {
 				}
 			});
 		
-		controlsFd.parallelStream().forEach(fd->{
-			if(!fd.isLoaded()) {
-				
-				Thread taskThread = new Thread(new Runnable() {
-				      @Override
-				      public void run() {
-						Platform.runLater(new Runnable() {
-				            @Override
-				            public void run() {
-				            	try {
-									TComponentDescriptor cd = new TComponentDescriptor(descriptor, fd.getFieldName());
-				            		
-				            		TComponentBuilder builder = new TComponentBuilder();
-				            		
-				            		builder.processControlField(cd);
-									lessOne();
-								} catch (Exception e) {
-									LOGGER.error(e.getMessage(), e);
-								}
-								
-				            }
-				          });
-				      	}
-					});
-				taskThread.setDaemon(true);
-				taskThread.start();
-			}
-		});
+		// the controls are built in the FX thread in frame budgeted batches
+		final List<Runnable> tasks = new ArrayList<>(controlsFd.size());
+		for(int i=0; i<controlsFd.size(); i++) {
+			final ITFieldDescriptor fd = controlsFd.get(i);
+			final TComponentDescriptor cd = controlsCd.get(i);
+			if(!fd.isLoaded()) 
+				tasks.add(()->{
+	            	try {
+	            		TComponentBuilder builder = new TComponentBuilder();
+	            		builder.processControlField(cd);
+						lessOne();
+					} catch (Exception e) {
+						LOGGER.error(e.getMessage(), e);
+					}
+				});
+		}
+		batch = TFormBuildExecutor.runInFxBatches(tasks, ()->allBuilt.setValue(true));
+	}
+	
+	/**
+	 * Stops the build of the pending fields
+	 */
+	public void cancel() {
+		if(batch!=null)
+			batch.cancel();
+	}
+	
+	/**
+	 * True when the build of all fields was executed, even if a field failed,
+	 * see {@link #allLoadedProperty()} to know if all fields are loaded.
+	 * 
+	 * @return the all built property
+	 */
+	public ReadOnlyBooleanProperty allBuiltProperty() {
+		return allBuilt;
 	}
 	
 	public ObservableList<Node> getReaders() throws Exception {
@@ -197,7 +197,7 @@ class TListenerHelper<M extends ITModel> {
 								else
 									entidadeSetMethod.invoke(tModelView.model, (ITFileModel) fbm);
 							}
-							tModelView.buildLastHashCode();
+							tModelView.fieldChanged(fieldName);
 						} catch (IllegalAccessException	| IllegalArgumentException	| InvocationTargetException e) {
 							TLoggerUtil.error(getClass(), e.getMessage(), e);
 						}
@@ -222,7 +222,7 @@ class TListenerHelper<M extends ITModel> {
 					public void changed(ObservableValue<? extends Object> arg0, Object arg1, Object arg2) {
 						try {
 							entidadeSetMethod.invoke(tModelView.model, (arg2 instanceof TModelView) ? ((TModelView)arg2).getModel() : arg2);
-							tModelView.buildLastHashCode();
+							tModelView.fieldChanged(fieldName);
 						} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 							TLoggerUtil.error(getClass(), e.getMessage(), e);
 						}
@@ -240,7 +240,7 @@ class TListenerHelper<M extends ITModel> {
 					public void changed(ObservableValue<? extends Date> arg0, Date arg1, Date arg2) {
 						try {
 							entidadeSetMethod.invoke(tModelView.model, arg2);
-							tModelView.buildLastHashCode();
+							tModelView.fieldChanged(fieldName);
 						} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 							TLoggerUtil.error(getClass(), e.getMessage(), e);
 						}
@@ -259,7 +259,7 @@ class TListenerHelper<M extends ITModel> {
 					public void changed(ObservableValue<? extends BigDecimal> arg0, BigDecimal arg1, BigDecimal arg2) {
 						try {
 							entidadeSetMethod.invoke(tModelView.model, arg2);
-							tModelView.buildLastHashCode();
+							tModelView.fieldChanged(fieldName);
 						} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 							TLoggerUtil.error(getClass(), e.getMessage(), e);
 						}
@@ -278,7 +278,7 @@ class TListenerHelper<M extends ITModel> {
 					public void changed(ObservableValue<? extends BigInteger> arg0, BigInteger arg1, BigInteger arg2) {
 						try {
 							entidadeSetMethod.invoke(tModelView.model, arg2);
-							tModelView.buildLastHashCode();
+							tModelView.fieldChanged(fieldName);
 						} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 							TLoggerUtil.error(getClass(), e.getMessage(), e);
 						}
@@ -296,7 +296,7 @@ class TListenerHelper<M extends ITModel> {
 					public void changed(ObservableValue<? extends byte[]> arg0, byte[] arg1, byte[] arg2) {
 						try {
 							entidadeSetMethod.invoke(tModelView.model, arg2);
-							tModelView.buildLastHashCode();
+							tModelView.fieldChanged(fieldName);
 						} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 							TLoggerUtil.error(getClass(), e.getMessage(), e);
 						}
@@ -311,7 +311,7 @@ class TListenerHelper<M extends ITModel> {
 					public void changed(ObservableValue<? extends Object> arg0, Object arg1, Object arg2) {
 						try {
 							entidadeSetMethod.invoke(tModelView.model, arg2);
-							tModelView.buildLastHashCode();
+							tModelView.fieldChanged(fieldName);
 						} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 							TLoggerUtil.error(getClass(), e.getMessage(), e);
 						}
@@ -349,7 +349,7 @@ class TListenerHelper<M extends ITModel> {
 						// Used to test with the listener was removed
 						//System.out.println(tModelView.getClass().getSimpleName()+" "+entidadeSetMethod.getName()+ " " + arg2);
 						
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 						
 					}catch(NumberFormatException e){
 						TLoggerUtil.error(getClass(), e.getMessage(), e);
@@ -377,7 +377,7 @@ class TListenerHelper<M extends ITModel> {
 						
 						if(entidadeFieldType == BigDecimal.class)
 							entidadeSetMethod.invoke(tModelView.model, BigDecimal.valueOf(arg2));
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					}catch(NumberFormatException e){
 						TLoggerUtil.error(getClass(), e.getMessage(), e);
 					} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
@@ -406,7 +406,7 @@ class TListenerHelper<M extends ITModel> {
 							entidadeSetMethod.invoke(tModelView.model, arg2);
 						}
 						
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 						TLoggerUtil.error(getClass(), e.getMessage(), e);
 					}
@@ -426,7 +426,7 @@ class TListenerHelper<M extends ITModel> {
 				public void changed(ObservableValue<? extends Integer> arg0, Integer arg1, Integer arg2) {
 					try {
 						entidadeSetMethod.invoke(tModelView.model, arg2);
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 						TLoggerUtil.error(getClass(), e.getMessage(), e);
 					}
@@ -446,7 +446,7 @@ class TListenerHelper<M extends ITModel> {
 				public void changed(ObservableValue<? extends Long> arg0, Long arg1, Long arg2) {
 					try {
 						entidadeSetMethod.invoke(tModelView.model, arg2);
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 						TLoggerUtil.error(getClass(), e.getMessage(), e);
 					}
@@ -466,7 +466,7 @@ class TListenerHelper<M extends ITModel> {
 				public void changed(ObservableValue<? extends Float> arg0, Float arg1, Float arg2) {
 					try {
 						entidadeSetMethod.invoke(tModelView.model, arg2);
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 						TLoggerUtil.error(getClass(), e.getMessage(), e);
 					}
@@ -496,7 +496,7 @@ class TListenerHelper<M extends ITModel> {
 							((Collection) obj).clear();
 							((Collection) obj).addAll(c.getMap().values());
 						}
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					} catch (IllegalAccessException
 							| IllegalArgumentException
 							| InvocationTargetException e) {
@@ -530,7 +530,7 @@ class TListenerHelper<M extends ITModel> {
 							((Collection) obj).clear();
 							((Collection) obj).addAll(c.getSet());
 						}
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					} catch (IllegalAccessException
 							| IllegalArgumentException
 							| InvocationTargetException e) {
@@ -594,7 +594,7 @@ class TListenerHelper<M extends ITModel> {
 							}
 							property.addListener(l);
 						}
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					} catch (IllegalAccessException
 							| IllegalArgumentException
 							| InvocationTargetException e) {
@@ -608,7 +608,7 @@ class TListenerHelper<M extends ITModel> {
 				((ITObservableList)property).tHashCodeProperty().addListener(new ChangeListener<Number>() {
 					@Override
 					public void changed(ObservableValue<? extends Number> arg0, Number arg1, Number arg2) {
-						tModelView.buildLastHashCode();
+						tModelView.fieldChanged(fieldName);
 					}
 				});;
 			}
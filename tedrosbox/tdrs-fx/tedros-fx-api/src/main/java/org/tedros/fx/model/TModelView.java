@@ -4,13 +4,13 @@
 package org.tedros.fx.model;
 
 import java.beans.Transient;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -25,10 +25,8 @@ import org.tedros.core.model.TFormatter.Item;
 import org.tedros.core.repository.TRepository;
 import org.tedros.fx.exception.TErrorType;
 import org.tedros.fx.exception.TException;
+import org.tedros.fx.model.TModelViewBinding.TFieldBinding;
 import org.tedros.fx.property.TSimpleFileProperty;
-import org.tedros.fx.util.TPropertyUtil;
-import org.tedros.fx.util.TReflectionUtil;
-import org.tedros.server.entity.ITEntity;
 import org.tedros.server.model.ITFileModel;
 import org.tedros.server.model.ITModel;
 import org.tedros.util.TLoggerUtil;
@@ -102,6 +100,8 @@ public abstract class TModelView<M extends ITModel> implements ITModelView<M> {
 	private 	SimpleIntegerProperty		lastHashCodeProperty;
 	private 	SimpleLongProperty 			loadedProperty;
 	private 	boolean 					changed = false;
+	private 	boolean 					changeTracking;
+	private 	Set<String> 				changedFields;
 	
 	private 	TListenerHelper<M> 			tListenerHelper;
 	
@@ -126,13 +126,22 @@ public abstract class TModelView<M extends ITModel> implements ITModelView<M> {
 		
 		tListenerHelper = new TListenerHelper<>(this);
 		
-		TLoggerUtil.timeComplexity(this.getClass(), "Wraping "+model.getClass().getName()+" -> "+model.toString(),
-		()->{
+		if(TLoggerUtil.isDebugEnabled())
+			TLoggerUtil.timeComplexity(this.getClass(), "Wraping "+model.getClass().getName()+" -> "+model.toString(),
+			()->{
+				loadFields();
+				
+				buildLastHashCode();
+				buildLastHashCodeListener();
+			});
+		else {
 			loadFields();
 			
 			buildLastHashCode();
 			buildLastHashCodeListener();
-		});
+		}
+		if(changedFields!=null)
+			changedFields.clear();
 	}
 	
 	/* (non-Javadoc)
@@ -252,6 +261,8 @@ public abstract class TModelView<M extends ITModel> implements ITModelView<M> {
 			loadedProperty().setValue(Calendar.getInstance().getTimeInMillis());
 			buildLastHashCodeListener();
 			changed = false;
+			if(changedFields!=null)
+				changedFields.clear();
 		});
 		
 	}
@@ -278,6 +289,8 @@ public abstract class TModelView<M extends ITModel> implements ITModelView<M> {
 	 */
 	@Override
 	public int hashCode() {
+		if(changeTracking)
+			return modelViewId!=null ? modelViewId.hashCode() : 0;
 		return reflectionHashCode(new String[]{});
 	}
 	/* (non-Javadoc)
@@ -309,6 +322,15 @@ public abstract class TModelView<M extends ITModel> implements ITModelView<M> {
 		return changed;
 	}
 	
+	/* (non-Javadoc)
+	 * @see org.tedros.core.model.ITModelView#getChangedFields()
+	 */
+	@Override
+	@Transient
+	public Set<String> getChangedFields() {
+		return changeTracking ? Collections.unmodifiableSet(changedFields) : null;
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.tedros.core.model.ITModelView#lastHashCodeProperty()
 	 */
@@ -378,259 +400,221 @@ public abstract class TModelView<M extends ITModel> implements ITModelView<M> {
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	private void loadFields() {
 		
-		final Map<String, Field> modelFields = new HashMap<>();
-		Class superClass = this.model.getClass();
-		
-		Class<?> target = (TReflectionUtil.isImplemented(superClass, ITEntity.class)) 
-				? ITEntity.class 
-						: (TReflectionUtil.isImplemented(superClass, ITModel.class)) 
-						? ITModel.class
-								: null;
-		
-		if(target != null){
-			while(TReflectionUtil.isImplemented(superClass, target)){
-				for(Field f : superClass.getDeclaredFields())
-					modelFields.put(f.getName(), f);
-				superClass = superClass.getSuperclass();
-			}
-		}
-		
-		Map<String, TPropertyHelper> propertyMap = new HashMap<>();
-		target = ITModelView.class;
-		superClass = this.getClass();
-		
-		while(TReflectionUtil.isImplemented(superClass, target)){
-			if(!superClass.equals(TModelView.class)) {
-				Arrays.asList(superClass.getDeclaredFields()).stream()
-				.forEach(f->{
-					if(!propertyMap.containsKey(f.getName()))
-						try {
-							propertyMap.put(f.getName(), new TPropertyHelper(f, this));
-						} catch (Throwable e) {
-							LOGGER.error(e.getMessage(), e);
-						}
-				});
-			}
-			superClass = superClass.getSuperclass();
-		}
+		// the class metadata is shared by all instances
+		final TModelViewBinding binding = TModelViewBinding.get(this.getClass(), this.model.getClass());
+		changeTracking = binding.isChangeTracking();
+		if(changeTracking && changedFields==null)
+			changedFields = new LinkedHashSet<>();
 		
 		properties.clear();
 		this.registerProperty("toStringProperty", display);
 		// percorre os campos do model view 
-		propertyMap.values()
-		//.parallelStream()
-		.forEach(h -> {
-			if(h.isElegible()){
-				try{
-					//Used to stop at a specific field load at debug time
-					/* int x = 0;
-					if(h.name.contains("id"))
-						x = 1;
-					*/
-					// recupera o campo equivalente no model
-					Field entityField = modelFields.get(h.name);
+		for(TFieldBinding b : binding.getFields()) {
+			try{
+				final TPropertyHelper h = new TPropertyHelper(b, this);
+				//Used to stop at a specific field load at debug time
+				/* int x = 0;
+				if(h.name.contains("id"))
+					x = 1;
+				*/
+				// recupera o campo equivalente no model
+				if(b.entityField!=null) {
 					
-					if(entityField!=null) {
-						
-						final Class entityFieldType = entityField.getType();
-						// recupera o metodo set do atributo na entidade
-						final Method entidadeSetMethod = TReflectionUtil.getSetterMethod(this.model.getClass(), h.name, entityFieldType);
-						//final Method entidadeSetMethod = this.model.getClass().getMethod(SET+StringUtils.capitalize(h.name), entidadeFieldType);;
+					final Class entityFieldType = b.entityFieldType;
+					// o metodo set do atributo na entidade
+					final Method entidadeSetMethod = b.entitySetMethod;
+					// o metodo get do atributo na entidade
+					final Method entityGetMethod = b.entityGetMethod;
+					// recupera o objeto da entidade
+					final Object obj = b.get(this.model);
+					
+					if(b.collection){
 						
-						// recupera o valor do campo na entidade
-						final Method entityGetMethod = TReflectionUtil.getGetterMethod(this.model.getClass(), h.name);
-						//final Method entidadeGetMethod = this.model.getClass().getMethod(GET+StringUtils.capitalize(h.name));
-						// recupera o objeto da entidade
-						final Object obj = entityGetMethod.invoke(this.model);
+						Class modelViewClass = b.modelViewClass; 
+						Class entityClass = b.entityClass;
 						
-						if(TPropertyUtil.isCollectionObservableType(h.type)){
+						// ObservableList.class
+						if(b.list){ // OK
 							
-							Class modelViewClass = null; 
-							Class entityClass = null;
-							if(h.genericType!=null){
-								modelViewClass = h.genericType.modelView();
-								entityClass = h.genericType.model();
-							}
+							final ObservableList property = (ObservableList) h.value; 
 							
-							// ObservableList.class
-							if(TReflectionUtil.isImplemented(h.type, ObservableList.class)){ // OK
-								
-								final ObservableList property = (ObservableList) h.value; 
-								
-								final ListChangeListener listener = (ListChangeListener) tListenerHelper.tObjectRepository.get(h.name); 
-										
-								if(listener!=null){
-									property.removeListener(listener);
-									property.clear();
-								}
-								if(obj!=null){
-									for(Object o : (Collection) obj){
-										//if(o instanceof TModelView){
-										if(o instanceof ITModel){
-											if(modelViewClass==null && entityClass==null)
-												throw new Exception("\n\nT_ERROR "
-														+ "\nType: "+TErrorType.COLLECTION_CONFIGURATION
-														+ "\nFIELD: "+getClass().getSimpleName() + "."+h.name
-														+ "\n\n-Use the @TGenericType annotation at field "+getClass().getSimpleName() + "."+h.name+"\n\n");
-											try{
-												if(modelViewClass!=TModelView.class && entityClass!=null)
-													property.add(modelViewClass.getConstructor(entityClass).newInstance(o));
-												else
-													property.add(o);
-											}catch(IllegalArgumentException e){
-												String error = "\n\nT_ERROR\nType: "+TErrorType.BUILD
-														+ "\nModel View class: "+modelViewClass.getName()+".class"
-														+ "\nModel View constructor argument type: "+entityClass.getName()+".class"
-														+ "\nModel to bind: "+o.getClass().getName()+".class"
-														+ "\n\n-Check the configuration of the field "+h.name+" at "+getClass().getName()+".java\n\n";
-												
-												LOGGER.error(error, e);
-											}
-										}else if(o instanceof ITFileModel){
-											property.add(new TSimpleFileProperty<ITFileModel>((ITFileModel)o));
+							final ListChangeListener listener = (ListChangeListener) tListenerHelper.tObjectRepository.get(h.name); 
+									
+							if(listener!=null){
+								property.removeListener(listener);
+								property.clear();
+							}
+							if(obj!=null){
+								for(Object o : (Collection) obj){
+									//if(o instanceof TModelView){
+									if(o instanceof ITModel){
+										if(modelViewClass==null && entityClass==null)
+											throw new Exception("\n\nT_ERROR "
+													+ "\nType: "+TErrorType.COLLECTION_CONFIGURATION
+													+ "\nFIELD: "+getClass().getSimpleName() + "."+h.name
+													+ "\n\n-Use the @TGenericType annotation at field "+getClass().getSimpleName() + "."+h.name+"\n\n");
+										try{
+											if(modelViewClass!=TModelView.class && entityClass!=null)
+												property.add(b.newModelView(o));
+											else
+												property.add(o);
+										}catch(IllegalArgumentException e){
+											String error = "\n\nT_ERROR\nType: "+TErrorType.BUILD
+													+ "\nModel View class: "+modelViewClass.getName()+".class"
+													+ "\nModel View constructor argument type: "+entityClass.getName()+".class"
+													+ "\nModel to bind: "+o.getClass().getName()+".class"
+													+ "\n\n-Check the configuration of the field "+h.name+" at "+getClass().getName()+".java\n\n";
+											
+											LOGGER.error(error, e);
 										}
+									}else if(o instanceof ITFileModel){
+										property.add(new TSimpleFileProperty<ITFileModel>((ITFileModel)o));
 									}
 								}
-								if(listener==null)
-									tListenerHelper.buildListListener(h.type, entityGetMethod, entidadeSetMethod, entityFieldType, property, h.name);
-								else
-									property.addListener(listener);
-								properties.put(h.name, property);
-							} 
+							}
+							if(listener==null)
+								tListenerHelper.buildListListener(h.type, entityGetMethod, entidadeSetMethod, entityFieldType, property, h.name);
+							else
+								property.addListener(listener);
+							properties.put(h.name, property);
+						} 
+						
+						// ObservableSet.class
+						if(b.set){ // TODO: DEVE SER TESTADO
+							final ObservableSet property = (ObservableSet) h.value; // modelViewGetMethod.invoke(this);
 							
-							// ObservableSet.class
-							if(h.type == ObservableSet.class){ // TODO: DEVE SER TESTADO
-								final ObservableSet property = (ObservableSet) h.value; // modelViewGetMethod.invoke(this);
+							//TODO: TESTAR LISTENER REPO - BEGIN
+							/*final SetChangeListener listener = (changeListenersRepository!=null) 
+									? (SetChangeListener)changeListenersRepository.get(entidadeSetMethod.getName())
+											:null;*/
+							
+							final SetChangeListener listener = (SetChangeListener) tListenerHelper.tObjectRepository.get(h.name);
+							//END
+									
+							if(listener!=null){
+								property.removeListener(listener);
+								property.clear();
+							}
+							if(obj!=null)
+								for(Object o : (Collection) obj)
+									if(modelViewClass!=TModelView.class && entityClass!=null)
+										property.add(b.newModelView(o));
+									else
+										property.add(o);
+							if(listener==null)
+								tListenerHelper.buildSetListener(h.type, entityGetMethod, entidadeSetMethod, entityFieldType, property, h.name);
+							else
+								property.addListener(listener);
+							properties.put(h.name, property);
+						}
+						
+						// ObservableMap.class
+						if(b.map){ // TODO: DEVE SER TESTADO
+							final ObservableMap property = (ObservableMap) h.value; //modelViewGetMethod.invoke(this);
+							if(!h.buildListener){
 								
 								//TODO: TESTAR LISTENER REPO - BEGIN
-								/*final SetChangeListener listener = (changeListenersRepository!=null) 
-										? (SetChangeListener)changeListenersRepository.get(entidadeSetMethod.getName())
-												:null;*/
+								// final MapChangeListener listener = (MapChangeListener)changeListenersRepository.get(entidadeSetMethod.getName());
 								
-								final SetChangeListener listener = (SetChangeListener) tListenerHelper.tObjectRepository.get(h.name);
+								final MapChangeListener listener = (MapChangeListener)	tListenerHelper.tObjectRepository.get(h.name);
 								//END
-										
+								
 								if(listener!=null){
 									property.removeListener(listener);
 									property.clear();
 								}
-								if(obj!=null)
-									for(Object o : (Collection) obj)
-										if(modelViewClass!=TModelView.class && entityClass!=null)
-											property.add(modelViewClass.getConstructor(entityClass).newInstance(o));
-										else
-											property.add(o);
-								if(listener==null)
-									tListenerHelper.buildSetListener(h.type, entityGetMethod, entidadeSetMethod, entityFieldType, property, h.name);
-								else
-									property.addListener(listener);
-								properties.put(h.name, property);
-							}
-							
-							// ObservableMap.class
-							if(h.type == ObservableMap.class ){ // TODO: DEVE SER TESTADO
-								final ObservableMap property = (ObservableMap) h.value; //modelViewGetMethod.invoke(this);
-								if(!h.buildListener){
-									
-									//TODO: TESTAR LISTENER REPO - BEGIN
-									// final MapChangeListener listener = (MapChangeListener)changeListenersRepository.get(entidadeSetMethod.getName());
-									
-									final MapChangeListener listener = (MapChangeListener)	tListenerHelper.tObjectRepository.get(h.name);
-									//END
-									
-									if(listener!=null){
-										property.removeListener(listener);
-										property.clear();
-									}
-									
-									property.addListener(listener);
-								}
-								property.putAll((Map) obj);
-								if(h.buildListener)
-									tListenerHelper.buildMapListener(h.type, entityGetMethod, entidadeSetMethod, property, h.name);
-								properties.put(h.name, property);
-							}
-						}else{
-						
-							final Property property = (Property) h.value; //modelViewGetMethod.invoke(this);
-							if(!TCompatibleTypesHelper.isTypesCompatible(h.type, entityFieldType)){
-								
-								String error = "\n\nTERROR :: FIELD "+h.name+" of type "+h.type.getSimpleName()+" in "+getClass().getSimpleName()
-										+" is not compatible for the type "+entityFieldType+" on "+getModel().getClass().getSimpleName()+"\n";
-								error += "TINFO :: TModelView "+ h.type.getSimpleName() +" compatible types: ";
-								for(Class c : TCompatibleTypesHelper.compatibleTypes.get(property.getClass()))
-									error += c.getSimpleName()+", ";
 								
-								throw new TException(error.substring(0, error.length()-2)+"\n");
+								property.addListener(listener);
 							}
-							
-							// seta o valor do property com o valor da entidade
-							if(obj!=null){
-								if(obj instanceof String && property instanceof BooleanProperty){
-									String v = (String) obj;
-									String literal = v.equals("1") || v.toUpperCase().trim().equals("T") ||  v.toUpperCase().trim().equals("TRUE")  
-													? "true" : "false";
-									property.setValue(Boolean.valueOf(literal));
-								}else if(obj instanceof ITModel) {
-									Class modelViewClass = null; 
-									Class entityClass = null;
-									
-									if(h.genericType!=null){
-										modelViewClass = h.genericType.modelView();
-										entityClass = h.genericType.model();
-									}
-									try{
-										if(modelViewClass!=TModelView.class && entityClass!=null)
-											property.setValue(modelViewClass.getConstructor(entityClass).newInstance(obj));
-										else
-											property.setValue(obj);
-									}catch(IllegalArgumentException e){
-										String error = "\n\nT_ERROR\nType: "+TErrorType.BUILD
-												+ "\nModel View class: "+modelViewClass.getName()+".class"
-												+ "\nModel View constructor argument type: "+entityClass.getName()+".class"
-												+ "\nModel to bind: "+obj.getClass().getName()+".class"
-												+ "\n\n-Check the configuration of the field "+h.name+" at "+getClass().getName()+".java\n\n";
-										
-										LOGGER.error(error, e);
-									}
-	
-								}else {
-									property.setValue(obj);
-								}
-							}else if(!(property instanceof TSimpleFileProperty))
-								property.setValue(null);
-							
-							// gera os ChangeListener(s)
+							property.putAll((Map) obj);
 							if(h.buildListener)
-								tListenerHelper.buildListeners(h.type, entityFieldType, property, entidadeSetMethod, obj, h.name);
-							
+								tListenerHelper.buildMapListener(h.type, entityGetMethod, entidadeSetMethod, property, h.name);
 							properties.put(h.name, property);
 						}
+					}else{
 					
+						final Property property = (Property) h.value; //modelViewGetMethod.invoke(this);
+						if(!b.typesCompatible){
+							
+							String error = "\n\nTERROR :: FIELD "+h.name+" of type "+h.type.getSimpleName()+" in "+getClass().getSimpleName()
+									+" is not compatible for the type "+entityFieldType+" on "+getModel().getClass().getSimpleName()+"\n";
+							error += "TINFO :: TModelView "+ h.type.getSimpleName() +" compatible types: ";
+							for(Class c : TCompatibleTypesHelper.compatibleTypes.get(property.getClass()))
+								error += c.getSimpleName()+", ";
+							
+							throw new TException(error.substring(0, error.length()-2)+"\n");
+						}
+						
+						// seta o valor do property com o valor da entidade
+						if(obj!=null){
+							if(obj instanceof String && property instanceof BooleanProperty){
+								String v = (String) obj;
+								String literal = v.equals("1") || v.toUpperCase().trim().equals("T") ||  v.toUpperCase().trim().equals("TRUE")  
+												? "true" : "false";
+								property.setValue(Boolean.valueOf(literal));
+							}else if(obj instanceof ITModel) {
+								Class modelViewClass = b.modelViewClass; 
+								Class entityClass = b.entityClass;
+								
+								try{
+									if(modelViewClass!=TModelView.class && entityClass!=null)
+										property.setValue(b.newModelView(obj));
+									else
+										property.setValue(obj);
+								}catch(IllegalArgumentException e){
+									String error = "\n\nT_ERROR\nType: "+TErrorType.BUILD
+											+ "\nModel View class: "+modelViewClass.getName()+".class"
+											+ "\nModel View constructor argument type: "+entityClass.getName()+".class"
+											+ "\nModel to bind: "+obj.getClass().getName()+".class"
+											+ "\n\n-Check the configuration of the field "+h.name+" at "+getClass().getName()+".java\n\n";
+									
+									LOGGER.error(error, e);
+								}
+	
+							}else {
+								property.setValue(obj);
+							}
+						}else if(!(property instanceof TSimpleFileProperty))
+							property.setValue(null);
+						
+						// gera os ChangeListener(s)
+						if(h.buildListener)
+							tListenerHelper.buildListeners(h.type, entityFieldType, property, entidadeSetMethod, obj, h.name);
+						
+						properties.put(h.name, property);
 					}
-					
-				}catch(Throwable e){				
-					LOGGER.error(e.toString(), e);
+				
 				}
-			}else{
-				String types = "";
-				for (Class c : TCompatibleTypesHelper.compatibleTypes.keySet()) 
-					types += c.getSimpleName()+", ";
 				
-				LOGGER.info(h.name+" field of type "+h.type.getSimpleName()+" in "+getClass().getSimpleName()+" is not compatible for a TModelView!");
-				LOGGER.info("TModelView compatible types: "+types.substring(0,types.length()-2));
+			}catch(Throwable e){				
+				LOGGER.error(e.toString(), e);
 			}
-		});
+		}
 		
 	}
 
 
 	@Transient
 	protected void buildLastHashCode() {
+		if(changeTracking) {
+			// with change tracking the last hash code is a change counter
+			setLastHashCode(getLastHashCode()+1);
+			lastHashCodeProperty().setValue(getLastHashCode());
+			return;
+		}
 		setLastHashCode(hashCode());
 		lastHashCodeProperty().setValue(getLastHashCode());
 		this.model.toString();
 	}
+	
+	/**
+	 * Called by the property listeners after the new value is set in the model
+	 * */
+	void fieldChanged(String fieldName) {
+		if(changeTracking)
+			changedFields.add(fieldName);
+		buildLastHashCode();
+	}
 
 	@Transient
 	protected void setLastHashCode(int lastHashCode) {
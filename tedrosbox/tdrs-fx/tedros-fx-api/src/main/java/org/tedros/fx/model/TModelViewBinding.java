@@ -0,0 +1,241 @@
+/**
+ *
+ */
+package org.tedros.fx.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.tedros.core.model.ITModelView;
+import org.tedros.fx.annotation.TChangeTracking;
+import org.tedros.fx.annotation.control.TGenericType;
+import org.tedros.fx.util.TPropertyUtil;
+import org.tedros.fx.util.TReflectionUtil;
+import org.tedros.server.entity.ITEntity;
+import org.tedros.server.model.ITModel;
+import org.tedros.util.TLoggerUtil;
+
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+import javafx.collections.ObservableSet;
+
+/**
+ * The binding metadata between a {@link TModelView} class and a {@link ITModel} class.
+ * <p>
+ * Keeps what the model view resolved by reflection on every instance:
+ * the field pairs, the property types, the generic types of the collections
+ * and the model accessors. Built once per (model view class, model class)
+ * and shared by all instances, so wrapping a model only creates
+ * the properties and the listeners.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+@SuppressWarnings("rawtypes")
+final class TModelViewBinding {
+
+	private final static Logger LOGGER = TLoggerUtil.getLogger(TModelViewBinding.class);
+
+	private static final Map<Class<?>, Map<Class<?>, TModelViewBinding>> CACHE = new ConcurrentHashMap<>();
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private final TFieldBinding[] fields;
+	private final boolean changeTracking;
+
+	@SuppressWarnings("unchecked")
+	private TModelViewBinding(Class<?> modelViewClass, Class<?> modelClass) {
+
+		final Map<String, Field> modelFields = new HashMap<>();
+		Class superClass = modelClass;
+
+		Class<?> target = (TReflectionUtil.isImplemented(superClass, ITEntity.class))
+				? ITEntity.class
+						: (TReflectionUtil.isImplemented(superClass, ITModel.class))
+						? ITModel.class
+								: null;
+
+		if(target != null){
+			while(TReflectionUtil.isImplemented(superClass, target)){
+				for(Field f : superClass.getDeclaredFields())
+					modelFields.put(f.getName(), f);
+				superClass = superClass.getSuperclass();
+			}
+		}
+
+		// the fields of the subclasses hide the fields of the super classes
+		Map<String, Field> viewFields = new HashMap<>();
+		superClass = modelViewClass;
+		while(TReflectionUtil.isImplemented(superClass, ITModelView.class)){
+			if(!superClass.equals(TModelView.class))
+				for(Field f : superClass.getDeclaredFields())
+					if(!viewFields.containsKey(f.getName()))
+						viewFields.put(f.getName(), f);
+			superClass = superClass.getSuperclass();
+		}
+
+		List<TFieldBinding> lst = new ArrayList<>(viewFields.size());
+		for(Field f : viewFields.values()) {
+			if(!TCompatibleTypesHelper.isCompatible(f.getType())) {
+				String types = "";
+				for (Class c : TCompatibleTypesHelper.compatibleTypes.keySet())
+					types += c.getSimpleName()+", ";
+				LOGGER.info(f.getName()+" field of type "+f.getType().getSimpleName()+" in "+modelViewClass.getSimpleName()+" is not compatible for a TModelView!");
+				LOGGER.info("TModelView compatible types: "+types.substring(0,types.length()-2));
+				continue;
+			}
+			try {
+				lst.add(new TFieldBinding(f, modelFields.get(f.getName()), modelClass));
+			} catch (Throwable e) {
+				LOGGER.error(e.getMessage(), e);
+			}
+		}
+		this.fields = lst.toArray(new TFieldBinding[0]);
+		this.changeTracking = modelViewClass.isAnnotationPresent(TChangeTracking.class);
+	}
+
+	/**
+	 * Returns the binding of the model view class to the model class,
+	 * building it on the first call.
+	 */
+	static TModelViewBinding get(Class<?> modelViewClass, Class<?> modelClass) {
+		return CACHE.computeIfAbsent(modelViewClass, k->new ConcurrentHashMap<>())
+				.computeIfAbsent(modelClass, k->new TModelViewBinding(modelViewClass, modelClass));
+	}
+
+	/**
+	 * Clears all cached bindings
+	 */
+	static void clear() {
+		CACHE.clear();
+	}
+
+	/**
+	 * @return the compatible fields of the model view
+	 */
+	TFieldBinding[] getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return true if the model view class is annotated with {@link TChangeTracking}
+	 */
+	boolean isChangeTracking() {
+		return changeTracking;
+	}
+
+	/**
+	 * A model view field and its model field
+	 */
+	static final class TFieldBinding {
+
+		final Field field;
+		final String name;
+		final Class type;
+		final TGenericType genericType;
+		final Class modelViewClass;
+		final Class entityClass;
+		final boolean collection;
+		final boolean list;
+		final boolean set;
+		final boolean map;
+
+		/** The model field, null if the model has not a field with the same name */
+		final Field entityField;
+		final Class entityFieldType;
+		final Method entitySetMethod;
+		final Method entityGetMethod;
+		final boolean typesCompatible;
+
+		private final MethodHandle getter;
+		private final Constructor propertyConstructor;
+		private volatile Constructor modelViewConstructor;
+
+		@SuppressWarnings("unchecked")
+		private TFieldBinding(Field field, Field entityField, Class<?> modelClass) throws Exception {
+			this.field = field;
+			this.field.setAccessible(true);
+			this.name = field.getName();
+			this.type = field.getType();
+			TGenericType[] arr = field.getAnnotationsByType(TGenericType.class);
+			this.genericType = arr.length>0 ? arr[0] : null;
+			this.modelViewClass = genericType!=null ? genericType.modelView() : null;
+			this.entityClass = genericType!=null ? genericType.model() : null;
+			this.collection = TPropertyUtil.isCollectionObservableType(type);
+			this.list = TReflectionUtil.isImplemented(type, ObservableList.class);
+			this.set = type == ObservableSet.class;
+			this.map = type == ObservableMap.class;
+
+			Constructor c = null;
+			try {
+				c = type.getDeclaredConstructor();
+			} catch (NoSuchMethodException e) {
+				// built by the property helper
+			}
+			this.propertyConstructor = c;
+
+			this.entityField = entityField;
+			if(entityField!=null) {
+				this.entityFieldType = entityField.getType();
+				this.entitySetMethod = TReflectionUtil.getSetterMethod(modelClass, name, entityFieldType);
+				this.entityGetMethod = TReflectionUtil.getGetterMethod(modelClass, name);
+				this.typesCompatible = collection || TCompatibleTypesHelper.isTypesCompatible(type, entityFieldType);
+				MethodHandle h = null;
+				if(entityGetMethod!=null)
+					try {
+						h = MethodHandles.publicLookup().unreflect(entityGetMethod).asType(GETTER_TYPE);
+					} catch (IllegalAccessException | RuntimeException e) {
+						// not public, use the method
+					}
+				this.getter = h;
+			}else {
+				this.entityFieldType = null;
+				this.entitySetMethod = null;
+				this.entityGetMethod = null;
+				this.typesCompatible = false;
+				this.getter = null;
+			}
+		}
+
+		/**
+		 * @return the value of the field in the model
+		 */
+		Object get(Object model) throws Throwable {
+			if(getter!=null)
+				return getter.invokeExact(model);
+			if(entityGetMethod==null)
+				throw new NoSuchMethodException(model.getClass().getName()+"."+TReflectionUtil.GET+name+"()");
+			return entityGetMethod.invoke(model);
+		}
+
+		/**
+		 * @return a new instance of the property type
+		 */
+		Object newProperty() throws Exception {
+			return propertyConstructor!=null
+					? propertyConstructor.newInstance()
+							: type.getDeclaredConstructor().newInstance();
+		}
+
+		/**
+		 * @return a new model view of the generic type wrapping the model
+		 */
+		@SuppressWarnings("unchecked")
+		Object newModelView(Object model) throws Exception {
+			Constructor c = modelViewConstructor;
+			if(c==null)
+				modelViewConstructor = c = modelViewClass.getConstructor(entityClass);
+			return c.newInstance(model);
+		}
+	}
+}
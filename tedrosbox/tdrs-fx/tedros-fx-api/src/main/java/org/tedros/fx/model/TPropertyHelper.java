@@ -12,6 +12,7 @@ import java.util.Set;
 import org.tedros.fx.annotation.control.TGenericType;
 import org.tedros.fx.collections.ITObservableList;
 import org.tedros.fx.collections.TFXCollections;
+import org.tedros.fx.model.TModelViewBinding.TFieldBinding;
 import org.tedros.fx.property.TSimpleFileProperty;
 import org.tedros.fx.util.TReflectionUtil;
 import org.tedros.server.model.ITFileBaseModel;
@@ -28,7 +29,8 @@ import javafx.collections.ObservableSet;
 @SuppressWarnings("rawtypes")
 class TPropertyHelper<T extends TModelView> {
 	
-	final Field field;;
+	final TFieldBinding binding;
+	final Field field;
 	final String name;
 	final Class type;
 	final static String SET = "set";
@@ -40,24 +42,17 @@ class TPropertyHelper<T extends TModelView> {
 	boolean buildListener = false;
 
 	/**
-	 * @throws SecurityException 
-	 * @throws NoSuchMethodException 
-	 * 
+	 * Uses the field metadata of the class binding, see {@link TModelViewBinding}
 	 */
-	public TPropertyHelper(Field field, T modelView) throws Throwable {
-		this.field = field;
-		this.name = field.getName();
-		this.type = field.getType();
-		this.field.setAccessible(true);
+	TPropertyHelper(TFieldBinding binding, T modelView) throws Throwable {
+		this.binding = binding;
+		this.field = binding.field;
+		this.name = binding.name;
+		this.type = binding.type;
+		this.genericType = binding.genericType;
 		this.modelView = modelView;
-		TGenericType[] arr = field.getAnnotationsByType(TGenericType.class);
-		if(arr.length>0) 
-			this.genericType = arr[0];
-		
-		if(isElegible()) {
-			value = field.get(modelView);//getMethod.invoke(modelView);
-			initialize();
-		}
+		value = field.get(modelView);
+		initialize();
 	}
 	
 	void setValue(Object value)  throws Throwable {
@@ -97,7 +92,7 @@ class TPropertyHelper<T extends TModelView> {
 					setValue(value);
 				}
 			}else{
-				value = type.getDeclaredConstructor().newInstance();
+				value = binding.newProperty();
 				setValue(value);
 			}
 		}
@@ -92,7 +92,8 @@ public class TListViewHelper<M extends TEntityModelView<? extends ITEntity>>{
 		tListViewProgressIndicator.setSmallLogo();
 		
 		if(paginator!=null && paginator.show()) {
-			tPaginator = new TPager(paginator.showSearch(), paginator.showOrderBy());
+			tPaginator = new TPager(paginator.showSearch(), paginator.showOrderBy(), 
+					paginator.keyset() && !paginator.virtual());
 			if(paginator.showSearch() && paginator.query().condition().length>0)
 				for(TCondition c : paginator.query().condition()) {
 					if(!c.prompted()) continue;
@@ -1,5 +1,6 @@
 package org.tedros.fx.presenter.dynamic.behavior;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -641,12 +642,24 @@ extends TDynaViewSimpleBaseBehavior<M, E> {
 		// validate
 		validateModels(modelsViewsList);
 		
-		// save
-		for(int x=0; x<modelsViewsList.size(); x++){
-			boolean lastEntity = x==modelsViewsList.size()-1;
-			final M model = modelsViewsList.get(x);
-			if(saveOnlyChangedModel && !model.isChanged())
+		// the change tracked models are sent only if changed
+		final List<M> toSave = new ArrayList<>(modelsViewsList.size());
+		for(M model : modelsViewsList) {
+			if((saveOnlyChangedModel || (saveAllModels && model.getChangedFields()!=null)) 
+					&& !model.isChanged())
 				continue;
+			toSave.add(model);
+		}
+		
+		if(toSave.isEmpty()) {
+			callback.accept(true);
+			return;
+		}
+		
+		// save
+		for(int x=0; x<toSave.size(); x++){
+			boolean lastEntity = x==toSave.size()-1;
+			final M model = toSave.get(x);
 			
 			final TEntityProcess process  = createEntityProcess();
 			process.save( (ITEntity) model.getModel());
@@ -4,6 +4,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 import org.tedros.api.presenter.view.TViewMode;
@@ -24,7 +25,9 @@ import org.tedros.fx.builder.ITControlBuilder;
 import org.tedros.fx.builder.ITFieldBuilder;
 import org.tedros.fx.collections.ITObservableList;
 import org.tedros.fx.collections.TFXCollections;
+import org.tedros.fx.collections.TVirtualPageList;
 import org.tedros.fx.descriptor.TComponentDescriptor;
+import org.tedros.fx.exception.TProcessException;
 import org.tedros.fx.modal.TMessageBox;
 import org.tedros.fx.model.TModelView;
 import org.tedros.fx.presenter.behavior.TActionType;
@@ -79,6 +82,10 @@ extends TDynaViewSimpleBaseBehavior<M, E> {
 	
 	private boolean allowsMultipleSel;
 	
+	private boolean virtual;
+	private TVirtualPageList<E, TModelView> virtualList;
+	private TPagination virtualPagination;
+	
 	private TDynaViewSelectionBaseDecorator<M> decorator;
 
 	@Override
@@ -113,6 +120,7 @@ extends TDynaViewSimpleBaseBehavior<M, E> {
 			loadAction(presenter, tBehavior.action());
 			
 			allowsMultipleSel = modalPresenter.allowsMultipleSelections();
+			virtual = tPaginator.virtual();
 			searchResultList = TFXCollections.iTObservableList();
 			
 			TModelView model = (M) paginatorModelViewClass.getConstructor(modelClass).newInstance(modelClass.getDeclaredConstructor().newInstance());
@@ -348,6 +356,12 @@ extends TDynaViewSimpleBaseBehavior<M, E> {
 		if(pagination==null)
 			pagination = decorator.gettPaginator().gettPagination();
 		
+		if(virtual) {
+			paginateVirtualList(pagination);
+			actionHelper.runAfter(TActionType.SEARCH);
+			return;
+		}
+		
 		final String id = UUID.randomUUID().toString();
 		TPaginationProcess process = new TPaginationProcess(modelClass, this.serviceName) {};
 		ChangeListener<State> prcl = (arg0, arg1, arg2) -> {
@@ -399,6 +413,75 @@ extends TDynaViewSimpleBaseBehavior<M, E> {
 		runProcess(process);
 	}
 	
+	/**
+	 * Loads the table view with a virtual list 
+	 * fetching the pages of the search while scrolling.
+	 * The select all button stays disabled, it would fetch all pages.
+	 * @param pag - the search and order by to apply
+	 */
+	@SuppressWarnings("unchecked")
+	private void loadVirtualList(TPagination pag) {
+		final E model = (E) super.getModelView().getModel();
+		this.virtualPagination = pag;
+		this.virtualList = new TVirtualPageList<E, TModelView>((start, size)->callVirtualPage(model, pag, start, size), 
+				e->{
+					try {
+						return this.paginatorModelViewClass.getConstructor(modelClass).newInstance(e);
+					} catch (Exception e1) {
+						LOGGER.error(e1.getMessage(), e1);
+						return null;
+					}
+				}, Math.max(pag.getTotalRows(), 1), TVirtualPageList.DEFAULT_MAX_PAGES);
+		this.virtualList.setOnError(r->{
+			String msg = r.getMessage();
+			LOGGER.error(msg);
+			addMessage(new TMessage(TState.ERROR.equals(r.getState()) 
+					? TMessageType.ERROR 
+							: TMessageType.WARNING, msg));
+		});
+		final TableView tableView = decorator.gettTableView();
+		tableView.getSelectionModel().clearSelection();
+		tableView.setItems(virtualList);
+		virtualList.load();
+	}
+	
+	/**
+	 * Reads a page of the virtual list, called out of the FX thread.
+	 */
+	private TResult<Map<String, Object>> callVirtualPage(E model, TPagination pag, int start, int size) throws Exception {
+		TPaginationProcess<E> process;
+		try {
+			process = new TPaginationProcess<E>(modelClass, this.serviceName) {};
+		} catch (TProcessException e) {
+			throw new Exception(e.getMessage(), e);
+		}
+		process.findAll(model, new TPagination(pag.getValue(), pag.getSearch(), pag.getOrderBy(), 
+				pag.getOrderByAlias(), pag.isOrderByAsc(), start, size));
+		// the example entity order by is set by the call
+		synchronized (model) {
+			return process.callService();
+		}
+	}
+	
+	/**
+	 * Scrolls the virtual list to the page start or reloads it 
+	 * if the search or the order by changed.
+	 * @param pag
+	 */
+	private void paginateVirtualList(TPagination pag) {
+		TPagination cur = this.virtualPagination;
+		if(virtualList!=null && cur!=null && pag!=cur
+				&& Objects.equals(cur.getValue(), pag.getValue())
+				&& cur.getSearch()==pag.getSearch()
+				&& Objects.equals(cur.getOrderBy(), pag.getOrderBy())
+				&& Objects.equals(cur.getOrderByAlias(), pag.getOrderByAlias())
+				&& cur.isOrderByAsc()==pag.isOrderByAsc()
+				&& cur.getTotalRows()==pag.getTotalRows())
+			decorator.gettTableView().scrollTo(pag.getStart());
+		else
+			loadVirtualList(pag);
+	}
+	
 	private void processPagination(Long totalRows) {
 		this.decorator.gettPaginator().tReload(totalRows);
 	}
@@ -420,6 +503,12 @@ extends TDynaViewSimpleBaseBehavior<M, E> {
 			setModelView(model);
 			showForm(TViewMode.EDIT);
 			this.searchResultList.clear();
+			if(virtualList!=null) {
+				TableView tbv = decorator.gettTableView();
+				tbv.setItems(this.searchResultList);
+				virtualList = null;
+				virtualPagination = null;
+			}
 			decorator.gettPaginator().tReload(0);
 		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
 				| NoSuchMethodException | SecurityException e) {
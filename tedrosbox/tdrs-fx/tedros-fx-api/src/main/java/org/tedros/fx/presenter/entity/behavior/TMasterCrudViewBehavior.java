@@ -3,6 +3,7 @@ package org.tedros.fx.presenter.entity.behavior;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,13 +18,16 @@ import org.tedros.fx.annotation.presenter.TListViewPresenter;
 import org.tedros.fx.annotation.process.TEjbService;
 import org.tedros.fx.annotation.query.TQuery;
 import org.tedros.fx.builder.TSelectQueryBuilder;
+import org.tedros.fx.collections.TVirtualPageList;
 import org.tedros.fx.control.action.TPresenterAction;
 import org.tedros.fx.exception.TException;
+import org.tedros.fx.exception.TProcessException;
 import org.tedros.fx.modal.TMessageBox;
 import org.tedros.fx.model.TEntityModelView;
 import org.tedros.fx.presenter.behavior.TActionType;
 import org.tedros.fx.presenter.decorator.ITListViewDecorator;
 import org.tedros.fx.presenter.dynamic.behavior.TDynaViewCrudBaseBehavior;
+import org.tedros.fx.presenter.page.TPager;
 import org.tedros.fx.presenter.page.TPagination;
 import org.tedros.fx.presenter.page.TSearch;
 import org.tedros.fx.process.TEntityProcess;
@@ -32,6 +36,7 @@ import org.tedros.fx.process.TProcess;
 import org.tedros.fx.util.TEntityListViewCallback;
 import org.tedros.server.entity.ITEntity;
 import org.tedros.server.query.TCompareOp;
+import org.tedros.server.query.TKeyset;
 import org.tedros.server.query.TSelect;
 import org.tedros.server.result.TResult;
 import org.tedros.server.result.TResult.TState;
@@ -68,6 +73,8 @@ public class TMasterCrudViewBehavior<M extends TEntityModelView<E>, E extends IT
 extends TDynaViewCrudBaseBehavior<M, E> {
 
 	private TPage tPagAnn = null;
+	private TVirtualPageList<E, M> virtualList;
+	private TPagination virtualPagination;
 	protected ITListViewDecorator<M> decorator;
 		
 	@SuppressWarnings("unchecked")
@@ -170,7 +177,9 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 	@SuppressWarnings("unchecked")
 	public void loadModels() {
 		try{
-			if(isPaginateEnabled()) {
+			if(isVirtualEnabled()) {
+				loadVirtualList(this.decorator.gettPaginator().gettPagination());
+			} else if(isPaginateEnabled()) {
 				TPaginationProcess process = new TPaginationProcess(super.getEntityClass(), this.tPagAnn.serviceName()) {};
 				ChangeListener<State> prcl = (arg0, arg1, arg2) -> {
 					
@@ -189,7 +198,7 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 									M model = mvu.convertToModelView(e);
 									models.add(model);
 								}
-								processPagination((long)result.get("total"));
+								processPagination(result);
 								loadListView();
 							}else{
 								String msg = resultados.getMessage();
@@ -321,6 +330,72 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 	private boolean isPaginateEnabled() {
 		return tPagAnn!=null && tPagAnn.show();
 	}
+	
+	/**
+	 * Checks if the list view is a virtual list of all rows.
+	 * @return
+	 */
+	private boolean isVirtualEnabled() {
+		return isPaginateEnabled() && tPagAnn.virtual();
+	}
+	
+	/**
+	 * Loads the list view with a virtual list 
+	 * fetching the pages of the query while scrolling.
+	 * @param pag - the search and order by to apply
+	 */
+	private void loadVirtualList(TPagination pag) {
+		final TModelViewUtil<M,E> mvu = new TModelViewUtil<>(getModelViewClass(), getEntityClass());
+		this.virtualPagination = pag;
+		this.virtualList = new TVirtualPageList<E, M>((start, size)->callVirtualPage(pag, start, size), 
+				mvu::convertToModelView, Math.max(pag.getTotalRows(), 1), TVirtualPageList.DEFAULT_MAX_PAGES);
+		this.virtualList.setOnError(r->{
+			String msg = r.getMessage();
+			TLoggerUtil.debug(getClass(), msg);
+			addMessage(new TMessage(TState.ERROR.equals(r.getState()) 
+					? TMessageType.ERROR 
+							: TMessageType.WARNING, msg));
+		});
+		final ListView<M> listView = this.decorator.gettListView();
+		listView.getSelectionModel().clearSelection();
+		listView.setItems(virtualList);
+		virtualList.load();
+		processModelView(super.getModelView());
+	}
+	
+	/**
+	 * Reads a page of the virtual list, called out of the FX thread.
+	 */
+	private TResult<Map<String, Object>> callVirtualPage(TPagination pag, int start, int size) throws Exception {
+		TPaginationProcess<E> process;
+		try {
+			process = new TPaginationProcess<E>(getEntityClass(), this.tPagAnn.serviceName()) {};
+		} catch (TProcessException e) {
+			throw new Exception(e.getMessage(), e);
+		}
+		configPageProcess(process, new TPagination(pag.getValue(), pag.getSearch(), pag.getOrderBy(), 
+				pag.getOrderByAlias(), pag.isOrderByAsc(), start, size));
+		return process.callService();
+	}
+	
+	/**
+	 * Scrolls the virtual list to the page start or reloads it 
+	 * if the search or the order by changed.
+	 * @param pag
+	 */
+	private void paginateVirtualList(TPagination pag) {
+		TPagination cur = this.virtualPagination;
+		if(virtualList!=null && cur!=null 
+				&& Objects.equals(cur.getValue(), pag.getValue())
+				&& cur.getSearch()==pag.getSearch()
+				&& Objects.equals(cur.getOrderBy(), pag.getOrderBy())
+				&& Objects.equals(cur.getOrderByAlias(), pag.getOrderByAlias())
+				&& cur.isOrderByAsc()==pag.isOrderByAsc()
+				&& cur.getTotalRows()==pag.getTotalRows())
+			this.decorator.gettListView().scrollTo(pag.getStart());
+		else
+			loadVirtualList(pag);
+	}
 
 	/**
 	 * Config the cancel action.
@@ -347,6 +422,14 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 		this.decorator.gettPaginator().tReload(totalRows);
 	}
 	
+	private void processPagination(Map<String, Object> result) {
+		TPager pager = this.decorator.gettPaginator();
+		if(pager.isKeysetMode())
+			pager.tReload((Long) result.get("total"), (TKeyset) result.get("keyset"));
+		else
+			processPagination((long) result.get("total"));
+	}
+	
 	/**
 	 * Loads the ListView with the models property 
 	 * in the TBehavior superclass.
@@ -367,6 +450,10 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 	 */
 	@SuppressWarnings("unchecked")
 	public void paginate(TPagination pagination) throws TException {
+		if(isVirtualEnabled()) {
+			paginateVirtualList(pagination);
+			return;
+		}
 		final String chlId = UUID.randomUUID().toString();
 		TPaginationProcess<E> process = new TPaginationProcess<E>(super.getEntityClass(), this.tPagAnn.serviceName()) {};
 		ChangeListener<State> prcl = (arg0, arg1, arg2) -> {
@@ -389,7 +476,7 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 								LOGGER.error(e1.getMessage(), e1);
 							}
 						}
-						processPagination((long)result.get("total"));
+						processPagination(result);
 					}else {
 						String msg = resultados.getMessage();
 						TLoggerUtil.debug(getClass(), msg);
@@ -436,7 +523,9 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 
 	private void reloadModels() {
 		try {
-			if(this.isPaginateEnabled()) {
+			if(this.isVirtualEnabled() && virtualList!=null) {
+				virtualList.load();
+			}else if(this.isPaginateEnabled()) {
 				TPagination p = this.decorator.gettPaginator().tPaginationProperty().getValue();
 				if(p!=null)
 					this.paginate(p);
@@ -522,7 +611,20 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 			this.addInListView(m);
 			this.processListViewSelectedItem(m);
 		}else{
-			if(this.isPaginateEnabled()) {
+			if(this.isVirtualEnabled()) {
+				final ListView<M> list = this.decorator.gettListView();
+				int index = virtualList!=null 
+						? virtualList.indexOf(p->!p.getEntity().isNew() && p.getEntity().getId().equals(e.getId()))
+								: -1;
+				if(index!=-1) {
+					m = list.getItems().get(index);
+					list.selectionModelProperty().get().select(index);
+					this.processListViewSelectedItem(m);
+				}else {
+					this.addInListView(m);
+					this.processListViewSelectedItem(m);
+				}
+			}else if(this.isPaginateEnabled()) {
 				String orderBy = this.decorator.gettPaginator().gettOrderBy();
 				boolean orderAsc = this.decorator.gettPaginator().gettOrderAsc();
 				int totalRows = this.decorator.gettPaginator().gettTotalRows();
@@ -580,7 +682,7 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 								LOGGER.error(e1.getMessage(), e1);
 							}
 						}
-						processPagination((long)result.get("total"));
+						processPagination(result);
 						if(models.size()==1){
 							M mv = models.get(0);
 							final ListView<M> list = this.decorator.gettListView();
@@ -619,6 +721,13 @@ extends TDynaViewCrudBaseBehavior<M, E> {
 	 */
 	public void remove() {
 		final ListView<M> listView = this.decorator.gettListView();
+		if(this.isVirtualEnabled() && virtualList!=null) {
+			int index = virtualList.indexOf(getModelView());
+			listView.getSelectionModel().clearSelection();
+			if(index!=-1)
+				virtualList.remove(index);
+			return;
+		}
 		int index = getModels().indexOf(getModelView());
 		listView.getSelectionModel().clearSelection();
 		super.remove(index);
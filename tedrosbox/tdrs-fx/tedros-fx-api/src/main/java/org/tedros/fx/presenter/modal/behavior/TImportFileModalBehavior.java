@@ -6,6 +6,7 @@ import java.util.UUID;
 
 import org.tedros.api.presenter.view.TViewMode;
 import org.tedros.core.message.TMessageType;
+import org.tedros.fx.TFxKey;
 import org.tedros.fx.annotation.presenter.TBehavior;
 import org.tedros.fx.annotation.process.TEjbService;
 import org.tedros.fx.exception.TProcessException;
@@ -15,10 +16,12 @@ import org.tedros.fx.model.TModelView;
 import org.tedros.fx.presenter.dynamic.TDynaPresenter;
 import org.tedros.fx.presenter.dynamic.behavior.TDynaViewActionBaseBehavior;
 import org.tedros.fx.process.TImportProcess;
+import org.tedros.server.annotation.TImportInfo;
 import org.tedros.server.controller.ITEjbImportController;
 import org.tedros.server.entity.ITEntity;
 import org.tedros.server.model.ITImportModel;
 import org.tedros.server.model.ITModel;
+import org.tedros.server.result.TImportSummary;
 import org.tedros.server.result.TResult;
 import org.tedros.server.result.TResult.TState;
 
@@ -45,6 +48,7 @@ extends TDynaViewActionBaseBehavior<M, E> {
 	
 	private Class<? extends ITEntity> entityClass;
 	private Class<? extends TModelView> modelViewClass;
+	private String importId;
 	
 	@Override
 	public void load() {
@@ -144,12 +148,18 @@ extends TDynaViewActionBaseBehavior<M, E> {
 					
 						String msg = result.isPriorityMessage() 
 								? result.getMessage()
-										: iEngine.getString("#{tedros.fxapi.message.import}");
+										: result.getValue() instanceof TImportSummary
+										? buildSummaryMessage((TImportSummary) result.getValue())
+												: iEngine.getString("#{tedros.fxapi.message.import}");
 				
 						final TMessageBox tMessageBox = new TMessageBox(msg, TMessageType.INFO);
 						getView().tShowModal(tMessageBox, true);	
 							
-						if(result.getState().equals(TState.SUCCESS)) {
+						if(result.getState().equals(TState.SUCCESS) 
+								&& result.getValue() instanceof TImportSummary) {
+							importId = null;
+							closeAction();
+						}else if(result.getState().equals(TState.SUCCESS)) {
 							
 							List<ITEntity> lst = (List) result.getValue();
 							for(ITEntity e : lst ) {
@@ -172,11 +182,29 @@ extends TDynaViewActionBaseBehavior<M, E> {
 			
 			super.getListenerRepository().add(id, prcl);
 			process.stateProperty().addListener(new WeakChangeListener(prcl));
-			process.importFile((ITImportModel) getModelView().getModel());
+			TImportInfo info = entityClass.getAnnotation(TImportInfo.class);
+			if(info!=null && info.parallel()) {
+				// keeps the id of a failed import to resume it
+				if(importId==null)
+					importId = UUID.randomUUID().toString();
+				process.parallelImport((ITImportModel) getModelView().getModel(), importId);
+			}else if(info!=null && info.streaming())
+				process.streamImport((ITImportModel) getModelView().getModel());
+			else
+				process.importFile((ITImportModel) getModelView().getModel());
 			runProcess(process);
 			
 		} catch (TProcessException e1) {
 			LOGGER.error(e1.getMessage(), e1);
 		}
 	}
+	
+	private String buildSummaryMessage(TImportSummary s) {
+		StringBuilder sb = new StringBuilder();
+		s.getRejected().stream().limit(10).forEach(r->sb.append("\n").append(r));
+		if(s.getRejectedRows()>10)
+			sb.append("\n...");
+		return iEngine.getFormatedString(TFxKey.MESSAGE_IMPORT_SUMMARY, s.getElapsedTime()/1000, 
+				s.getImportedRows(), s.getTotalRows(), s.getRejectedRows(), sb.toString());
+	}
 }
@@ -25,6 +25,7 @@ import org.tedros.fx.control.TOption;
 import org.tedros.fx.control.TSlider;
 import org.tedros.fx.converter.TConverter;
 import org.tedros.server.query.TCompareOp;
+import org.tedros.server.query.TKeyset;
 import org.tedros.util.TDateUtil;
 
 import javafx.beans.property.ReadOnlyObjectProperty;
@@ -74,8 +75,23 @@ public class TPager extends BorderPane {
 	
 	private TRepository repo;
 	
+	private boolean keysetMode;
+	private long keysetStart;
+	private long keysetTotal = -1;
+	
 	public TPager(boolean showSearch, boolean showOrderBy) {
+		this(showSearch, showOrderBy, false);
+	}
+	
+	/**
+	 * @param showSearch
+	 * @param showOrderBy
+	 * @param keysetMode - if true the pager only navigates to the first 
+	 * and to the next page using the keyset returned by the server
+	 */
+	public TPager(boolean showSearch, boolean showOrderBy, boolean keysetMode) {
 		
+		this.keysetMode = keysetMode;
 		setId("t-form");
 		paginationProperty = new SimpleObjectProperty<>();
 		
@@ -314,6 +330,11 @@ public class TPager extends BorderPane {
 	}
 	
 	public void tReload(long totalRows) {
+		if(keysetMode) {
+			keysetStart = 0;
+			tReload(Long.valueOf(totalRows), null);
+			return;
+		}
 		removeBtnEvent();
 		toolbar.getItems().clear();
 		
@@ -339,6 +360,49 @@ public class TPager extends BorderPane {
 		lastNode.setId("t-last-button");;
 	}
 	
+	/**
+	 * Reloads the pager in keyset mode
+	 * 
+	 * @param totalRows - the total rows or null if it was not counted for the current page
+	 * @param next - the keyset to read the next page or null if the current page is the last one
+	 */
+	public void tReload(Long totalRows, TKeyset next) {
+		removeBtnEvent();
+		toolbar.getItems().clear();
+		if(totalRows!=null)
+			keysetTotal = totalRows;
+		
+		TLanguage iEngine = TLanguage.getInstance(null);
+		toolbar.getItems().add(buildKeysetItem(iEngine.getString(TFxKey.BUTTON_FIRST_PAGE), null));
+		if(next!=null)
+			toolbar.getItems().add(buildKeysetItem(iEngine.getString(TFxKey.BUTTON_NEXT_PAGE), next));
+		
+		long end = next!=null 
+				? next.getStart()
+					: keysetStart + gettTotalRows();
+		if(keysetTotal>=0 && end>keysetTotal)
+			end = keysetTotal;
+		label.setText((keysetStart+1) + "-" + end 
+				+ (keysetTotal>=0 ? " / " + keysetTotal : ""));
+		
+		Node lastNode = toolbar.getItems().get(toolbar.getItems().size()-1);
+		lastNode.setId("t-last-button");
+	}
+	
+	private TButton buildKeysetItem(String text, TKeyset keyset) {
+		String eId = UUID.randomUUID().toString();
+		final TButton p1 = new TButton() ;
+		p1.setId("t-button");
+		p1.setText(text);
+		p1.setUserData(eId);
+		EventHandler<ActionEvent> eh = e ->{
+			paginationProperty.setValue(buildPagination(keyset));
+		};
+		repo.add(eId, eh);
+		p1.setOnAction(eh);
+		return p1;
+	}
+	
 	private TButton buildItem(int startAt, long totalRows) {
 		
 		final double pag = slider.getValue();
@@ -376,8 +440,19 @@ public class TPager extends BorderPane {
 		}
 	}
 	
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	private TPagination buildPagination(int start){
+		return keysetMode 
+				? buildPagination((TKeyset) null)
+						: buildPagination(start, null);
+	}
+	
+	private TPagination buildPagination(TKeyset keyset){
+		keysetStart = keyset!=null ? keyset.getStart() : 0;
+		return buildPagination(0, keyset);
+	}
+	
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private TPagination buildPagination(int start, TKeyset keyset){
 		String orderBy = gettOrderBy();
 		String orderAlias = gettOrderByAlias();
 		boolean orderAsc = gettOrderAsc();
@@ -410,9 +485,13 @@ public class TPager extends BorderPane {
 				}
 			}
 		}
-		return new TPagination(value, s,
-				orderBy, orderAlias, orderAsc, 
-				start, gettTotalRows());
+		return keysetMode 
+				? new TPagination(value, s,
+						orderBy, orderAlias, orderAsc, 
+						keyset, gettTotalRows())
+					: new TPagination(value, s,
+						orderBy, orderAlias, orderAsc, 
+						start, gettTotalRows());
 	}
 
 	/**
@@ -467,6 +546,13 @@ public class TPager extends BorderPane {
 	public TPagination gettPagination(){
 		return buildPagination(0);
 	}
+	
+	/**
+	 * @return true if the pager is in keyset mode
+	 */
+	public boolean isKeysetMode() {
+		return keysetMode;
+	}
 
 	/**
 	 * @return the paginationProperty
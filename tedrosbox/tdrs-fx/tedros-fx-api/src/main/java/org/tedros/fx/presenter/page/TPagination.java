@@ -3,6 +3,8 @@
  */
 package org.tedros.fx.presenter.page;
 
+import org.tedros.server.query.TKeyset;
+
 /**
  * Pagination data 
  * 
@@ -18,6 +20,8 @@ public class TPagination {
 	private boolean orderByAsc;
 	private int start;
 	private int totalRows;
+	private boolean keysetMode;
+	private TKeyset keyset;
 	
 	
 	/**
@@ -40,6 +44,25 @@ public class TPagination {
 		this.start = start;
 		this.totalRows = totalRows;
 	}
+	
+	/**
+	 * Keyset pagination data
+	 * 
+	 * @param value
+	 * @param search
+	 * @param orderBy
+	 * @param orderByAlias
+	 * @param orderByAsc
+	 * @param keyset - the keyset returned by the previous page or null to read the first page
+	 * @param totalRows
+	 */
+	public TPagination(Object value, TSearch search, String orderBy, String orderByAlias, boolean orderByAsc, 
+			TKeyset keyset, int totalRows) {
+		this(value, search, orderBy, orderByAlias, orderByAsc, 
+				keyset!=null ? (int) keyset.getStart() : 0, totalRows);
+		this.keysetMode = true;
+		this.keyset = keyset;
+	}
 	/**
 	 * @return the search
 	 */
@@ -82,6 +105,18 @@ public class TPagination {
 	public Object getValue() {
 		return value;
 	}
+	/**
+	 * @return true if the keyset pagination must be used
+	 */
+	public boolean isKeysetMode() {
+		return keysetMode;
+	}
+	/**
+	 * @return the keyset to read the page, null for the first page
+	 */
+	public TKeyset getKeyset() {
+		return keyset;
+	}
 	
 	
 }
@@ -72,7 +72,9 @@ public abstract class TEntityProcess<E extends ITEntity> extends TProcess<List<T
 	}
 	
 	/**
-	 * <pre>Add an entity to save </pre>
+	 * <pre>Add an entity to save.
+	 * More than one entity are saved in a single remote call 
+	 * and transaction.</pre>
 	 * @param entidade - The entity to save
 	 * */
 	public void save(E entidade){
@@ -80,7 +82,9 @@ public abstract class TEntityProcess<E extends ITEntity> extends TProcess<List<T
 		operation = SAVE;
 	}
 	/**
-	 * <pre>Add an entity to delete</pre>
+	 * <pre>Add an entity to delete.
+	 * More than one entity are deleted in a single remote call 
+	 * and transaction.</pre>
 	 * @param entidade 
 	 * */
 	public void delete(E entidade){
@@ -184,12 +188,31 @@ public abstract class TEntityProcess<E extends ITEntity> extends TProcess<List<T
 	        		if(service!=null || secure!=null){
 		        		switch (operation) {
 							case SAVE :
+								if(values.size()>1) {
+									// one remote call and transaction for all entities
+									List<TResult<E>> lst = service!=null 
+											? service.saveAll(values)
+													: secure.saveAll(user.getAccessToken(), values);
+									if(isAllSucceeded(lst)) {
+										resultList.addAll(lst);
+										break;
+									}
+								}
 								for (E entity : values)
 									resultList.add(service!=null 
 										? service.save(entity) 
 											: secure.save(user.getAccessToken(), entity));
 								break;
 							case DELETE :
+								if(values.size()>1) {
+									List<TResult<E>> lst = service!=null 
+											? service.removeAll(values)
+													: secure.removeAll(user.getAccessToken(), values);
+									if(isAllSucceeded(lst)) {
+										resultList.addAll(lst);
+										break;
+									}
+								}
 								for (E entity : values)
 									resultList.add(service!=null 
 											? service.remove(entity)
@@ -245,6 +268,20 @@ public abstract class TEntityProcess<E extends ITEntity> extends TProcess<List<T
 		};
 	}
 
+	/**
+	 * Returns true if all results of a batch succeeded, 
+	 * otherwise nothing was committed and each entity 
+	 * is processed alone to get its result.
+	 */
+	private boolean isAllSucceeded(List<TResult<E>> lst) {
+		if(lst==null || lst.size()!=values.size())
+			return false;
+		for(TResult<E> r : lst)
+			if(!TState.SUCCESS.equals(r.getState()))
+				return false;
+		return true;
+	}
+
 	/**
 	 * @param resultList
 	 * @param e
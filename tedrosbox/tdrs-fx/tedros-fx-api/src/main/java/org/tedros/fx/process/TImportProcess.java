@@ -5,18 +5,29 @@ package org.tedros.fx.process;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.naming.NamingException;
 
+import org.tedros.core.TLanguage;
 import org.tedros.core.context.TedrosContext;
 import org.tedros.core.security.model.TUser;
 import org.tedros.core.service.remote.TEjbServiceLocator;
+import org.tedros.fx.TFxKey;
 import org.tedros.fx.exception.TProcessException;
 import org.tedros.server.controller.ITEjbImportController;
 import org.tedros.server.model.ITImportModel;
+import org.tedros.server.result.TImportProgress;
 import org.tedros.server.result.TResult;
+import org.tedros.server.security.TAccessToken;
 import org.tedros.util.TLoggerUtil;
 
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
 /**
  * The process to import files.
  * The target entity must be of the ITImportModel type 
@@ -31,6 +42,8 @@ public abstract class TImportProcess<M extends ITImportModel> extends TProcess<T
 	private M model;
 	private TImportProcessEnum action;
 	private String serviceJndiName;
+	private String importId;
+	private ReadOnlyObjectWrapper<TImportProgress> importProgress = new ReadOnlyObjectWrapper<>();
 	
 	
 	public TImportProcess(String serviceJndiName) throws TProcessException {
@@ -47,6 +60,38 @@ public abstract class TImportProcess<M extends ITImportModel> extends TProcess<T
 		this.action = TImportProcessEnum.IMPORT;
 	}
 	
+	/**
+	 * Upload the model with the file to import in streaming mode,
+	 * the result value is a TImportSummary
+	 * @param model
+	 */
+	public void streamImport(M model){
+		this.model = model;
+		this.action = TImportProcessEnum.STREAM_IMPORT;
+	}
+	
+	/**
+	 * Upload the model with the file to import in parallel chunks,
+	 * the result value is a TImportSummary and the progress is 
+	 * published in the importProgressProperty while the import runs.
+	 * Use the id of a failed import to resume it.
+	 * @param model
+	 * @param importId the import id
+	 */
+	public void parallelImport(M model, String importId){
+		this.model = model;
+		this.importId = importId;
+		this.action = TImportProcessEnum.PARALLEL_IMPORT;
+	}
+	
+	/**
+	 * The progress of the parallel import
+	 * @return the importProgress property
+	 */
+	public ReadOnlyObjectProperty<TImportProgress> importProgressProperty(){
+		return importProgress.getReadOnlyProperty();
+	}
+	
 	/**
 	 * Get the import rules
 	 */
@@ -75,6 +120,17 @@ public abstract class TImportProcess<M extends ITImportModel> extends TProcess<T
         			case IMPORT:
         				resultado = service.importFile(user.getAccessToken(), model.getFile());
         				break;
+        			case STREAM_IMPORT:
+        				resultado = service.streamImport(user.getAccessToken(), model.getFile());
+        				break;
+        			case PARALLEL_IMPORT:
+        				ScheduledExecutorService poller = startProgressPoller(service, user.getAccessToken());
+        				try {
+        					resultado = service.parallelImport(user.getAccessToken(), importId, model.getFile());
+        				}finally {
+        					poller.shutdownNow();
+        				}
+        				break;
         			case GET_RULES:
         				resultado = service.getImportRules(user.getAccessToken());
         				break;
@@ -90,10 +146,43 @@ public abstract class TImportProcess<M extends ITImportModel> extends TProcess<T
 				}
         	    return resultado;
         	}
+			
+			/**
+			 * Polls the import progress every second
+			 */
+			private ScheduledExecutorService startProgressPoller(ITEjbImportController service, TAccessToken token) {
+				ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+					Thread t = new Thread(r, "TImportProgress-"+importId);
+					t.setDaemon(true);
+					return t;
+				});
+				poller.scheduleWithFixedDelay(() -> {
+					try {
+						TResult<TImportProgress> res = service.getImportProgress(token, importId);
+						TImportProgress p = res!=null ? res.getValue() : null;
+						if(p!=null) {
+							updateProgress(p.getImportedRows()+p.getRejectedRows(), p.getReadRows());
+							updateMessage(TLanguage.getInstance().getFormatedString(TFxKey.MESSAGE_IMPORT_PROGRESS, 
+									p.getImportedRows(), p.getRejectedRows(), p.getRowsPerSecond()));
+							Platform.runLater(() -> importProgress.set(p));
+						}
+					}catch(Exception e) {
+						TLoggerUtil.error(getClass(), e.getMessage(), e);
+					}
+				}, 1, 1, TimeUnit.SECONDS);
+				return poller;
+			}
 		};
 	}
 	
 
+	/**
+	 * @return the import id of the parallel import
+	 */
+	public String getImportId() {
+		return importId;
+	}
+
 	/**
 	 * @return the model
 	 */
@@ -8,5 +8,5 @@ package org.tedros.fx.process;
  *
  */
 public enum TImportProcessEnum {
-	IMPORT, GET_RULES;
+	IMPORT, STREAM_IMPORT, PARALLEL_IMPORT, GET_RULES;
 }
@@ -15,15 +15,22 @@ import org.tedros.server.controller.ITBaseController;
 import org.tedros.server.controller.ITEjbController;
 import org.tedros.server.controller.ITSecureEjbController;
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.query.TKeyset;
 import org.tedros.server.query.TSelect;
 import org.tedros.server.result.TResult;
 import org.tedros.server.result.TResult.TState;
+import org.tedros.server.security.TAccessToken;
 import org.tedros.util.TLoggerUtil;
 
 
 /**
  * <pre>Process with basic CRUD tasks.
  * 
+ * When the pagination is in keyset mode the server reads the page 
+ * after the keyset of the previous one and the result map 
+ * also contains the "keyset" to read the next page, 
+ * the "total" is only returned for the first page.
+ * 
  * Two application server types can be used, Apache TomEE and JBOSS EAP / WildFly.
  * The application server endpoint can be configured at remote-config.properties
  * located at ..\.tedros\CONF in the USER folder.</pre>
@@ -115,59 +122,82 @@ public abstract class TPaginationProcess<E extends ITEntity> extends TProcess<TR
 				return getProcessName();
 			};
         	
-        	@SuppressWarnings("unchecked")
-			protected TResult<Map<String, Object>> call() throws IOException, MalformedURLException {
-        		
-        		TEjbServiceLocator loc = TEjbServiceLocator.getInstance();
-        		TResult<Map<String, Object>> result = null;
+        	protected TResult<Map<String, Object>> call() throws IOException, MalformedURLException {
         		try {
-        			TUser user = TedrosContext.getLoggedUser();
-	        		ITBaseController base = (ITBaseController) loc.lookup(serviceJndiName);
-	        		ITEjbController<E> service = null;
-	        		ITSecureEjbController<E> secure = null;
-	        		if(base instanceof ITEjbController)
-	        			service = (ITEjbController<E>) base;
-	        		if(base instanceof ITSecureEjbController) {
-	        			if(user==null || user.getAccessToken()==null)
-	        				throw new IllegalStateException("The remote service "+serviceJndiName+" is secured and a logged user is required!");
-	        			secure = (ITSecureEjbController<E>) base;
-	        		}
-        			
-        			if(service!=null || secure!=null){
-	        			if(StringUtils.isNotBlank(pagination.getOrderBy()) && value!=null) {
-	        				value.setOrderBy(new ArrayList<>());
-	        				value.addOrderBy(pagination.getOrderBy());
-	        			}
-		        		switch (operation) {
-							case FINDALL :
-								result = service!=null
-									? service.findAll(value, pagination.getStart(), pagination.getTotalRows(), pagination.isOrderByAsc(), true)
-											: secure.findAll(user.getAccessToken(), value, pagination.getStart(), pagination.getTotalRows(), pagination.isOrderByAsc(), true);
-								break;
-							case PAGEALL :
-								result = service!=null
-										? service.pageAll(value, pagination.getStart(), pagination.getTotalRows(), pagination.isOrderByAsc())
-												: secure.pageAll(user.getAccessToken(), value, pagination.getStart(), pagination.getTotalRows(), pagination.isOrderByAsc());
-								break;
-							case SEARCHALL :
-								result = service!=null
-										? service.search(select, pagination.getStart(), pagination.getTotalRows())
-												: secure.search(user.getAccessToken(), select, pagination.getStart(), pagination.getTotalRows());
-								break;
-						}
-	        		}
-	        		
+        			return callService();
         		} catch (Exception e) {
 					setException(e);
 					TLoggerUtil.error(getClass(), e.getMessage(), e);
-					result = new TResult<>(TState.ERROR,true, e.getCause().getMessage());
-				}finally {
-					loc.close();
+					return new TResult<>(TState.ERROR,true, e.getCause()!=null ? e.getCause().getMessage() : e.getMessage());
 				}
-        		
-        	    return result;
         	}
 		};
 	}
+	
+	/**
+	 * <pre>Calls the service in the current thread, 
+	 * used to read pages out of the process, 
+	 * like the virtual lists fetching pages while scrolling.</pre>
+	 * @return the result
+	 * @throws Exception 
+	 * */
+	@SuppressWarnings("unchecked")
+	public TResult<Map<String, Object>> callService() throws Exception {
+		TEjbServiceLocator loc = TEjbServiceLocator.getInstance();
+		TResult<Map<String, Object>> result = null;
+		try {
+			TUser user = TedrosContext.getLoggedUser();
+			ITBaseController base = (ITBaseController) loc.lookup(serviceJndiName);
+			ITEjbController<E> service = null;
+			ITSecureEjbController<E> secure = null;
+			if(base instanceof ITEjbController)
+				service = (ITEjbController<E>) base;
+			if(base instanceof ITSecureEjbController) {
+				if(user==null || user.getAccessToken()==null)
+					throw new IllegalStateException("The remote service "+serviceJndiName+" is secured and a logged user is required!");
+				secure = (ITSecureEjbController<E>) base;
+			}
+			if(service!=null || secure!=null){
+				if(StringUtils.isNotBlank(pagination.getOrderBy()) && value!=null) {
+					value.setOrderBy(new ArrayList<>());
+					value.addOrderBy(pagination.getOrderBy());
+				}
+				// the keyset total is only counted on the first page
+				boolean keyset = pagination.isKeysetMode();
+				TKeyset ks = pagination.getKeyset();
+				boolean count = ks==null;
+				int start = pagination.getStart();
+				int rows = pagination.getTotalRows();
+				boolean asc = pagination.isOrderByAsc();
+				TAccessToken token = secure!=null ? user.getAccessToken() : null;
+				switch (operation) {
+					case FINDALL :
+						result = service!=null
+							? (keyset ? service.findAll(value, ks, rows, asc, true, count) 
+									: service.findAll(value, start, rows, asc, true))
+								: (keyset ? secure.findAll(token, value, ks, rows, asc, true, count) 
+										: secure.findAll(token, value, start, rows, asc, true));
+						break;
+					case PAGEALL :
+						result = service!=null
+							? (keyset ? service.pageAll(value, ks, rows, asc, count) 
+									: service.pageAll(value, start, rows, asc))
+								: (keyset ? secure.pageAll(token, value, ks, rows, asc, count) 
+										: secure.pageAll(token, value, start, rows, asc));
+						break;
+					case SEARCHALL :
+						result = service!=null
+							? (keyset ? service.search(select, ks, rows, count) 
+									: service.search(select, start, rows))
+								: (keyset ? secure.search(token, select, ks, rows, count) 
+										: secure.search(token, select, start, rows));
+						break;
+				}
+			}
+		}finally {
+			loc.close();
+		}
+		return result;
+	}
 
 }
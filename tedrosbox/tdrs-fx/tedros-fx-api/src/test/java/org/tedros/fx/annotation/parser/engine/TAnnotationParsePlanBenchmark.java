@@ -0,0 +1,96 @@
+/**
+ *
+ */
+package org.tedros.fx.annotation.parser.engine;
+
+import static org.tedros.fx.annotation.parser.engine.TAnnotationParsePlanTest.getAnnotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.tedros.fx.annotation.control.TTableView;
+import org.tedros.fx.annotation.control.TTextField;
+import org.tedros.fx.annotation.parser.TTableViewParser;
+import org.tedros.fx.annotation.parser.TTextFieldParser;
+import org.tedros.fx.annotation.parser.engine.TAnnotationParsePlan.TMember;
+import org.tedros.fx.util.TReflectionUtil;
+
+/**
+ * Measures the member resolution of the parser with and without 
+ * the {@link TAnnotationParsePlan} cache, it is not run by the build.
+ * <p>
+ * Usage: TAnnotationParsePlanBenchmark [iterations=5000]
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TAnnotationParsePlanBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+		int warmup = Math.max(iterations / 5, 1);
+		
+		Annotation[] annotations = {getAnnotation("name", TTextField.class), getAnnotation("items", TTableView.class)};
+		Class<?>[] parsers = {TTextFieldParser.class, TTableViewParser.class};
+
+		run(annotations, parsers, warmup, true);
+		run(annotations, parsers, warmup, false);
+		long reflection = run(annotations, parsers, iterations, true);
+		long cached = run(annotations, parsers, iterations, false);
+		TAnnotationParsePlan.clear();
+
+		System.out.println(String.format("TAnnotationParser @TTextField + @TTableView: %d parses, "
+				+ "reflection per parse %d ns/op, cached plan %d ns/op",
+				iterations, reflection / iterations, cached / iterations));
+	}
+
+	private static long run(Annotation[] annotations, Class<?>[] parsers, int iterations, boolean reflection) throws Exception {
+		long sink = 0;
+		long start = System.nanoTime();
+		for(int i=0; i<iterations; i++) {
+			for(int j=0; j<annotations.length; j++)
+				sink += reflection
+					? resolveByReflection(annotations[j], parsers[j])
+							: resolveByPlan(annotations[j], parsers[j]);
+		}
+		long elapsed = System.nanoTime() - start;
+		if(sink == 0)
+			throw new IllegalStateException("No member resolved");
+		return elapsed;
+	}
+
+	/**
+	 * What the parser resolved on every parse before the plan
+	 */
+	private static int resolveByReflection(Annotation annotation, Class<?> parser) throws Exception {
+		int n = 0;
+		Class<?> paramClass = TReflectionUtil.getGenericParamClass(parser, 1);
+		for(Method m : annotation.getClass().getDeclaredMethods()) {
+			String key = m.getName();
+			if(ArrayUtils.contains(TReflectionUtil.SKIPMETHODS, key) || m.getParameterCount()>0)
+				continue;
+			Object value = m.invoke(annotation);
+			Object def = annotation.annotationType().getMethod(key).getDefaultValue();
+			if(value!=null && def!=value)
+				n++;
+			if(TAnnotationParsePlan.findTargetMethod(key, paramClass)!=null)
+				n++;
+		}
+		return n;
+	}
+
+	private static int resolveByPlan(Annotation annotation, Class<?> parser) throws Exception {
+		int n = 0;
+		TAnnotationParsePlan plan = TAnnotationParsePlan.get(parser, annotation);
+		Class<?> paramClass = plan.getTargetClass(null);
+		for(TMember m : plan.getMembers()) {
+			Object value = m.get(annotation);
+			if(value!=null && m.defaultValue!=value)
+				n++;
+			if(plan.getSetter(paramClass, m.key).method!=null)
+				n++;
+		}
+		return n;
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ *
+ */
+package org.tedros.fx.annotation.parser.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.tedros.fx.annotation.control.TTableColumn;
+import org.tedros.fx.annotation.control.TTableView;
+import org.tedros.fx.annotation.control.TTextField;
+import org.tedros.fx.annotation.parser.TTableViewParser;
+import org.tedros.fx.annotation.parser.TTextFieldParser;
+import org.tedros.fx.annotation.parser.engine.TAnnotationParsePlan.TMember;
+import org.tedros.fx.util.TReflectionUtil;
+
+import javafx.scene.control.TableView;
+
+/**
+ * Checks the annotation parse plan, the member resolution 
+ * is measured by {@link TAnnotationParsePlanBenchmark}.
+ *
+ * @author Davis Gordon
+ *
+ */
+public class TAnnotationParsePlanTest {
+
+	@TTextField(maxLength=60, required=true)
+	String name;
+
+	@TTableView(columns = { @TTableColumn(text = "Name", cellValue = "name"),
+			@TTableColumn(text = "Code", cellValue = "code") })
+	Object items;
+
+	@After
+	public void tearDown() {
+		TAnnotationParsePlan.clear();
+	}
+
+	@Test
+	public void testPlanIsCachedPerAnnotationType() throws Exception {
+		TTextField a = getAnnotation("name", TTextField.class);
+		TAnnotationParsePlan p = TAnnotationParsePlan.get(TTextFieldParser.class, a);
+		assertSame(p, TAnnotationParsePlan.get(TTextFieldParser.class, a));
+		assertEquals(org.tedros.fx.control.TTextField.class, p.getTargetClass(new Object()));
+
+		int count = 0;
+		for(Method m : a.getClass().getDeclaredMethods())
+			if(!ArrayUtils.contains(TReflectionUtil.SKIPMETHODS, m.getName()) && m.getParameterCount()==0)
+				count++;
+		assertEquals(count, p.getMembers().length);
+
+		for(TMember m : p.getMembers()) {
+			Method accessor = TTextField.class.getMethod(m.key);
+			assertEquals(m.key, accessor.invoke(a), m.get(a));
+			assertEquals(m.key, accessor.getDefaultValue(), m.defaultValue);
+		}
+	}
+
+	@Test
+	public void testSettersAreResolvedAsBefore() throws Exception {
+		TTableView a = getAnnotation("items", TTableView.class);
+		TAnnotationParsePlan p = TAnnotationParsePlan.get(TTableViewParser.class, a);
+		Class<?> target = p.getTargetClass(new Object());
+		assertEquals(TableView.class, target);
+
+		for(TMember m : p.getMembers())
+			assertEquals(m.key, TAnnotationParsePlan.findTargetMethod(m.key, target),
+					p.getSetter(target, m.key).method);
+
+		assertNotNull(p.getSetter(target, "editable").method);
+		assertNull(p.getSetter(target, "columns_not_found").method);
+		assertSame(p.getSetter(target, "editable"), p.getSetter(target, "editable"));
+	}
+
+	@Test
+	public void testRunAfterMembers() throws Exception {
+		TTableView a = getAnnotation("items", TTableView.class);
+		TAnnotationParsePlan p = TAnnotationParsePlan.get(TTableViewParser.class, a);
+		int after = 0;
+		for(TMember m : p.getMembers()) {
+			String k = m.key.toLowerCase();
+			boolean expected = k.contains("grow") || k.contains("margin") || k.contains("alignment");
+			assertEquals(m.key, expected, m.runAfter);
+			if(m.runAfter) {
+				assertTrue(m.runAfterIndex >= 0 && m.runAfterIndex < p.getRunAfterCount());
+				after++;
+			}
+		}
+		assertEquals(after, p.getRunAfterCount());
+	}
+
+	static <A extends Annotation> A getAnnotation(String field, Class<A> type) throws Exception {
+		return TAnnotationParsePlanTest.class.getDeclaredField(field).getAnnotation(type);
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ *
+ */
+package org.tedros.fx.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.tedros.server.result.TResult;
+import org.tedros.server.result.TResult.TState;
+
+/**
+ * Checks the page window of the virtual list, the fetches are 
+ * queued and run by the test and the results are delivered 
+ * in the calling thread.
+ *
+ * @author Davis Gordon
+ *
+ */
+public class TVirtualPageListTest {
+
+	static final int TOTAL = 100;
+	static final int PAGE_SIZE = 10;
+
+	private final Deque<Runnable> fetches = new ArrayDeque<>();
+	private final List<Integer> loaded = new ArrayList<>();
+	private boolean reject;
+	private TVirtualPageList<String, String> list;
+
+	@Before
+	public void setUp() {
+		Executor fetchExecutor = r->{
+			if(reject)
+				throw new RejectedExecutionException("full");
+			fetches.add(r);
+		};
+		list = new TVirtualPageList<>(this::load, e->"m"+e, PAGE_SIZE, 3, fetchExecutor, Runnable::run);
+		list.load();
+		runFetches();
+	}
+
+	private TResult<Map<String, Object>> load(int start, int size) {
+		loaded.add(start);
+		List<String> rows = new ArrayList<>();
+		for(int i=start; i<Math.min(start+size, TOTAL); i++)
+			rows.add(String.valueOf(i));
+		Map<String, Object> map = new HashMap<>();
+		map.put("list", rows);
+		map.put("total", Long.valueOf(TOTAL));
+		return new TResult<>(TState.SUCCESS, map);
+	}
+
+	private void runFetches() {
+		while(!fetches.isEmpty())
+			fetches.poll().run();
+	}
+
+	@Test
+	public void testFirstPage() {
+		assertEquals(TOTAL, list.size());
+		assertEquals("m0", list.get(0));
+		assertEquals(1, list.getLoadedPages());
+		assertFalse(list.loadingProperty().get());
+	}
+
+	@Test
+	public void testLruEviction() {
+		for(int p=1; p<5; p++) {
+			assertNull(list.get(p*PAGE_SIZE));
+			runFetches();
+			assertEquals("m"+p*PAGE_SIZE, list.get(p*PAGE_SIZE));
+		}
+		// only the last 3 pages are kept
+		assertEquals(3, list.getLoadedPages());
+		assertNull(list.get(0));
+		assertNull(list.get(PAGE_SIZE));
+		assertEquals("m"+4*PAGE_SIZE, list.get(4*PAGE_SIZE));
+		runFetches();
+		assertEquals("m0", list.get(0));
+	}
+
+	@Test
+	public void testPrefetch() {
+		// the first half of a page does not prefetch
+		list.get(PAGE_SIZE/2 - 1);
+		assertTrue(fetches.isEmpty());
+		list.get(PAGE_SIZE/2);
+		assertEquals(1, fetches.size());
+		assertTrue(list.loadingProperty().get());
+		// a pending page is not fetched twice
+		list.get(PAGE_SIZE/2 + 1);
+		assertEquals(1, fetches.size());
+		runFetches();
+		assertEquals(Integer.valueOf(PAGE_SIZE), loaded.get(loaded.size()-1));
+		assertEquals(2, list.getLoadedPages());
+		assertFalse(list.loadingProperty().get());
+		// the last page has no next page
+		list.get(TOTAL-PAGE_SIZE);
+		runFetches();
+		list.get(TOTAL-1);
+		assertTrue(fetches.isEmpty());
+	}
+
+	@Test
+	public void testRejectedFetch() {
+		reject = true;
+		assertNull(list.get(2*PAGE_SIZE));
+		assertFalse(list.loadingProperty().get());
+		reject = false;
+		// the page is not left pending
+		assertNull(list.get(2*PAGE_SIZE));
+		assertEquals(1, fetches.size());
+		runFetches();
+		assertEquals("m"+2*PAGE_SIZE, list.get(2*PAGE_SIZE));
+	}
+
+	@Test
+	public void testRemove() {
+		list.get(PAGE_SIZE);
+		runFetches();
+		list.get(2*PAGE_SIZE);
+		runFetches();
+		assertEquals(3, list.getLoadedPages());
+
+		assertEquals("m"+(PAGE_SIZE+5), list.remove(PAGE_SIZE+5));
+		assertEquals(TOTAL-1, list.size());
+		// the pages from the removed row are fetched again with the new offsets
+		assertEquals(1, list.getLoadedPages());
+		assertEquals("m0", list.get(0));
+		assertNull(list.get(PAGE_SIZE));
+		runFetches();
+		assertEquals("m"+PAGE_SIZE, list.get(PAGE_SIZE));
+	}
+
+	@Test
+	public void testStaleResultDropped() {
+		assertNull(list.get(3*PAGE_SIZE));
+		assertEquals(1, fetches.size());
+		// the pending fetch was requested before the remove
+		list.remove(0);
+		runFetches();
+		assertEquals(0, list.getLoadedPages());
+		assertFalse(list.loadingProperty().get());
+		assertNull(list.get(3*PAGE_SIZE));
+		runFetches();
+		assertNotNull(list.get(3*PAGE_SIZE));
+	}
+
+	@Test
+	public void testAppended() {
+		list.add("new");
+		assertEquals(TOTAL+1, list.size());
+		assertEquals("new", list.get(TOTAL));
+		assertEquals(TOTAL, list.indexOf("new"));
+		// the loaded rows are searched once read
+		list.get(0);
+		assertEquals(0, list.indexOf("m0"));
+		// the rows not loaded are not searched
+		assertEquals(-1, list.indexOf("m50"));
+	}
+}
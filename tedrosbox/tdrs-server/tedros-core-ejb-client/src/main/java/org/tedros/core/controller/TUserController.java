@@ -1,13 +1,24 @@
 package org.tedros.core.controller;
 
+import java.util.Map;
+
 import jakarta.ejb.Remote;
 
 import org.tedros.core.security.model.TUser;
 import org.tedros.server.controller.ITSecureEjbController;
+import org.tedros.server.result.TResult;
+import org.tedros.server.security.TAccessToken;
 
 @Remote
 public interface TUserController extends ITSecureEjbController<TUser>{
 	
 
 	static final String JNDI_NAME = "TUserControllerRemote";
+	
+	/**
+	 * @param token the access token
+	 * @return the counters of the logged user sessions: active, created, loggedOut,
+	 * replaced, evictedIdle, evictedExpired and the timeouts in minutes
+	 */
+	TResult<Map<String, Long>> getSessionStatistics(TAccessToken token);
 }
@@ -3,10 +3,14 @@
  */
 package org.tedros.core.cdi.bo;
 
+import java.util.List;
+import java.util.Map;
+
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
+import jakarta.mail.Message;
 
 import org.tedros.common.model.TFileEntity;
 import org.tedros.common.model.TMimeType;
@@ -62,20 +66,51 @@ public class TEmailBO {
 	public void send(boolean debug, String to, String subject, String content, boolean html, 
 			TFileEntity file) throws TSentEmailException{
 		
+		TMimeType e = findMimeType(file);
+		util.send(debug, emailAccount.get(), to, subject, content, html, 
+				file.getFileName(), file.getByte().getBytes(), e.getType());
+	}
+	
+	/**
+	 * Creates a message to be sent by {@link #sendAll(boolean, List)}, the file is optional.
+	 */
+	public Message createMessage(String to, String subject, String content, boolean html, 
+			TFileEntity file) throws Exception {
+		if(file==null)
+			return util.createMessage(emailAccount.get(), to, subject, content, html, null, null, null);
+		TMimeType e = findMimeType(file);
+		return util.createMessage(emailAccount.get(), to, subject, content, html, 
+				file.getFileName(), file.getByte().getBytes(), e.getType());
+	}
+	
+	/**
+	 * Sends the messages using one SMTP connection
+	 * 
+	 * @return the errors by message index, empty if all were sent
+	 */
+	public Map<Integer, TSentEmailException> sendAll(boolean debug, List<Message> messages) throws TSentEmailException{
+		return util.sendAll(debug, messages);
+	}
+	
+	/**
+	 * @return the sent, failed and connections statistics of the SMTP pool
+	 */
+	public Map<String, Long> getStatistics(){
+		return util.getStatistics();
+	}
+	
+	private TMimeType findMimeType(TFileEntity file) {
 		TMimeType e = new TMimeType();
 		e.setExtension("."+file.getFileExtension());
 		try {
 			e = mimeTypeBO.find(e);
-			if(e==null)
-				throw new TBusinessException("Cannot find the mime type to file extension ."
-			+file.getFileExtension());
-			
-			util.send(debug, emailAccount.get(), to, subject, content, html, 
-					file.getFileName(), file.getByte().getBytes(), e.getType());
-	
 		} catch (Exception e1) {
 			throw new RuntimeException(e1);
-		}}
-	
+		}
+		if(e==null)
+			throw new TBusinessException("Cannot find the mime type to file extension ."
+					+file.getFileExtension());
+		return e;
+	}
 	
 }
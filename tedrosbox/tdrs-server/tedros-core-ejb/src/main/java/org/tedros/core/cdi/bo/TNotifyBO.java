@@ -1,5 +1,6 @@
 package org.tedros.core.cdi.bo;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -30,8 +31,55 @@ public class TNotifyBO extends TGenericBO<TNotify> {
 		return eao;
 	}
 	
-	public List<TNotify> listToProcess(){
-		return eao.listToProcess();
+	public List<TNotify> listToProcess(int maxResult){
+		return eao.listToProcess(maxResult);
+	}
+	
+	/**
+	 * Claims the notifications still in the given state
+	 * 
+	 * @return the notifications claimed
+	 */
+	public List<TNotify> claim(List<TNotify> l, TState state){
+		List<TNotify> claimed = new ArrayList<>();
+		for(TNotify e : l)
+			if(eao.claim(e.getId(), state))
+				claimed.add(e);
+		return claimed;
+	}
+	
+	/**
+	 * Queues again the notifications dispatched before the given time
+	 * 
+	 * @return the notifications queued
+	 */
+	public int requeue(Date dispatchedBefore){
+		return eao.requeue(dispatchedBefore);
+	}
+	
+	public TState getState(Long id){
+		return eao.getState(id);
+	}
+	
+	/**
+	 * Registers the result of the dispatch
+	 * 
+	 * @return null if the notification is no longer dispatched
+	 */
+	public TNotify processed(Long id, TState state, String desc) throws Exception {
+		Date time = new Date();
+		if(!eao.processed(id, state, time))
+			return null;
+		TNotify e = new TNotify();
+		e.setId(id);
+		e = eao.findById(e);
+		if(e==null)
+			throw new TBusinessException("#{tedros.fxapi.message.no.data.found}");
+		e.setAction(TAction.NONE);
+		e.setState(state);
+		e.setProcessedTime(time);
+		e.addEventLog(state, desc);
+		return super.save(e);
 	}
 
 	@Override
@@ -27,6 +27,10 @@ public class TPropertieBO extends TGenericBO<TPropertie> {
 		return eao.getValue(key);
 	}
 	
+	public String getVersionStamp() {
+		return eao.getVersionStamp();
+	}
+	
 	public TFileEntity getFile(String key){
 		return eao.getFile(key);
 	}
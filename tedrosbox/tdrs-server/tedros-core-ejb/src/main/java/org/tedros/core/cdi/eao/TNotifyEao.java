@@ -3,11 +3,13 @@
  */
 package org.tedros.core.cdi.eao;
 
+import java.util.Date;
 import java.util.List;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.persistence.Query;
 
+import org.tedros.core.notify.model.TAction;
 import org.tedros.core.notify.model.TNotify;
 import org.tedros.core.notify.model.TState;
 import org.tedros.server.cdi.eao.TGenericEAO;
@@ -19,16 +21,81 @@ import org.tedros.server.cdi.eao.TGenericEAO;
 @RequestScoped
 public class TNotifyEao extends TGenericEAO<TNotify> {
 	
+	/**
+	 * @return the first queued notifications, at most maxResult
+	 */
 	@SuppressWarnings("unchecked")
-	public List<TNotify> listToProcess(){
+	public List<TNotify> listToProcess(int maxResult){
 		StringBuilder sb = new StringBuilder();
-		sb.append("select e from TNotify e where e.state = :state");
+		sb.append("select e from TNotify e where e.state = :state order by e.id");
 		
 		Query qry = getEntityManager().createQuery(sb.toString());
 		
 		qry.setParameter("state", TState.QUEUED);
+		qry.setMaxResults(maxResult);
 		
 		return qry.getResultList();
 	}
 	
+	/**
+	 * Changes the state to dispatched only if it is still in the 
+	 * given state, a notification claimed by other server is not changed.
+	 * The processed time records the claim time.
+	 * 
+	 * @return true if claimed
+	 */
+	public boolean claim(Long id, TState state){
+		Query qry = getEntityManager().createQuery("update TNotify e set e.state = :to, e.processedTime = :time "
+				+ "where e.id = :id and " + (state==null ? "e.state is null" : "e.state = :from"));
+		qry.setParameter("to", TState.DISPATCHED);
+		qry.setParameter("time", new Date());
+		qry.setParameter("id", id);
+		if(state!=null)
+			qry.setParameter("from", state);
+		return qry.executeUpdate()==1;
+	}
+	
+	/**
+	 * Registers the result only if the notification is still dispatched, 
+	 * a notification canceled or processed meanwhile is not changed.
+	 * 
+	 * @return true if changed
+	 */
+	public boolean processed(Long id, TState state, Date time){
+		Query qry = getEntityManager().createQuery("update TNotify e set e.state = :to, "
+				+ "e.action = :action, e.processedTime = :time "
+				+ "where e.id = :id and e.state = :from");
+		qry.setParameter("to", state);
+		qry.setParameter("action", TAction.NONE);
+		qry.setParameter("time", time);
+		qry.setParameter("id", id);
+		qry.setParameter("from", TState.DISPATCHED);
+		return qry.executeUpdate()==1;
+	}
+	
+	/**
+	 * Queues again the notifications dispatched before the given time,
+	 * their messages were lost or the server stopped before the result.
+	 * 
+	 * @return the notifications queued
+	 */
+	public int requeue(Date dispatchedBefore){
+		Query qry = getEntityManager().createQuery("update TNotify e set e.state = :to "
+				+ "where e.state = :from and (e.processedTime is null or e.processedTime < :time)");
+		qry.setParameter("to", TState.QUEUED);
+		qry.setParameter("from", TState.DISPATCHED);
+		qry.setParameter("time", dispatchedBefore);
+		return qry.executeUpdate();
+	}
+	
+	/**
+	 * @return the current state of the notification, null if not found
+	 */
+	public TState getState(Long id){
+		List<?> l = getEntityManager().createQuery("select e.state from TNotify e where e.id = :id")
+				.setParameter("id", id)
+				.getResultList();
+		return l.isEmpty() ? null : (TState) l.get(0);
+	}
+	
 }
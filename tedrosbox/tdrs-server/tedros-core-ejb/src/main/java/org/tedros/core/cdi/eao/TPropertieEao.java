@@ -42,6 +42,16 @@ public class TPropertieEao extends TGenericEAO<TPropertie> {
 		return v;
 	}
 	
+	/**
+	 * A stamp of the table state, changes when a propertie 
+	 * is created, updated (version column) or removed.
+	 */
+	public String getVersionStamp(){
+		Query qry = getEntityManager().createQuery("select count(e.id), sum(e.versionNum), max(e.id) from TPropertie e");
+		Object[] r = (Object[]) qry.getSingleResult();
+		return r[0]+":"+r[1]+":"+r[2];
+	}
+	
 	public TFileEntity getFile(String key){
 		Query qry = getEntityManager().createQuery("select e.file from TPropertie e "
 				+ "join e.file f join f.byteEntity b "
@@ -4,13 +4,13 @@
 package org.tedros.core.cdi.producer;
 
 import org.apache.commons.lang3.BooleanUtils;
-import org.tedros.core.cdi.bo.TPropertieBO;
 import org.tedros.core.domain.DomainPropertie;
 import org.tedros.core.domain.TSystemPropertie;
+import org.tedros.core.ejb.service.TPropertieCache;
 
+import jakarta.ejb.EJB;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.enterprise.inject.Produces;
-import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
 /**
@@ -20,21 +20,21 @@ import jakarta.inject.Named;
 @RequestScoped
 public class ResourceProducer {
 	
-	@Inject
-	private TPropertieBO propBO;
+	@EJB
+	private TPropertieCache cache;
 
 	@Produces
 	@RequestScoped
 	@Named(DomainPropertie.OPENAI_KEY)
 	public Item<String> getOpenaiKey(){
-		return new Item<>(propBO.getValue(TSystemPropertie.OPENAI_KEY.getValue()));
+		return new Item<>(cache.getValue(TSystemPropertie.OPENAI_KEY));
 	}
 	
 	@Produces
 	@RequestScoped
 	@Named(DomainPropertie.AI_ENABLED)
 	public Item<Boolean> getAiEnabled(){
-		String v = propBO.getValue(TSystemPropertie.AI_ENABLED.getValue());
+		String v = cache.getValue(TSystemPropertie.AI_ENABLED);
 		return new Item<>(BooleanUtils.toBoolean(v));
 	}
 	
@@ -42,21 +42,21 @@ public class ResourceProducer {
 	@RequestScoped
 	@Named(DomainPropertie.SMTP_HOST)
 	public Item<String> getSmtpHost(){
-		return new Item<>(propBO.getValue(TSystemPropertie.SMTP_HOST.getValue()));
+		return new Item<>(cache.getValue(TSystemPropertie.SMTP_HOST));
 	}
 	
 	@Produces
 	@RequestScoped
 	@Named(DomainPropertie.SMTP_USER)
 	public Item<String> getSmtpUser(){
-		return new Item<>(propBO.getValue(TSystemPropertie.SMTP_USER.getValue()));
+		return new Item<>(cache.getValue(TSystemPropertie.SMTP_USER));
 	}
 	
 	@Produces
 	@RequestScoped
 	@Named(DomainPropertie.SMTP_PASS)
 	public Item<String> getSmtpPass(){
-		return new Item<>(propBO.getValue(TSystemPropertie.SMTP_PASS.getValue()));
+		return new Item<>(cache.getValue(TSystemPropertie.SMTP_PASS));
 	}
 	
 
@@ -64,7 +64,7 @@ public class ResourceProducer {
 	@RequestScoped
 	@Named(DomainPropertie.SMTP_PORT)
 	public Item<String> getSmtpPort(){
-		return new Item<>(propBO.getValue(TSystemPropertie.SMTP_PORT.getValue()));
+		return new Item<>(cache.getValue(TSystemPropertie.SMTP_PORT));
 	}
 	
 
@@ -72,14 +72,14 @@ public class ResourceProducer {
 	@RequestScoped
 	@Named(DomainPropertie.SMTP_SOCKET_PORT)
 	public Item<String> getSmtpSocketPort(){
-		return new Item<>(propBO.getValue(TSystemPropertie.SMTP_SOCKET_PORT.getValue()));
+		return new Item<>(cache.getValue(TSystemPropertie.SMTP_SOCKET_PORT));
 	}
 	
 	@Produces
 	@RequestScoped
 	@Named(DomainPropertie.NOTIFY_INTERVAL_TIMER)
 	public Item<String> getNotifyInterval(){
-		return new Item<>(propBO.getValue(TSystemPropertie.NOTIFY_INTERVAL_TIMER.getValue()));
+		return new Item<>(cache.getValue(TSystemPropertie.NOTIFY_INTERVAL_TIMER));
 	}
 
 }
@@ -1,10 +1,9 @@
 package org.tedros.core.cdi.queue;
 
-import java.util.Date;
-
+import org.tedros.common.model.TFileEntity;
 import org.tedros.core.cdi.bo.TEmailBO;
+import org.tedros.core.ejb.service.TFileEntityService;
 import org.tedros.core.ejb.service.TNotifyService;
-import org.tedros.core.notify.model.TAction;
 import org.tedros.core.notify.model.TNotify;
 import org.tedros.core.notify.model.TState;
 import org.tedros.server.exception.TBusinessException;
@@ -16,6 +15,7 @@ import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
 import jakarta.inject.Inject;
 import jakarta.jms.JMSException;
+import jakarta.jms.MapMessage;
 import jakarta.jms.Message;
 import jakarta.jms.MessageListener;
 import jakarta.jms.TextMessage;
@@ -34,16 +34,28 @@ public class NotifyMDB  implements MessageListener {
 	
 	@EJB
 	private TNotifyService serv;
+	
+	@EJB
+	private TFileEntityService fileServ;
 
     @Override
     public void onMessage(Message message) {
-        if (message instanceof TextMessage) {
+        if (message instanceof MapMessage) {
+            try {
+            	processNotify(toNotify((MapMessage) message));
+            } catch (Exception e) {
+				e.printStackTrace();
+			}
+        } else if (message instanceof TextMessage) {
+        	// a refCode queued before the dispatch claim, 
+        	// claimed and queued again by id
             try {
             	TextMessage textMessage = (TextMessage) message;
                 TNotify notify = new TNotify();
                 notify.setRefCode(textMessage.getText());
                 notify = serv.find(notify);
-                processNotify(notify);
+                if(notify!=null)
+                	serv.dispatch(notify);
             } catch (JMSException e) {
                 e.printStackTrace();
             } catch (Exception e) {
@@ -53,31 +65,54 @@ public class NotifyMDB  implements MessageListener {
             System.err.println("Message of wrong type: " + message.getClass().getName());
         }
     }
+    
+    /**
+     * The notification sent by {@link TNotifyProducer}, only the 
+     * state is read to check it was not canceled after the dispatch.
+     */
+    private TNotify toNotify(MapMessage m) throws Exception {
+    	TNotify e = new TNotify();
+    	e.setId(m.getLong(TNotifyProducer.ID));
+    	e.setRefCode(m.getString(TNotifyProducer.REF_CODE));
+    	e.setTo(m.getString(TNotifyProducer.TO));
+    	e.setSubject(m.getString(TNotifyProducer.SUBJECT));
+    	e.setContent(m.getString(TNotifyProducer.CONTENT));
+    	if(m.itemExists(TNotifyProducer.FILE_ID)) {
+    		TFileEntity f = new TFileEntity();
+    		f.setId(m.getLong(TNotifyProducer.FILE_ID));
+    		e.setFile(f);
+    	}
+    	e.setState(serv.getState(e.getId()));
+    	return e;
+    }
 
     private void processNotify(TNotify e) {
         System.out.println("Received Notify message: " + e);
+        TState state;
+        String desc = null;
         try {
 			validate(e);
+		} catch (TBusinessException e1) {
+			// canceled or processed by other server, the state is kept
+			System.err.println(e1.getMessage());
+			return;
+		}
+        try {
+			if(e.getFile()!=null) 
+				e.setFile(fileServ.findById(e.getFile()));
 			if(e.getFile()!=null) 
 				emailBO.send(false, e.getTo(), e.getSubject(), e.getContent(), true, e.getFile());
 			else
 				emailBO.send(false, e.getTo(), e.getSubject(), e.getContent(), true);
-	
-			e.setAction(TAction.NONE);
-			e.setState(TState.SENT);
-			e.setProcessedTime(new Date());
-			e.addEventLog(TState.SENT, null);
-			
+			state = TState.SENT;
 		} catch (Throwable e1) {
 			e1.printStackTrace();
-			e.setAction(TAction.NONE);
-			e.setState(TState.ERROR);
-			e.setProcessedTime(new Date());
-			e.addEventLog(TState.ERROR, e1.getMessage());
+			state = TState.ERROR;
+			desc = e1.getMessage();
 		}
         
         try {
-			serv.save(e);
+			serv.processed(e.getId(), state, desc);
 		} catch (Exception e1) {
 			e1.printStackTrace();
 		}
@@ -89,6 +124,8 @@ public class NotifyMDB  implements MessageListener {
 			v = "canceled";
 		else if(e.getState()!=null && e.getState().equals(TState.SENT))
 			v = "already sent";
+		else if(!TState.DISPATCHED.equals(e.getState()))
+			v = "not dispatched";
 		if(v!=null)
 			throw new TBusinessException("This notification cant be done until it was "+v);
 	}
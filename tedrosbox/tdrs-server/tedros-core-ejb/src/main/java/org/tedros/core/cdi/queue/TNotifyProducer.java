@@ -1,5 +1,8 @@
 package org.tedros.core.cdi.queue;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.tedros.core.notify.model.TNotify;
 
 import jakarta.annotation.Resource;
@@ -7,14 +10,29 @@ import jakarta.enterprise.context.RequestScoped;
 import jakarta.jms.Connection;
 import jakarta.jms.ConnectionFactory;
 import jakarta.jms.JMSException;
+import jakarta.jms.MapMessage;
 import jakarta.jms.MessageProducer;
 import jakarta.jms.Queue;
 import jakarta.jms.Session;
-import jakarta.jms.TextMessage;
 
+/**
+ * Sends the claimed notifications to the NotifyQueue as a {@link MapMessage}
+ * with the fields needed to send the email and the file id, a list is sent
+ * with one connection and session.
+ *
+ * @author Davis Gordon
+ *
+ */
 @RequestScoped
 public class TNotifyProducer {
 
+	public static final String ID = "id";
+	public static final String REF_CODE = "refCode";
+	public static final String TO = "to";
+	public static final String SUBJECT = "subject";
+	public static final String CONTENT = "content";
+	public static final String FILE_ID = "fileId";
+
 	@Resource(name = "jms/TedrosJmsConnectionFactory")
 	private ConnectionFactory connectionFactory;
 
@@ -22,16 +40,34 @@ public class TNotifyProducer {
 	private Queue queue;
 
 	public void queue(TNotify notify) {
+		queue(Collections.singletonList(notify));
+	}
 
-		try (Connection connection = connectionFactory.createConnection()) {
-			Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-			MessageProducer producer = session.createProducer(queue);
-
-			TextMessage message = session.createTextMessage(notify.getRefCode());
-			producer.send(message);
-			System.out.println("Message sent: " + notify);
+	/**
+	 * Sends all notifications with one session, when called in a transaction
+	 * the messages are delivered only if it commits.
+	 */
+	public void queue(List<TNotify> notifies) {
+		if(notifies==null || notifies.isEmpty())
+			return;
+		// the connections are pooled by the container connection factory
+		try (Connection connection = connectionFactory.createConnection();
+				Session session = connection.createSession();
+				MessageProducer producer = session.createProducer(queue)) {
+			for(TNotify notify : notifies) {
+				MapMessage message = session.createMapMessage();
+				message.setLong(ID, notify.getId());
+				message.setString(REF_CODE, notify.getRefCode());
+				message.setString(TO, notify.getTo());
+				message.setString(SUBJECT, notify.getSubject());
+				message.setString(CONTENT, notify.getContent());
+				if(notify.getFile()!=null)
+					message.setLong(FILE_ID, notify.getFile().getId());
+				producer.send(message);
+			}
+			System.out.println("Messages sent: " + notifies.size());
 		} catch (JMSException e) {
-			e.printStackTrace();
+			throw new IllegalStateException("Cannot send the notifications to the queue", e);
 		}
 
 	}
@@ -1,5 +1,7 @@
 package org.tedros.core.ejb.controller;
 
+import java.util.List;
+
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TransactionAttribute;
@@ -17,8 +19,11 @@ import org.tedros.server.result.TResult.TState;
 import org.tedros.server.security.ITSecurity;
 import org.tedros.server.security.TAccessPolicie;
 import org.tedros.server.security.TAccessToken;
+import org.tedros.server.security.TActionPolicie;
 import org.tedros.server.security.TBeanPolicie;
 import org.tedros.server.security.TBeanSecurity;
+import org.tedros.server.security.TMethodPolicie;
+import org.tedros.server.security.TMethodSecurity;
 import org.tedros.server.security.TSecurityInterceptor;
 import org.tedros.server.service.ITEjbService;
 
@@ -53,13 +58,20 @@ public class TNotifyControllerImpl extends TSecureEjbController<TNotify> impleme
 		try {
 			e = serv.save(e);
 			
+			// claimed before sent, the timer cannot send it again
 			if(e.getAction().equals(TAction.SEND))
-				serv.queue(e);
+				serv.dispatch(e);
 			
 			return new TResult<>(TState.SUCCESS, e);
 		}catch(Exception ex){
 			return processException(token, e, ex);
 		}
 	}
+	
+	@Override
+	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.SAVE, TActionPolicie.NEW})})
+	public List<TResult<TNotify>> saveAll(TAccessToken token, List<TNotify> entities) {
+		return saveEach(token, entities);
+	}
 
 }
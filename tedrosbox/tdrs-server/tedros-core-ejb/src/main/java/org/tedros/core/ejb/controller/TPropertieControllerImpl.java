@@ -1,5 +1,7 @@
 package org.tedros.core.ejb.controller;
 
+import java.util.List;
+
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TransactionAttribute;
@@ -20,8 +22,11 @@ import org.tedros.server.result.TResult.TState;
 import org.tedros.server.security.ITSecurity;
 import org.tedros.server.security.TAccessPolicie;
 import org.tedros.server.security.TAccessToken;
+import org.tedros.server.security.TActionPolicie;
 import org.tedros.server.security.TBeanPolicie;
 import org.tedros.server.security.TBeanSecurity;
+import org.tedros.server.security.TMethodPolicie;
+import org.tedros.server.security.TMethodSecurity;
 import org.tedros.server.security.TSecurityInterceptor;
 import org.tedros.server.service.ITEjbService;
 
@@ -65,6 +70,12 @@ public class TPropertieControllerImpl extends TSecureEjbController<TPropertie> i
 		return super.save(token, e);
 	}
 
+	@Override
+	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.SAVE, TActionPolicie.NEW})})
+	public List<TResult<TPropertie>> saveAll(TAccessToken token, List<TPropertie> entities) {
+		return saveEach(token, entities);
+	}
+
 	@Override
 	public TResult<String> getValue(TAccessToken token, String key) {
 		try {
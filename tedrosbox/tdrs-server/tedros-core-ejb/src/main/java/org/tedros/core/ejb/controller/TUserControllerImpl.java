@@ -1,5 +1,7 @@
 package org.tedros.core.ejb.controller;
 
+import java.util.Map;
+
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TransactionAttribute;
@@ -7,14 +9,21 @@ import jakarta.ejb.TransactionAttributeType;
 
 import org.tedros.core.controller.TUserController;
 import org.tedros.core.domain.DomainApp;
+import org.tedros.core.ejb.service.TSecurityService;
 import org.tedros.core.ejb.service.TUserService;
 import org.tedros.core.security.model.TUser;
 import org.tedros.server.ejb.controller.ITSecurityController;
 import org.tedros.server.ejb.controller.TSecureEjbController;
+import org.tedros.server.result.TResult;
+import org.tedros.server.result.TResult.TState;
 import org.tedros.server.security.ITSecurity;
 import org.tedros.server.security.TAccessPolicie;
+import org.tedros.server.security.TAccessToken;
+import org.tedros.server.security.TActionPolicie;
 import org.tedros.server.security.TBeanPolicie;
 import org.tedros.server.security.TBeanSecurity;
+import org.tedros.server.security.TMethodPolicie;
+import org.tedros.server.security.TMethodSecurity;
 import org.tedros.server.security.TSecurityInterceptor;
 import org.tedros.server.service.ITEjbService;
 
@@ -31,6 +40,9 @@ public class TUserControllerImpl extends TSecureEjbController<TUser> implements
 	@EJB
 	private ITSecurityController security;
 	
+	@EJB
+	private TSecurityService securityServ;
+	
 	@Override
 	public ITEjbService<TUser> getService() {
 		return serv;
@@ -41,5 +53,15 @@ public class TUserControllerImpl extends TSecureEjbController<TUser> implements
 		return security;
 	}
 	
+	@Override
+	@TMethodSecurity({
+	@TMethodPolicie(policie = {TActionPolicie.READ, TActionPolicie.SEARCH}, id = "")})
+	public TResult<Map<String, Long>> getSessionStatistics(TAccessToken token) {
+		try {
+			return new TResult<>(TState.SUCCESS, securityServ.getStatistics());
+		}catch(Exception e){
+			return processException(token, null, e);
+		}
+	}
 	
 }
@@ -3,7 +3,7 @@
  */
 package org.tedros.core.ejb.service;
 
-import jakarta.ejb.Local;
+import jakarta.ejb.LocalBean;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
@@ -18,7 +18,7 @@ import org.tedros.server.ejb.service.TEjbImportService;
  * @author Davis Gordon
  *
  */
-@Local
+@LocalBean
 @Stateless(name="TMimeTypeImportService")
 @TransactionAttribute(value = TransactionAttributeType.NOT_SUPPORTED)
 public class TMimeTypeImportService extends TEjbImportService<TMimeType> {
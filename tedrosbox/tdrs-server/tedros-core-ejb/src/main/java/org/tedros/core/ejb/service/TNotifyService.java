@@ -1,10 +1,13 @@
 package org.tedros.core.ejb.service;
 
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.tedros.core.cdi.bo.TNotifyBO;
 import org.tedros.core.cdi.queue.TNotifyProducer;
 import org.tedros.core.notify.model.TNotify;
+import org.tedros.core.notify.model.TState;
 import org.tedros.server.cdi.bo.ITGenericBO;
 import org.tedros.server.ejb.service.TEjbService;
 
@@ -30,12 +33,58 @@ public class TNotifyService extends TEjbService<TNotify> {
 		return bo;
 	}
 		
-	public List<TNotify> listToProcess(){
-		return bo.listToProcess();
+	/**
+	 * Claims and sends to the queue the first queued notifications,
+	 * the claim is undone if the messages cannot be sent.
+	 * 
+	 * @return the number of notifications read, when less than 
+	 * maxResult there is no more to dispatch
+	 */
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public int dispatch(int maxResult){
+		List<TNotify> l = bo.listToProcess(maxResult);
+		sender.queue(bo.claim(l, TState.QUEUED));
+		return l.size();
 	}
 	
-	public void queue(TNotify notify) {
-		sender.queue(notify);
+	/**
+	 * Claims and sends to the queue the notification 
+	 * 
+	 * @return false if already claimed by other server, 
+	 * canceled or sent
+	 */
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public boolean dispatch(TNotify notify){
+		if(TState.CANCELED.equals(notify.getState()) || TState.SENT.equals(notify.getState()))
+			return false;
+		List<TNotify> l = bo.claim(List.of(notify), notify.getState());
+		sender.queue(l);
+		return !l.isEmpty();
+	}
+	
+	/**
+	 * Queues again the notifications dispatched for more than the 
+	 * given minutes without a result, to be sent by the next sweep.
+	 * 
+	 * @return the notifications queued
+	 */
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public int requeue(long minutes){
+		return bo.requeue(new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(minutes)));
+	}
+	
+	public TState getState(Long id){
+		return bo.getState(id);
+	}
+	
+	/**
+	 * Registers the result of a dispatched notification
+	 * 
+	 * @return null if it is no longer dispatched
+	 */
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public TNotify processed(Long id, TState state, String desc) throws Exception {
+		return bo.processed(id, state, desc);
 	}
 	
 
@@ -0,0 +1,115 @@
+/**
+ *
+ */
+package org.tedros.core.ejb.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.tedros.core.domain.TSystemPropertie;
+import org.tedros.server.util.TLoggerUtil;
+
+import jakarta.ejb.EJB;
+import jakarta.ejb.Lock;
+import jakarta.ejb.LockType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+
+/**
+ * Read-through cache of the propertie values.
+ * <p>
+ * The values are loaded on the first get and kept until
+ * {@link TPropertieService} saves or removes the propertie.
+ * To see the changes made by other servers of a cluster the
+ * version stamp of the table is polled and the cache cleared
+ * when it changes.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+@Singleton
+@Lock(LockType.READ)
+@TransactionAttribute(value = TransactionAttributeType.NOT_SUPPORTED)
+public class TPropertieCache {
+
+	private TLoggerUtil logger = TLoggerUtil.create(TPropertieCache.class);
+
+	private final Map<String, Optional<String>> values = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+	private final AtomicLong generation = new AtomicLong();
+
+	private volatile String versionStamp;
+
+	@EJB
+	private TPropertieService serv;
+
+	public String getValue(TSystemPropertie propertie) {
+		return getValue(propertie.getValue());
+	}
+
+	public String getValue(String key) {
+		Optional<String> v = values.get(key);
+		if(v!=null) {
+			hits.incrementAndGet();
+			return v.orElse(null);
+		}
+		misses.incrementAndGet();
+		long g = generation.get();
+		v = Optional.ofNullable(serv.getValue(key));
+		// an invalidation during the load discards the value read
+		if(g==generation.get())
+			values.putIfAbsent(key, v);
+		return v.orElse(null);
+	}
+
+	public void invalidate(String key) {
+		generation.incrementAndGet();
+		invalidations.incrementAndGet();
+		if(key==null)
+			values.clear();
+		else
+			values.remove(key);
+	}
+
+	public void invalidateAll() {
+		invalidate(null);
+	}
+
+	/**
+	 * Clears the cache when the propertie table was changed by other server
+	 */
+	@Schedule(second="*/30", minute="*", hour="*", persistent=false)
+	public void poll() {
+		try {
+			String stamp = serv.getVersionStamp();
+			if(versionStamp!=null && !versionStamp.equals(stamp)) {
+				logger.info("Properties changed, cache cleared");
+				invalidateAll();
+			}
+			versionStamp = stamp;
+		}catch(Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return the hits, misses, invalidations and size of the cache
+	 */
+	public Map<String, Long> getStatistics(){
+		Map<String, Long> m = new LinkedHashMap<>();
+		m.put("hits", hits.get());
+		m.put("misses", misses.get());
+		m.put("invalidations", invalidations.get());
+		m.put("size", (long) values.size());
+		return m;
+	}
+
+}
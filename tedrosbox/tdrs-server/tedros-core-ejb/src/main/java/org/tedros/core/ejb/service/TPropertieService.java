@@ -1,10 +1,18 @@
 package org.tedros.core.ejb.service;
 
+import java.util.List;
+import java.util.Map;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.EJB;
 import jakarta.ejb.LocalBean;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 
 import org.tedros.common.model.TFileEntity;
 import org.tedros.core.cdi.bo.TPropertieBO;
@@ -20,6 +28,12 @@ public class TPropertieService extends TEjbService<TPropertie>	{
 	@Inject
 	private TPropertieBO bo;
 	
+	@EJB
+	private TPropertieCache cache;
+	
+	@Resource
+	private TransactionSynchronizationRegistry txRegistry;
+	
 	@Override
 	public ITGenericBO<TPropertie> getBussinesObject() {
 		return bo;
@@ -35,6 +49,17 @@ public class TPropertieService extends TEjbService<TPropertie>	{
 		return bo.getValue(key);
 	}
 	
+	public String getVersionStamp() {
+		return bo.getVersionStamp();
+	}
+	
+	/**
+	 * @return the hits, misses, invalidations and size of the properties cache
+	 */
+	public Map<String, Long> getCacheStatistics() {
+		return cache.getStatistics();
+	}
+	
 	public TFileEntity getFile(String key){
 		return bo.getFile(key);
 	}
@@ -47,5 +72,55 @@ public class TPropertieService extends TEjbService<TPropertie>	{
 	public boolean create(TPropertie propertie) throws Exception {
 		return bo.create(propertie);
 	}
+	
+	@Override
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public TPropertie save(TPropertie entidade) throws Exception {
+		TPropertie e = super.save(entidade);
+		invalidate(e.getKey());
+		return e;
+	}
+	
+	@Override
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public void remove(TPropertie entidade) throws Exception {
+		super.remove(entidade);
+		invalidate(entidade.getKey());
+	}
+	
+	@Override
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public List<TPropertie> saveAll(List<TPropertie> entidades) throws Exception {
+		List<TPropertie> l = super.saveAll(entidades);
+		invalidate(null);
+		return l;
+	}
+	
+	@Override
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public void removeAll(List<TPropertie> entidades) throws Exception {
+		super.removeAll(entidades);
+		invalidate(null);
+	}
+	
+	/**
+	 * Removes the key from the cache now and after the transaction 
+	 * completes, avoiding a read before the commit to cache the old value.
+	 * A null key clears the cache.
+	 */
+	private void invalidate(String key) {
+		cache.invalidate(key);
+		if(txRegistry.getTransactionStatus()==Status.STATUS_NO_TRANSACTION)
+			return;
+		txRegistry.registerInterposedSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+			}
+			@Override
+			public void afterCompletion(int status) {
+				cache.invalidate(key);
+			}
+		});
+	}
 
 }
@@ -1,98 +1,197 @@
 /**
- * 
+ *
  */
 package org.tedros.core.ejb.service;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
-import org.apache.commons.collections.CollectionUtils;
-import org.tedros.core.security.model.TAuthorization;
-import org.tedros.core.security.model.TProfile;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.tedros.core.domain.TSystemPropertie;
 import org.tedros.core.security.model.TUser;
 import org.tedros.server.security.TAccessToken;
+import org.tedros.server.util.TLoggerUtil;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.ejb.ConcurrencyManagement;
 import jakarta.ejb.ConcurrencyManagementType;
-import jakarta.ejb.Lock;
-import jakarta.ejb.LockType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
 import jakarta.ejb.Singleton;
 import jakarta.ejb.Startup;
 
 /**
+ * Keeps the logged user sessions.
+ * <p>
+ * The sessions are indexed by access token in a concurrent map,
+ * the concurrency is managed by the bean so the security checks
+ * never wait for a login or a logout.
+ * </p>
+ * <p>
+ * Each check of a session stamps its last access. A session idle for more
+ * than the {@link TSystemPropertie#SESSION_IDLE_TIMEOUT} minutes or older than
+ * the {@link TSystemPropertie#SESSION_MAX_TIME} hours, both disabled by default, is refused when checked
+ * and removed by the eviction scheduled every minute, so the sessions of
+ * crashed clients do not stay in memory.
+ * </p>
  * @author Davis Gordon
  *
  */
 @Singleton
 @Startup
-@Lock(LockType.READ) 
-@ConcurrencyManagement(ConcurrencyManagementType.CONTAINER)
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 public class TSecurityService {
 
-	private List<TUser> repository;
-	
+	public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 0;
+	public static final long DEFAULT_MAX_TIME_HOURS = 0;
+
+	private TLoggerUtil logger = TLoggerUtil.create(TSecurityService.class);
+
+	private Map<TAccessToken, TUserSession> sessions;
+
+	private Map<String, TAccessToken> logins;
+
+	// millis, 0 to never expire
+	private volatile long idleTimeout = TimeUnit.MINUTES.toMillis(DEFAULT_IDLE_TIMEOUT_MINUTES);
+	private volatile long maxTime = TimeUnit.HOURS.toMillis(DEFAULT_MAX_TIME_HOURS);
+
+	private final LongAdder created = new LongAdder();
+	private final LongAdder loggedOut = new LongAdder();
+	private final LongAdder replaced = new LongAdder();
+	private final LongAdder evictedIdle = new LongAdder();
+	private final LongAdder evictedExpired = new LongAdder();
+
+	@EJB
+	private TPropertieCache cache;
+
 	@PostConstruct
 	public void init() {
-		this.repository = new ArrayList<>();
+		this.sessions = new ConcurrentHashMap<>();
+		this.logins = new ConcurrentHashMap<>();
 	}
-	
+
 	public TUser getUser(TAccessToken token) {
-		Optional<TUser> op =repository.parallelStream()
-				.filter(p->{
-					return p.getAccessToken().equals(token);
-				})
-				.findFirst();
-		return op.isPresent() 
-				? op.get()
+		TUserSession s = getSession(token);
+		return s!=null
+				? s.getUser()
 						: null;
 	}
-	
+
 	public boolean isAssigned(TAccessToken token) {
-		return CollectionUtils.exists(repository, e -> {
-			return ((TUser)e).getAccessToken().equals(token);
-		});
+		return getSession(token)!=null;
 	}
-	
+
 	public boolean isActionGranted(TAccessToken token, String securityId, String... action) {
-		return CollectionUtils.exists(repository, e -> {
-			boolean b = false;
-			if( ((TUser)e).getAccessToken().equals(token)) {
-				TProfile p = ((TUser)e).getActiveProfile();
-				if(p!=null) {
-					List<TAuthorization> l = p.getAutorizations(securityId);
-					if(l!=null) {
-						List<String> actions = Arrays.asList(action);
-						b = l.stream()
-						.anyMatch(y->{
-							return actions.stream().anyMatch(x->{
-								return y.getType().trim().equals(x.trim());
-							});
-						});
-					}
-				}
-			};
-			return b;
-		});
+		TUserSession s = getSession(token);
+		return s!=null && s.isGranted(securityId, action);
 	}
-	
-	@Lock(LockType.WRITE)
+
 	public void remove(TAccessToken token) {
-		this.repository.removeIf(e -> {
-			return e.getAccessToken().equals(token);
-		});
+		if(token==null)
+			return;
+		TUserSession s = this.sessions.remove(token);
+		if(s!=null) {
+			this.logins.remove(getLoginKey(s.getUser()), token);
+			loggedOut.increment();
+		}
 	}
 
-	@Lock(LockType.WRITE) 
 	public void addUser(TUser user) {
-		if(this.repository.contains(user))
-			this.repository.remove(user);
 		if(user.getAccessToken()==null)
 			user.setAccessToken(new TAccessToken(UUID.randomUUID().toString()));
-		this.repository.add(user);
+		TAccessToken token = user.getAccessToken();
+		// a new active profile keeps the session creation time
+		TUserSession s = this.sessions.get(token);
+		this.sessions.put(token, s!=null
+				? new TUserSession(user, s.getCreated())
+						: new TUserSession(user));
+		if(s==null)
+			created.increment();
+		// only one session per user
+		TAccessToken old = this.logins.put(getLoginKey(user), token);
+		if(old!=null && !old.equals(token) && this.sessions.remove(old)!=null)
+			replaced.increment();
+	}
+
+	/**
+	 * Removes the idle and expired sessions and reloads the timeouts
+	 */
+	@Schedule(minute="*", hour="*", persistent=false)
+	public void evict() {
+		loadTimeouts();
+		long now = System.currentTimeMillis();
+		int n = 0;
+		for(Map.Entry<TAccessToken, TUserSession> e : sessions.entrySet())
+			if(evictIfExpired(e.getKey(), e.getValue(), now))
+				n++;
+		if(n>0)
+			logger.info("Sessions evicted: {}, active: {}", n, sessions.size());
+	}
+
+	/**
+	 * @return the active sessions, the sessions created, logged out,
+	 * replaced by a new login of the same user, evicted by idle timeout
+	 * and by max time, and the timeouts in minutes
+	 */
+	public Map<String, Long> getStatistics(){
+		Map<String, Long> m = new LinkedHashMap<>();
+		m.put("active", (long) sessions.size());
+		m.put("created", created.sum());
+		m.put("loggedOut", loggedOut.sum());
+		m.put("replaced", replaced.sum());
+		m.put("evictedIdle", evictedIdle.sum());
+		m.put("evictedExpired", evictedExpired.sum());
+		m.put("idleTimeoutMinutes", TimeUnit.MILLISECONDS.toMinutes(idleTimeout));
+		m.put("maxTimeMinutes", TimeUnit.MILLISECONDS.toMinutes(maxTime));
+		return m;
 	}
-	
+
+	private TUserSession getSession(TAccessToken token) {
+		TUserSession s = token!=null
+				? this.sessions.get(token)
+						: null;
+		if(s==null)
+			return null;
+		long now = System.currentTimeMillis();
+		if(evictIfExpired(token, s, now))
+			return null;
+		s.touch(now);
+		return s;
+	}
+
+	private boolean evictIfExpired(TAccessToken token, TUserSession s, long now) {
+		boolean expired = maxTime>0 && now - s.getCreated() > maxTime;
+		boolean idle = idleTimeout>0 && now - s.getLastAccess() > idleTimeout;
+		if(!expired && !idle)
+			return false;
+		// a new session with the same token is not removed
+		if(this.sessions.remove(token, s)) {
+			this.logins.remove(getLoginKey(s.getUser()), token);
+			if(expired)
+				evictedExpired.increment();
+			else
+				evictedIdle.increment();
+		}
+		return true;
+	}
+
+	private void loadTimeouts() {
+		try {
+			idleTimeout = TimeUnit.MINUTES.toMillis(NumberUtils.toLong(
+					cache.getValue(TSystemPropertie.SESSION_IDLE_TIMEOUT), DEFAULT_IDLE_TIMEOUT_MINUTES));
+			maxTime = TimeUnit.HOURS.toMillis(NumberUtils.toLong(
+					cache.getValue(TSystemPropertie.SESSION_MAX_TIME), DEFAULT_MAX_TIME_HOURS));
+		}catch(Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+	private String getLoginKey(TUser user) {
+		return String.valueOf(user.getLogin());
+	}
+
 }
@@ -0,0 +1,112 @@
+/**
+ * 
+ */
+package org.tedros.core.ejb.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.tedros.core.security.model.TAuthorization;
+import org.tedros.core.security.model.TProfile;
+import org.tedros.core.security.model.TUser;
+
+/**
+ * A logged user session kept by the {@link TSecurityService}.
+ * <p>
+ * The authorizations of the active profile are indexed 
+ * by security id when the session is created, so a permission 
+ * check is a map lookup instead of a scan of the profile.
+ * The creation and last access times are used to evict the 
+ * idle and expired sessions.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public final class TUserSession {
+
+	private final TUser user;
+	private final Map<String, Set<String>> grants;
+	private final long created;
+	private volatile long lastAccess;
+	
+	/**
+	 * @param user the logged user
+	 */
+	public TUserSession(TUser user) {
+		this(user, System.currentTimeMillis());
+	}
+	
+	/**
+	 * @param user the logged user
+	 * @param created the session creation time, kept when the active profile changes
+	 */
+	public TUserSession(TUser user, long created) {
+		this.user = user;
+		this.grants = buildGrants(user.getActiveProfile());
+		this.created = created;
+		this.lastAccess = System.currentTimeMillis();
+	}
+	
+	private static Map<String, Set<String>> buildGrants(TProfile p) {
+		if(p==null || p.getAutorizations()==null)
+			return Collections.emptyMap();
+		Map<String, Set<String>> m = new HashMap<>();
+		for(TAuthorization a : p.getAutorizations()) {
+			if(a.getSecurityId()==null || a.getType()==null)
+				continue;
+			m.computeIfAbsent(a.getSecurityId(), k -> new HashSet<>())
+			.add(a.getType().trim());
+		}
+		return Collections.unmodifiableMap(m);
+	}
+
+	/**
+	 * Checks if the active profile has one of the actions 
+	 * for the security id.
+	 * 
+	 * @param securityId the security id
+	 * @param actions the action types
+	 * @return true if one of the actions is granted
+	 */
+	public boolean isGranted(String securityId, String... actions) {
+		Set<String> s = grants.get(securityId);
+		if(s==null || actions==null)
+			return false;
+		for(String a : actions)
+			if(a!=null && s.contains(a.trim()))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Sets the last access time
+	 */
+	public void touch(long now) {
+		this.lastAccess = now;
+	}
+
+	/**
+	 * @return the creation time in millis
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * @return the last access time in millis
+	 */
+	public long getLastAccess() {
+		return lastAccess;
+	}
+
+	/**
+	 * @return the user
+	 */
+	public TUser getUser() {
+		return user;
+	}
+
+}
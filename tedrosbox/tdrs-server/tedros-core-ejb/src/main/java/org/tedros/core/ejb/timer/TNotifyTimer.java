@@ -3,8 +3,6 @@
  */
 package org.tedros.core.ejb.timer;
 
-import java.util.List;
-
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import jakarta.ejb.EJB;
@@ -42,6 +40,16 @@ public class TNotifyTimer {
 	
 	private static final String DEFAULT = "DEFAULT_TIMER";
 	
+	/**
+	 * Notifications dispatched by transaction in the queue sweep
+	 */
+	private static final int PAGE_SIZE = 100;
+	
+	/**
+	 * Minutes a dispatched notification waits the result before queued again
+	 */
+	private static final long DISPATCH_TIMEOUT = 30;
+	
 	private Timer defaultTimer;
 	
 	@Inject
@@ -105,40 +113,32 @@ public class TNotifyTimer {
     @Timeout
     public void timeout(Timer timer) {
     	if(DEFAULT.equals(timer.getInfo())) {
-    		List<TNotify> l = process();
-    		for(TNotify e : l)
-				try {
-					serv.save(e);
-				} catch (Exception e1) {
-					e1.printStackTrace();
-				}
+    		try {
+    			int n = serv.requeue(DISPATCH_TIMEOUT);
+    			if(n>0)
+    				System.out.println(n+" dispatched notifications without result queued again");
+    			// each page is claimed and sent in its own transaction
+    			while(serv.dispatch(PAGE_SIZE)==PAGE_SIZE);
+    		} catch (Exception e) {
+    			e.printStackTrace();
+    		}
     	}else {
     		try {
-				TNotify e = process((String)timer.getInfo());
-				serv.save(e);
+				process((String)timer.getInfo());
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
     	}        
     }
-    
-    private List<TNotify> process()  {
-		List<TNotify> l = serv.listToProcess();
-		if(l!=null && !l.isEmpty())
-			for(TNotify e : l) 
-				serv.queue(e);
-		return l;
-	}
 	
-	private TNotify process(String refCode) throws Exception {
+	private void process(String refCode) throws Exception {
 		if(refCode!=null) {
 			TNotify ex = new TNotify();
 			ex.setRefCode(refCode);
 			ex = serv.find(ex);
-			if(ex!=null) {
-				serv.queue(ex);
-				return ex;
-			}else
+			if(ex!=null) 
+				serv.dispatch(ex);
+			else
 				throw new TBusinessException("#{tedros.fxapi.message.no.data.found}");
 		}else
 			throw new IllegalArgumentException("The argument cannot be null");
@@ -15,17 +15,23 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 
 import org.tedros.core.domain.DomainSchema;
 import org.tedros.core.domain.DomainTables;
 import org.tedros.server.entity.TEntity;
+import org.tedros.server.query.TFetchPlan;
 
 /**
  * @author Davis Gordon
  *
  */
 @Entity
+@NamedEntityGraph(name="TAiCompletion."+TFetchPlan.SUMMARY, attributeNodes= {
+		@NamedAttributeNode("title"), @NamedAttributeNode("model"), @NamedAttributeNode("temperature"),
+		@NamedAttributeNode("maxTokens"), @NamedAttributeNode("user"), @NamedAttributeNode("userId")})
 @Table(name = DomainTables.ai_completion, schema = DomainSchema.tedros_core)
 public class TAiCompletion extends TEntity {
 
@@ -16,6 +16,8 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
@@ -24,12 +26,17 @@ import org.tedros.core.ai.model.image.TImageSize;
 import org.tedros.core.domain.DomainSchema;
 import org.tedros.core.domain.DomainTables;
 import org.tedros.server.entity.TEntity;
+import org.tedros.server.query.TFetchPlan;
 
 /**
  * @author Davis Gordon
  *
  */
 @Entity
+@NamedEntityGraph(name="TAiCreateImage."+TFetchPlan.SUMMARY, attributeNodes= {
+		@NamedAttributeNode("title"), @NamedAttributeNode("prompt"), @NamedAttributeNode("quantity"),
+		@NamedAttributeNode("size"), @NamedAttributeNode("format"), @NamedAttributeNode("user"),
+		@NamedAttributeNode("userId")})
 @Table(name = DomainTables.ai_create_image, schema = DomainSchema.tedros_core)
 public class TAiCreateImage extends TEntity {
 	
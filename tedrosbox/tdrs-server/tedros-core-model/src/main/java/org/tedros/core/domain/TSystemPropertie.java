@@ -21,6 +21,8 @@ public enum TSystemPropertie {
 	SMTP_PORT ("sys.smtp.port","Defines SMTP server port"),
 	SMTP_SOCKET_PORT ("sys.smtp.socket.port","Defines SMTP server socket port"),
 	NOTIFY_INTERVAL_TIMER ("sys.notify.interval","Defines the interval time in minutes for sending e-mails queued by the Notify module"),
+	SESSION_IDLE_TIMEOUT ("sys.session.idle","Defines the minutes a logged user session can stay idle, 0 to never expire. Default 0"),
+	SESSION_MAX_TIME ("sys.session.max","Defines the max hours of a logged user session, 0 to never expire. Default 0"),
 	OPENAI_KEY("sys.openai.key","Define the OpenAi Api key"),
 	OPENAI_MODEL("sys.openai.model","Define the OpenAi Model"),
 	OPENAI_PROMPT("sys.openai.prompt","Define the model system prompt instructions"),
@@ -16,6 +16,8 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
@@ -26,6 +28,7 @@ import org.tedros.common.model.TFileEntity;
 import org.tedros.core.domain.DomainSchema;
 import org.tedros.core.domain.DomainTables;
 import org.tedros.server.entity.TReceptiveEntity;
+import org.tedros.server.query.TFetchPlan;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -34,6 +37,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  *
  */
 @Entity
+@NamedEntityGraph(name="TNotify."+TFetchPlan.SUMMARY, attributeNodes= {
+		@NamedAttributeNode("refCode"), @NamedAttributeNode("subject"), @NamedAttributeNode("to"),
+		@NamedAttributeNode("scheduleTime"), @NamedAttributeNode("processedTime"), @NamedAttributeNode("action"),
+		@NamedAttributeNode("state")})
 @Table(name = DomainTables.notify, schema = DomainSchema.tedros_core)
 public class TNotify extends TReceptiveEntity {
 
@@ -10,6 +10,7 @@ package org.tedros.core.notify.model;
 public enum TState {
 	
 	QUEUED ("#{label.queued}"),
+	DISPATCHED ("#{label.dispatched}"),
 	SCHEDULED ("#{label.scheduled}"),
 	SENT ("#{label.sent}"),
 	CANCELED ("#{label.canceled}"),
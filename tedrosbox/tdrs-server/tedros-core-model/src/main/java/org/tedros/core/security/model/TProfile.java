@@ -12,14 +12,19 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
 import org.tedros.core.domain.DomainSchema;
 import org.tedros.core.domain.DomainTables;
 import org.tedros.server.entity.TVersionEntity;
+import org.tedros.server.query.TFetchPlan;
 
 @Entity
+@NamedEntityGraph(name="TProfile."+TFetchPlan.SUMMARY, attributeNodes= {
+		@NamedAttributeNode("name"), @NamedAttributeNode("description")})
 @Cacheable(false)
 @Table(name = DomainTables.profile, schema = DomainSchema.tedros_core)
 public class TProfile extends TVersionEntity {
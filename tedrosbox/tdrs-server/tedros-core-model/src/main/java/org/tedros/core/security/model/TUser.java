@@ -10,6 +10,8 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -17,9 +19,13 @@ import org.tedros.core.domain.DomainSchema;
 import org.tedros.core.domain.DomainTables;
 import org.tedros.server.entity.ITUser;
 import org.tedros.server.entity.TVersionEntity;
+import org.tedros.server.query.TFetchPlan;
 import org.tedros.server.security.TAccessToken;
 
 @Entity
+@NamedEntityGraph(name="TUser."+TFetchPlan.SUMMARY, attributeNodes= {
+		@NamedAttributeNode("name"), @NamedAttributeNode("login"), @NamedAttributeNode("active"),
+		@NamedAttributeNode("accessLogEnable")})
 @Cacheable(false)
 @Table(name = DomainTables.user, schema = DomainSchema.tedros_core)
 public class TUser extends TVersionEntity implements ITUser {
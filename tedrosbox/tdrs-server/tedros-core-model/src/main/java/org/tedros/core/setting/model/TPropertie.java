@@ -7,6 +7,8 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
@@ -15,8 +17,12 @@ import org.tedros.common.model.TFileEntity;
 import org.tedros.core.domain.DomainSchema;
 import org.tedros.core.domain.DomainTables;
 import org.tedros.server.entity.TVersionEntity;
+import org.tedros.server.query.TFetchPlan;
 
 @Entity
+@NamedEntityGraph(name="TPropertie."+TFetchPlan.SUMMARY, attributeNodes= {
+		@NamedAttributeNode("name"), @NamedAttributeNode("key"), @NamedAttributeNode("value"),
+		@NamedAttributeNode("description"), @NamedAttributeNode("type")})
 @Table(name = DomainTables.propertie, schema = DomainSchema.tedros_core,
 uniqueConstraints=@UniqueConstraint(columnNames = { "key", "type" }))
 public class TPropertie extends TVersionEntity {
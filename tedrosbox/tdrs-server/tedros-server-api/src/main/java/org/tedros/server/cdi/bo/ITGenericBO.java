@@ -4,6 +4,8 @@ import java.util.List;
 
 import org.tedros.server.cdi.eao.ITGenericEAO;
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.query.TKeyset;
+import org.tedros.server.query.TKeysetPage;
 import org.tedros.server.query.TSelect;
 
 public interface ITGenericBO<E extends ITEntity> {
@@ -18,6 +20,11 @@ public interface ITGenericBO<E extends ITEntity> {
 	 * */
 	public List<E> search(TSelect<E> sel, int firstResult, int maxResult);
 	
+	/**
+	 * Search for entities using keyset pagination
+	 * */
+	public TKeysetPage<E> search(TSelect<E> sel, TKeyset keyset, int maxResult);
+	
 	/**
 	 * Count a searched entities
 	 * */
@@ -51,6 +58,16 @@ public interface ITGenericBO<E extends ITEntity> {
 	 * Remove uma entidade
 	 * */
 	public void remove(E entidade)throws Exception;
+	
+	/**
+	 * Salva as entidades na mesma transacao
+	 * */
+	public List<E> saveAll(List<E> entidades)throws Exception;
+	
+	/**
+	 * Remove as entidades na mesma transacao
+	 * */
+	public void removeAll(List<E> entidades)throws Exception;
 	/**
 	 * Retorna uma lista com todas as entidades persistidas
 	 * */
@@ -59,10 +76,18 @@ public interface ITGenericBO<E extends ITEntity> {
 	 * Retorna uma lista paginada
 	 * */
 	public List<E> pageAll(E entidade, int firstResult, int maxResult, boolean orderByAsc)throws Exception;
+	/**
+	 * Retorna uma lista paginada por keyset
+	 * */
+	public TKeysetPage<E> pageAll(E entidade, TKeyset keyset, int maxResult, boolean orderByAsc)throws Exception;
 	/**
 	 * Retorna uma pesquisa paginada
 	 * */
 	public List<E> findAll(E entity, int firstResult, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception;
+	/**
+	 * Retorna uma pesquisa paginada por keyset
+	 * */
+	public TKeysetPage<E> findAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception;
 
 	/**
 	 * Retorna a quantidade de registros encontrados
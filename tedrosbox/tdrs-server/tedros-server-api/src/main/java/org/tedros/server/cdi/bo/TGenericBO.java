@@ -1,9 +1,12 @@
 package org.tedros.server.cdi.bo;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.tedros.server.cdi.eao.ITGenericEAO;
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.query.TKeyset;
+import org.tedros.server.query.TKeysetPage;
 import org.tedros.server.query.TSelect;
 
 public abstract  class TGenericBO<E extends ITEntity> implements ITGenericBO<E> {
@@ -24,6 +27,14 @@ public abstract  class TGenericBO<E extends ITEntity> implements ITGenericBO<E>
 		return getEao().search(sel, firstResult, maxResult);
 	}
 	
+	/* (non-Javadoc)
+	 * @see org.tedros.server.cdi.bo.ITGenericBO#search(org.tedros.server.query.TSelect, org.tedros.server.query.TKeyset, int)
+	 */
+	@Override
+	public TKeysetPage<E> search(TSelect<E> sel, TKeyset keyset, int maxResult) {
+		return getEao().search(sel, keyset, maxResult);
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.tedros.server.cdi.bo.ITGenericBO#countSearch(org.tedros.server.query.TSelect)
 	 */
@@ -69,6 +80,26 @@ public abstract  class TGenericBO<E extends ITEntity> implements ITGenericBO<E>
 	public void remove(E entidade)throws Exception{
 		getEao().remove(entidade);
 	}
+	/**
+	 * Salva as entidades na mesma transacao, 
+	 * as instrucoes sao enviadas no flush ao final 
+	 * permitindo o agrupamento (batch writing) do JDBC
+	 * */
+	public List<E> saveAll(List<E> entidades)throws Exception{
+		List<E> lst = new ArrayList<>(entidades.size());
+		for(E e : entidades)
+			lst.add(save(e));
+		getEao().getEntityManager().flush();
+		return lst;
+	}
+	/**
+	 * Remove as entidades na mesma transacao
+	 * */
+	public void removeAll(List<E> entidades)throws Exception{
+		for(E e : entidades)
+			remove(e);
+		getEao().getEntityManager().flush();
+	}
 	/**
 	 * Retorna uma lista com todas as entidades persistidas
 	 * */
@@ -81,6 +112,12 @@ public abstract  class TGenericBO<E extends ITEntity> implements ITGenericBO<E>
 	public List<E> pageAll(E entidade, int firstResult, int maxResult, boolean orderByAsc)throws Exception{
 		return getEao().pageAll(entidade, firstResult, maxResult, orderByAsc);
 	}
+	/**
+	 * Retorna uma lista paginada por keyset
+	 * */
+	public TKeysetPage<E> pageAll(E entidade, TKeyset keyset, int maxResult, boolean orderByAsc)throws Exception{
+		return getEao().pageAll(entidade, keyset, maxResult, orderByAsc);
+	}
 	/**
 	 * Retorna a quantidade de registros cadastrados
 	 * */
@@ -93,6 +130,11 @@ public abstract  class TGenericBO<E extends ITEntity> implements ITGenericBO<E>
 		return getEao().findAll(entity, firstResult, maxResult, orderByAsc, containsAnyKeyWords);
 	}
 
+	@Override
+	public TKeysetPage<E> findAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords) throws Exception {
+		return getEao().findAll(entity, keyset, maxResult, orderByAsc, containsAnyKeyWords);
+	}
+
 	@Override
 	public Integer countFindAll(E entity, boolean containsAnyKeyWords) throws Exception {
 		return getEao().countFindAll(entity, containsAnyKeyWords);
@@ -0,0 +1,187 @@
+/**
+ * 
+ */
+package org.tedros.server.cdi.bo;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.tedros.server.exception.TBusinessException;
+import org.tedros.server.result.TImportProgress;
+import org.tedros.server.result.TImportProgress.TImportState;
+import org.tedros.server.result.TImportSummary;
+
+/**
+ * The checkpoint of a parallel import.
+ * <p>
+ * Records the committed chunks and the progress of an import identified 
+ * by the import id and owned by the user who started it. Starting again 
+ * a failed import of the same file with the same id resumes it, the 
+ * committed chunks are skipped.
+ * The checkpoints are kept in memory while the server runs and the 
+ * finished ones are removed after {@link #RETENTION_HOURS} hours, 
+ * they are not shared between the nodes of a cluster, a failed import 
+ * can only be resumed in the node that started it.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public final class TImportCheckpoint {
+	
+	/**
+	 * The hours a finished checkpoint is kept
+	 */
+	public static final int RETENTION_HOURS = 24;
+	
+	private static final Map<String, TImportCheckpoint> CHECKPOINTS = new ConcurrentHashMap<>();
+
+	private final Long owner;
+	private final String importId;
+	private final long fileKey;
+	private final Set<Integer> committed = new HashSet<>();
+	private TImportSummary summary = new TImportSummary();
+	private TImportState state;
+	private long startTime;
+	private long endTime;
+	private long readRows;
+	private int failedChunks;
+	private String message;
+	
+	private TImportCheckpoint(Long owner, String importId, long fileKey) {
+		this.owner = owner;
+		this.importId = importId;
+		this.fileKey = fileKey;
+	}
+	
+	/**
+	 * Starts or resumes an import
+	 * 
+	 * @param owner the id of the user starting the import
+	 * @param importId the import id
+	 * @param fileKey the file checksum
+	 * @return the checkpoint
+	 * @throws TBusinessException if the import id belongs to another user, 
+	 * the import is running or the file was already imported
+	 */
+	public static TImportCheckpoint start(Long owner, String importId, long fileKey) {
+		evict();
+		TImportCheckpoint cp = CHECKPOINTS.compute(importId, (k, c) -> {
+			if(c!=null && !Objects.equals(c.owner, owner))
+				throw new TBusinessException("The import id "+importId+" is used by another user!");
+			return c!=null && c.fileKey==fileKey ? c : new TImportCheckpoint(owner, importId, fileKey);
+		});
+		cp.begin();
+		return cp;
+	}
+	
+	/**
+	 * @param owner the id of the user who started the import
+	 * @param importId the import id
+	 * @return the checkpoint or null if not found or started by another user
+	 */
+	public static TImportCheckpoint get(Long owner, String importId) {
+		TImportCheckpoint cp = importId!=null ? CHECKPOINTS.get(importId) : null;
+		return cp!=null && Objects.equals(cp.owner, owner) ? cp : null;
+	}
+	
+	private static void evict() {
+		long limit = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(RETENTION_HOURS);
+		CHECKPOINTS.values().removeIf(c -> c.isFinishedBefore(limit));
+	}
+	
+	private synchronized boolean isFinishedBefore(long time) {
+		return state!=TImportState.RUNNING && endTime<time;
+	}
+	
+	private synchronized void begin() {
+		if(state==TImportState.RUNNING)
+			throw new TBusinessException("The import "+importId+" is running!");
+		if(state==TImportState.DONE)
+			throw new TBusinessException("The file was already imported with the id "+importId+"!");
+		state = TImportState.RUNNING;
+		startTime = System.currentTimeMillis();
+		readRows = 0;
+		failedChunks = 0;
+		message = null;
+	}
+	
+	/**
+	 * @param chunk the chunk index
+	 * @return true if the chunk was committed
+	 */
+	public synchronized boolean isCommitted(int chunk) {
+		return committed.contains(chunk);
+	}
+	
+	/**
+	 * @param rows the rows read from the file
+	 */
+	public synchronized void read(int rows) {
+		readRows += rows;
+	}
+	
+	/**
+	 * Records a committed chunk
+	 * 
+	 * @param chunk the chunk index
+	 * @param result the chunk summary
+	 */
+	public synchronized void commit(int chunk, TImportSummary result) {
+		committed.add(chunk);
+		summary.add(result);
+	}
+	
+	/**
+	 * Records a failure
+	 * 
+	 * @param chunk the chunk index or -1 if the failure is not in a chunk
+	 * @param error the failure message
+	 */
+	public synchronized void fail(int chunk, String error) {
+		if(chunk>=0)
+			failedChunks++;
+		if(message==null)
+			message = (chunk>=0 ? "Chunk "+chunk+" rolled back: " : "") + error;
+	}
+	
+	/**
+	 * Finishes the import
+	 */
+	public synchronized void finish() {
+		endTime = System.currentTimeMillis();
+		state = message==null ? TImportState.DONE : TImportState.FAILED;
+		if(state==TImportState.FAILED)
+			message += " (" + failedChunks + " chunk(s) failed, " + committed.size()
+				+ " committed, import again with the id " + importId + " to resume)";
+	}
+	
+	/**
+	 * @return a copy of the summary of the committed chunks
+	 */
+	public synchronized TImportSummary getSummary() {
+		TImportSummary s = new TImportSummary();
+		s.add(summary);
+		s.setElapsedTime((state==TImportState.RUNNING ? System.currentTimeMillis() : endTime) - startTime);
+		return s;
+	}
+	
+	/**
+	 * @return the progress
+	 */
+	public synchronized TImportProgress toProgress() {
+		long elapsed = (state==TImportState.RUNNING ? System.currentTimeMillis() : endTime) - startTime;
+		return new TImportProgress(importId, state, readRows, summary.getImportedRows(), 
+				summary.getRejectedRows(), committed.size(), failedChunks, elapsed, message);
+	}
+	
+	/**
+	 * @return the importId
+	 */
+	public String getImportId() {
+		return importId;
+	}
+}
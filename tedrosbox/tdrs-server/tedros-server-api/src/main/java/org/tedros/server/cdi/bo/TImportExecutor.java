@@ -0,0 +1,149 @@
+/**
+ * 
+ */
+package org.tedros.server.cdi.bo;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.tedros.server.annotation.THeaderType;
+import org.tedros.server.cdi.bo.TImportRowReader.TRowHandler;
+import org.tedros.server.result.TImportSummary;
+
+/**
+ * Splits the rows of a file in chunks and imports them in parallel.
+ * <p>
+ * Each chunk is sent to a {@link TChunkImporter}, usually an asynchronous 
+ * EJB method persisting the chunk in its own transaction. At most 
+ * parallelism chunks are in flight, when the window is full the reader 
+ * waits for the oldest one, so the memory used is bounded by 
+ * parallelism * chunkSize rows. The result of each chunk is recorded 
+ * in the {@link TImportCheckpoint} and the chunks already committed 
+ * by a previous run are skipped.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TImportExecutor implements TRowHandler {
+	
+	/**
+	 * Imports a chunk of rows
+	 */
+	@FunctionalInterface
+	public interface TChunkImporter {
+		/**
+		 * @param header the file header row or null
+		 * @param rows the row numbers
+		 * @param values the row values
+		 * @return the chunk summary
+		 */
+		Future<TImportSummary> importChunk(String[] header, long[] rows, String[][] values);
+	}
+	
+	private final THeaderType header;
+	private final int chunkSize;
+	private final int parallelism;
+	private final TImportCheckpoint checkpoint;
+	private final TChunkImporter importer;
+	private final Deque<TPending> pending = new ArrayDeque<>();
+	
+	private boolean first = true;
+	private String[] headerRow;
+	private int chunk;
+	private long[] rows;
+	private String[][] values;
+	private int size;
+	
+	/**
+	 * @param header the header type
+	 * @param chunkSize the rows per chunk
+	 * @param parallelism the max chunks in flight
+	 * @param checkpoint the import checkpoint
+	 * @param importer the chunk importer
+	 */
+	public TImportExecutor(THeaderType header, int chunkSize, int parallelism, 
+			TImportCheckpoint checkpoint, TChunkImporter importer) {
+		this.header = header;
+		this.chunkSize = chunkSize;
+		this.parallelism = parallelism;
+		this.checkpoint = checkpoint;
+		this.importer = importer;
+		newChunk();
+	}
+
+	@Override
+	public void row(long row, String[] vals) throws Exception {
+		if(first) {
+			first = false;
+			if(!header.equals(THeaderType.COLUMN_INDEX)) {
+				headerRow = vals;
+				return;
+			}
+		}
+		rows[size] = row;
+		values[size] = vals;
+		if(++size==chunkSize)
+			submit();
+	}
+	
+	/**
+	 * Submits the last chunk and waits for all chunks
+	 */
+	public void finish() {
+		submit();
+		while(!pending.isEmpty())
+			complete(pending.poll());
+	}
+	
+	private void submit() {
+		if(size==0)
+			return;
+		int idx = chunk++;
+		checkpoint.read(size);
+		if(!checkpoint.isCommitted(idx)) {
+			if(pending.size()>=parallelism)
+				complete(pending.poll());
+			long[] r = size==chunkSize ? rows : Arrays.copyOf(rows, size);
+			String[][] v = size==chunkSize ? values : Arrays.copyOf(values, size);
+			try {
+				pending.add(new TPending(idx, importer.importChunk(headerRow, r, v)));
+			}catch(RuntimeException e) {
+				checkpoint.fail(idx, e.getMessage());
+			}
+		}
+		newChunk();
+	}
+	
+	private void complete(TPending p) {
+		try {
+			checkpoint.commit(p.chunk, p.result.get());
+		} catch (ExecutionException e) {
+			Throwable t = e.getCause()!=null ? e.getCause() : e;
+			while(t.getCause()!=null && t.getMessage()==null)
+				t = t.getCause();
+			checkpoint.fail(p.chunk, t.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			checkpoint.fail(p.chunk, "interrupted");
+		}
+	}
+	
+	private void newChunk() {
+		rows = new long[chunkSize];
+		values = new String[chunkSize][];
+		size = 0;
+	}
+	
+	private static class TPending {
+		private final int chunk;
+		private final Future<TImportSummary> result;
+		
+		TPending(int chunk, Future<TImportSummary> result) {
+			this.chunk = chunk;
+			this.result = result;
+		}
+	}
+}
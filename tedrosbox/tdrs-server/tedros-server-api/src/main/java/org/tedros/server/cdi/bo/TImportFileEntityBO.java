@@ -20,8 +20,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.persistence.EntityManager;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
@@ -32,13 +34,18 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.tedros.server.annotation.TCaseSensitive;
-import org.tedros.server.annotation.TImportInfo;
 import org.tedros.server.annotation.TField;
 import org.tedros.server.annotation.THeaderType;
+import org.tedros.server.annotation.TImportInfo;
+import org.tedros.server.cdi.bo.TImportExecutor.TChunkImporter;
+import org.tedros.server.cdi.bo.TImportRowReader.TRowHandler;
 import org.tedros.server.entity.ITEntity;
 import org.tedros.server.entity.ITFileEntity;
 import org.tedros.server.exception.TBusinessException;
 import org.tedros.server.model.ITImportModel;
+import org.tedros.server.result.TImportProgress;
+import org.tedros.server.result.TImportSummary;
+import org.tedros.server.util.TLoggerUtil;
 import org.tedros.server.util.TModelInfoUtil;
 
 /**
@@ -47,6 +54,14 @@ import org.tedros.server.util.TModelInfoUtil;
  */
 @RequestScoped
 public abstract class TImportFileEntityBO<E extends ITEntity>  {
+	
+	private static final TLoggerUtil LOGGER = TLoggerUtil.create(TImportFileEntityBO.class);
+	
+	/**
+	 * The default number of rows persisted before flush and 
+	 * clear the persistence context in the streaming mode
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 500;
 
 	protected abstract Class<E> getEntityClass();
 	
@@ -67,12 +82,7 @@ public abstract class TImportFileEntityBO<E extends ITEntity>  {
 
 		Class<E> clazz = this.getEntityClass();
 		
-		TImportInfo eRule = clazz.getAnnotation(TImportInfo.class);
-		
-		if(eRule==null)
-			throw new RuntimeException("The entity "+clazz.getSimpleName()+ 
-					" must be setting with @TImportInfo annotation "
-					+ "and the desired fields with @TField");
+		TImportInfo eRule = getImportInfo(clazz);
 		
 		//TFileType[] types = eRule.fileType();
 		//int totalCols = eRule.totalColumn();
@@ -206,6 +216,266 @@ public abstract class TImportFileEntityBO<E extends ITEntity>  {
 	
 	}
 
+	/**
+	 * Imports the file in streaming mode.
+	 * <p>
+	 * The rows are read one at a time by a {@link TImportRowReader}, 
+	 * converted by a {@link TImportRowBinder} compiled once for the file 
+	 * header and persisted with the business object, the persistence 
+	 * context is flushed and cleared every {@link TImportInfo#batchSize()} 
+	 * rows so the memory used does not grow with the file size.
+	 * A row with an invalid value or rejected by a business rule 
+	 * ({@link TBusinessException}) is reported in the summary and 
+	 * the import goes on, any other error stops the import.
+	 * </p>
+	 * <p>
+	 * The rows are created by {@link #processRow(long, String[])}, a subclass 
+	 * overriding {@link #processXlsRow(Row)} imports the excel files with 
+	 * {@link #importFile(ITFileEntity)} as the hook needs the sheet rows.
+	 * </p>
+	 * @param entity the file
+	 * @return the import summary
+	 */
+	public TImportSummary streamImport(final ITFileEntity entity) {
+		long start = System.currentTimeMillis();
+		Class<E> clazz = this.getEntityClass();
+		TImportInfo eRule = getImportInfo(clazz);
+		
+		if(isExcel(entity) && overridesXlsRow()) {
+			TImportSummary summary = new TImportSummary();
+			summary.imported(importFile(entity).size());
+			summary.setElapsedTime(System.currentTimeMillis() - start);
+			LOGGER.info("Import of {} finished with processXlsRow: {}", clazz.getSimpleName(), summary);
+			return summary;
+		}
+		
+		TImportRowReader reader = TImportRowReader.create(entity.getFileExtension(), eRule.xlsSheetName());
+		TBatchHandler handler = new TBatchHandler(clazz, eRule.header(), 
+				eRule.batchSize()>0 ? eRule.batchSize() : DEFAULT_BATCH_SIZE);
+		try(ByteArrayInputStream is = new ByteArrayInputStream(entity.getByteEntity().getBytes())) {
+			reader.read(is, handler);
+			handler.flush();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		
+		TImportSummary summary = handler.summary;
+		summary.setElapsedTime(System.currentTimeMillis() - start);
+		LOGGER.info("Import of {} finished: {}", clazz.getSimpleName(), summary);
+		return summary;
+	}
+	
+	/**
+	 * Imports the file in parallel chunks.
+	 * <p>
+	 * The rows are read as in {@link #streamImport(ITFileEntity)} and 
+	 * split by a {@link TImportExecutor} in chunks of 
+	 * {@link TImportInfo#batchSize()} rows, each chunk is sent to the 
+	 * importer, which must convert and persist it in its own transaction 
+	 * calling {@link #importChunk(String[], long[], String[][])}, 
+	 * up to {@link TImportInfo#parallelism()} chunks at the same time.
+	 * The progress and the committed chunks are recorded in a 
+	 * {@link TImportCheckpoint}, importing the same file with the same 
+	 * import id after a failure skips the committed chunks.
+	 * </p>
+	 * <p>
+	 * The excel files are refused if the subclass overrides 
+	 * {@link #processXlsRow(Row)}, the chunks only have the row values,
+	 * override {@link #processRow(long, String[])} instead.
+	 * </p>
+	 * @param owner the id of the user starting the import
+	 * @param importId the import id
+	 * @param entity the file
+	 * @param importer the chunk importer
+	 * @return the summary of the committed chunks
+	 */
+	public TImportSummary parallelImport(Long owner, String importId, final ITFileEntity entity, TChunkImporter importer) {
+		Class<E> clazz = this.getEntityClass();
+		TImportInfo eRule = getImportInfo(clazz);
+		if(isExcel(entity) && overridesXlsRow())
+			throw new IllegalStateException("The parallel import of excel files does not call the processXlsRow of "
+					+getClass().getSimpleName()+", override processRow or use the stream import");
+		
+		byte[] bytes = entity.getByteEntity().getBytes();
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		TImportCheckpoint cp = TImportCheckpoint.start(owner, importId, crc.getValue());
+		
+		TImportRowReader reader = TImportRowReader.create(entity.getFileExtension(), eRule.xlsSheetName());
+		TImportExecutor executor = new TImportExecutor(eRule.header(), 
+				eRule.batchSize()>0 ? eRule.batchSize() : DEFAULT_BATCH_SIZE, 
+				Math.max(eRule.parallelism(), 1), cp, importer);
+		try(ByteArrayInputStream is = new ByteArrayInputStream(bytes)) {
+			reader.read(is, executor);
+		} catch (Exception e) {
+			LOGGER.error("Error reading the file of the import {}: {}", importId, e.getMessage());
+			cp.fail(-1, e.getMessage());
+		} finally {
+			executor.finish();
+			cp.finish();
+		}
+		
+		TImportSummary summary = cp.getSummary();
+		LOGGER.info("Parallel import {} of {} finished: {}", importId, clazz.getSimpleName(), cp.toProgress());
+		return summary;
+	}
+	
+	/**
+	 * Converts and persists a chunk of rows of a parallel import,
+	 * must run in its own transaction.
+	 * 
+	 * @param header the file header row or null
+	 * @param rows the row numbers
+	 * @param values the row values
+	 * @return the chunk summary
+	 */
+	public TImportSummary importChunk(String[] header, long[] rows, String[][] values) {
+		Class<E> clazz = this.getEntityClass();
+		TImportInfo eRule = getImportInfo(clazz);
+		TImportRowBinder<E> binder = createRowBinder(clazz, eRule.header(), 
+				header!=null ? header : new String[0]);
+		TImportSummary summary = new TImportSummary();
+		try {
+			for(int i=0; i<rows.length; i++)
+				importRow(binder, rows[i], values[i], summary);
+			getBusinessObject().getEao().getEntityManager().flush();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		return summary;
+	}
+	
+	/**
+	 * @param owner the id of the user who started the import
+	 * @param importId the import id
+	 * @return the progress of the parallel import or null
+	 */
+	public TImportProgress getImportProgress(Long owner, String importId) {
+		TImportCheckpoint cp = TImportCheckpoint.get(owner, importId);
+		return cp!=null ? cp.toProgress() : null;
+	}
+	
+	/**
+	 * Creates the row binder for the file header
+	 * 
+	 * @param clazz the entity class
+	 * @param header the header type
+	 * @param row0Cols the first row of the file
+	 * @return the binder
+	 */
+	protected TImportRowBinder<E> createRowBinder(Class<E> clazz, THeaderType header, String[] row0Cols) {
+		String[] cols = new String[row0Cols.length];
+		for(int i=0; i<cols.length; i++)
+			cols[i] = row0Cols[i]!=null ? row0Cols[i].toLowerCase().trim() : "";
+		Map<Integer, Field> columns = new HashMap<>();
+		prepareHeaderAndFields(clazz, header, cols, columns, new ArrayList<>());
+		return new TImportRowBinder<>(clazz, columns, this);
+	}
+	
+	/**
+	 * Override to create the entity of a row in the streaming and parallel modes,
+	 * return null to use the default conversion. 
+	 * Calls {@link #processCsvRow(String[])} by default.
+	 * 
+	 * @param row the row number
+	 * @param values the row values
+	 * @return the entity or null
+	 */
+	protected E processRow(long row, String[] values) {
+		return processCsvRow(values);
+	}
+	
+	private boolean isExcel(ITFileEntity entity) {
+		String ext = String.valueOf(entity.getFileExtension()).toLowerCase();
+		return ext.equals("xls") || ext.equals("xlsx");
+	}
+	
+	/**
+	 * @return true if a subclass declares processXlsRow, 
+	 * the cdi proxies are not considered
+	 */
+	private boolean overridesXlsRow() {
+		for(Class<?> c = getClass(); c!=null && c!=TImportFileEntityBO.class; c = c.getSuperclass()) {
+			if(c.isSynthetic() || c.getName().contains("$$"))
+				continue;
+			try {
+				c.getDeclaredMethod("processXlsRow", Row.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// not declared in this class
+			}
+		}
+		return false;
+	}
+	
+	private boolean importRow(TImportRowBinder<E> binder, long row, String[] values, 
+			TImportSummary summary) throws Exception {
+		try {
+			E model = processRow(row, values);
+			if(model==null)
+				model = binder.bind(row, values);
+			getBusinessObject().save(model);
+		}catch(TBusinessException e) {
+			summary.rejected(row, e.getMessage());
+			return false;
+		}
+		summary.imported();
+		return true;
+	}
+	
+	private TImportInfo getImportInfo(Class<E> clazz) {
+		TImportInfo eRule = clazz.getAnnotation(TImportInfo.class);
+		if(eRule==null)
+			throw new RuntimeException("The entity "+clazz.getSimpleName()+ 
+					" must be setting with @TImportInfo annotation "
+					+ "and the desired fields with @TField");
+		return eRule;
+	}
+	
+	/**
+	 * Persists the rows in batches
+	 */
+	private class TBatchHandler implements TRowHandler {
+		
+		private final Class<E> clazz;
+		private final THeaderType header;
+		private final int batchSize;
+		private final EntityManager em;
+		private final TImportSummary summary = new TImportSummary();
+		private TImportRowBinder<E> binder;
+		private int pending;
+		
+		TBatchHandler(Class<E> clazz, THeaderType header, int batchSize) {
+			this.clazz = clazz;
+			this.header = header;
+			this.batchSize = batchSize;
+			this.em = getBusinessObject().getEao().getEntityManager();
+		}
+
+		@Override
+		public void row(long row, String[] values) throws Exception {
+			if(binder==null) {
+				binder = createRowBinder(clazz, header, values);
+				if(!header.equals(THeaderType.COLUMN_INDEX))
+					return;
+			}
+			if(importRow(binder, row, values, summary) && ++pending==batchSize)
+				flush();
+		}
+		
+		void flush() {
+			if(pending>0) {
+				em.flush();
+				em.clear();
+				pending = 0;
+			}
+		}
+	}
+
 	protected E processCsvRow(String[] rowCols) {
 		return null;
 	}
@@ -0,0 +1,178 @@
+/**
+ * 
+ */
+package org.tedros.server.cdi.bo;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.DateUtils;
+import org.tedros.server.annotation.TCaseSensitive;
+import org.tedros.server.annotation.TField;
+import org.tedros.server.entity.ITEntity;
+import org.tedros.server.exception.TBusinessException;
+
+/**
+ * Converts the values of a file row into a new entity.
+ * <p>
+ * The setters and the number constructors of the mapped columns 
+ * are resolved once as method handles when the binder is created, 
+ * so binding a row costs only the conversion and the invocations.
+ * A conversion error or a blank required value raises a 
+ * {@link TBusinessException} with the row, field and column.
+ * </p>
+ * @author Davis Gordon
+ *
+ * @param <E>
+ */
+public class TImportRowBinder<E extends ITEntity> {
+	
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType NUMBER_TYPE = MethodType.methodType(Object.class, String.class);
+	
+	private final MethodHandle constructor;
+	private final TColumn[] columns;
+	
+	/**
+	 * @param clazz the entity class
+	 * @param columns the file column index and the entity field
+	 * @param bo the import business object, used to prepare number values
+	 */
+	public TImportRowBinder(Class<E> clazz, Map<Integer, Field> columns, TImportFileEntityBO<E> bo) {
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		try {
+			this.constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class))
+					.asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new RuntimeException("The entity "+clazz.getSimpleName()+" must have a public no-arg constructor", e);
+		}
+		List<TColumn> lst = new ArrayList<>(columns.size());
+		columns.forEach((idx, f) -> lst.add(new TColumn(lookup, clazz, idx, f, bo)));
+		this.columns = lst.toArray(new TColumn[0]);
+	}
+	
+	/**
+	 * Creates a new entity with the row values
+	 * 
+	 * @param row the row number
+	 * @param values the row values
+	 * @return the entity
+	 * @throws TBusinessException if a value cannot be converted
+	 */
+	@SuppressWarnings("unchecked")
+	public E bind(long row, String[] values) {
+		E model;
+		try {
+			model = (E) constructor.invokeExact();
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+		for(TColumn c : columns)
+			c.bind(model, row, c.index<values.length ? values[c.index] : "");
+		return model;
+	}
+	
+	/**
+	 * A compiled column
+	 */
+	private static class TColumn {
+		
+		private static final int NUMBER = 0;
+		private static final int DATE = 1;
+		private static final int STRING = 2;
+		
+		private final int index;
+		private final Field field;
+		private final TField rule;
+		private final int kind;
+		private final boolean decimal;
+		private final MethodHandle setter;
+		private final MethodHandle number;
+		private final TImportFileEntityBO<?> bo;
+		
+		TColumn(MethodHandles.Lookup lookup, Class<?> clazz, int index, Field f, TImportFileEntityBO<?> bo) {
+			this.index = index;
+			this.field = f;
+			this.bo = bo;
+			this.rule = f.getAnnotation(TField.class);
+			Class<?> type = f.getType();
+			this.decimal = type==Double.class || type==BigDecimal.class || type==Float.class;
+			try {
+				this.setter = lookup.unreflect(clazz.getMethod("set"+StringUtils.capitalize(f.getName()), type))
+						.asType(SETTER_TYPE);
+				if(TImportFileEntityBO.isTypeOf(type, Number.class)) {
+					this.kind = NUMBER;
+					Class<?> numClass = rule.numberType() == Number.class ? type : rule.numberType();
+					this.number = lookup.findConstructor(numClass, MethodType.methodType(void.class, String.class))
+							.asType(NUMBER_TYPE);
+				}else if(type == Date.class) {
+					this.kind = DATE;
+					this.number = null;
+				}else if(type == String.class) {
+					this.kind = STRING;
+					this.number = null;
+				}else 
+					throw new RuntimeException("Incompatible type "+type.getSimpleName()
+						+" of the field "+f.getName()+" in the entity "+clazz.getSimpleName());
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new RuntimeException("Cannot import the file, the field "+f.getName()
+					+" in the entity "+clazz.getSimpleName()+" must have a public setter", e);
+			}
+		}
+		
+		void bind(Object model, long row, String value) {
+			if(StringUtils.isBlank(value)) {
+				if(rule.required())
+					throw error(row, value, "required value");
+				if(kind!=STRING)
+					return;
+			}
+			Object v;
+			try {
+				switch(kind) {
+				case NUMBER:
+					if(!decimal && value.contains("."))
+						value = value.substring(0, value.indexOf("."));
+					v = number.invokeExact(value);
+					break;
+				case DATE:
+					v = DateUtils.parseDate(value, rule.datePattern());
+					break;
+				default:
+					if(rule.numberType()!=Number.class)
+						value = bo.prepareNumberValue(rule.numberType(), value);
+					if(!rule.caseSensitive().equals(TCaseSensitive.NONE))
+						value = rule.caseSensitive().equals(TCaseSensitive.LOWER) 
+						? value.toLowerCase(Locale.ROOT)
+								: value.toUpperCase(Locale.ROOT);
+					v = value;
+				}
+			}catch(Throwable e) {
+				throw error(row, value, e.getMessage());
+			}
+			try {
+				setter.invokeExact(model, v);
+			} catch (Throwable e) {
+				throw error(row, value, e.getMessage());
+			}
+		}
+		
+		private TBusinessException error(long row, String value, String detail) {
+			return new TBusinessException("Error at Row "+row+" field "+field.getName()
+				+" of type "+field.getType().getSimpleName()
+				+(StringUtils.isNoneBlank(rule.column())?" Column: "+rule.column():"")
+				+" while convert "+value+" to "+field.getType().getSimpleName()
+				+(kind==DATE ? " with pattern "+rule.datePattern() : "")
+				+", detail: "+detail);
+		}
+	}
+}
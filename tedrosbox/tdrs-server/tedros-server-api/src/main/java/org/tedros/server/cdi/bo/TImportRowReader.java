@@ -0,0 +1,252 @@
+/**
+ * 
+ */
+package org.tedros.server.cdi.bo;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.tedros.server.exception.TBusinessException;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Reads the rows of an import file pushing each one, 
+ * as an array of strings, to a {@link TRowHandler}.
+ * <p>
+ * CSV files are read line by line and XLSX files with the 
+ * POI event api (SAX), only the current row is kept in memory. 
+ * XLS files have no streaming reader and are loaded 
+ * with the usermodel api.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public abstract class TImportRowReader {
+	
+	/**
+	 * The CSV column separator
+	 */
+	public static final String CSV_SEPARATOR = ";";
+	
+	/**
+	 * Receives the file rows
+	 */
+	@FunctionalInterface
+	public interface TRowHandler {
+		/**
+		 * @param row the row number, starting at 0
+		 * @param values the cell values, a missing cell is an empty string
+		 * @throws Exception to stop the reading
+		 */
+		void row(long row, String[] values) throws Exception;
+	}
+	
+	/**
+	 * Reads all rows 
+	 * 
+	 * @param is the file content
+	 * @param handler the row handler
+	 * @throws Exception
+	 */
+	public abstract void read(InputStream is, TRowHandler handler) throws Exception;
+	
+	/**
+	 * Returns the reader for the file extension
+	 * 
+	 * @param ext the file extension (csv, xls or xlsx)
+	 * @param sheetName the sheet name or index, blank for the first sheet
+	 * @return the reader
+	 */
+	public static TImportRowReader create(String ext, String sheetName) {
+		switch(ext==null ? "" : ext.toLowerCase()) {
+		case "csv": 
+			return new TCsvReader();
+		case "xlsx": 
+			return new TXlsxReader(sheetName);
+		case "xls": 
+			return new TXlsReader(sheetName);
+		default:
+			throw new TBusinessException("Cannot import the file, the extension "+ext+" is not supported!");
+		}
+	}
+	
+	/**
+	 * Reads CSV files line by line
+	 */
+	static class TCsvReader extends TImportRowReader {
+
+		@Override
+		public void read(InputStream is, TRowHandler handler) throws Exception {
+			try(BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+				long row = 0;
+				for(String line; (line = br.readLine()) != null; )
+					handler.row(row++, line.split(CSV_SEPARATOR));
+			}
+		}
+	}
+	
+	/**
+	 * Reads XLSX files with the event api
+	 */
+	static class TXlsxReader extends TImportRowReader {
+		
+		private final String sheetName;
+		
+		TXlsxReader(String sheetName) {
+			this.sheetName = sheetName;
+		}
+
+		@Override
+		public void read(InputStream is, TRowHandler handler) throws Exception {
+			try(OPCPackage pkg = OPCPackage.open(is)) {
+				XSSFReader reader = new XSSFReader(pkg);
+				ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+				StylesTable styles = reader.getStylesTable();
+				
+				XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
+				int index = 0;
+				boolean byIndex = StringUtils.isBlank(sheetName) || NumberUtils.isParsable(sheetName);
+				int sheetIndex = StringUtils.isBlank(sheetName) ? 0 : byIndex ? Integer.valueOf(sheetName) : -1;
+				while(it.hasNext()) {
+					try(InputStream sheet = it.next()) {
+						if(byIndex ? index==sheetIndex : sheetName.equals(it.getSheetName())) {
+							XMLReader parser = XMLHelper.newXMLReader();
+							parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, 
+									new TSheetHandler(handler), new TRawNumberFormatter(), false));
+							parser.parse(new InputSource(sheet));
+							return;
+						}
+					}
+					index++;
+				}
+				throw new TBusinessException("Cannot import the file, the sheet "+sheetName+" not found!");
+			}
+		}
+	}
+	
+	/**
+	 * Collects the cells of the current row
+	 */
+	private static class TSheetHandler implements SheetContentsHandler {
+		
+		private final TRowHandler handler;
+		private String[] values = new String[16];
+		private int lastCol;
+		
+		TSheetHandler(TRowHandler handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			Arrays.fill(values, "");
+			lastCol = -1;
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			try {
+				handler.row(rowNum, Arrays.copyOf(values, lastCol+1));
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			int col = new CellReference(cellReference).getCol();
+			if(col>=values.length) {
+				int size = values.length;
+				values = Arrays.copyOf(values, Math.max(col+1, size*2));
+				Arrays.fill(values, size, values.length, "");
+			}
+			values[col] = formattedValue!=null ? formattedValue : "";
+			lastCol = Math.max(lastCol, col);
+		}
+	}
+	
+	/**
+	 * Keeps the raw value of numeric cells, as the usermodel reading, 
+	 * only dates are formatted
+	 */
+	private static class TRawNumberFormatter extends DataFormatter {
+		
+		@Override
+		public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+			if(DateUtil.isADateFormat(formatIndex, formatString))
+				return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+			return NumberToTextConverter.toText(value);
+		}
+	}
+	
+	/**
+	 * Reads XLS files with the usermodel api
+	 */
+	static class TXlsReader extends TImportRowReader {
+		
+		private final String sheetName;
+		
+		TXlsReader(String sheetName) {
+			this.sheetName = sheetName;
+		}
+
+		@Override
+		public void read(InputStream is, TRowHandler handler) throws Exception {
+			try(Workbook wb = WorkbookFactory.create(is)){
+				Sheet sht = StringUtils.isBlank(sheetName) 
+						? wb.getSheetAt(0)
+								: NumberUtils.isParsable(sheetName) 
+								? wb.getSheetAt(Integer.valueOf(sheetName))
+										: wb.getSheet(sheetName);
+				if(sht==null)
+					throw new TBusinessException("Cannot import the file, the sheet "+sheetName+" not found!");
+				
+				Iterator<Row> it = sht.rowIterator();
+				while(it.hasNext()) {
+					Row r = it.next();
+					String[] values = new String[Math.max(r.getLastCellNum(), 0)];
+					for(int i=0; i<values.length; i++)
+						values[i] = toString(r.getCell(i));
+					handler.row(r.getRowNum(), values);
+				}
+			}
+		}
+		
+		private String toString(Cell cell){
+			if(cell==null)
+				return "";
+			switch(cell.getCellType()){
+				case STRING : return cell.getStringCellValue();
+				case NUMERIC : return String.valueOf(cell.getNumericCellValue());
+				case BOOLEAN :  return String.valueOf(cell.getBooleanCellValue());
+				default :return  "";
+			}
+		}
+	}
+}
@@ -5,6 +5,8 @@ import java.util.List;
 import jakarta.persistence.EntityManager;
 
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.query.TKeyset;
+import org.tedros.server.query.TKeysetPage;
 import org.tedros.server.query.TSelect;
 
 public interface ITGenericEAO<E extends ITEntity> {
@@ -24,6 +26,11 @@ public interface ITGenericEAO<E extends ITEntity> {
 	 * */
 	List<E> search(TSelect<E> sel, int firstResult, int maxResult);
 	
+	/**
+	 * Search for entities using keyset pagination
+	 * */
+	TKeysetPage<E> search(TSelect<E> sel, TKeyset keyset, int maxResult);
+	
 	/**
 	 * Count a searched entities
 	 * */
@@ -69,11 +76,21 @@ public interface ITGenericEAO<E extends ITEntity> {
 	* */
 	List<E> pageAll(E entity, int firstResult, int maxResult, boolean orderByAsc)throws Exception;
 
+	/**
+	* Returns a keyset paginated list
+	* */
+	TKeysetPage<E> pageAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc)throws Exception;
+
 	/**
 	* Returns a paginated search
 	* */
 	List<E> findAll(E entity, int firstResult, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception;
 
+	/**
+	* Returns a keyset paginated search
+	* */
+	TKeysetPage<E> findAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception;
+
 	/**
 	* Returns the number of records found
 	* */
@@ -1,31 +1,49 @@
 package org.tedros.server.cdi.eao;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.Vector;
 
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.PersistenceContextType;
 import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.expressions.ExpressionBuilder;
 import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.mappings.DatabaseMapping;
 import org.eclipse.persistence.queries.QueryByExamplePolicy;
 import org.eclipse.persistence.queries.ReadAllQuery;
 import org.eclipse.persistence.queries.ReportQuery;
 import org.eclipse.persistence.queries.ReportQueryResult;
+import org.tedros.server.cdi.eao.TSearchQueryCompiler.TCompiledSearch;
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.exception.TBusinessException;
 import org.tedros.server.query.TCompareOp;
+import org.tedros.server.query.TCondition;
+import org.tedros.server.query.TKeyset;
+import org.tedros.server.query.TKeysetPage;
 import org.tedros.server.query.TSelect;
 
 public abstract class TGenericEAO<E extends ITEntity> implements ITGenericEAO<E>  {
 	
+	// always read with the fetch plans
+	private static final String[] FETCH_PLAN_FIELDS = {"insertDate", "lastUpdate"};
+	
 	@PersistenceContext(unitName = "tedros_core_pu", type=PersistenceContextType.TRANSACTION)
     private EntityManager em;
 	
@@ -35,7 +53,12 @@ public abstract class TGenericEAO<E extends ITEntity> implements ITGenericEAO<E>
 	
 	@SuppressWarnings("unchecked")
 	public E findById(E entity)throws Exception{
-		E e = (E) em.find(entity.getClass(), entity.getId());
+		EntityGraph<?> g = getFetchGraph(entity.getClass(), entity.getFetchPlan());
+		E e = g!=null
+				? (E) em.find(entity.getClass(), entity.getId(), Map.of(QueryHints.JPA_FETCH_GRAPH, g))
+						: (E) em.find(entity.getClass(), entity.getId());
+		if(g!=null && e!=null)
+			e.setFetchPlan(entity.getFetchPlan());
 		afterFind(e);
 		return e;
 	}
@@ -117,6 +140,9 @@ public abstract class TGenericEAO<E extends ITEntity> implements ITGenericEAO<E>
 	}
 	
 	public E merge(E entity)throws Exception{
+		if(entity.getFetchPlan()!=null)
+			throw new TBusinessException("The "+entity.getClass().getSimpleName()+" was read with the fetch plan "
+					+entity.getFetchPlan()+" and cannot be saved, read it again to edit!");
 		beforeMerge(entity);
 		if(entity.isNew())
 			entity.setInsertDate(new Date());
@@ -142,19 +168,17 @@ public abstract class TGenericEAO<E extends ITEntity> implements ITGenericEAO<E>
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
 	public List<E> search(TSelect<E> sel){
 		Query qry = createSearchQuery(sel, false);
-		return qry.getResultList();
+		return getResultList(qry, sel.getType(), sel.getFetchPlan());
 	}
 	
-	@SuppressWarnings("unchecked")
 	public List<E> search(TSelect<E> sel, int firstResult, int maxResult){
 		
 		Query qry = createSearchQuery(sel, false);
 		qry.setFirstResult(firstResult);
 		qry.setMaxResults(maxResult);
-		return qry.getResultList();
+		return getResultList(qry, sel.getType(), sel.getFetchPlan());
 		
 	}
 	
@@ -165,88 +189,69 @@ public abstract class TGenericEAO<E extends ITEntity> implements ITGenericEAO<E>
 	}
 	
 
-	private Query createSearchQuery(TSelect<E> sel, boolean count) {
-		StringBuilder sb = new StringBuilder("select ");
-		if(count)
-			sb.append("count(");
-		else
-			sb.append("distinct ");
-		sb.append(sel.getAlias());
-		if(count)
-			sb.append(") as total");
-		sb.append(" ");
-		sb.append("from ");
-		sb.append(sel.getType().getSimpleName()).append(" ");
-		sb.append(sel.getAlias()).append(" ");
-		
-		if(sel.getJoins()!=null)
-			sel.getJoins().forEach(j->{
-				sb.append(j.getType().getValue()).append(" ");
-				sb.append(j.getAlias()).append(".");
-				sb.append(j.getField()).append(" ");
-				sb.append(j.getJoinAlias()).append(" ");
-			});
-		
-		if(sel.getConditions()!=null && !sel.getConditions().isEmpty()) {
-			sb.append("where ");
-			
-			sel.getConditions().forEach(b->{
-				if(b.getCondition().getValue()!=null) {
-					if(b.getOperator()!=null)
-						sb.append(b.getOperator().name().toLowerCase()).append(" ");
-					
-					if(b.getCondition().getOperator().equals(TCompareOp.LIKE))
-						sb.append("lower(");
-					
-					sb.append(b.getCondition().getAlias())
-					.append(".").append(b.getCondition().getField());
-					
-					if(b.getCondition().getOperator().equals(TCompareOp.LIKE))
-						sb.append(")");
-					
-					String qryParam = b.getCondition().getField() +"_"+ UUID.randomUUID().toString().substring(2, 8);
-					b.getCondition().setQryParam(qryParam);
-					
-					sb.append(" ").append(b.getCondition().getOperator().getValue()).append(" ");
-					sb.append(":").append(qryParam);
-					sb.append(" ");
-				}
-			});
-		}
-		if(!count && sel.getOrdenations()!=null) {
-			StringBuilder sb1 = new StringBuilder("");
+	/**
+	 * Search for entities using keyset pagination, 
+	 * the select ordenations must use the select alias.
+	 * */
+	public TKeysetPage<E> search(TSelect<E> sel, TKeyset keyset, int maxResult){
+		List<String> orders = new ArrayList<>();
+		if(sel.getOrdenations()!=null)
 			sel.getOrdenations().forEach(f->{
-				if("".equals(sb1.toString()))
-					sb1.append("order by ");
-				else
-					sb1.append(", ");
-				if(f.getAlias()!=null)
-					sb1.append(f.getAlias()).append(".");
-				sb1.append(f.getField());
-			});
-			if(sel.isAsc())
-				sb1.append(" ").append("asc");
-			else
-				sb1.append(" ").append("desc");
-			sb.append(sb1);
-				
-		}
-		
-		Query qry = this.getEntityManager().createQuery(sb.toString());
-		if(sel.getConditions()!=null && !sel.getConditions().isEmpty()) {
-			sel.getConditions().forEach(b->{
-				if(b.getCondition().getValue()!=null)
-					qry.setParameter(
-						b.getCondition().getQryParam(), 
-						b.getCondition().getOperator().equals(TCompareOp.LIKE) 
-							? "%"+b.getCondition().getValue().toString().toLowerCase()+"%"
-									: b.getCondition().getValue()
-					);
+				if(f.getAlias()!=null && !f.getAlias().equals(sel.getAlias()))
+					throw new IllegalArgumentException("Keyset pagination only supports ordenations on the alias "
+							+sel.getAlias()+", found "+f.getAlias()+"."+f.getField());
+				orders.add(f.getField());
 			});
+		String[] fields = buildKeysetFields(sel.getType(), orders);
+		boolean[] nullable = getNullableFields(sel.getType(), fields);
+		boolean seek = keyset!=null && keyset.isSameSort(fields, sel.isAsc());
+		Query qry = createNamedQuery(TSearchQueryCompiler.compileKeyset(sel, fields, nullable, 
+				seek ? keyset.getValues() : null));
+		bindSearchParameters(qry, sel);
+		if(seek)
+			for(int i=0; i<fields.length; i++)
+				if(keyset.getValues()[i]!=null)
+					qry.setParameter(TSearchQueryCompiler.KEYSET_PARAM_PREFIX + i, keyset.getValues()[i]);
+		qry.setMaxResults(maxResult+1);
+		return buildKeysetPage(sel.getType(), getResultList(qry, sel.getType(), sel.getFetchPlan(), fields), 
+				fields, sel.isAsc(), maxResult, seek ? keyset.getStart() : 0);
+	}
+
+	private Query createSearchQuery(TSelect<E> sel, boolean count) {
+		Query qry = createNamedQuery(TSearchQueryCompiler.compile(sel, count));
+		bindSearchParameters(qry, sel);
+		return qry;
+	}
+	
+	private Query createNamedQuery(TCompiledSearch cs) {
+		if(!cs.isNamed())
+			return em.createQuery(cs.getJpql());
+		EntityManagerFactory emf = em.getEntityManagerFactory();
+		Query qry;
+		if(cs.isRegistered(emf))
+			qry = em.createNamedQuery(cs.getName());
+		else {
+			qry = em.createQuery(cs.getJpql());
+			emf.addNamedQuery(cs.getName(), qry);
+			cs.setRegistered(emf);
 		}
 		return qry;
 	}
 	
+	@SuppressWarnings("rawtypes")
+	private void bindSearchParameters(Query qry, TSelect<E> sel) {
+		List<TCondition> conditions = TSearchQueryCompiler.getBoundConditions(sel);
+		for(int i=0; i<conditions.size(); i++) {
+			TCondition c = conditions.get(i);
+			String qryParam = TSearchQueryCompiler.PARAM_PREFIX + i;
+			c.setQryParam(qryParam);
+			qry.setParameter(qryParam, 
+					c.getOperator().equals(TCompareOp.LIKE) 
+						? "%"+c.getValue().toString().toLowerCase()+"%"
+								: c.getValue());
+		}
+	}
+	
 	/**
 	 * Retorna uma lista com todas as entitys persistidas
 	 * */
@@ -301,12 +306,66 @@ public abstract class TGenericEAO<E extends ITEntity> implements ITGenericEAO<E>
 		qry.setFirstResult(firstResult);
 		qry.setMaxResults(maxResult);
 		
-		List<E> lst = qry.getResultList();
+		List<E> lst = getResultList(qry, entity.getClass(), entity.getFetchPlan());
 		afterPageAll(lst);
 		return lst;
 	}
 
 
+	/**
+	 * Retorna uma lista paginada por keyset
+	 * */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public TKeysetPage<E> pageAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc)throws Exception{
+		String[] fields = buildKeysetFields(entity.getClass(), entity.getOrderBy());
+		boolean[] nullable = getNullableFields(entity.getClass(), fields);
+		boolean seek = keyset!=null && keyset.isSameSort(fields, orderByAsc);
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<E> cq = (CriteriaQuery<E>) cb.createQuery(entity.getClass());
+		Root<E> root = (Root<E>) cq.from(entity.getClass());
+		root.alias("e");
+		cq.select(root);
+		if(seek) {
+			Object[] values = keyset.getValues();
+			List<Predicate> or = new ArrayList<>();
+			for(int i=0; i<fields.length; i++) {
+				// the nulls are the last ones, only the next fields can start after a null
+				if(values[i]==null)
+					continue;
+				List<Predicate> and = new ArrayList<>();
+				for(int j=0; j<i; j++)
+					and.add(values[j]==null 
+							? cb.isNull(root.get(fields[j])) 
+									: cb.equal(root.get(fields[j]), values[j]));
+				Expression<Comparable> path = root.get(fields[i]);
+				Predicate after = orderByAsc 
+						? cb.greaterThan(path, (Comparable) values[i])
+								: cb.lessThan(path, (Comparable) values[i]);
+				and.add(nullable[i] ? cb.or(after, cb.isNull(path)) : after);
+				or.add(cb.and(and.toArray(new Predicate[0])));
+			}
+			cq.where(cb.or(or.toArray(new Predicate[0])));
+		}
+		List<Order> orders = new ArrayList<>();
+		for(int i=0; i<fields.length; i++) {
+			Path<Object> path = root.get(fields[i]);
+			// nulls last
+			if(nullable[i])
+				orders.add(cb.asc(cb.selectCase().when(cb.isNull(path), 1).otherwise(0)));
+			orders.add(orderByAsc ? cb.asc(path) : cb.desc(path));
+		}
+		cq.orderBy(orders);
+		
+		TypedQuery<E> qry = em.createQuery(cq);
+		qry.setMaxResults(maxResult+1);
+		
+		TKeysetPage<E> page = buildKeysetPage(entity.getClass(), 
+				getResultList(qry, entity.getClass(), entity.getFetchPlan(), fields), 
+				fields, orderByAsc, maxResult, seek ? keyset.getStart() : 0);
+		afterPageAll(page.getList());
+		return page;
+	}
+
 	public List<E> findAll(E entity, int firstResult, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception{
 		
 		ReadAllQuery query = new ReadAllQuery(entity.getClass());
@@ -327,11 +386,176 @@ public abstract class TGenericEAO<E extends ITEntity> implements ITGenericEAO<E>
 		query.setFirstResult(firstResult);
 		query.setMaxRows(maxResult+firstResult);
 		
-		List<E> lst = (List<E>) this.executeAndGetList(query); //((JpaEntityManager) em.getDelegate()).getActiveSession().executeQuery(query);
+		List<E> lst = getResultList(((JpaEntityManager)em.getDelegate()).createQuery(query), 
+				entity.getClass(), entity.getFetchPlan());
 		afterFindAll(lst);
 		return lst;
 	}
 	
+	/**
+	 * Retorna uma pesquisa paginada por keyset
+	 * */
+	public TKeysetPage<E> findAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception{
+		String[] fields = buildKeysetFields(entity.getClass(), entity.getOrderBy());
+		boolean[] nullable = getNullableFields(entity.getClass(), fields);
+		boolean seek = keyset!=null && keyset.isSameSort(fields, orderByAsc);
+		
+		ReadAllQuery query = new ReadAllQuery(entity.getClass());
+		query.setExampleObject(entity);
+		// Query by example policy section adds like and greaterThan 
+		QueryByExamplePolicy policy = new QueryByExamplePolicy();
+		policy.addSpecialOperation(String.class, (containsAnyKeyWords) ? "containsAnyKeyWords" : "like");
+		query.setQueryByExamplePolicy(policy);
+		
+		ExpressionBuilder eb = query.getExpressionBuilder();
+		if(seek) {
+			// combined with the example by the query
+			Object[] values = keyset.getValues();
+			org.eclipse.persistence.expressions.Expression exp = null;
+			for(int i=0; i<fields.length; i++) {
+				// the nulls are the last ones, only the next fields can start after a null
+				if(values[i]==null)
+					continue;
+				org.eclipse.persistence.expressions.Expression and = orderByAsc 
+						? eb.get(fields[i]).greaterThan(values[i])
+								: eb.get(fields[i]).lessThan(values[i]);
+				if(nullable[i])
+					and = and.or(eb.get(fields[i]).isNull());
+				for(int j=i-1; j>=0; j--)
+					and = (values[j]==null 
+							? eb.get(fields[j]).isNull() 
+									: eb.get(fields[j]).equal(values[j])).and(and);
+				exp = exp==null ? and : exp.or(and);
+			}
+			query.setSelectionCriteria(exp);
+		}
+		for(int i=0; i<fields.length; i++) {
+			org.eclipse.persistence.expressions.Expression o = orderByAsc 
+					? eb.get(fields[i]).ascending() 
+							: eb.get(fields[i]).descending();
+			query.addOrdering(nullable[i] ? o.nullsLast() : o);
+		}
+		query.setMaxRows(maxResult+1);
+		
+		TKeysetPage<E> page = buildKeysetPage(entity.getClass(), 
+				getResultList(((JpaEntityManager)em.getDelegate()).createQuery(query), 
+						entity.getClass(), entity.getFetchPlan(), fields), 
+				fields, orderByAsc, maxResult, seek ? keyset.getStart() : 0);
+		afterFindAll(page.getList());
+		return page;
+	}
+	
+	/**
+	 * Returns the fetch plan graph of the entity, named &lt;entity name&gt;.&lt;plan&gt;, 
+	 * with the fields added. Returns null to read with the mapping if there is 
+	 * no plan, the entity has no graph with the plan name or the entity 
+	 * was not woven with the fetch group support.
+	 * 
+	 * @see org.tedros.server.query.TFetchPlan
+	 * */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected EntityGraph<?> getFetchGraph(Class type, String fetchPlan, String... fields) {
+		if(fetchPlan==null || fetchPlan.isBlank())
+			return null;
+		ClassDescriptor cd = ((JpaEntityManager)em.getDelegate()).getServerSession().getDescriptor(type);
+		if(cd==null || !cd.hasFetchGroupManager())
+			return null;
+		String name = cd.getAlias()+"."+fetchPlan;
+		for(EntityGraph<?> g : (List<EntityGraph<?>>) (List) em.getEntityGraphs(type))
+			if(name.equals(g.getName())) {
+				// a copy with the fields used by the TEntity hashCode
+				EntityGraph<?> c = em.createEntityGraph(name);
+				for(String f : FETCH_PLAN_FIELDS)
+					if(cd.getMappingForAttributeName(f)!=null)
+						c.addAttributeNodes(f);
+				if(fields.length>0)
+					c.addAttributeNodes(fields);
+				return c;
+			}
+		return null;
+	}
+	
+	/**
+	 * Returns the result read with the fetch plan, the entities 
+	 * read with the plan graph are returned with the plan set.
+	 * 
+	 * @param fields - the fields read with the plan, like the keyset sort fields 
+	 * */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected List<E> getResultList(Query qry, Class type, String fetchPlan, String... fields) {
+		EntityGraph<?> g = getFetchGraph(type, fetchPlan, fields);
+		if(g==null)
+			return qry.getResultList();
+		qry.setHint(QueryHints.JPA_FETCH_GRAPH, g);
+		List<E> lst = qry.getResultList();
+		lst.forEach(e->e.setFetchPlan(fetchPlan));
+		return lst;
+	}
+	
+	/**
+	 * Returns the keyset sort fields, the id is 
+	 * always the last one to make the sort unique.
+	 * The sort fields must be columns, the nulls of 
+	 * the nullable ones are read after the values.
+	 * */
+	@SuppressWarnings("rawtypes")
+	protected String[] buildKeysetFields(Class type, List<String> orderBy) {
+		List<String> fields = new ArrayList<>();
+		if(orderBy!=null)
+			orderBy.forEach(f->{
+				if(!fields.contains(f))
+					fields.add(f);
+			});
+		fields.remove("id");
+		ClassDescriptor cd = ((JpaEntityManager)em.getDelegate()).getServerSession().getDescriptor(type);
+		for(String f : fields) {
+			DatabaseMapping m = cd.getMappingForAttributeName(f);
+			if(m==null)
+				throw new IllegalArgumentException("The field "+f+" is not mapped in "+type.getSimpleName());
+			if(!m.isDirectToFieldMapping())
+				throw new IllegalArgumentException("Keyset pagination only supports columns, "
+						+"the field "+f+" of "+type.getSimpleName()+" cannot be used to sort");
+		}
+		fields.add("id");
+		return fields.toArray(new String[0]);
+	}
+	
+	/**
+	 * Returns which keyset sort fields are nullable columns
+	 * */
+	@SuppressWarnings("rawtypes")
+	protected boolean[] getNullableFields(Class type, String[] fields) {
+		ClassDescriptor cd = ((JpaEntityManager)em.getDelegate()).getServerSession().getDescriptor(type);
+		boolean[] nullable = new boolean[fields.length];
+		for(int i=0; i<fields.length; i++)
+			nullable[i] = !"id".equals(fields[i]) 
+				&& cd.getMappingForAttributeName(fields[i]).getField().isNullable();
+		return nullable;
+	}
+	
+	/**
+	 * Builds the page and the keyset to read the next one
+	 * from a result read with maxResult+1 rows
+	 * */
+	@SuppressWarnings("rawtypes")
+	protected TKeysetPage<E> buildKeysetPage(Class type, List<E> result, String[] fields, boolean asc, 
+			int maxResult, long start) {
+		if(result.size()<=maxResult)
+			return new TKeysetPage<>(result, null);
+		
+		List<E> lst = new ArrayList<>(result.subList(0, maxResult));
+		E last = lst.get(maxResult-1);
+		ClassDescriptor cd = ((JpaEntityManager)em.getDelegate()).getServerSession().getDescriptor(type);
+		Object[] values = new Object[fields.length];
+		for(int i=0; i<fields.length; i++) {
+			DatabaseMapping m = cd.getMappingForAttributeName(fields[i]);
+			if(m==null)
+				throw new IllegalArgumentException("The field "+fields[i]+" is not mapped in "+type.getSimpleName());
+			values[i] = m.getAttributeValueFromObject(last);
+		}
+		return new TKeysetPage<>(lst, new TKeyset(fields, asc, values, start+maxResult));
+	}
+	
 	@SuppressWarnings("rawtypes")
 	public Integer countFindAll(E entity, boolean containsAnyKeyWords)throws Exception{
 		ExpressionBuilder eb = new ExpressionBuilder();
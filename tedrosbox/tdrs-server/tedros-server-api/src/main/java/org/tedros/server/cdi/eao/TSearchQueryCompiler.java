@@ -0,0 +1,386 @@
+/**
+ *
+ */
+package org.tedros.server.cdi.eao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.tedros.server.query.TBlock;
+import org.tedros.server.query.TCompareOp;
+import org.tedros.server.query.TCondition;
+import org.tedros.server.query.TSelect;
+import org.tedros.server.util.TLoggerUtil;
+
+/**
+ * Compiles a {@link TSelect} into a JPQL string.
+ * <p>
+ * The generated JPQL only depends on the structure of the select
+ * (type, joins, conditions with a value, operators and ordenations),
+ * never on the condition values, and the query parameters are named
+ * positionally (p0, p1, ...). The same structure always produces the
+ * same JPQL, so it is compiled once, cached here and registered as a
+ * named query by the {@link TGenericEAO}, letting the persistence
+ * provider and the JDBC driver reuse the parsed query and the
+ * prepared statement.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public final class TSearchQueryCompiler {
+
+	private static final TLoggerUtil LOGGER = TLoggerUtil.create(TSearchQueryCompiler.class);
+
+	/**
+	 * Named query prefix
+	 */
+	public static final String NAMED_QUERY_PREFIX = "TSearch_";
+
+	/**
+	 * Parameter prefix
+	 */
+	public static final String PARAM_PREFIX = "p";
+
+	/**
+	 * Keyset parameter prefix
+	 */
+	public static final String KEYSET_PARAM_PREFIX = "k";
+
+	/**
+	 * Max compiled structures kept in cache
+	 */
+	private static final int MAX_CACHE_SIZE = 1024;
+
+	private static final Map<String, TCompiledSearch> CACHE = new ConcurrentHashMap<>();
+	private static final AtomicInteger SEQUENCE = new AtomicInteger();
+	private static final LongAdder HITS = new LongAdder();
+	private static final LongAdder MISSES = new LongAdder();
+
+	private TSearchQueryCompiler() {
+	}
+
+	/**
+	 * Returns the compiled query for the select structure,
+	 * compiling and caching it on the first call.
+	 *
+	 * @param sel the select
+	 * @param count true to compile the count query
+	 * @return the compiled query
+	 */
+	public static TCompiledSearch compile(TSelect<?> sel, boolean count) {
+		return compile(sel, count, null, null, null);
+	}
+
+	/**
+	 * Returns the compiled keyset query for the select structure,
+	 * compiling and caching it on the first call.
+	 * The query is ordered by the keyset fields, with the nulls of the 
+	 * nullable fields last, and when the keyset values are given starts 
+	 * after them. The values not null must be bound to the parameters 
+	 * KEYSET_PARAM_PREFIX + field index, a null value is compared with 
+	 * is null and has no parameter.
+	 *
+	 * @param sel the select
+	 * @param keysetFields the root alias sort fields, the last one must be unique
+	 * @param nullable the nullable fields
+	 * @param values the keyset values to start after, null to read the first page
+	 * @return the compiled query
+	 */
+	public static TCompiledSearch compileKeyset(TSelect<?> sel, String[] keysetFields, boolean[] nullable, Object[] values) {
+		boolean[] nullValues = null;
+		if(values!=null) {
+			nullValues = new boolean[values.length];
+			for(int i=0; i<values.length; i++)
+				nullValues[i] = values[i]==null;
+		}
+		return compile(sel, false, keysetFields, nullable, nullValues);
+	}
+
+	private static TCompiledSearch compile(TSelect<?> sel, boolean count, String[] keysetFields, 
+			boolean[] nullable, boolean[] nullValues) {
+		String key = buildKey(sel, count, keysetFields, nullable, nullValues);
+		TCompiledSearch c = CACHE.get(key);
+		if(c!=null) {
+			HITS.increment();
+			return c;
+		}
+		MISSES.increment();
+		String jpql = buildJpql(sel, count, keysetFields, nullable, nullValues);
+		if(CACHE.size()>=MAX_CACHE_SIZE) {
+			// not cached neither registered as named query, 
+			// the registered named queries are never removed
+			LOGGER.debug("Search query cache full, compiled without name: {}", jpql);
+			return new TCompiledSearch(null, jpql);
+		}
+		c = new TCompiledSearch(NAMED_QUERY_PREFIX + SEQUENCE.incrementAndGet(), jpql);
+		TCompiledSearch prev = CACHE.putIfAbsent(key, c);
+		if(prev!=null)
+			c = prev;
+		LOGGER.debug("Search query compiled [{}]: {} (hits={}, misses={})", 
+				c.getName(), c.getJpql(), HITS.sum(), MISSES.sum());
+		return c;
+	}
+
+	/**
+	 * Returns the conditions that will be bound to the compiled query,
+	 * the parameter of the condition at index i is named PARAM_PREFIX + i.
+	 *
+	 * @param sel the select
+	 * @return the conditions with a value
+	 */
+	@SuppressWarnings("rawtypes")
+	public static List<TCondition> getBoundConditions(TSelect<?> sel) {
+		List<TBlock> blocks = sel.getConditions();
+		if(blocks==null || blocks.isEmpty())
+			return Collections.emptyList();
+		List<TCondition> lst = new ArrayList<>(blocks.size());
+		for(TBlock b : blocks)
+			if(b.getCondition().getValue()!=null)
+				lst.add(b.getCondition());
+		return lst;
+	}
+
+	/**
+	 * @return the number of searches served by the cache
+	 */
+	public static long getHits() {
+		return HITS.sum();
+	}
+
+	/**
+	 * @return the number of compiled searches
+	 */
+	public static long getMisses() {
+		return MISSES.sum();
+	}
+
+	/**
+	 * @return the number of cached structures
+	 */
+	public static int getCacheSize() {
+		return CACHE.size();
+	}
+
+	/**
+	 * Clears the cache and the counters
+	 */
+	public static void clear() {
+		CACHE.clear();
+		HITS.reset();
+		MISSES.reset();
+	}
+
+	private static String buildKey(TSelect<?> sel, boolean count, String[] keysetFields, 
+			boolean[] nullable, boolean[] nullValues) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append(count ? 'C' : 'S').append('|')
+		.append(sel.getType().getName()).append('|')
+		.append(sel.getAlias()).append('|');
+		if(sel.getJoins()!=null)
+			sel.getJoins().forEach(j->{
+				sb.append(j.getType().ordinal()).append(',')
+				.append(j.getAlias()).append(',')
+				.append(j.getField()).append(',')
+				.append(j.getJoinAlias()).append(';');
+			});
+		sb.append('|');
+		if(sel.getConditions()!=null)
+			sel.getConditions().forEach(b->{
+				if(b.getCondition().getValue()!=null) {
+					sb.append(b.getOperator()!=null ? b.getOperator().ordinal() : -1).append(',')
+					.append(b.getCondition().getOperator().ordinal()).append(',')
+					.append(b.getCondition().getAlias()).append(',')
+					.append(b.getCondition().getField()).append(';');
+				}
+			});
+		sb.append('|');
+		if(keysetFields!=null) {
+			sb.append(nullValues!=null ? 'K' : 'F');
+			for(int i=0; i<keysetFields.length; i++) {
+				sb.append(keysetFields[i]);
+				if(nullable[i])
+					sb.append(',').append(nullValues!=null && nullValues[i] ? 'N' : 'n');
+				sb.append(';');
+			}
+			sb.append(sel.isAsc() ? 'A' : 'D');
+		}else if(!count && sel.getOrdenations()!=null) {
+			sel.getOrdenations().forEach(f->{
+				sb.append(f.getAlias()).append(',').append(f.getField()).append(';');
+			});
+			sb.append(sel.isAsc() ? 'A' : 'D');
+		}
+		return sb.toString();
+	}
+
+	private static String buildJpql(TSelect<?> sel, boolean count, String[] keysetFields, 
+			boolean[] nullable, boolean[] nullValues) {
+		StringBuilder sb = new StringBuilder("select ");
+		if(count)
+			sb.append("count(");
+		else
+			sb.append("distinct ");
+		sb.append(sel.getAlias());
+		if(count)
+			sb.append(") as total");
+		sb.append(" ");
+		sb.append("from ");
+		sb.append(sel.getType().getSimpleName()).append(" ");
+		sb.append(sel.getAlias()).append(" ");
+
+		if(sel.getJoins()!=null)
+			sel.getJoins().forEach(j->{
+				sb.append(j.getType().getValue()).append(" ");
+				sb.append(j.getAlias()).append(".");
+				sb.append(j.getField()).append(" ");
+				sb.append(j.getJoinAlias()).append(" ");
+			});
+
+		boolean where = !getBoundConditions(sel).isEmpty();
+		boolean keyset = keysetFields!=null && nullValues!=null;
+		if(where || keyset)
+			sb.append("where ");
+		if(where && keyset)
+			sb.append("(");
+		if(where) {
+			int idx = 0;
+			for(TBlock b : sel.getConditions()) {
+				if(b.getCondition().getValue()!=null) {
+					if(b.getOperator()!=null)
+						sb.append(b.getOperator().name().toLowerCase()).append(" ");
+
+					if(b.getCondition().getOperator().equals(TCompareOp.LIKE))
+						sb.append("lower(");
+
+					sb.append(b.getCondition().getAlias())
+					.append(".").append(b.getCondition().getField());
+
+					if(b.getCondition().getOperator().equals(TCompareOp.LIKE))
+						sb.append(")");
+
+					sb.append(" ").append(b.getCondition().getOperator().getValue()).append(" ");
+					sb.append(":").append(PARAM_PREFIX).append(idx++);
+					sb.append(" ");
+				}
+			}
+		}
+		if(keyset) {
+			if(where)
+				sb.append(") and (");
+			String a = sel.getAlias()+".";
+			String op = sel.isAsc() ? " > " : " < ";
+			boolean or = false;
+			for(int i=0; i<keysetFields.length; i++) {
+				// the nulls are the last ones, only the next fields can start after a null
+				if(nullValues[i])
+					continue;
+				if(or)
+					sb.append(" or ");
+				or = true;
+				sb.append("(");
+				for(int j=0; j<i; j++) {
+					sb.append(a).append(keysetFields[j]);
+					if(nullValues[j])
+						sb.append(" is null and ");
+					else
+						sb.append(" = :").append(KEYSET_PARAM_PREFIX).append(j).append(" and ");
+				}
+				if(nullable[i])
+					sb.append("(");
+				sb.append(a).append(keysetFields[i])
+				.append(op).append(":").append(KEYSET_PARAM_PREFIX).append(i);
+				if(nullable[i])
+					sb.append(" or ").append(a).append(keysetFields[i]).append(" is null)");
+				sb.append(")");
+			}
+			if(where)
+				sb.append(")");
+			sb.append(" ");
+		}
+		if(keysetFields!=null) {
+			String dir = sel.isAsc() ? " asc" : " desc";
+			sb.append("order by ");
+			for(int i=0; i<keysetFields.length; i++) {
+				if(i>0)
+					sb.append(", ");
+				sb.append(sel.getAlias()).append(".").append(keysetFields[i]).append(dir);
+				if(nullable[i])
+					sb.append(" nulls last");
+			}
+		}else if(!count && sel.getOrdenations()!=null) {
+			StringBuilder sb1 = new StringBuilder("");
+			sel.getOrdenations().forEach(f->{
+				if("".equals(sb1.toString()))
+					sb1.append("order by ");
+				else
+					sb1.append(", ");
+				if(f.getAlias()!=null)
+					sb1.append(f.getAlias()).append(".");
+				sb1.append(f.getField());
+			});
+			if(sel.isAsc())
+				sb1.append(" ").append("asc");
+			else
+				sb1.append(" ").append("desc");
+			sb.append(sb1);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * A compiled search query
+	 */
+	public static final class TCompiledSearch {
+
+		private final String name;
+		private final String jpql;
+		private final Set<Object> factories = ConcurrentHashMap.newKeySet();
+
+		private TCompiledSearch(String name, String jpql) {
+			this.name = name;
+			this.jpql = jpql;
+		}
+
+		/**
+		 * @return the named query name, null if the query 
+		 * must not be registered as named query
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return true if the query can be registered as named query
+		 */
+		public boolean isNamed() {
+			return name!=null;
+		}
+
+		/**
+		 * @return the jpql
+		 */
+		public String getJpql() {
+			return jpql;
+		}
+
+		/**
+		 * @param factory the entity manager factory
+		 * @return true if the named query was registered in the factory
+		 */
+		public boolean isRegistered(Object factory) {
+			return factories.contains(factory);
+		}
+
+		/**
+		 * @param factory the entity manager factory where the named query was registered
+		 */
+		public void setRegistered(Object factory) {
+			factories.add(factory);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * 
+ */
+package org.tedros.server.ejb.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.tedros.server.exception.TBusinessException;
+import org.tedros.server.result.TResult;
+import org.tedros.server.result.TResult.TState;
+import org.tedros.server.util.TLoggerUtil;
+
+/**
+ * Builds the results of the saveAll and removeAll operations 
+ * of the controllers.
+ * 
+ * @author Davis Gordon
+ *
+ */
+final class TBatchResults {
+	
+	private static final TLoggerUtil LOGGER = TLoggerUtil.create(TBatchResults.class);
+
+	private TBatchResults() {
+	}
+	
+	/**
+	 * Logs the failure of a batch and returns one error result 
+	 * for each entity with the message of the business exception 
+	 * in the cause chain or else of the root cause.
+	 * 
+	 * @param entities the entities of the batch
+	 * @param ex the failure
+	 * @return the error results
+	 */
+	static <E> List<TResult<E>> failed(List<E> entities, Exception ex) {
+		LOGGER.error("The batch of "+entities.size()+" entities failed, nothing was committed", ex);
+		Throwable t = ex;
+		while(!(t instanceof TBusinessException) && t.getCause()!=null && t.getCause()!=t)
+			t = t.getCause();
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		for(int i=0; i<entities.size(); i++)
+			results.add(new TResult<E>(TState.ERROR, true, t.getMessage()));
+		return results;
+	}
+}
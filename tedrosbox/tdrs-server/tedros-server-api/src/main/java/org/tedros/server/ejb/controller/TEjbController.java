@@ -1,5 +1,6 @@
 package org.tedros.server.ejb.controller;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,8 @@ import jakarta.persistence.OptimisticLockException;
 import org.tedros.server.controller.ITEjbController;
 import org.tedros.server.entity.ITEntity;
 import org.tedros.server.exception.TBusinessException;
+import org.tedros.server.query.TKeyset;
+import org.tedros.server.query.TKeysetPage;
 import org.tedros.server.query.TSelect;
 import org.tedros.server.result.TResult;
 import org.tedros.server.result.TResult.TState;
@@ -62,6 +65,26 @@ public abstract class TEjbController<E extends ITEntity> implements ITEjbControl
 	}
 	
 	
+	public TResult<Map<String, Object>> search(TSelect<E> sel, TKeyset keyset, int maxResult, boolean count){
+		try{
+			Map<String, Object> map = new HashMap<>();
+			if(count)
+				map.put("total", getService().countSearch(sel));
+			
+			TKeysetPage<E> page = getService().search(sel, keyset, maxResult);
+			processEntityList(page.getList());
+			
+			map.put("list", page.getList());
+			map.put("keyset", page.getNext());
+			
+			return new TResult<>(TState.SUCCESS, map);
+			
+		}catch(Exception e){
+			return processException(null, e);
+		}
+	}
+	
+	
 	public TResult<E> findById(E entity) {
 		try{
 			entity = getService().findById(entity);
@@ -115,6 +138,47 @@ public abstract class TEjbController<E extends ITEntity> implements ITEjbControl
 		}
 	}
 
+	/**
+	 * Saves the entities in a single transaction. 
+	 * If it fails nothing is saved and all results are errors 
+	 * with the failure message, the caller can save each entity 
+	 * alone to get the result of each one.
+	 * The save of the controller is not called, see {@link #saveEach(List)}.
+	 */
+	@Override
+	public List<TResult<E>> saveAll(List<E> entities) {
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		try{
+			for(E e : getService().saveAll(entities)) {
+				processEntity(e);
+				results.add(new TResult<E>(TState.SUCCESS, e));
+			}
+		}catch(Exception ex){
+			return TBatchResults.failed(entities, ex);
+		}
+		return results;
+	}
+
+	/**
+	 * Removes the entities in a single transaction. 
+	 * If it fails nothing is removed and all results are errors 
+	 * with the failure message, the caller can remove each entity 
+	 * alone to get the result of each one.
+	 * The remove of the controller is not called, see {@link #removeEach(List)}.
+	 */
+	@Override
+	public List<TResult<E>> removeAll(List<E> entities) {
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		try{
+			getService().removeAll(entities);
+			for(int i=0; i<entities.size(); i++)
+				results.add(new TResult<>(TState.SUCCESS));
+		}catch(Exception ex){
+			return TBatchResults.failed(entities, ex);
+		}
+		return results;
+	}
+
 	@Override
 	public TResult<List<E>> listAll(Class<? extends ITEntity> entity) {
 		
@@ -147,6 +211,26 @@ public abstract class TEjbController<E extends ITEntity> implements ITEjbControl
 		}
 	}
 
+	@Override
+	public TResult<Map<String, Object>> pageAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean count) {
+		try{
+			Map<String, Object> map = new HashMap<>();
+			if(count)
+				map.put("total", getService().countAll(entity.getClass()));
+			
+			TKeysetPage<E> page = getService().pageAll(entity, keyset, maxResult, orderByAsc);
+			processEntityList(page.getList());
+			
+			map.put("list", page.getList());
+			map.put("keyset", page.getNext());
+			
+			return new TResult<>(TState.SUCCESS, map);
+			
+		}catch(Exception e){
+			return processException(entity, e);
+		}
+	}
+
 	@Override
 	public TResult<Map<String, Object>> findAll(E entity, int firstResult, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords) {
 		try{
@@ -166,6 +250,58 @@ public abstract class TEjbController<E extends ITEntity> implements ITEjbControl
 		}
 	}
 	
+	@Override
+	public TResult<Map<String, Object>> findAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords, boolean count) {
+		try{
+			Map<String, Object> map = new HashMap<>();
+			if(count)
+				map.put("total", getService().countFindAll(entity, containsAnyKeyWords).longValue());
+			
+			TKeysetPage<E> page = getService().findAll(entity, keyset, maxResult, orderByAsc, containsAnyKeyWords);
+			processEntityList(page.getList());
+			
+			map.put("list", page.getList());
+			map.put("keyset", page.getNext());
+			
+			return new TResult<>(TState.SUCCESS, map);
+			
+		}catch(Exception e){
+			return processException(entity, e);
+		}
+	}
+	
+	/**
+	 * Saves each entity with {@link #save(ITEntity)} in its own 
+	 * transaction and returns the result of each one. 
+	 * A controller overriding save must override saveAll to call it, 
+	 * the batch of saveAll does not call the save of the controller.
+	 * 
+	 * @param entities the entities
+	 * @return the results
+	 */
+	protected List<TResult<E>> saveEach(List<E> entities) {
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		for(E e : entities)
+			results.add(save(e));
+		return results;
+	}
+	
+	/**
+	 * Removes each entity with {@link #remove(ITEntity)} in its own 
+	 * transaction and returns the result of each one. 
+	 * A controller overriding remove must override removeAll to call it, 
+	 * the batch of removeAll does not call the remove of the controller.
+	 * 
+	 * @param entities the entities
+	 * @return the results
+	 */
+	protected List<TResult<E>> removeEach(List<E> entities) {
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		for(E e : entities)
+			results.add(remove(e));
+		return results;
+	}
+	
 	@SuppressWarnings("unchecked")
 	protected <T> T processException(E entity, Throwable e) {
 		e.printStackTrace();
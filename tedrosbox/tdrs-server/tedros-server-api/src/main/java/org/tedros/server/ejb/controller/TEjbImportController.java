@@ -8,7 +8,11 @@ import jakarta.ejb.TransactionAttributeType;
 import org.tedros.server.controller.ITEjbImportController;
 import org.tedros.server.entity.ITEntity;
 import org.tedros.server.entity.ITFileEntity;
+import org.tedros.server.entity.ITUser;
 import org.tedros.server.model.ITImportModel;
+import org.tedros.server.result.TImportProgress;
+import org.tedros.server.result.TImportProgress.TImportState;
+import org.tedros.server.result.TImportSummary;
 import org.tedros.server.result.TResult;
 import org.tedros.server.result.TResult.TState;
 import org.tedros.server.security.ITSecurity;
@@ -51,7 +55,62 @@ public abstract class TEjbImportController<E extends ITEntity> implements ITEjbI
 			return new TResult<String>(TState.ERROR,true, e.getMessage());
 		}
 	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.SAVE})})
+	public TResult streamImport(TAccessToken token, ITFileEntity entity) {
+		try{
+			TImportSummary res = getService().streamImport(entity);
+			return new TResult<TImportSummary>(TState.SUCCESS, res);
+			
+		}catch(Exception e){
+			e.printStackTrace();
+			return new TResult<String>(TState.ERROR,true, e.getMessage());
+		}
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.SAVE})})
+	public TResult parallelImport(TAccessToken token, String importId, ITFileEntity entity) {
+		try{
+			Long owner = getOwner(token);
+			TImportSummary res = getService().parallelImport(owner, importId, entity);
+			TImportProgress p = getService().getImportProgress(owner, importId);
+			if(p!=null && p.getState()==TImportState.FAILED)
+				return new TResult<TImportSummary>(TState.ERROR, true, p.getMessage(), res);
+			return new TResult<TImportSummary>(TState.SUCCESS, res);
+			
+		}catch(Exception e){
+			e.printStackTrace();
+			return new TResult<String>(TState.ERROR,true, e.getMessage());
+		}
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.SAVE})})
+	public TResult getImportProgress(TAccessToken token, String importId) {
+		try{
+			TImportProgress res = getService().getImportProgress(getOwner(token), importId);
+			return new TResult<TImportProgress>(TState.SUCCESS, res);
+			
+		}catch(Exception e){
+			e.printStackTrace();
+			return new TResult<String>(TState.ERROR,true, e.getMessage());
+		}
+	}
 	
+	/**
+	 * @param token the access token
+	 * @return the id of the logged user, the parallel imports are bound to it
+	 */
+	protected Long getOwner(TAccessToken token) {
+		ITUser user = getSecurityController().getUser(token);
+		if(user==null)
+			throw new IllegalStateException("This operation can only be performed by a logged in user.");
+		return user.getId();
+	}
 	
-
 }
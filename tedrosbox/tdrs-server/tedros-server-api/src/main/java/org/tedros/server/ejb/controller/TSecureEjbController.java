@@ -1,5 +1,6 @@
 package org.tedros.server.ejb.controller;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +15,8 @@ import org.h2.jdbc.JdbcSQLIntegrityConstraintViolationException;
 import org.tedros.server.controller.ITSecureEjbController;
 import org.tedros.server.entity.ITEntity;
 import org.tedros.server.exception.TBusinessException;
+import org.tedros.server.query.TKeyset;
+import org.tedros.server.query.TKeysetPage;
 import org.tedros.server.query.TSelect;
 import org.tedros.server.result.TResult;
 import org.tedros.server.result.TResult.TState;
@@ -70,6 +73,27 @@ public abstract class TSecureEjbController<E extends ITEntity> implements ITSecu
 		}
 	}
 	
+	@TMethodSecurity({
+	@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ, TActionPolicie.SEARCH})})
+	public TResult<Map<String, Object>> search(TAccessToken token,TSelect<E> sel, TKeyset keyset, int maxResult, boolean count){
+		try{
+			Map<String, Object> map = new HashMap<>();
+			if(count)
+				map.put("total", getService().countSearch(sel));
+			
+			TKeysetPage<E> page = getService().search(sel, keyset, maxResult);
+			processEntityList(token, page.getList());
+			
+			map.put("list", page.getList());
+			map.put("keyset", page.getNext());
+			
+			return new TResult<>(TState.SUCCESS, map);
+			
+		}catch(Exception e){
+			return processException(token, null, e);
+		}
+	}
+	
 	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ})})
 	public TResult<E> findById(TAccessToken token, E entity) {
 		try{
@@ -130,6 +154,49 @@ public abstract class TSecureEjbController<E extends ITEntity> implements ITSecu
 		}
 	}
 
+	/**
+	 * Saves the entities in a single transaction. 
+	 * If it fails nothing is saved and all results are errors 
+	 * with the failure message, the caller can save each entity 
+	 * alone to get the result of each one.
+	 * The save of the controller is not called, see {@link #saveEach(TAccessToken, List)}.
+	 */
+	@Override
+	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.SAVE, TActionPolicie.NEW})})
+	public List<TResult<E>> saveAll(TAccessToken token, List<E> entities) {
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		try{
+			for(E e : getService().saveAll(entities)) {
+				processEntity(token, e);
+				results.add(new TResult<E>(TState.SUCCESS, e));
+			}
+		}catch(Exception ex){
+			return TBatchResults.failed(entities, ex);
+		}
+		return results;
+	}
+
+	/**
+	 * Removes the entities in a single transaction. 
+	 * If it fails nothing is removed and all results are errors 
+	 * with the failure message, the caller can remove each entity 
+	 * alone to get the result of each one.
+	 * The remove of the controller is not called, see {@link #removeEach(TAccessToken, List)}.
+	 */
+	@Override
+	@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.DELETE}, id = "")})
+	public List<TResult<E>> removeAll(TAccessToken token, List<E> entities) {
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		try{
+			getService().removeAll(entities);
+			for(int i=0; i<entities.size(); i++)
+				results.add(new TResult<E>(TState.SUCCESS));
+		}catch(Exception ex){
+			return TBatchResults.failed(entities, ex);
+		}
+		return results;
+	}
+
 	@Override
 	@TMethodSecurity({
 	@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ, TActionPolicie.SEARCH}, id = "")})
@@ -166,6 +233,28 @@ public abstract class TSecureEjbController<E extends ITEntity> implements ITSecu
 		}
 	}
 
+	@Override
+	@TMethodSecurity({
+	@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ, TActionPolicie.SEARCH}, id = "")})
+	public TResult<Map<String, Object>> pageAll(TAccessToken token, E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean count) {
+		try{
+			Map<String, Object> map = new HashMap<>();
+			if(count)
+				map.put("total", getService().countAll(entity.getClass()));
+			
+			TKeysetPage<E> page = getService().pageAll(entity, keyset, maxResult, orderByAsc);
+			processEntityList(token, page.getList());
+			
+			map.put("list", page.getList());
+			map.put("keyset", page.getNext());
+			
+			return new TResult<>(TState.SUCCESS, map);
+			
+		}catch(Exception e){
+			return processException(token, entity, e);
+		}
+	}
+
 	@Override
 	@TMethodSecurity({
 	@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ, TActionPolicie.SEARCH}, id = "")})
@@ -187,6 +276,62 @@ public abstract class TSecureEjbController<E extends ITEntity> implements ITSecu
 		}
 	}
 	
+	@Override
+	@TMethodSecurity({
+	@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.READ, TActionPolicie.SEARCH}, id = "")})
+	public TResult<Map<String, Object>> findAll(TAccessToken token, E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords, boolean count) {
+		try{
+			Map<String, Object> map = new HashMap<>();
+			if(count)
+				map.put("total", getService().countFindAll(entity, containsAnyKeyWords).longValue());
+			
+			TKeysetPage<E> page = getService().findAll(entity, keyset, maxResult, orderByAsc, containsAnyKeyWords);
+			processEntityList(token, page.getList());
+			
+			map.put("list", page.getList());
+			map.put("keyset", page.getNext());
+			
+			return new TResult<>(TState.SUCCESS, map);
+			
+		}catch(Exception e){
+			return processException(token, entity, e);
+		}
+	}
+	
+	/**
+	 * Saves each entity with {@link #save(TAccessToken, ITEntity)} in its own 
+	 * transaction and returns the result of each one. 
+	 * A controller overriding save must override saveAll to call it, 
+	 * the batch of saveAll does not call the save of the controller.
+	 * 
+	 * @param token the access token
+	 * @param entities the entities
+	 * @return the results
+	 */
+	protected List<TResult<E>> saveEach(TAccessToken token, List<E> entities) {
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		for(E e : entities)
+			results.add(save(token, e));
+		return results;
+	}
+	
+	/**
+	 * Removes each entity with {@link #remove(TAccessToken, ITEntity)} in its own 
+	 * transaction and returns the result of each one. 
+	 * A controller overriding remove must override removeAll to call it, 
+	 * the batch of removeAll does not call the remove of the controller.
+	 * 
+	 * @param token the access token
+	 * @param entities the entities
+	 * @return the results
+	 */
+	protected List<TResult<E>> removeEach(TAccessToken token, List<E> entities) {
+		List<TResult<E>> results = new ArrayList<>(entities.size());
+		for(E e : entities)
+			results.add(remove(token, e));
+		return results;
+	}
+	
 	@SuppressWarnings("unchecked")
 	protected <T> T processException(TAccessToken token, E entity, Throwable e) {
 		e.printStackTrace();
@@ -1,7 +1,12 @@
 package org.tedros.server.ejb.service;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
+import jakarta.annotation.Resource;
+import jakarta.ejb.AsyncResult;
+import jakarta.ejb.Asynchronous;
+import jakarta.ejb.SessionContext;
 import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
 
@@ -9,11 +14,26 @@ import org.tedros.server.cdi.bo.TImportFileEntityBO;
 import org.tedros.server.entity.ITEntity;
 import org.tedros.server.entity.ITFileEntity;
 import org.tedros.server.model.ITImportModel;
+import org.tedros.server.result.TImportProgress;
+import org.tedros.server.result.TImportSummary;
 import org.tedros.server.service.ITEjbImportService;
 
+/**
+ * The import service.
+ * <p>
+ * The checkpoints of the parallel imports are kept in the memory of 
+ * the node running the import, the progress is only found and a failed 
+ * import only resumed in that node, a cluster must route the import 
+ * calls of a client to the same node.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
 @TransactionAttribute(value = TransactionAttributeType.NOT_SUPPORTED)
 public abstract class TEjbImportService<E extends ITEntity> implements ITEjbImportService<E> {
 
+	@Resource
+	private SessionContext sessionContext;
 	
 	public abstract TImportFileEntityBO<E> getBusinessObject();
 
@@ -27,5 +47,43 @@ public abstract class TEjbImportService<E extends ITEntity> implements ITEjbImpo
 	public List<E> importFile(ITFileEntity entity) {
 		return getBusinessObject().importFile(entity);
 	}
+
+	@Override
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public TImportSummary streamImport(ITFileEntity entity) {
+		return getBusinessObject().streamImport(entity);
+	}
+
+	@Override
+	public TImportSummary parallelImport(Long owner, String importId, ITFileEntity entity) {
+		final ITEjbImportService<E> self = getSelf();
+		return getBusinessObject().parallelImport(owner, importId, entity, self::importChunk);
+	}
+
+	@Override
+	@Asynchronous
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRES_NEW)
+	public Future<TImportSummary> importChunk(String[] header, long[] rows, String[][] values) {
+		return new AsyncResult<>(getBusinessObject().importChunk(header, rows, values));
+	}
+
+	@Override
+	public TImportProgress getImportProgress(Long owner, String importId) {
+		return getBusinessObject().getImportProgress(owner, importId);
+	}
+	
+	/**
+	 * Returns the business view of this bean used by the caller, the 
+	 * no-interface view when injected by class, the chunks of the 
+	 * parallel import must be called through it to run asynchronously 
+	 * in their own transaction.
+	 * 
+	 * @return the business object of this bean
+	 */
+	@SuppressWarnings("unchecked")
+	protected ITEjbImportService<E> getSelf() {
+		return (ITEjbImportService<E>) sessionContext.getBusinessObject(
+				sessionContext.getInvokedBusinessInterface());
+	}
 	
 }
@@ -7,6 +7,8 @@ import jakarta.ejb.TransactionAttributeType;
 
 import org.tedros.server.cdi.bo.ITGenericBO;
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.query.TKeyset;
+import org.tedros.server.query.TKeysetPage;
 import org.tedros.server.query.TSelect;
 import org.tedros.server.service.ITEjbService;
 
@@ -30,6 +32,13 @@ public abstract class TEjbService<E extends ITEntity> implements ITEjbService<E>
 		return getBussinesObject().search(sel, firstResult, maxResult);
 	}
 	
+	/**
+	 * Search for entities using keyset pagination
+	 * */
+	public TKeysetPage<E> search(TSelect<E> sel, TKeyset keyset, int maxResult) {
+		return getBussinesObject().search(sel, keyset, maxResult);
+	}
+	
 	/**
 	 * Count Searched entities
 	 * */
@@ -61,6 +70,18 @@ public abstract class TEjbService<E extends ITEntity> implements ITEjbService<E>
 		getBussinesObject().remove(entidade);
 	}
 
+	@Override
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public List<E> saveAll(List<E> entidades) throws Exception {
+		return getBussinesObject().saveAll(entidades);
+	}
+
+	@Override
+	@TransactionAttribute(value = TransactionAttributeType.REQUIRED)
+	public void removeAll(List<E> entidades) throws Exception {
+		getBussinesObject().removeAll(entidades);
+	}
+
 	@Override
 	public List<E> listAll(Class<? extends ITEntity> entidade) throws Exception {
 		return getBussinesObject().listAll(entidade);
@@ -71,6 +92,11 @@ public abstract class TEjbService<E extends ITEntity> implements ITEjbService<E>
 		return getBussinesObject().pageAll(entidade, firstResult, maxResult, orderByAsc);
 	}
 
+	@Override
+	public TKeysetPage<E> pageAll(E entidade, TKeyset keyset, int maxResult, boolean orderByAsc) throws Exception {
+		return getBussinesObject().pageAll(entidade, keyset, maxResult, orderByAsc);
+	}
+
 	@Override
 	public Long countAll(Class<? extends ITEntity> entidade) throws Exception {
 		return getBussinesObject().countAll(entidade);
@@ -81,6 +107,11 @@ public abstract class TEjbService<E extends ITEntity> implements ITEjbService<E>
 		return getBussinesObject().findAll(entity, firstResult, maxResult, orderByAsc, containsAnyKeyWords);
 	}
 
+	@Override
+	public TKeysetPage<E> findAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords) throws Exception {
+		return getBussinesObject().findAll(entity, keyset, maxResult, orderByAsc, containsAnyKeyWords);
+	}
+
 	@Override
 	public Integer countFindAll(E entity, boolean containsAnyKeyWords) throws Exception {
 		return getBussinesObject().countFindAll(entity, containsAnyKeyWords);
@@ -0,0 +1,204 @@
+/**
+ * 
+ */
+package org.tedros.server.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.tedros.server.ejb.controller.ITSecurityController;
+import org.tedros.server.security.TAccessToken;
+import org.tedros.server.security.TBeanPolicie;
+import org.tedros.server.security.TBeanSecurity;
+import org.tedros.server.security.TMethodPolicie;
+import org.tedros.server.security.TMethodSecurity;
+
+/**
+ * The security plan of a bean method.
+ * <p>
+ * Holds what the {@link TSecurityInterceptor} needs to check an invocation, 
+ * the access token parameter index and the bean and method policies 
+ * with their actions already converted, it is compiled once per 
+ * bean class and method and kept in cache.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+final class TSecurityPlan {
+	
+	private static final Map<Class<?>, Map<Method, TSecurityPlan>> CACHE = new ConcurrentHashMap<>();
+
+	private final String beanName;
+	private final String methodName;
+	private final int tokenIndex;
+	private final TCheck[] beanChecks;
+	private final TCheck[] methodChecks;
+	private final String beanPoliciesMsg;
+	private final boolean secured;
+	
+	private TSecurityPlan(Class<?> beanClass, Method method) {
+		this.beanName = beanClass.getSimpleName();
+		this.methodName = method.getName();
+		
+		int idx = -1;
+		Class<?>[] types = method.getParameterTypes();
+		for(int i=0; i<types.length; i++)
+			if(TAccessToken.class.isAssignableFrom(types[i])) {
+				idx = i;
+				break;
+			}
+		this.tokenIndex = idx;
+		
+		List<TCheck> bean = new ArrayList<>();
+		TBeanSecurity ann = beanClass.getAnnotation(TBeanSecurity.class);
+		this.secured = ann!=null && ann.value().length>0;
+		if(ann!=null)
+			for(TBeanPolicie bp : ann.value())
+				if(!"".equals(bp.id().trim()))
+					bean.add(new TCheck(bp.id(), ArrayUtils.toStringArray(bp.policie())));
+		this.beanChecks = bean.toArray(new TCheck[0]);
+		this.beanPoliciesMsg = join(beanChecks, beanChecks.length);
+		
+		List<TCheck> meth = new ArrayList<>();
+		TMethodSecurity ann1 = method.getAnnotation(TMethodSecurity.class);
+		if(ann1!=null)
+			for(TMethodPolicie mp : ann1.value())
+				meth.add(new TCheck("".equals(mp.id().trim()) ? null : mp.id(), 
+						ArrayUtils.toStringArray(mp.policie())));
+		this.methodChecks = meth.toArray(new TCheck[0]);
+	}
+	
+	/**
+	 * Returns the plan of the bean method, compiling it on the first call
+	 * 
+	 * @param beanClass the bean class
+	 * @param method the invoked method
+	 * @return the plan
+	 */
+	static TSecurityPlan get(Class<?> beanClass, Method method) {
+		return CACHE.computeIfAbsent(beanClass, k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(method, m -> new TSecurityPlan(beanClass, m));
+	}
+	
+	/**
+	 * Removes all compiled plans
+	 */
+	static void clear() {
+		CACHE.clear();
+	}
+	
+	/**
+	 * @param params the invocation parameters
+	 * @return the access token or null
+	 */
+	TAccessToken getToken(Object[] params) {
+		if(params==null)
+			return null;
+		if(tokenIndex>=0)
+			return tokenIndex<params.length 
+					? (TAccessToken) params[tokenIndex]
+							: null;
+		// generic parameters
+		for(Object o : params)
+			if(o instanceof TAccessToken)
+				return (TAccessToken) o;
+		return null;
+	}
+	
+	/**
+	 * Checks the bean and the method policies
+	 * 
+	 * @param controller the security controller
+	 * @param token the access token
+	 * @return null if allowed or the policies the user must have
+	 */
+	String check(ITSecurityController controller, TAccessToken token) {
+		if(!secured)
+			return null;
+		
+		// the number of bean security ids that were evaluated
+		int secIds = -1;
+		for(int i=0; i<beanChecks.length; i++) {
+			TCheck c = beanChecks[i];
+			if(controller.isPolicieAllowed(token, c.id, c.actions)) {
+				secIds = i+1;
+				break;
+			}
+		}
+		if(secIds==-1)
+			return beanPoliciesMsg;
+		
+		if(methodChecks.length==0)
+			return null;
+		
+		boolean actionAllowed = false;
+		for(TCheck mc : methodChecks) {
+			if(mc.id!=null) {
+				if(controller.isPolicieAllowed(token, mc.id, mc.actions))
+					actionAllowed = true;
+			}else {
+				for(int i=0; i<secIds; i++)
+					if(controller.isPolicieAllowed(token, beanChecks[i].id, mc.actions)) {
+						actionAllowed = true;
+						break;
+					}
+			}
+		}
+		return actionAllowed 
+				? null
+						: buildMethodPoliciesMsg(secIds);
+	}
+	
+	private String buildMethodPoliciesMsg(int secIds) {
+		StringBuilder sb = new StringBuilder();
+		for(TCheck mc : methodChecks) {
+			if(mc.id!=null)
+				append(sb, mc.id, mc.actions);
+			else
+				for(int i=0; i<secIds; i++)
+					append(sb, beanChecks[i].id, mc.actions);
+		}
+		return sb.toString();
+	}
+	
+	private static String join(TCheck[] checks, int length) {
+		StringBuilder sb = new StringBuilder();
+		for(int i=0; i<length; i++)
+			append(sb, checks[i].id, checks[i].actions);
+		return sb.toString();
+	}
+	
+	private static void append(StringBuilder sb, String id, String[] actions) {
+		if(sb.length()>0)
+			sb.append("; ");
+		sb.append("SecurityID: ").append(id).append(", policie: ").append(ArrayUtils.toString(actions));
+	}
+
+	/**
+	 * @return the beanName
+	 */
+	String getBeanName() {
+		return beanName;
+	}
+
+	/**
+	 * @return the methodName
+	 */
+	String getMethodName() {
+		return methodName;
+	}
+	
+	private static final class TCheck {
+		private final String id;
+		private final String[] actions;
+		
+		private TCheck(String id, String[] actions) {
+			this.id = id;
+			this.actions = actions;
+		}
+	}
+}
@@ -0,0 +1,245 @@
+/**
+ *
+ */
+package org.tedros.server.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+
+/**
+ * A bounded pool of connected SMTP transports.
+ * <p>
+ * A connection is authenticated once and used to send many messages,
+ * it is closed and opened again after {@link #getMaxMessagesPerConnection()}
+ * messages, when idle for more than {@link #getIdleTimeout()} millis
+ * or when the send fails by a connection error, in this case the
+ * message is sent again with the new connection.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TSMTPTransportPool {
+
+	public static final int DEFAULT_MAX_CONNECTIONS = 4;
+	public static final int DEFAULT_MAX_MESSAGES_PER_CONNECTION = 100;
+	public static final long DEFAULT_IDLE_TIMEOUT = 60_000;
+	public static final long DEFAULT_BORROW_TIMEOUT = 60_000;
+
+	private final Session session;
+	private final int maxConnections;
+	private final int maxMessagesPerConnection;
+	private final long idleTimeout;
+
+	private final Semaphore permits;
+	private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<>();
+	private volatile boolean closed;
+
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong connections = new AtomicLong();
+	private final AtomicLong reconnects = new AtomicLong();
+	private final AtomicLong sendNanos = new AtomicLong();
+
+	public TSMTPTransportPool(Session session) {
+		this(session, DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_MESSAGES_PER_CONNECTION, DEFAULT_IDLE_TIMEOUT);
+	}
+
+	/**
+	 * @param session the mail session with the smtp properties and authenticator
+	 * @param maxConnections the max connections opened at the same time
+	 * @param maxMessagesPerConnection the messages sent before reopen the connection
+	 * @param idleTimeout the millis a connection can stay idle in the pool
+	 */
+	public TSMTPTransportPool(Session session, int maxConnections,
+			int maxMessagesPerConnection, long idleTimeout) {
+		if(maxConnections<1 || maxMessagesPerConnection<1)
+			throw new IllegalArgumentException("The max connections and max messages must be greater than zero");
+		this.session = session;
+		this.maxConnections = maxConnections;
+		this.maxMessagesPerConnection = maxMessagesPerConnection;
+		this.idleTimeout = idleTimeout;
+		this.permits = new Semaphore(maxConnections, true);
+	}
+
+	/**
+	 * Sends the message with a pooled connection
+	 */
+	public void send(Message message) throws MessagingException {
+		Connection c = borrow();
+		try {
+			send(c, message);
+		}finally {
+			release(c);
+		}
+	}
+
+	/**
+	 * Sends all messages using one connection,
+	 * a failed message does not stop the others.
+	 *
+	 * @return the errors by message index, empty if all were sent
+	 */
+	public Map<Integer, MessagingException> sendAll(List<? extends Message> messages) throws MessagingException {
+		Map<Integer, MessagingException> errors = new LinkedHashMap<>();
+		if(messages==null || messages.isEmpty())
+			return errors;
+		Connection c = borrow();
+		try {
+			for(int i=0; i<messages.size(); i++) {
+				try {
+					send(c, messages.get(i));
+				}catch(MessagingException e) {
+					errors.put(i, e);
+				}
+			}
+		}finally {
+			release(c);
+		}
+		return errors;
+	}
+
+	private void send(Connection c, Message message) throws MessagingException {
+		long start = System.nanoTime();
+		try {
+			message.saveChanges();
+			if(c.sent >= maxMessagesPerConnection)
+				c.close();
+			try {
+				c.connect();
+				c.transport.sendMessage(message, message.getAllRecipients());
+			}catch(MessagingException | IllegalStateException e) {
+				// recipients refused, the connection still valid
+				if(e instanceof SendFailedException && isRefused((SendFailedException) e))
+					throw e;
+				// connection lost, try again once with a new one
+				reconnects.incrementAndGet();
+				c.close();
+				c.connect();
+				c.transport.sendMessage(message, message.getAllRecipients());
+			}
+			c.sent++;
+			sent.incrementAndGet();
+		}catch(MessagingException e) {
+			failed.incrementAndGet();
+			throw e;
+		}finally {
+			sendNanos.addAndGet(System.nanoTime() - start);
+		}
+	}
+
+	private boolean isRefused(SendFailedException e) {
+		return e.getInvalidAddresses()!=null && e.getInvalidAddresses().length>0;
+	}
+
+	private Connection borrow() throws MessagingException {
+		if(closed)
+			throw new MessagingException("The SMTP transport pool is closed");
+		try {
+			if(!permits.tryAcquire(DEFAULT_BORROW_TIMEOUT, TimeUnit.MILLISECONDS))
+				throw new MessagingException("Timeout waiting for a SMTP connection");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted waiting for a SMTP connection", e);
+		}
+		Connection c;
+		long now = System.currentTimeMillis();
+		while((c = idle.pollFirst())!=null) {
+			if(now - c.lastUsed <= idleTimeout)
+				return c;
+			c.close();
+		}
+		return new Connection();
+	}
+
+	private void release(Connection c) {
+		try {
+			c.lastUsed = System.currentTimeMillis();
+			if(closed || c.sent >= maxMessagesPerConnection
+					|| c.transport==null || !c.transport.isConnected())
+				c.close();
+			else
+				idle.offerFirst(c);
+		}finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Closes the idle connections and refuses new sends,
+	 * the connections in use are closed when released.
+	 */
+	public void close() {
+		closed = true;
+		Connection c;
+		while((c = idle.pollFirst())!=null)
+			c.close();
+	}
+
+	/**
+	 * @return the sent, failed, connections opened, reconnects,
+	 * average send time in micros and messages sent per connection
+	 */
+	public Map<String, Long> getStatistics(){
+		long s = sent.get();
+		long f = failed.get();
+		long c = connections.get();
+		Map<String, Long> m = new LinkedHashMap<>();
+		m.put("sent", s);
+		m.put("failed", f);
+		m.put("connections", c);
+		m.put("reconnects", reconnects.get());
+		m.put("avgSendMicros", s+f==0 ? 0 : sendNanos.get() / (s+f) / 1000);
+		m.put("messagesPerConnection", c==0 ? 0 : s / c);
+		return m;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public int getMaxMessagesPerConnection() {
+		return maxMessagesPerConnection;
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	private class Connection {
+
+		private Transport transport;
+		private int sent;
+		private long lastUsed;
+
+		private void connect() throws MessagingException {
+			if(transport!=null && transport.isConnected())
+				return;
+			if(transport==null)
+				transport = session.getTransport();
+			transport.connect();
+			sent = 0;
+			connections.incrementAndGet();
+		}
+
+		private void close() {
+			if(transport!=null)
+				try {
+					transport.close();
+				} catch (MessagingException e) {
+					// already closed by the server
+				}
+			transport = null;
+		}
+	}
+}
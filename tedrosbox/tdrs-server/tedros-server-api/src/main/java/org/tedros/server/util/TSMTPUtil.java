@@ -1,6 +1,10 @@
 package org.tedros.server.util;
 
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import jakarta.activation.DataHandler;
@@ -12,7 +16,6 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.Multipart;
 import jakarta.mail.PasswordAuthentication;
 import jakarta.mail.Session;
-import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
@@ -26,6 +29,10 @@ public final class TSMTPUtil {
 	private final Properties props;
 	
 	private final Session session;
+	
+	private final TSMTPTransportPool pool;
+	
+	private final List<String> config;
 	/*
 	public static void main(String[] args) {
 		try {
@@ -41,10 +48,20 @@ public final class TSMTPUtil {
 	public static TSMTPUtil getInstance(String smtpHost, String smtpSocketPort, String smtpSocketClass, 
 			String smtpAuth, String smtpPort, String userName, String password){
 		
-		if(instance==null)
-			instance = new TSMTPUtil(smtpHost, smtpSocketPort, smtpSocketClass, smtpAuth, smtpPort, userName, password);
-		
-		return instance;
+		List<String> config = config(smtpHost, smtpSocketPort, smtpSocketClass, smtpAuth, smtpPort, userName, password);
+		synchronized(TSMTPUtil.class) {
+			if(instance==null || !instance.config.equals(config)) {
+				// the properties changed, the connections of the old server are closed
+				if(instance!=null)
+					instance.pool.close();
+				instance = new TSMTPUtil(smtpHost, smtpSocketPort, smtpSocketClass, smtpAuth, smtpPort, userName, password);
+			}
+			return instance;
+		}
+	}
+	
+	private static List<String> config(String... values) {
+		return Arrays.asList(values);
 	}
 	
 	private TSMTPUtil(String smtpHost, String smtpSocketPort, String smtpSocketClass, 
@@ -60,14 +77,15 @@ public final class TSMTPUtil {
 	    props.put("mail.transport.protocol", "smtp");
 	    props.put("mail.smtp.class", "com.sun.mail.smtp.SMTPTransport");
 	    // props.put("mail.smtp.ssl.enable", "true");
-	    session = Session.getDefaultInstance(props,
+	    config = config(smtpHost, smtpSocketPort, smtpSocketClass, smtpAuth, smtpPort, userName, password);
+	    session = Session.getInstance(props,
 	  	      new jakarta.mail.Authenticator() {
 	  	           protected PasswordAuthentication getPasswordAuthentication() 
 	  	           {
 	  	        	   return new PasswordAuthentication(userName, password);
 	  	           }
 	  	      });
-	  	    
+	    pool = new TSMTPTransportPool(session);
 	}
 	
 
@@ -76,35 +94,7 @@ public final class TSMTPUtil {
 		// enable/disable debug
 	    session.setDebug(debug);
 	    try {
-	    	Message message = new MimeMessage(session);
-	    	message.setFrom(new InternetAddress(from)); 
-	    	Address[] toUser = InternetAddress.parse(to); 
-	    	message.setRecipients(Message.RecipientType.TO, toUser);
-	    	message.setSubject(subject);
-	    	
-	    	BodyPart messageBodyPart = new MimeBodyPart(); 
-	    	
-	    	if(html)
-	    		messageBodyPart.setContent(content, "text/html; charset=utf-8");
-	    	else
-	    		messageBodyPart.setText(content);
-	    	
-	    	Multipart multipart = new MimeMultipart();
-	    	multipart.addBodyPart(messageBodyPart);
-	    	
-	    	if(attach!=null && attachFile!=null) {
-		    	ByteArrayDataSource bds = 
-		    			new ByteArrayDataSource(attach, mimeType);
-		    	bds.setName(attachFile);
-		    	MimeBodyPart attachmentPart = new MimeBodyPart();
-		    	attachmentPart.setDataHandler(new DataHandler(bds)); 
-		    	attachmentPart.setFileName(bds.getName()); 
-		    	multipart.addBodyPart(attachmentPart);
-	    	}
-	    	
-	    	message.setContent(multipart);
-	    	Transport.send(message);
-	    	
+	    	pool.send(createMessage(from, to, subject, content, html, attachFile, attach, mimeType));
 	    } catch (MessagingException e) {
 	    		throw new TSentEmailException(e);
 	    }
@@ -114,20 +104,74 @@ public final class TSMTPUtil {
 		// enable/disable debug
 	    session.setDebug(debug);
 	    try {
-	    	Message message = new MimeMessage(session);
-	    	message.setFrom(new InternetAddress(from)); 
-	    	Address[] toUser = InternetAddress.parse(to); 
-	    	message.setRecipients(Message.RecipientType.TO, toUser);
-	    	message.setSubject(subject);
-	    	
-	    	if(html)
-	    		message.setContent(content, "text/html; charset=utf-8");
-	    	else
-	    		message.setText(content);
-	    	
-	    	Transport.send(message);
+	    	pool.send(createMessage(from, to, subject, content, html, null, null, null));
 	    } catch (MessagingException e) {
 	    		throw new TSentEmailException(e);
 	    }
 	}
+	
+	/**
+	 * Sends the messages using one pooled connection.
+	 * 
+	 * @return the errors by message index, empty if all were sent
+	 * @throws TSentEmailException if no connection could be used
+	 */
+	public Map<Integer, TSentEmailException> sendAll(boolean debug, List<Message> messages) throws TSentEmailException {
+		session.setDebug(debug);
+		try {
+			Map<Integer, TSentEmailException> errors = new LinkedHashMap<>();
+			pool.sendAll(messages).forEach((i, e) -> errors.put(i, new TSentEmailException(e)));
+			return errors;
+		} catch (MessagingException e) {
+			throw new TSentEmailException(e);
+		}
+	}
+	
+	/**
+	 * Creates the message to send, the attachment is optional.
+	 */
+	public Message createMessage(String from, String to, String subject, String content, boolean html, 
+			String attachFile, byte[] attach, String mimeType) throws MessagingException {
+		Message message = new MimeMessage(session);
+		message.setFrom(new InternetAddress(from)); 
+		Address[] toUser = InternetAddress.parse(to); 
+		message.setRecipients(Message.RecipientType.TO, toUser);
+		message.setSubject(subject);
+		
+		if(attach==null || attachFile==null) {
+			if(html)
+				message.setContent(content, "text/html; charset=utf-8");
+			else
+				message.setText(content);
+			return message;
+		}
+		
+		BodyPart messageBodyPart = new MimeBodyPart(); 
+		
+		if(html)
+			messageBodyPart.setContent(content, "text/html; charset=utf-8");
+		else
+			messageBodyPart.setText(content);
+		
+		Multipart multipart = new MimeMultipart();
+		multipart.addBodyPart(messageBodyPart);
+		
+		ByteArrayDataSource bds = 
+				new ByteArrayDataSource(attach, mimeType);
+		bds.setName(attachFile);
+		MimeBodyPart attachmentPart = new MimeBodyPart();
+		attachmentPart.setDataHandler(new DataHandler(bds)); 
+		attachmentPart.setFileName(bds.getName()); 
+		multipart.addBodyPart(attachmentPart);
+		
+		message.setContent(multipart);
+		return message;
+	}
+	
+	/**
+	 * @return the statistics of the SMTP connections pool
+	 */
+	public Map<String, Long> getStatistics() {
+		return pool.getStatistics();
+	}
 }
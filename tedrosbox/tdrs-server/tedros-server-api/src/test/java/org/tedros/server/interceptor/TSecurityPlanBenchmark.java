@@ -0,0 +1,52 @@
+/**
+ * 
+ */
+package org.tedros.server.interceptor;
+
+import java.lang.reflect.Method;
+
+import org.tedros.server.interceptor.TSecurityPlanTest.Bean;
+import org.tedros.server.interceptor.TSecurityPlanTest.Context;
+import org.tedros.server.security.TAccessToken;
+
+/**
+ * Measures the {@link TSecurityInterceptor} overhead with and 
+ * without the plan cache, it is not run by the build.
+ * <p>
+ * Usage: TSecurityPlanBenchmark [iterations=200000]
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TSecurityPlanBenchmark {
+	
+	public static void main(String[] args) throws Exception {
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+		int warmup = Math.max(iterations / 10, 1);
+		
+		TSecurityInterceptor interceptor = new TSecurityInterceptor();
+		TAccessToken token = new TAccessToken("bench");
+		Method m = Bean.class.getMethod("save", TAccessToken.class, Object.class);
+		Context ctx = new Context(new Bean(true), m, new Object[] {token, "x"});
+		
+		run(interceptor, ctx, warmup, true);
+		run(interceptor, ctx, warmup, false);
+		long cold = run(interceptor, ctx, iterations, true);
+		long cached = run(interceptor, ctx, iterations, false);
+		TSecurityPlan.clear();
+		
+		System.out.println(String.format("TSecurityInterceptor: %d calls, "
+				+ "compiling the plan per call %d ns/op, cached plan %d ns/op", 
+				iterations, cold / iterations, cached / iterations));
+	}
+	
+	private static long run(TSecurityInterceptor interceptor, Context ctx, int iterations, boolean clear) throws Exception {
+		long start = System.nanoTime();
+		for(int i=0; i<iterations; i++) {
+			if(clear)
+				TSecurityPlan.clear();
+			interceptor.methodEntry(ctx);
+		}
+		return System.nanoTime() - start;
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * 
+ */
+package org.tedros.server.interceptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+import org.tedros.server.ejb.controller.ITSecurityController;
+import org.tedros.server.entity.ITUser;
+import org.tedros.server.security.ITSecurity;
+import org.tedros.server.security.TAccessPolicie;
+import org.tedros.server.security.TAccessToken;
+import org.tedros.server.security.TActionPolicie;
+import org.tedros.server.security.TBeanPolicie;
+import org.tedros.server.security.TBeanSecurity;
+import org.tedros.server.security.TMethodPolicie;
+import org.tedros.server.security.TMethodSecurity;
+
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Checks the security plan of the interceptor, 
+ * the overhead is measured by {@link TSecurityPlanBenchmark}.
+ * 
+ * @author Davis Gordon
+ *
+ */
+public class TSecurityPlanTest {
+
+	private final TSecurityInterceptor interceptor = new TSecurityInterceptor();
+	private final TAccessToken token = new TAccessToken("bench");
+	
+	@After
+	public void tearDown() {
+		TSecurityPlan.clear();
+	}
+	
+	@Test
+	public void testPlanIsCachedPerMethod() throws Exception {
+		Method m = Bean.class.getMethod("save", TAccessToken.class, Object.class);
+		TSecurityPlan p = TSecurityPlan.get(Bean.class, m);
+		assertSame(p, TSecurityPlan.get(Bean.class, m));
+		assertSame(token, p.getToken(new Object[] {token, "x"}));
+		assertNull(p.check(new Controller(true), token));
+	}
+	
+	@Test
+	public void testNotAllowedMessage() throws Exception {
+		Method m = Bean.class.getMethod("save", TAccessToken.class, Object.class);
+		try {
+			interceptor.methodEntry(new Context(new Bean(false), m, new Object[] {token, "x"}));
+			fail("Access must be denied");
+		}catch(Exception e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("SecurityID: BEAN_ID, policie: {APP_ACCESS}"));
+		}
+	}
+	
+	@Test
+	public void testCompiledAndCachedPlanProceed() throws Exception {
+		Method m = Bean.class.getMethod("save", TAccessToken.class, Object.class);
+		Context ctx = new Context(new Bean(true), m, new Object[] {token, "x"});
+		for(int i=0; i<3; i++) {
+			TSecurityPlan.clear();
+			interceptor.methodEntry(ctx);
+		}
+		for(int i=0; i<3; i++)
+			interceptor.methodEntry(ctx);
+		assertEquals(6, ctx.proceeded);
+	}
+	
+	@TBeanSecurity({@TBeanPolicie(id = "BEAN_ID", policie = {TAccessPolicie.APP_ACCESS})})
+	public static class Bean implements ITSecurity {
+		
+		private final Controller controller;
+		
+		public Bean(boolean allow) {
+			controller = new Controller(allow);
+		}
+		
+		@TMethodSecurity({@TMethodPolicie(policie = {TActionPolicie.EDIT, TActionPolicie.SAVE})})
+		public Object save(TAccessToken token, Object value) {
+			return value;
+		}
+
+		@Override
+		public ITSecurityController getSecurityController() {
+			return controller;
+		}
+	}
+	
+	static class Controller implements ITSecurityController {
+		
+		private final boolean allow;
+		
+		Controller(boolean allow) {
+			this.allow = allow;
+		}
+		
+		@Override
+		public ITUser getUser(TAccessToken token) {
+			return null;
+		}
+
+		@Override
+		public boolean isAccessGranted(TAccessToken token) {
+			return true;
+		}
+
+		@Override
+		public boolean isPolicieAllowed(TAccessToken token, String securityId, String... action) {
+			return allow;
+		}
+	}
+	
+	static class Context implements InvocationContext {
+		
+		private final Object target;
+		private final Method method;
+		private Object[] parameters;
+		long proceeded;
+		
+		Context(Object target, Method method, Object[] parameters) {
+			this.target = target;
+			this.method = method;
+			this.parameters = parameters;
+		}
+
+		@Override
+		public Object getTarget() {
+			return target;
+		}
+
+		@Override
+		public Object getTimer() {
+			return null;
+		}
+
+		@Override
+		public Method getMethod() {
+			return method;
+		}
+
+		@Override
+		public java.lang.reflect.Constructor<?> getConstructor() {
+			return null;
+		}
+
+		@Override
+		public Object[] getParameters() {
+			return parameters;
+		}
+
+		@Override
+		public void setParameters(Object[] params) {
+			this.parameters = params;
+		}
+
+		@Override
+		public Map<String, Object> getContextData() {
+			return null;
+		}
+
+		@Override
+		public Object proceed() throws Exception {
+			proceeded++;
+			return null;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/**
+ *
+ */
+package org.tedros.server.util;
+
+import static org.tedros.server.util.TSMTPTransportPoolTest.message;
+
+import org.tedros.server.util.TSMTPTransportPoolTest.SmtpServer;
+
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+
+/**
+ * Measures the SMTP throughput with a connection per message and with 
+ * the {@link TSMTPTransportPool} against a local SMTP server, 
+ * it is not run by the build.
+ * <p>
+ * Usage: TSMTPTransportPoolBenchmark [messages=500]
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TSMTPTransportPoolBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int messages = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		SmtpServer server = new SmtpServer();
+		try {
+			Session session = TSMTPTransportPoolTest.session(server);
+			
+			long start = System.nanoTime();
+			for(int i=0; i<messages; i++) {
+				Transport t = session.getTransport();
+				Message m = message(session, i);
+				m.saveChanges();
+				t.connect();
+				t.sendMessage(m, m.getAllRecipients());
+				t.close();
+			}
+			long single = System.nanoTime() - start;
+
+			TSMTPTransportPool pool = new TSMTPTransportPool(session);
+			start = System.nanoTime();
+			for(int i=0; i<messages; i++)
+				pool.send(message(session, i));
+			long pooled = System.nanoTime() - start;
+			pool.close();
+
+			System.out.println(String.format("SMTP %d messages (%d received): connection per message %d msg/s, pooled %d msg/s, %s",
+					messages, server.messages.get(), messages * 1_000_000_000L / single, messages * 1_000_000_000L / pooled,
+					pool.getStatistics()));
+		}finally {
+			server.close();
+		}
+	}
+}
@@ -0,0 +1,267 @@
+/**
+ *
+ */
+package org.tedros.server.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.SocketFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Checks the SMTP transport pool against a local SMTP server,
+ * the throughput is measured by {@link TSMTPTransportPoolBenchmark}.
+ *
+ * @author Davis Gordon
+ *
+ */
+public class TSMTPTransportPoolTest {
+
+	private SmtpServer server;
+	private Session session;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new SmtpServer();
+		session = session(server);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		server.close();
+	}
+
+	@Test
+	public void testConnectionReused() throws Exception {
+		TSMTPTransportPool pool = new TSMTPTransportPool(session, 2, 1000, 60_000);
+		for(int i=0; i<20; i++)
+			pool.send(message(i));
+		pool.close();
+		assertEquals(20, server.messages.get());
+		assertEquals(1, server.connections.get());
+		assertEquals(20L, (long) pool.getStatistics().get("sent"));
+	}
+
+	@Test
+	public void testConnectionsBounded() throws Exception {
+		TSMTPTransportPool pool = new TSMTPTransportPool(session, 3, 1000, 60_000);
+		ExecutorService exec = Executors.newFixedThreadPool(8);
+		List<Future<?>> l = new ArrayList<>();
+		for(int i=0; i<200; i++) {
+			final int n = i;
+			l.add(exec.submit(() -> {
+				pool.send(message(n));
+				return null;
+			}));
+		}
+		for(Future<?> f : l)
+			f.get();
+		exec.shutdown();
+		pool.close();
+		assertEquals(200, server.messages.get());
+		assertTrue(server.connections.get() <= 3);
+		assertTrue(server.maxOpen.get() <= 3);
+	}
+
+	@Test
+	public void testBatchRotatesConnection() throws Exception {
+		TSMTPTransportPool pool = new TSMTPTransportPool(session, 1, 10, 60_000);
+		List<Message> l = new ArrayList<>();
+		for(int i=0; i<25; i++)
+			l.add(message(i));
+		Map<Integer, MessagingException> errors = pool.sendAll(l);
+		pool.close();
+		assertTrue(errors.isEmpty());
+		assertEquals(25, server.messages.get());
+		assertEquals(3, server.connections.get());
+	}
+
+	@Test
+	public void testReconnectOnFailure() throws Exception {
+		TSMTPTransportPool pool = new TSMTPTransportPool(session, 1, 1000, 60_000);
+		pool.send(message(0));
+		// the server drops the connection after the next message command
+		server.dropNext = true;
+		pool.send(message(1));
+		pool.close();
+		assertEquals(2, server.messages.get());
+		assertEquals(2, server.connections.get());
+		assertEquals(1L, (long) pool.getStatistics().get("reconnects"));
+		assertEquals(0L, (long) pool.getStatistics().get("failed"));
+	}
+
+	private Message message(int i) throws MessagingException {
+		return message(session, i);
+	}
+
+	/**
+	 * @return a session to the local server
+	 */
+	static Session session(SmtpServer server) {
+		Properties props = new Properties();
+		props.put("mail.smtp.host", "localhost");
+		props.put("mail.smtp.port", String.valueOf(server.getPort()));
+		props.put("mail.transport.protocol", "smtp");
+		props.put("mail.smtp.socketFactory", new NoDelaySocketFactory());
+		return Session.getInstance(props);
+	}
+
+	static Message message(Session session, int i) throws MessagingException {
+		Message m = new MimeMessage(session);
+		m.setFrom(new InternetAddress("from@localhost"));
+		m.setRecipients(Message.RecipientType.TO, InternetAddress.parse("to@localhost"));
+		m.setSubject("Message "+i);
+		m.setText("Content "+i);
+		return m;
+	}
+
+	/**
+	 * Sends the small SMTP commands without wait the delayed ack
+	 */
+	private static class NoDelaySocketFactory extends SocketFactory {
+
+		@Override
+		public Socket createSocket() throws IOException {
+			Socket s = new Socket();
+			s.setTcpNoDelay(true);
+			return s;
+		}
+
+		@Override
+		public Socket createSocket(String host, int port) throws IOException {
+			return createSocket(InetAddress.getByName(host), port);
+		}
+
+		@Override
+		public Socket createSocket(InetAddress host, int port) throws IOException {
+			Socket s = createSocket();
+			s.connect(new InetSocketAddress(host, port));
+			return s;
+		}
+
+		@Override
+		public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+			return createSocket(InetAddress.getByName(host), port, localHost, localPort);
+		}
+
+		@Override
+		public Socket createSocket(InetAddress host, int port, InetAddress localHost, int localPort) throws IOException {
+			Socket s = createSocket();
+			s.bind(new InetSocketAddress(localHost, localPort));
+			s.connect(new InetSocketAddress(host, port));
+			return s;
+		}
+	}
+
+	/**
+	 * A minimal SMTP server counting the connections and messages
+	 */
+	static class SmtpServer implements Runnable {
+
+		private final ServerSocket socket;
+		private final ExecutorService exec = Executors.newCachedThreadPool();
+		private final AtomicInteger connections = new AtomicInteger();
+		final AtomicInteger messages = new AtomicInteger();
+		private final AtomicInteger open = new AtomicInteger();
+		private final AtomicInteger maxOpen = new AtomicInteger();
+		private volatile boolean dropNext;
+
+		SmtpServer() throws IOException {
+			socket = new ServerSocket(0);
+			exec.execute(this);
+		}
+
+		int getPort() {
+			return socket.getLocalPort();
+		}
+
+		@Override
+		public void run() {
+			while(!socket.isClosed()) {
+				try {
+					Socket s = socket.accept();
+					connections.incrementAndGet();
+					maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+					exec.execute(() -> handle(s));
+				} catch (IOException e) {
+					// closed
+				}
+			}
+		}
+
+		private void handle(Socket s) {
+			try(Socket c = s;
+				BufferedReader r = new BufferedReader(new InputStreamReader(c.getInputStream(), StandardCharsets.US_ASCII));
+				Writer w = new OutputStreamWriter(c.getOutputStream(), StandardCharsets.US_ASCII)){
+				reply(w, "220 localhost ESMTP");
+				String l;
+				while((l = r.readLine())!=null) {
+					String cmd = l.length()<4 ? l.toUpperCase() : l.substring(0, 4).toUpperCase();
+					if(cmd.equals("MAIL") && dropNext) {
+						dropNext = false;
+						return;
+					}
+					switch(cmd) {
+					case "EHLO":
+						reply(w, "250-localhost\r\n250 OK");
+						break;
+					case "DATA":
+						reply(w, "354 End data with <CR><LF>.<CR><LF>");
+						while((l = r.readLine())!=null && !l.equals("."));
+						messages.incrementAndGet();
+						reply(w, "250 OK");
+						break;
+					case "QUIT":
+						reply(w, "221 Bye");
+						return;
+					default:
+						reply(w, "250 OK");
+					}
+				}
+			} catch (IOException e) {
+				// client gone
+			} finally {
+				open.decrementAndGet();
+			}
+		}
+
+		private void reply(Writer w, String msg) throws IOException {
+			w.write(msg+"\r\n");
+			w.flush();
+		}
+
+		void close() throws IOException {
+			socket.close();
+			exec.shutdownNow();
+		}
+	}
+}
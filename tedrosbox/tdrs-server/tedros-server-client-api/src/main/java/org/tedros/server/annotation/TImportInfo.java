@@ -62,4 +62,51 @@ public @interface TImportInfo {
 	 * @default THeaderType.COLUMN_NAME
 	 * */
 	THeaderType header() default THeaderType.COLUMN_NAME;
+	
+	/**
+	 * <pre>
+	 * Import the file in streaming mode.
+	 * 
+	 * The rows are read one by one, XLSX files with the event (SAX) 
+	 * api and CSV files line by line, and persisted in batches of 
+	 * batchSize rows, the persistence context is flushed and cleared 
+	 * after each batch. 
+	 * The import returns a TImportSummary with the row counters and 
+	 * the rejected rows instead of the imported entities.
+	 * 
+	 * Use it to import large files. 
+	 * </pre>
+	 * @default false
+	 * */
+	boolean streaming() default false;
+	
+	/**
+	 * The number of rows persisted before flush and clear
+	 * the persistence context in the streaming mode.
+	 * @default 500
+	 * */
+	int batchSize() default 500;
+	
+	/**
+	 * <pre>
+	 * Import the file in parallel chunks.
+	 * 
+	 * The rows are read as in the streaming mode and split in chunks 
+	 * of batchSize rows, each chunk is converted and persisted 
+	 * in its own transaction, up to parallelism chunks at the same time.
+	 * The committed chunks are recorded in a checkpoint, importing the 
+	 * same file again with the same import id after a failure resumes 
+	 * from the chunks not committed.
+	 * The import returns a TImportSummary and the progress can be 
+	 * read while it runs.
+	 * </pre>
+	 * @default false
+	 * */
+	boolean parallel() default false;
+	
+	/**
+	 * The max chunks imported at the same time in the parallel mode.
+	 * @default 4
+	 * */
+	int parallelism() default 4;
 }
@@ -4,9 +4,19 @@ import java.util.List;
 import java.util.Map;
 
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.query.TKeyset;
 import org.tedros.server.query.TSelect;
 import org.tedros.server.result.TResult;
 
+/**
+ * The entity operations of a service.
+ * <p>
+ * The find and page operations read the entities with the fetch plan 
+ * of the entity and the search operations with the fetch plan of the select,
+ * the list views can read only the summary attributes and the detail
+ * views the whole entity, see {@link org.tedros.server.query.TFetchPlan}.
+ * </p>
+ */
 public interface ITEjbController<E extends ITEntity> extends ITBaseController {
 	/**
 	 * Search for entities
@@ -17,6 +27,14 @@ public interface ITEjbController<E extends ITEntity> extends ITBaseController {
 	 * Search for entities
 	 * */
 	TResult<Map<String, Object>> search(TSelect<E> sel, int firstResult, int maxResult);
+	
+	/**
+	 * Search for entities using keyset pagination.
+	 * The result map contains the list, the keyset to read 
+	 * the next page (null on the last page) and the total
+	 * when count is true.
+	 * */
+	TResult<Map<String, Object>> search(TSelect<E> sel, TKeyset keyset, int maxResult, boolean count);
 		
 	/**
 	 * Find an entity by id
@@ -43,6 +61,10 @@ public interface ITEjbController<E extends ITEntity> extends ITBaseController {
 	 * */
 	TResult<E> remove(E entidade);
 	
+	List<TResult<E>> saveAll(List<E> entidades);
+	
+	List<TResult<E>> removeAll(List<E> entidades);
+	
 	/**
 	 * Returns a list of all persisted entities
 	 * */
@@ -53,9 +75,19 @@ public interface ITEjbController<E extends ITEntity> extends ITBaseController {
 	 * */
 	TResult<Map<String, Object>> pageAll(E entidade, int firstResult, int maxResult, boolean orderByAsc);
 	
+	/**
+	 * Returns a keyset paginated list
+	 * */
+	TResult<Map<String, Object>> pageAll(E entidade, TKeyset keyset, int maxResult, boolean orderByAsc, boolean count);
+	
 	/**
 	 * Returns a paginated search
 	 * */
 	TResult<Map<String, Object>> findAll(E entity, int firstResult, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception;
+	
+	/**
+	 * Returns a keyset paginated search
+	 * */
+	TResult<Map<String, Object>> findAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords, boolean count)throws Exception;
 
 }
@@ -19,4 +19,25 @@ public interface ITEjbImportController<E extends ITEntity> {
 	@SuppressWarnings("rawtypes")
 	public TResult importFile(TAccessToken token, final ITFileEntity entity);
 	
+	/**
+	 * Importa o arquivo em modo streaming,
+	 * retorna o resumo da importacao (TImportSummary)
+	 * */
+	@SuppressWarnings("rawtypes")
+	public TResult streamImport(TAccessToken token, final ITFileEntity entity);
+	
+	/**
+	 * Importa o arquivo em blocos paralelos,
+	 * retorna o resumo da importacao (TImportSummary).
+	 * Use o mesmo importId para retomar uma importacao que falhou.
+	 * */
+	@SuppressWarnings("rawtypes")
+	public TResult parallelImport(TAccessToken token, String importId, final ITFileEntity entity);
+	
+	/**
+	 * Retorna o progresso (TImportProgress) da importacao paralela
+	 * */
+	@SuppressWarnings("rawtypes")
+	public TResult getImportProgress(TAccessToken token, String importId);
+	
 }
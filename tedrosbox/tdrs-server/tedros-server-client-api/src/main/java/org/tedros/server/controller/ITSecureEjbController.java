@@ -4,10 +4,20 @@ import java.util.List;
 import java.util.Map;
 
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.query.TKeyset;
 import org.tedros.server.query.TSelect;
 import org.tedros.server.result.TResult;
 import org.tedros.server.security.TAccessToken;
 
+/**
+ * The entity operations of a service.
+ * <p>
+ * The find and page operations read the entities with the fetch plan 
+ * of the entity and the search operations with the fetch plan of the select,
+ * the list views can read only the summary attributes and the detail
+ * views the whole entity, see {@link org.tedros.server.query.TFetchPlan}.
+ * </p>
+ */
 public interface ITSecureEjbController<E extends ITEntity> extends ITBaseController {
 	/**
 	 * Search for entities
@@ -19,6 +29,14 @@ public interface ITSecureEjbController<E extends ITEntity> extends ITBaseControl
 	 * */
 	TResult<Map<String, Object>> search(TAccessToken token, TSelect<E> sel, int firstResult, int maxResult);
 	
+	/**
+	 * Search for entities using keyset pagination.
+	 * The result map contains the list, the keyset to read 
+	 * the next page (null on the last page) and the total
+	 * when count is true.
+	 * */
+	TResult<Map<String, Object>> search(TAccessToken token, TSelect<E> sel, TKeyset keyset, int maxResult, boolean count);
+	
 	/**
 	 * Find an entity by id
 	 * */
@@ -44,6 +62,10 @@ public interface ITSecureEjbController<E extends ITEntity> extends ITBaseControl
 	 * */
 	TResult<E> remove(TAccessToken token, E entidade);
 	
+	List<TResult<E>> saveAll(TAccessToken token, List<E> entidades);
+	
+	List<TResult<E>> removeAll(TAccessToken token, List<E> entidades);
+	
 	/**
 	 * List all typed entities
 	 * */
@@ -54,9 +76,19 @@ public interface ITSecureEjbController<E extends ITEntity> extends ITBaseControl
 	 * */
 	TResult<Map<String, Object>> pageAll(TAccessToken token, E entidade, int firstResult, int maxResult, boolean orderByAsc);
 	
+	/**
+	 * Paginate all typed entity using keyset pagination
+	 * */
+	TResult<Map<String, Object>> pageAll(TAccessToken token, E entidade, TKeyset keyset, int maxResult, boolean orderByAsc, boolean count);
+	
 	/**
 	 * Find and page the result
 	 * */
 	TResult<Map<String, Object>> findAll(TAccessToken token, E entity, int firstResult, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception;
+	
+	/**
+	 * Find and page the result using keyset pagination
+	 * */
+	TResult<Map<String, Object>> findAll(TAccessToken token, E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords, boolean count)throws Exception;
 
 }
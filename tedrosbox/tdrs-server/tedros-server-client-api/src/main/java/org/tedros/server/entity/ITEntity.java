@@ -28,4 +28,20 @@ public interface ITEntity extends ITModel, Serializable{
 	
 	public void setOrderBy(List<String> orders);
 	
+	/**
+	 * The fetch plan to read the entities, 
+	 * null to read with the mapping.
+	 * 
+	 * @see org.tedros.server.query.TFetchPlan
+	 * */
+	default String getFetchPlan() {
+		return null;
+	}
+	
+	/**
+	 * Ignored by the entities without fetch plans.
+	 * */
+	default void setFetchPlan(String fetchPlan) {
+	}
+	
 }
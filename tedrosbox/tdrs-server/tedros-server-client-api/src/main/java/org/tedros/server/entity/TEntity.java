@@ -50,6 +50,10 @@ public  class TEntity implements ITEntity {
 	@JsonIgnore
 	private List<String> orderBy;
 	
+	@Transient
+	@JsonIgnore
+	private String fetchPlan;
+	
 	public TEntity() {
 		addOrderBy("id");
 	}
@@ -109,6 +113,16 @@ public  class TEntity implements ITEntity {
 		this.orderBy = orders;
 	}
 
+	@Override
+	public String getFetchPlan() {
+		return fetchPlan;
+	}
+
+	@Override
+	public void setFetchPlan(String fetchPlan) {
+		this.fetchPlan = fetchPlan;
+	}
+
 	/* (non-Javadoc)
 	 * @see java.lang.Object#hashCode()
 	 */
@@ -0,0 +1,39 @@
+/**
+ *
+ */
+package org.tedros.server.query;
+
+/**
+ * The fetch plans to read the entities.
+ * <p>
+ * A fetch plan is a named entity graph declared in the entity
+ * with the name <code>&lt;entity name&gt;.&lt;plan&gt;</code>, ex:
+ * <pre>
+ * &#64;NamedEntityGraph(name="TUser."+TFetchPlan.SUMMARY,
+ * 	attributeNodes={&#64;NamedAttributeNode("name"), &#64;NamedAttributeNode("login")})
+ * </pre>
+ * The plan is set in the example entity of the find and page
+ * operations or in the {@link TSelect}. Only the graph attributes,
+ * the id and the version are read, an entity without the plan graph
+ * is read with its mapping.
+ * </p>
+ * <p>
+ * The entities read with a plan are returned with the plan set
+ * and cannot be saved, the missing relations would be removed,
+ * find the entity by id without a plan to edit it.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public final class TFetchPlan {
+
+	/**
+	 * The attributes shown in the list views,
+	 * without the collections and the files.
+	 */
+	public static final String SUMMARY = "summary";
+
+	private TFetchPlan() {
+	}
+
+}
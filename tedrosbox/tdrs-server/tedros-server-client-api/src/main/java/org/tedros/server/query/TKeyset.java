@@ -0,0 +1,83 @@
+/**
+ * 
+ */
+package org.tedros.server.query;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The cursor of a keyset (seek) pagination.
+ * <p>
+ * It holds the sort key values of the last row read, 
+ * the next page is read with a where clause that starts after 
+ * these values instead of skipping rows with an offset.
+ * The client must treat it as opaque, just send back 
+ * the keyset returned by the previous page.
+ * A null keyset reads the first page.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TKeyset implements Serializable {
+
+	private static final long serialVersionUID = -4529175213664092018L;
+	
+	private String[] fields;
+	private boolean asc;
+	private Object[] values;
+	private long start;
+	
+	/**
+	 * @param fields the sort fields, the last one is the id
+	 * @param asc the sort direction
+	 * @param values the values of the last row read
+	 * @param start the number of rows already read
+	 */
+	public TKeyset(String[] fields, boolean asc, Object[] values, long start) {
+		this.fields = fields;
+		this.asc = asc;
+		this.values = values;
+		this.start = start;
+	}
+
+	/**
+	 * Checks if this keyset was created for the same sort
+	 * 
+	 * @param fields the sort fields
+	 * @param asc the sort direction
+	 * @return true if the sort is the same
+	 */
+	public boolean isSameSort(String[] fields, boolean asc) {
+		return this.asc==asc && Arrays.equals(this.fields, fields);
+	}
+
+	/**
+	 * @return the sort fields
+	 */
+	public String[] getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return the sort direction
+	 */
+	public boolean isAsc() {
+		return asc;
+	}
+
+	/**
+	 * @return the values of the last row read
+	 */
+	public Object[] getValues() {
+		return values;
+	}
+
+	/**
+	 * @return the number of rows already read
+	 */
+	public long getStart() {
+		return start;
+	}
+	
+}
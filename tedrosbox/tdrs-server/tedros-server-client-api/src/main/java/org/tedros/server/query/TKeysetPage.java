@@ -0,0 +1,47 @@
+/**
+ * 
+ */
+package org.tedros.server.query;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.tedros.server.entity.ITEntity;
+
+/**
+ * A page read with keyset pagination
+ * 
+ * @author Davis Gordon
+ *
+ */
+public class TKeysetPage<E extends ITEntity> implements Serializable {
+
+	private static final long serialVersionUID = 2180432870046377451L;
+	
+	private List<E> list;
+	private TKeyset next;
+	
+	/**
+	 * @param list the entities
+	 * @param next the keyset to read the next page or null if this is the last page
+	 */
+	public TKeysetPage(List<E> list, TKeyset next) {
+		this.list = list;
+		this.next = next;
+	}
+
+	/**
+	 * @return the entities
+	 */
+	public List<E> getList() {
+		return list;
+	}
+
+	/**
+	 * @return the keyset to read the next page or null if this is the last page
+	 */
+	public TKeyset getNext() {
+		return next;
+	}
+
+}
@@ -25,6 +25,7 @@ public class TSelect<E extends ITEntity>  implements Serializable{
 	private List<TBlock> conditions;
 	private List<TField> ordenations;
 	private boolean asc = true;
+	private String fetchPlan;
 	/**
 	 * @param type
 	 */
@@ -142,5 +143,23 @@ public class TSelect<E extends ITEntity>  implements Serializable{
 	public void setAsc(boolean asc) {
 		this.asc = asc;
 	}
+
+	/**
+	 * @return the fetch plan
+	 */
+	public String getFetchPlan() {
+		return fetchPlan;
+	}
+
+	/**
+	 * The fetch plan to read the selected entities, 
+	 * null to read with the mapping.
+	 * 
+	 * @param fetchPlan the fetch plan to set
+	 * @see TFetchPlan
+	 */
+	public void setFetchPlan(String fetchPlan) {
+		this.fetchPlan = fetchPlan;
+	}
 	
 }
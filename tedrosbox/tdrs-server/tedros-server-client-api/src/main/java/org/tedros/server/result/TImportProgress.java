@@ -0,0 +1,140 @@
+/**
+ * 
+ */
+package org.tedros.server.result;
+
+import java.io.Serializable;
+
+/**
+ * The progress of a parallel file import.
+ * 
+ * @author Davis Gordon
+ *
+ */
+public class TImportProgress implements Serializable {
+
+	private static final long serialVersionUID = 3460128476420367721L;
+
+	/**
+	 * The import state
+	 */
+	public enum TImportState {
+		RUNNING, DONE, FAILED;
+	}
+	
+	private String importId;
+	private TImportState state;
+	private long readRows;
+	private long importedRows;
+	private long rejectedRows;
+	private int committedChunks;
+	private int failedChunks;
+	private long elapsedTime;
+	private String message;
+	
+	public TImportProgress() {
+	}
+
+	/**
+	 * @param importId the import identifier
+	 * @param state the import state
+	 * @param readRows the rows read from the file
+	 * @param importedRows the rows committed
+	 * @param rejectedRows the rows rejected in the committed chunks
+	 * @param committedChunks the committed chunks
+	 * @param failedChunks the chunks rolled back
+	 * @param elapsedTime the time in milliseconds since the import started
+	 * @param message the failure message
+	 */
+	public TImportProgress(String importId, TImportState state, long readRows, long importedRows, 
+			long rejectedRows, int committedChunks, int failedChunks, long elapsedTime, String message) {
+		this.importId = importId;
+		this.state = state;
+		this.readRows = readRows;
+		this.importedRows = importedRows;
+		this.rejectedRows = rejectedRows;
+		this.committedChunks = committedChunks;
+		this.failedChunks = failedChunks;
+		this.elapsedTime = elapsedTime;
+		this.message = message;
+	}
+	
+	/**
+	 * @return the committed rows, imported and rejected, per second
+	 */
+	public long getRowsPerSecond() {
+		return elapsedTime>0 
+				? (importedRows + rejectedRows) * 1000 / elapsedTime
+						: 0;
+	}
+
+	/**
+	 * @return the importId
+	 */
+	public String getImportId() {
+		return importId;
+	}
+
+	/**
+	 * @return the state
+	 */
+	public TImportState getState() {
+		return state;
+	}
+
+	/**
+	 * @return the readRows
+	 */
+	public long getReadRows() {
+		return readRows;
+	}
+
+	/**
+	 * @return the importedRows
+	 */
+	public long getImportedRows() {
+		return importedRows;
+	}
+
+	/**
+	 * @return the rejectedRows
+	 */
+	public long getRejectedRows() {
+		return rejectedRows;
+	}
+
+	/**
+	 * @return the committedChunks
+	 */
+	public int getCommittedChunks() {
+		return committedChunks;
+	}
+
+	/**
+	 * @return the failedChunks
+	 */
+	public int getFailedChunks() {
+		return failedChunks;
+	}
+
+	/**
+	 * @return the elapsedTime
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	/**
+	 * @return the message
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return "TImportProgress [importId=" + importId + ", state=" + state + ", readRows=" + readRows
+				+ ", importedRows=" + importedRows + ", rejectedRows=" + rejectedRows + ", committedChunks="
+				+ committedChunks + ", failedChunks=" + failedChunks + ", elapsedTime=" + elapsedTime + "]";
+	}
+}
@@ -0,0 +1,170 @@
+/**
+ * 
+ */
+package org.tedros.server.result;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The summary of a file import.
+ * <p>
+ * Returned by the streaming import instead of the imported entities, 
+ * it holds the row counters and the report of the rejected rows, 
+ * the report keeps at most {@link #MAX_REJECTED_ROWS} rows.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TImportSummary implements Serializable {
+
+	private static final long serialVersionUID = -2281440920795917446L;
+	
+	/**
+	 * The max rejected rows kept in the report
+	 */
+	public static final int MAX_REJECTED_ROWS = 1000;
+
+	private long totalRows;
+	private long importedRows;
+	private long rejectedRows;
+	private long elapsedTime;
+	private List<TRejectedRow> rejected = new ArrayList<>();
+	
+	public TImportSummary() {
+	}
+	
+	/**
+	 * Counts an imported row
+	 */
+	public void imported() {
+		totalRows++;
+		importedRows++;
+	}
+	
+	/**
+	 * Counts imported rows
+	 * @param rows the imported rows
+	 */
+	public void imported(long rows) {
+		totalRows += rows;
+		importedRows += rows;
+	}
+	
+	/**
+	 * Counts a rejected row and adds it to the report
+	 * @param row the file row number
+	 * @param message the reason
+	 */
+	public void rejected(long row, String message) {
+		totalRows++;
+		rejectedRows++;
+		if(rejected.size()<MAX_REJECTED_ROWS)
+			rejected.add(new TRejectedRow(row, message));
+	}
+	
+	/**
+	 * Adds the counters and the rejected rows of other summary
+	 * @param other the summary to add
+	 */
+	public void add(TImportSummary other) {
+		totalRows += other.totalRows;
+		importedRows += other.importedRows;
+		rejectedRows += other.rejectedRows;
+		for(TRejectedRow r : other.rejected)
+			if(rejected.size()<MAX_REJECTED_ROWS)
+				rejected.add(r);
+	}
+	
+	/**
+	 * @return the number of rows read, header excluded
+	 */
+	public long getTotalRows() {
+		return totalRows;
+	}
+
+	/**
+	 * @return the number of persisted rows
+	 */
+	public long getImportedRows() {
+		return importedRows;
+	}
+
+	/**
+	 * @return the number of rejected rows
+	 */
+	public long getRejectedRows() {
+		return rejectedRows;
+	}
+
+	/**
+	 * @return the import time in milliseconds
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	/**
+	 * @param elapsedTime the import time in milliseconds
+	 */
+	public void setElapsedTime(long elapsedTime) {
+		this.elapsedTime = elapsedTime;
+	}
+
+	/**
+	 * @return the rejected rows report
+	 */
+	public List<TRejectedRow> getRejected() {
+		return Collections.unmodifiableList(rejected);
+	}
+	
+	/**
+	 * @return true if the report does not contain all rejected rows
+	 */
+	public boolean isRejectedTruncated() {
+		return rejectedRows>rejected.size();
+	}
+
+	@Override
+	public String toString() {
+		return "TImportSummary [totalRows=" + totalRows + ", importedRows=" + importedRows + ", rejectedRows="
+				+ rejectedRows + ", elapsedTime=" + elapsedTime + "]";
+	}
+
+	/**
+	 * A rejected row
+	 */
+	public static class TRejectedRow implements Serializable {
+		
+		private static final long serialVersionUID = 6119503245785402640L;
+		
+		private long row;
+		private String message;
+		
+		public TRejectedRow(long row, String message) {
+			this.row = row;
+			this.message = message;
+		}
+
+		/**
+		 * @return the file row number, starting at 0
+		 */
+		public long getRow() {
+			return row;
+		}
+
+		/**
+		 * @return the reason
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String toString() {
+			return "Row " + row + ": " + message;
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package org.tedros.server.service;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 import org.tedros.server.entity.ITEntity;
 import org.tedros.server.entity.ITFileEntity;
 import org.tedros.server.model.ITImportModel;
+import org.tedros.server.result.TImportProgress;
+import org.tedros.server.result.TImportSummary;
 
 public interface ITEjbImportService<E extends ITEntity> {
 	
@@ -17,4 +20,39 @@ public interface ITEjbImportService<E extends ITEntity> {
 	 * Importa o arquivo
 	 * */
 	public List<E> importFile(final ITFileEntity entity);
+	
+	/**
+	 * Importa o arquivo em modo streaming, 
+	 * retorna o resumo da importacao
+	 * */
+	public TImportSummary streamImport(final ITFileEntity entity);
+	
+	/**
+	 * Importa o arquivo em blocos paralelos, cada bloco 
+	 * em sua propria transacao, retorna o resumo da importacao.
+	 * Importar o mesmo arquivo com o mesmo importId apos uma 
+	 * falha retoma a partir dos blocos nao gravados.
+	 * A importacao fica vinculada ao usuario que a iniciou e 
+	 * o checkpoint fica na memoria do servidor que a executou.
+	 * 
+	 * @param owner o id do usuario que inicia a importacao
+	 * */
+	public TImportSummary parallelImport(Long owner, String importId, final ITFileEntity entity);
+	
+	/**
+	 * Converte e grava um bloco de linhas em uma nova transacao, 
+	 * usado pela importacao paralela.
+	 * 
+	 * @param header a primeira linha do arquivo ou null se nao houver cabecalho
+	 * @param rows o numero das linhas
+	 * @param values os valores das linhas
+	 * */
+	public Future<TImportSummary> importChunk(String[] header, long[] rows, String[][] values);
+	
+	/**
+	 * Retorna o progresso da importacao paralela iniciada pelo usuario
+	 * 
+	 * @param owner o id do usuario que iniciou a importacao
+	 * */
+	public TImportProgress getImportProgress(Long owner, String importId);
 }
@@ -3,6 +3,8 @@ package org.tedros.server.service;
 import java.util.List;
 
 import org.tedros.server.entity.ITEntity;
+import org.tedros.server.query.TKeyset;
+import org.tedros.server.query.TKeysetPage;
 import org.tedros.server.query.TSelect;
 
 public interface ITEjbService<E extends ITEntity> {
@@ -17,6 +19,11 @@ public interface ITEjbService<E extends ITEntity> {
 	 * */
 	List<E> search(TSelect<E> sel, int firstResult, int maxResult);
 	
+	/**
+	 * Search for entities using keyset pagination
+	 * */
+	TKeysetPage<E> search(TSelect<E> sel, TKeyset keyset, int maxResult);
+	
 	/**
 	 * Count a searched entities
 	 * */
@@ -45,6 +52,14 @@ public interface ITEjbService<E extends ITEntity> {
 	 * Remove/delete an entity
 	 * */
 	void remove(E entidade)throws Exception;
+	/**
+	 * Save the entities in a single transaction
+	 * */
+	List<E> saveAll(List<E> entidades)throws Exception;
+	/**
+	 * Remove/delete the entities in a single transaction
+	 * */
+	void removeAll(List<E> entidades)throws Exception;
 	
 	/**
 	 * List all typed entities
@@ -56,10 +71,20 @@ public interface ITEjbService<E extends ITEntity> {
 	 * */
 	List<E> pageAll(E entidade, int firstResult, int maxResult, boolean orderByAsc)throws Exception;
 	
+	/**
+	 * Paginate all typed entity using keyset pagination
+	 * */
+	TKeysetPage<E> pageAll(E entidade, TKeyset keyset, int maxResult, boolean orderByAsc)throws Exception;
+	
 	/**
 	 * Find and page the result
 	 * */
 	List<E> findAll(E entity, int firstResult, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception;
+	
+	/**
+	 * Find and page the result using keyset pagination
+	 * */
+	TKeysetPage<E> findAll(E entity, TKeyset keyset, int maxResult, boolean orderByAsc, boolean containsAnyKeyWords)throws Exception;
 
 	/**
 	 * Return the total entities found in find all
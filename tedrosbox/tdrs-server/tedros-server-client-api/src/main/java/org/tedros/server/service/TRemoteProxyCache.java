@@ -0,0 +1,324 @@
+/**
+ *
+ */
+package org.tedros.server.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+
+/**
+ * Keeps a long-lived remote {@link InitialContext} and caches the
+ * resolved remote proxies per jndi name.
+ * <p>
+ * The cached proxies are wrapped to watch the remote invocations,
+ * when an invocation fails because the server is unreachable or the
+ * bean is gone the context and all cached proxies are discarded and
+ * the next lookup resolves them again. The invocation itself is never
+ * retried, the failure is thrown to the caller as before.
+ * </p>
+ * <p>
+ * Changing the provider url discards the context and the proxies.
+ * The remote beans are stateless so the proxies are shared between threads.
+ * </p>
+ * @author Davis Gordon
+ *
+ */
+public class TRemoteProxyCache {
+
+	/**
+	 * The openejb remote context factory
+	 */
+	public static final String OPENEJB_CONTEXT_FACTORY = "org.apache.openejb.client.RemoteInitialContextFactory";
+
+	/**
+	 * The transport failures of the remote clients, by class name
+	 * to not depend on the client libraries
+	 */
+	private static final Set<String> TRANSPORT_FAILURES = Set.of(
+			"org.apache.openejb.client.ConnectionException",
+			"java.rmi.ConnectException",
+			"java.rmi.ConnectIOException",
+			"java.rmi.NoSuchObjectException",
+			"jakarta.ejb.NoSuchEJBException",
+			"javax.ejb.NoSuchEJBException");
+
+	private final String contextFactory;
+	private final Map<String, Object> proxies = new ConcurrentHashMap<>();
+
+	private volatile InitialContext ctx;
+	private volatile String providerUrl;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder connectionFailures = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+	/**
+	 * Creates a cache for the openejb remote context
+	 */
+	public TRemoteProxyCache() {
+		this(OPENEJB_CONTEXT_FACTORY);
+	}
+
+	/**
+	 * @param contextFactory the java.naming.factory.initial class name
+	 */
+	public TRemoteProxyCache(String contextFactory) {
+		this.contextFactory = contextFactory;
+	}
+
+	/**
+	 * Sets the provider url, if it differs from the current one
+	 * the context and the cached proxies are discarded.
+	 *
+	 * @param url the java.naming.provider.url
+	 */
+	public synchronized void setProviderUrl(String url) {
+		if(url!=null && url.equals(providerUrl))
+			return;
+		invalidate();
+		providerUrl = url;
+	}
+
+	/**
+	 * @return the current provider url
+	 */
+	public String getProviderUrl() {
+		return providerUrl;
+	}
+
+	/**
+	 * Returns the cached proxy for the jndi name or resolves it.
+	 * If the resolution fails the context is recreated and the
+	 * lookup is tried once more.
+	 *
+	 * @param jndi the jndi name
+	 * @return the remote proxy
+	 * @throws NamingException if the name can not be resolved
+	 */
+	@SuppressWarnings("unchecked")
+	public <E> E lookup(String jndi) throws NamingException {
+		long start = System.nanoTime();
+		try {
+			Object p = proxies.get(jndi);
+			if(p!=null) {
+				hits.increment();
+				return (E) p;
+			}
+			misses.increment();
+			try {
+				p = resolve(jndi);
+			}catch(NamingException e) {
+				invalidate();
+				p = resolve(jndi);
+			}
+			Object prev = proxies.putIfAbsent(jndi, p);
+			return (E) (prev!=null ? prev : p);
+		}finally {
+			long t = System.nanoTime() - start;
+			totalNanos.add(t);
+			maxNanos.accumulate(t);
+		}
+	}
+
+	/**
+	 * Discards the cached proxy of the jndi name
+	 *
+	 * @param jndi the jndi name
+	 */
+	public void evict(String jndi) {
+		proxies.remove(jndi);
+	}
+
+	/**
+	 * Closes the context and discards all cached proxies
+	 */
+	public synchronized void invalidate() {
+		proxies.clear();
+		if(ctx!=null) {
+			try {
+				ctx.close();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+			ctx = null;
+		}
+	}
+
+	private Object resolve(String jndi) throws NamingException {
+		try {
+			return wrap(getContext().lookup(jndi));
+		}catch(NamingException e) {
+			failures.increment();
+			throw e;
+		}
+	}
+
+	private InitialContext getContext() throws NamingException {
+		InitialContext c = ctx;
+		if(c==null) {
+			synchronized (this) {
+				c = ctx;
+				if(c==null) {
+					Properties p = new Properties();
+					p.put("java.naming.factory.initial", contextFactory);
+					if(providerUrl!=null)
+						p.put("java.naming.provider.url", providerUrl);
+					ctx = c = new InitialContext(p);
+				}
+			}
+		}
+		return c;
+	}
+
+	private Object wrap(Object target) {
+		if(target==null)
+			return null;
+		Set<Class<?>> ifaces = new LinkedHashSet<>();
+		for(Class<?> c = target.getClass(); c!=null; c = c.getSuperclass())
+			for(Class<?> i : c.getInterfaces())
+				if(Modifier.isPublic(i.getModifiers()))
+					ifaces.add(i);
+		if(ifaces.isEmpty())
+			return target;
+		try {
+			return Proxy.newProxyInstance(target.getClass().getClassLoader(),
+					ifaces.toArray(new Class<?>[0]), new THealthHandler(target));
+		}catch(IllegalArgumentException e) {
+			// interfaces not visible from the proxy class loader
+			return target;
+		}
+	}
+
+	/**
+	 * Only the failures to reach the server or the bean discard the cache,
+	 * the other exceptions, even the IOExceptions thrown by the remote 
+	 * business methods, are application failures.
+	 */
+	private static boolean isConnectionFailure(Throwable e) {
+		for(Throwable t = e; t!=null; t = (t.getCause()==t ? null : t.getCause())) {
+			if(t instanceof SocketException || t instanceof SocketTimeoutException
+					|| t instanceof UnknownHostException
+					|| TRANSPORT_FAILURES.contains(t.getClass().getName()))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of lookups
+	 */
+	public long getLookups() {
+		return hits.sum() + misses.sum();
+	}
+
+	/**
+	 * @return the number of lookups served by the cache
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups resolved by the context
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of failed resolutions
+	 */
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	/**
+	 * @return the number of remote invocations failed by connection
+	 */
+	public long getConnectionFailures() {
+		return connectionFailures.sum();
+	}
+
+	/**
+	 * @return the average lookup latency in nanoseconds
+	 */
+	public long getAverageLookupNanos() {
+		long n = getLookups();
+		return n==0 ? 0 : totalNanos.sum() / n;
+	}
+
+	/**
+	 * @return the max lookup latency in nanoseconds
+	 */
+	public long getMaxLookupNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * @return the number of cached proxies
+	 */
+	public int getCachedCount() {
+		return proxies.size();
+	}
+
+	/**
+	 * Resets the metrics
+	 */
+	public void resetMetrics() {
+		hits.reset();
+		misses.reset();
+		failures.reset();
+		connectionFailures.reset();
+		totalNanos.reset();
+		maxNanos.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "lookups=" + getLookups() + ", hits=" + getHits() + ", misses=" + getMisses()
+			+ ", failures=" + getFailures() + ", connectionFailures=" + getConnectionFailures()
+			+ ", avgNanos=" + getAverageLookupNanos() + ", maxNanos=" + getMaxLookupNanos();
+	}
+
+	private class THealthHandler implements InvocationHandler {
+
+		private final Object target;
+
+		THealthHandler(Object target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			}catch(InvocationTargetException e) {
+				Throwable t = e.getCause();
+				if(isConnectionFailure(t)) {
+					connectionFailures.increment();
+					invalidate();
+				}
+				throw t;
+			}
+		}
+	}
+}
@@ -4,14 +4,16 @@
 package org.tedros.server.service;
 
 import java.text.MessageFormat;
-import java.util.Properties;
 
-import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
 import org.apache.commons.lang3.StringUtils;
 
 /**
+ * Remote service locator for headless clients.
+ * All instances share the same context and proxy cache,
+ * see {@link TRemoteProxyCache}.
+ * 
  * @author Davis Gordon
  *
  */
@@ -19,19 +21,13 @@ public class TServiceLocator {
 	
 	private static TServiceLocator locator;
 	
-	private InitialContext ctx;
+	private static final TRemoteProxyCache CACHE = new TRemoteProxyCache();
 	
 	public static String URL = "http://{0}:8081/tomee/ejb";
 	public static String IP = "127.0.0.1";
 	
-	private Properties getProp(){
-		
-		String serviceURL = MessageFormat.format(URL, IP);
-		
-		Properties P = new Properties();
-		P.put("java.naming.factory.initial", "org.apache.openejb.client.RemoteInitialContextFactory");
-		P.put("java.naming.provider.url", serviceURL); 
-		return P;
+	private static String getProviderUrl(){
+		return MessageFormat.format(URL, IP);
 	}
 	
 	private TServiceLocator(){
@@ -52,18 +48,32 @@ public class TServiceLocator {
 		return locator;
 	}
 	
-	@SuppressWarnings("unchecked")
 	public <E> E lookup(String jndi) throws NamingException{
-		ctx = new InitialContext(getProp());
-		return (E) ctx.lookup(jndi);
+		// URL and IP are public, a change discards the cached proxies
+		CACHE.setProviderUrl(getProviderUrl());
+		return CACHE.lookup(jndi);
 	}
 	
+	/**
+	 * The context is shared and kept open, 
+	 * use {@link #invalidate()} to close it. 
+	 */
 	public void close(){
-		try {
-			ctx.close();
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		
+	}
+	
+	/**
+	 * Closes the shared context and discards the cached proxies
+	 */
+	public void invalidate(){
+		CACHE.invalidate();
+	}
+	
+	/**
+	 * @return the shared proxy cache with the lookup metrics
+	 */
+	public TRemoteProxyCache getCache(){
+		return CACHE;
 	}
 	
 	public <E> E lookupWithRetry(String jndi) {